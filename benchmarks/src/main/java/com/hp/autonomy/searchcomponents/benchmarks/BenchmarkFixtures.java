@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks;
+
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+
+/**
+ * Access to the recorded backend responses under /fixtures, so benchmarks can run without a live server.
+ */
+public final class BenchmarkFixtures {
+    private static final String FIXTURES_PATH = "/fixtures/";
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * @param name the file name of the fixture
+     * @return the raw bytes of the fixture
+     */
+    public static byte[] getBytes(final String name) {
+        try {
+            return Resources.toByteArray(Resources.getResource(BenchmarkFixtures.class, FIXTURES_PATH + name));
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not read fixture " + name, e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.hod;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.joda.JodaModule;
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.searchcomponents.benchmarks.BenchmarkFixtures;
+import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldType;
+import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
+import com.hp.autonomy.searchcomponents.hod.configuration.HodSearchCapable;
+import com.hp.autonomy.searchcomponents.hod.configuration.QueryManipulationConfig;
+import com.hp.autonomy.searchcomponents.hod.search.HodSearchResult;
+import com.hp.autonomy.searchcomponents.hod.search.fields.HodSearchResultDeserializer;
+import com.hp.autonomy.types.requests.Documents;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deserializing a recorded HOD Query Text Index response into {@link HodSearchResult}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HodSearchResultDeserializerBenchmark {
+    private static final String QUERY_RESPONSE_FIXTURE = "hod-query-response.json";
+
+    private ObjectMapper objectMapper;
+    private JavaType documentsType;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() {
+        final FieldsInfo fieldsInfo = new FieldsInfo.Builder()
+                .populateResponseMap("author", new FieldInfo<String>("author", Collections.singletonList("author"), FieldType.STRING))
+                .populateResponseMap("category", new FieldInfo<String>("category", Collections.singletonList("category"), FieldType.STRING))
+                .populateResponseMap("modifiedDate", new FieldInfo<DateTime>("modifiedDate", Arrays.asList("modified_date", "date_modified"), FieldType.DATE))
+                .populateResponseMap("wordCount", new FieldInfo<Number>("wordCount", Collections.singletonList("word_count"), FieldType.NUMBER))
+                .populateResponseMap("links", new FieldInfo<String>("links", Collections.singletonList("links"), FieldType.STRING))
+                .build();
+
+        final HodSearchCapable config = new HodSearchCapable() {
+            @Override
+            public QueryManipulationConfig getQueryManipulation() {
+                return null;
+            }
+
+            @Override
+            public FieldsInfo getFieldsInfo() {
+                return fieldsInfo;
+            }
+        };
+
+        final ConfigService<HodSearchCapable> configService = new ConfigService<HodSearchCapable>() {
+            @Override
+            public HodSearchCapable getConfig() {
+                return config;
+            }
+        };
+
+        final SimpleModule customModule = new SimpleModule();
+        customModule.addDeserializer(HodSearchResult.class, new HodSearchResultDeserializer(configService));
+
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(customModule);
+        objectMapper.registerModule(new JodaModule());
+
+        documentsType = objectMapper.getTypeFactory().constructParametrizedType(Documents.class, Documents.class, HodSearchResult.class);
+        responseBytes = BenchmarkFixtures.getBytes(QUERY_RESPONSE_FIXTURE);
+    }
+
+    @Benchmark
+    public Documents<HodSearchResult> deserialize() throws IOException {
+        return objectMapper.readValue(responseBytes, documentsType);
+    }
+}
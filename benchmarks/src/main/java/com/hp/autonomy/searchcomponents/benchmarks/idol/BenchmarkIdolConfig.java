@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.idol;
+
+import com.autonomy.aci.client.transport.AciServerDetails;
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldType;
+import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.configuration.QueryManipulation;
+import com.hp.autonomy.searchcomponents.idol.view.configuration.ViewConfig;
+import org.joda.time.DateTime;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Fixed IDOL configuration whose field mappings match the fields in the recorded Query response.
+ */
+public class BenchmarkIdolConfig implements IdolSearchCapable {
+    private final FieldsInfo fieldsInfo = new FieldsInfo.Builder()
+            .populateResponseMap("author", new FieldInfo<String>("author", Collections.singletonList("AUTHOR"), FieldType.STRING))
+            .populateResponseMap("category", new FieldInfo<String>("category", Collections.singletonList("CATEGORY"), FieldType.STRING))
+            .populateResponseMap("modifiedDate", new FieldInfo<DateTime>("modifiedDate", Arrays.asList("MODIFIED_DATE", "DATE_MODIFIED"), FieldType.DATE))
+            .populateResponseMap("wordCount", new FieldInfo<Number>("wordCount", Collections.singletonList("WORD_COUNT"), FieldType.NUMBER))
+            .populateResponseMap("price", new FieldInfo<Number>("price", Collections.singletonList("PRICE"), FieldType.NUMBER))
+            .populateResponseMap("reviewed", new FieldInfo<Boolean>("reviewed", Collections.singletonList("REVIEWED"), FieldType.BOOLEAN))
+            .populateResponseMap("source", new FieldInfo<String>("source", Collections.singletonList("SOURCE"), FieldType.STRING))
+            .build();
+
+    private final QueryManipulation queryManipulation = new QueryManipulation.Builder()
+            .setBlacklist("ISO_BLACKLIST")
+            .setExpandQuery(true)
+            .build();
+
+    public static ConfigService<IdolSearchCapable> configService() {
+        final IdolSearchCapable config = new BenchmarkIdolConfig();
+
+        return new ConfigService<IdolSearchCapable>() {
+            @Override
+            public IdolSearchCapable getConfig() {
+                return config;
+            }
+        };
+    }
+
+    @Override
+    public FieldsInfo getFieldsInfo() {
+        return fieldsInfo;
+    }
+
+    @Override
+    public AciServerDetails getContentAciServerDetails() {
+        return null;
+    }
+
+    @Override
+    public QueryManipulation getQueryManipulation() {
+        return queryManipulation;
+    }
+
+    @Override
+    public ViewConfig getViewConfig() {
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.idol;
+
+import com.hp.autonomy.searchcomponents.idol.search.IdolSearchResult;
+import com.hp.autonomy.searchcomponents.idol.search.fields.FieldsParser;
+import com.hp.autonomy.searchcomponents.idol.search.fields.FieldsParserImpl;
+import com.hp.autonomy.types.idol.Hit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping the document content of every hit in a recorded Query response onto the configured fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FieldsParserBenchmark {
+    private FieldsParser fieldsParser;
+    private List<Hit> hits;
+
+    @Setup
+    public void setUp() {
+        fieldsParser = new FieldsParserImpl(BenchmarkIdolConfig.configService());
+        hits = IdolBenchmarkComponents.queryResponseData().getHits();
+    }
+
+    @Benchmark
+    public void parseDocumentFields(final Blackhole blackhole) {
+        for (final Hit hit : hits) {
+            final IdolSearchResult.Builder builder = new IdolSearchResult.Builder();
+            fieldsParser.parseDocumentFields(hit, builder);
+            blackhole.consume(builder.build());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.idol;
+
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.transport.AciResponseInputStream;
+import com.autonomy.aci.client.transport.AciServerDetails;
+
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+
+/**
+ * {@link AciService} which answers every action with the same recorded response, so that the full processing path of
+ * a service can be measured without the network.
+ */
+public class FixtureAciService implements AciService {
+    private static final int HTTP_OK = 200;
+    private static final String CONTENT_TYPE = "application/xml; charset=UTF-8";
+
+    private final byte[] response;
+
+    public FixtureAciService(final byte[] response) {
+        this.response = response;
+    }
+
+    @Override
+    public <T> T executeAction(final Set<? extends AciParameter> parameters, final Processor<T> processor) {
+        return processor.process(new FixtureResponseInputStream(response));
+    }
+
+    @Override
+    public <T> T executeAction(final AciServerDetails serverDetails, final Set<? extends AciParameter> parameters, final Processor<T> processor) {
+        return executeAction(parameters, processor);
+    }
+
+    static class FixtureResponseInputStream extends AciResponseInputStream {
+        private final int contentLength;
+
+        FixtureResponseInputStream(final byte[] response) {
+            super(new ByteArrayInputStream(response));
+            contentLength = response.length;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return HTTP_OK;
+        }
+
+        @Override
+        public String getHeader(final String name) {
+            return null;
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return "UTF-8";
+        }
+
+        @Override
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public String getContentType() {
+            return CONTENT_TYPE;
+        }
+    }
+}
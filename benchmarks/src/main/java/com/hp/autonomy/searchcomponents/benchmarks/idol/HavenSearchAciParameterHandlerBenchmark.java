@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.idol;
+
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
+import com.hp.autonomy.types.requests.idol.actions.query.QueryActions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the restriction parameters sent with every Query and GetQueryTagValues action, and the output
+ * parameters, including the escaped security info, sent with every Query. Run with {@code -prof gc} to compare the
+ * per-request allocation of the parameter handler between revisions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HavenSearchAciParameterHandlerBenchmark {
+    private HavenSearchAciParameterHandler parameterHandler;
+    private QueryRestrictions<String> queryRestrictions;
+    private SearchRequest<String> searchRequest;
+
+    @Setup
+    public void setUp() {
+        parameterHandler = IdolBenchmarkComponents.parameterHandler(BenchmarkIdolConfig.configService());
+        queryRestrictions = IdolBenchmarkComponents.queryRestrictions();
+        searchRequest = new SearchRequest.Builder<String>()
+                .setQueryRestrictions(queryRestrictions)
+                .build();
+    }
+
+    @Benchmark
+    public AciParameters addSearchRestrictions() {
+        final AciParameters aciParameters = new AciParameters(QueryActions.Query.name());
+        parameterHandler.addSearchRestrictions(aciParameters, queryRestrictions);
+        return aciParameters;
+    }
+
+    @Benchmark
+    public AciParameters addSearchOutputParameters() {
+        final AciParameters aciParameters = new AciParameters(QueryActions.Query.name());
+        parameterHandler.addSearchOutputParameters(aciParameters, searchRequest);
+        return aciParameters;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.idol;
+
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.frontend.configuration.authentication.CommunityPrincipal;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.benchmarks.BenchmarkFixtures;
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
+import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandlerImpl;
+import com.hp.autonomy.searchcomponents.idol.search.IdolQueryRestrictions;
+import com.hp.autonomy.searchcomponents.idol.search.fields.IdolDocumentFieldsService;
+import com.hp.autonomy.types.idol.QueryResponseData;
+import org.joda.time.DateTime;
+import org.springframework.security.core.Authentication;
+
+import java.util.Arrays;
+
+/**
+ * Factory methods for the IDOL components and inputs shared by the benchmarks.
+ */
+public final class IdolBenchmarkComponents {
+    public static final String QUERY_RESPONSE_FIXTURE = "idol-query-response.xml";
+    public static final String GET_QUERY_TAG_VALUES_RESPONSE_FIXTURE = "idol-get-query-tag-values-response.xml";
+
+    // Security info strings are long and contain characters which must be escaped
+    private static final String SECURITY_INFO = "MTIzNDU2Nzg5MGFiY2RlZmdoaWprbG1ub3BxcnN0dXZ3eHl6QUJDREVGR0hJSktMTU5PUFFSU1RVVldYWVo=|" +
+            "user:benchmark|groups:everyone,readers,writers,admins|expires:1454499720 0 1 #domain/ntlm";
+
+    private IdolBenchmarkComponents() {}
+
+    public static HavenSearchAciParameterHandler parameterHandler(final ConfigService<? extends IdolSearchCapable> configService) {
+        final CommunityPrincipal principal = new CommunityPrincipal(1L, "benchmark", SECURITY_INFO);
+
+        final AuthenticationInformationRetriever<Authentication, CommunityPrincipal> authenticationInformationRetriever = new AuthenticationInformationRetriever<Authentication, CommunityPrincipal>() {
+            @Override
+            public Authentication getAuthentication() {
+                return null;
+            }
+
+            @Override
+            public CommunityPrincipal getPrincipal() {
+                return principal;
+            }
+        };
+
+        return new HavenSearchAciParameterHandlerImpl(configService, new IdolDocumentFieldsService(configService), authenticationInformationRetriever);
+    }
+
+    public static QueryRestrictions<String> queryRestrictions() {
+        return new IdolQueryRestrictions.Builder()
+                .setQueryText("cats AND (dogs OR \"small animals\")")
+                .setFieldText("MATCH{ANIMALS}:CATEGORY AND NRANGE{100,5000}:WORD_COUNT")
+                .setDatabases(Arrays.asList("Wookiepedia", "WikiEnglish", "News"))
+                .setMinDate(new DateTime(2016, 1, 1, 0, 0))
+                .setMaxDate(new DateTime(2016, 12, 31, 23, 59))
+                .setMinScore(10)
+                .setLanguageType("englishUTF8")
+                .setStateMatchId(Arrays.asList("LVSUAOLKDKZW-1", "LVSUAOLKDKZW-2"))
+                .build();
+    }
+
+    /**
+     * Parses the recorded Query response with the JAXB processor used by the document service.
+     */
+    public static QueryResponseData queryResponseData() {
+        final FixtureAciService aciService = new FixtureAciService(BenchmarkFixtures.getBytes(QUERY_RESPONSE_FIXTURE));
+        return aciService.executeAction(null, new AciResponseJaxbProcessorFactory().createAciResponseProcessor(QueryResponseData.class));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.idol;
+
+import com.google.common.collect.ImmutableMap;
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.benchmarks.BenchmarkFixtures;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AdaptiveBucketSizeEvaluatorFactoryImpl;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.BucketingParams;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.parametricvalues.IdolParametricRequest;
+import com.hp.autonomy.searchcomponents.idol.parametricvalues.IdolParametricValuesService;
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures numeric bucketing: generating the ranges for two fields with known bounds, building the GetQueryTagValues
+ * action and turning the recorded range counts into {@link RangeInfo}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IdolParametricValuesServiceBenchmark {
+    private IdolParametricValuesService parametricValuesService;
+    private IdolParametricRequest parametricRequest;
+    private Map<String, BucketingParams> bucketingParamsPerField;
+
+    @Setup
+    public void setUp() {
+        final ConfigService<IdolSearchCapable> configService = BenchmarkIdolConfig.configService();
+        final FixtureAciService aciService = new FixtureAciService(BenchmarkFixtures.getBytes(IdolBenchmarkComponents.GET_QUERY_TAG_VALUES_RESPONSE_FIXTURE));
+
+        // The fields service is only used when no field names are requested
+        parametricValuesService = new IdolParametricValuesService(
+                IdolBenchmarkComponents.parameterHandler(configService),
+                null,
+                aciService,
+                new AciResponseJaxbProcessorFactory(),
+                new AdaptiveBucketSizeEvaluatorFactoryImpl()
+        );
+
+        parametricRequest = new IdolParametricRequest.Builder()
+                .setFieldNames(Arrays.asList("PRICE", "WORD_COUNT"))
+                .setQueryRestrictions(IdolBenchmarkComponents.queryRestrictions())
+                .build();
+
+        bucketingParamsPerField = ImmutableMap.of(
+                "PRICE", new BucketingParams(20, 0.0, 1000.0),
+                "WORD_COUNT", new BucketingParams(25, 0.0, 5000.0)
+        );
+    }
+
+    @Benchmark
+    public List<RangeInfo> getNumericParametricValuesInBuckets() {
+        return parametricValuesService.getNumericParametricValuesInBuckets(parametricRequest, bucketingParamsPerField);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.benchmarks.idol;
+
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.benchmarks.BenchmarkFixtures;
+import com.hp.autonomy.searchcomponents.core.search.AciSearchRequest;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.search.IdolQueryResponse;
+import com.hp.autonomy.searchcomponents.idol.search.IdolSearchResult;
+import com.hp.autonomy.searchcomponents.idol.search.QueryResponseParserImpl;
+import com.hp.autonomy.searchcomponents.idol.search.StreamingQueryResponseParser;
+import com.hp.autonomy.searchcomponents.idol.search.fields.FieldsParserImpl;
+import com.hp.autonomy.types.idol.QueryResponseData;
+import com.hp.autonomy.types.requests.Documents;
+import com.hp.autonomy.types.requests.idol.actions.query.QueryActions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning a recorded Query response into search results, both from already unmarshalled JAXB data and end to
+ * end from the response bytes using either the JAXB processor or the streaming query response processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class QueryResponseParserBenchmark {
+    private StreamingQueryResponseParser queryResponseParser;
+    private AciSearchRequest<String> searchRequest;
+    private byte[] responseBytes;
+    private QueryResponseData responseData;
+    private Processor<QueryResponseData> queryResponseProcessor;
+
+    @Setup
+    public void setUp() {
+        final ConfigService<IdolSearchCapable> configService = BenchmarkIdolConfig.configService();
+        // The databases service is only consulted when IDOL warns about missing databases, which the fixture does not
+        queryResponseParser = new QueryResponseParserImpl(new FieldsParserImpl(configService), null);
+
+        searchRequest = new SearchRequest.Builder<String>()
+                .setQueryRestrictions(IdolBenchmarkComponents.queryRestrictions())
+                .build();
+
+        responseBytes = BenchmarkFixtures.getBytes(IdolBenchmarkComponents.QUERY_RESPONSE_FIXTURE);
+        responseData = IdolBenchmarkComponents.queryResponseData();
+        queryResponseProcessor = new AciResponseJaxbProcessorFactory().createAciResponseProcessor(QueryResponseData.class);
+    }
+
+    @Benchmark
+    public Documents<IdolSearchResult> parseQueryResults() {
+        return queryResponseParser.parseQueryResults(searchRequest, new AciParameters(QueryActions.Query.name()), responseData, null);
+    }
+
+    @Benchmark
+    public Documents<IdolSearchResult> processAndParseQueryResults() {
+        final QueryResponseData data = queryResponseProcessor.process(new FixtureAciService.FixtureResponseInputStream(responseBytes));
+        return queryResponseParser.parseQueryResults(searchRequest, new AciParameters(QueryActions.Query.name()), data, null);
+    }
+
+    @Benchmark
+    public Documents<IdolSearchResult> streamQueryResults() {
+        final IdolQueryResponse response = queryResponseParser.getQueryResponseProcessor().process(new FixtureAciService.FixtureResponseInputStream(responseBytes));
+        return queryResponseParser.parseQueryResponse(searchRequest, new AciParameters(QueryActions.Query.name()), response, null);
+    }
+}
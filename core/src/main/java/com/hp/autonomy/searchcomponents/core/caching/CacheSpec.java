@@ -0,0 +1,22 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Limits applied to the near cache for a single cache name. Entries expire the given number of seconds after they were
+ * written, and the least recently used entries are evicted once the total weight of the cache exceeds maximumWeight.
+ */
+@Data
+public class CacheSpec implements Serializable {
+    private static final long serialVersionUID = 4617353474233094382L;
+
+    private final long ttlSeconds;
+    private final long maximumWeight;
+}
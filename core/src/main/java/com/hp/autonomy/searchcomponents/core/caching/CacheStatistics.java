@@ -0,0 +1,26 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of the activity of a {@link TwoTierCache}. Hits are lookups answered by the near cache, second tier hits
+ * are lookups which missed the near cache but were answered by the second tier, and misses are lookups answered by
+ * neither. Evictions count entries removed from the near cache by expiry or because it was full.
+ */
+@Data
+public class CacheStatistics implements Serializable {
+    private static final long serialVersionUID = -2047722946574735640L;
+
+    private final long hitCount;
+    private final long secondTierHitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+}
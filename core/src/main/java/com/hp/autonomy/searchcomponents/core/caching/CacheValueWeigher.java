@@ -0,0 +1,28 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import com.google.common.cache.Weigher;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs near cache entries by the number of elements they hold, so that a cache of parametric values or fields is
+ * bounded by the number of values rather than the number of queries. Values which are not collections or maps weigh 1.
+ */
+public class CacheValueWeigher implements Weigher<Object, Object> {
+    @Override
+    public int weigh(final Object key, final Object value) {
+        if (value instanceof Collection) {
+            return 1 + ((Collection<?>) value).size();
+        } else if (value instanceof Map) {
+            return 1 + ((Map<?, ?>) value).size();
+        } else {
+            return 1;
+        }
+    }
+}
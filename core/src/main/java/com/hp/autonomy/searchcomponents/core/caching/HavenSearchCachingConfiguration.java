@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caching configuration for the {@link CacheNames} used by the search services. It is enabled by setting
+ * haven-search.caching.enabled=true; applications which configure their own caching should leave it disabled.
+ * <p>
+ * The time to live and maximum weight of each near cache can be set with the properties
+ * haven-search.caching.&lt;cache name&gt;.ttl-seconds and haven-search.caching.&lt;cache name&gt;.maximum-weight.
+ * A {@link SecondTierCacheProvider} bean, if present, supplies the second tier, and a {@link SecurityInfoKeyGenerator}
+ * bean, if present, is used to generate cache keys.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(value = HavenSearchCachingConfiguration.ENABLED_PROPERTY, havingValue = "true")
+public class HavenSearchCachingConfiguration extends CachingConfigurerSupport {
+    public static final String PROPERTY_PREFIX = "haven-search.caching.";
+    public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + "enabled";
+
+    private static final CacheSpec DEFAULT_SPEC = new CacheSpec(TimeUnit.MINUTES.toSeconds(5), 10000);
+
+    private static final Map<String, CacheSpec> DEFAULT_SPECS = new HashMap<>();
+
+    static {
+        DEFAULT_SPECS.put(CacheNames.DATABASES, new CacheSpec(TimeUnit.MINUTES.toSeconds(5), 1000));
+        DEFAULT_SPECS.put(CacheNames.FIELDS, new CacheSpec(TimeUnit.HOURS.toSeconds(1), 10000));
+        DEFAULT_SPECS.put(CacheNames.PARAMETRIC_VALUES, new CacheSpec(TimeUnit.MINUTES.toSeconds(5), 100000));
+        DEFAULT_SPECS.put(CacheNames.PARAMETRIC_VALUES_IN_BUCKETS, new CacheSpec(TimeUnit.MINUTES.toSeconds(5), 100000));
+        DEFAULT_SPECS.put(CacheNames.RELATED_CONCEPTS, new CacheSpec(TimeUnit.MINUTES.toSeconds(5), 100000));
+        DEFAULT_SPECS.put(CacheNames.GET_DOCUMENT_CONTENT, new CacheSpec(TimeUnit.MINUTES.toSeconds(5), 10000));
+        DEFAULT_SPECS.put(CacheNames.TYPE_AHEAD, new CacheSpec(TimeUnit.HOURS.toSeconds(1), 100000));
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired(required = false)
+    private SecondTierCacheProvider secondTierCacheProvider;
+
+    @Autowired(required = false)
+    private SecurityInfoKeyGenerator<?> securityInfoKeyGenerator;
+
+    @Bean
+    @Override
+    public CacheManager cacheManager() {
+        final Map<String, CacheSpec> cacheSpecs = new HashMap<>();
+
+        for (final Map.Entry<String, CacheSpec> entry : DEFAULT_SPECS.entrySet()) {
+            cacheSpecs.put(entry.getKey(), readSpec(entry.getKey(), entry.getValue()));
+        }
+
+        return new TwoTierCacheManager(cacheSpecs, DEFAULT_SPEC, new CacheValueWeigher(), secondTierCacheProvider);
+    }
+
+    @Override
+    public KeyGenerator keyGenerator() {
+        return securityInfoKeyGenerator;
+    }
+
+    private CacheSpec readSpec(final String cacheName, final CacheSpec defaultSpec) {
+        final long ttlSeconds = environment.getProperty(PROPERTY_PREFIX + cacheName + ".ttl-seconds", Long.class, defaultSpec.getTtlSeconds());
+        final long maximumWeight = environment.getProperty(PROPERTY_PREFIX + cacheName + ".maximum-weight", Long.class, defaultSpec.getMaximumWeight());
+        return new CacheSpec(ttlSeconds, maximumWeight);
+    }
+}
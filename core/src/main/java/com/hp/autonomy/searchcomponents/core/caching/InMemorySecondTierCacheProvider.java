@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link SecondTierCacheProvider} which keeps every cache in an unbounded map in this JVM. It stands in for a
+ * distributed cache in tests and single node deployments.
+ */
+public class InMemorySecondTierCacheProvider implements SecondTierCacheProvider {
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public Cache getCache(final String name) {
+        final Cache cache = caches.get(name);
+
+        if (cache != null) {
+            return cache;
+        }
+
+        final Cache newCache = new ConcurrentMapCache(name);
+        final Cache existingCache = caches.putIfAbsent(name, newCache);
+        return existingCache != null ? existingCache : newCache;
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Source of the caches which sit behind the near caches created by {@link TwoTierCacheManager}. Implementations will
+ * usually be backed by a distributed cache shared between application nodes; keys are those produced by the configured
+ * key generator and values are the results of the cached service methods, so both must be serializable if they
+ * leave the JVM.
+ */
+public interface SecondTierCacheProvider {
+    /**
+     * @param name the cache name, one of {@link CacheNames}
+     * @return the second tier cache for the name, or null if the name should only be cached locally
+     */
+    Cache getCache(String name);
+}
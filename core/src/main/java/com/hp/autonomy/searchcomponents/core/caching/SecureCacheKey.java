@@ -0,0 +1,22 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Cache key which partitions cached results by the security info of the user who requested them, so that results
+ * filtered by document security are never returned to another user.
+ */
+@Data
+public class SecureCacheKey implements Serializable {
+    private static final long serialVersionUID = -5311469862451736735L;
+
+    private final String securityInfo;
+    private final Object key;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+
+import java.lang.reflect.Method;
+import java.security.Principal;
+
+/**
+ * {@link KeyGenerator} which combines the method parameters with the security info of the current principal. Subclasses
+ * know how to read the security info from the principal type used by their backend.
+ *
+ * @param <P> the principal type
+ */
+public abstract class SecurityInfoKeyGenerator<P extends Principal> implements KeyGenerator {
+    private final AuthenticationInformationRetriever<?, P> authenticationInformationRetriever;
+
+    protected SecurityInfoKeyGenerator(final AuthenticationInformationRetriever<?, P> authenticationInformationRetriever) {
+        this.authenticationInformationRetriever = authenticationInformationRetriever;
+    }
+
+    @Override
+    public Object generate(final Object target, final Method method, final Object... params) {
+        final P principal = authenticationInformationRetriever.getPrincipal();
+        final String securityInfo = principal == null ? null : getSecurityInfo(principal);
+        return new SecureCacheKey(securityInfo, SimpleKeyGenerator.generateKey(params));
+    }
+
+    /**
+     * @param principal the current principal
+     * @return the security info of the principal, or null if it has none
+     */
+    protected abstract String getSecurityInfo(P principal);
+}
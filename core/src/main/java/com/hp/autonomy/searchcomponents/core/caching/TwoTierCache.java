@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spring {@link Cache} which looks entries up in a bounded in-memory near cache before falling back to an optional
+ * second tier. Entries found in the second tier are copied into the near cache; writes and evictions go to both tiers.
+ * Null values are cached.
+ */
+public class TwoTierCache implements Cache {
+    private final String name;
+    private final com.google.common.cache.Cache<Object, Object> nearCache;
+    private final Cache secondTier;
+    private final AtomicLong secondTierHits = new AtomicLong();
+
+    /**
+     * @param name       the cache name
+     * @param spec       the expiry and size limits for the near cache
+     * @param weigher    weighs near cache entries against {@link CacheSpec#getMaximumWeight()}
+     * @param secondTier the second tier cache, or null to cache locally only
+     */
+    public TwoTierCache(final String name, final CacheSpec spec, final Weigher<Object, Object> weigher, final Cache secondTier) {
+        this.name = name;
+        this.secondTier = secondTier;
+
+        nearCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(spec.getTtlSeconds(), TimeUnit.SECONDS)
+                .maximumWeight(spec.getMaximumWeight())
+                .weigher(weigher)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public com.google.common.cache.Cache<Object, Object> getNativeCache() {
+        return nearCache;
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        final Object nearValue = nearCache.getIfPresent(key);
+
+        if (nearValue != null) {
+            return new SimpleValueWrapper(fromStoreValue(nearValue));
+        }
+
+        if (secondTier != null) {
+            final ValueWrapper secondTierValue = secondTier.get(key);
+
+            if (secondTierValue != null) {
+                secondTierHits.incrementAndGet();
+                nearCache.put(key, toStoreValue(secondTierValue.get()));
+                return secondTierValue;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        final ValueWrapper wrapper = get(key);
+        final Object value = wrapper == null ? null : wrapper.get();
+
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        //noinspection unchecked
+        return (T) value;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        nearCache.put(key, toStoreValue(value));
+
+        if (secondTier != null) {
+            secondTier.put(key, value);
+        }
+    }
+
+    /**
+     * Checking and writing are separate operations across the two tiers, so concurrent callers may both write the entry.
+     */
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final ValueWrapper existing = get(key);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(final Object key) {
+        nearCache.invalidate(key);
+
+        if (secondTier != null) {
+            secondTier.evict(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        nearCache.invalidateAll();
+
+        if (secondTier != null) {
+            secondTier.clear();
+        }
+    }
+
+    /**
+     * @return a snapshot of the hit, miss and eviction counts for this cache
+     */
+    public CacheStatistics getStatistics() {
+        final CacheStats stats = nearCache.stats();
+        final long secondTierHitCount = secondTierHits.get();
+
+        return new CacheStatistics(
+                stats.hitCount(),
+                secondTierHitCount,
+                Math.max(0, stats.missCount() - secondTierHitCount),
+                stats.evictionCount(),
+                nearCache.size()
+        );
+    }
+
+    private static Object toStoreValue(final Object value) {
+        return value == null ? NullValue.INSTANCE : value;
+    }
+
+    private static Object fromStoreValue(final Object value) {
+        return value == NullValue.INSTANCE ? null : value;
+    }
+
+    // Guava caches cannot hold nulls
+    private enum NullValue {
+        INSTANCE
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import com.google.common.cache.Weigher;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link CacheManager} which creates a {@link TwoTierCache} for each cache name on first use. Each name has its own
+ * {@link CacheSpec}; names without one use the default spec.
+ */
+public class TwoTierCacheManager implements CacheManager {
+    private final Map<String, CacheSpec> cacheSpecs;
+    private final CacheSpec defaultSpec;
+    private final Weigher<Object, Object> weigher;
+    private final SecondTierCacheProvider secondTierCacheProvider;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheSpecs              the limits for each cache name
+     * @param defaultSpec             the limits for cache names missing from cacheSpecs
+     * @param weigher                 weighs near cache entries
+     * @param secondTierCacheProvider supplies the second tier caches, or null to cache locally only
+     */
+    public TwoTierCacheManager(
+            final Map<String, CacheSpec> cacheSpecs,
+            final CacheSpec defaultSpec,
+            final Weigher<Object, Object> weigher,
+            final SecondTierCacheProvider secondTierCacheProvider
+    ) {
+        this.cacheSpecs = new HashMap<>(cacheSpecs);
+        this.defaultSpec = defaultSpec;
+        this.weigher = weigher;
+        this.secondTierCacheProvider = secondTierCacheProvider;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final TwoTierCache cache = caches.get(name);
+
+        if (cache != null) {
+            return cache;
+        }
+
+        final CacheSpec spec = cacheSpecs.containsKey(name) ? cacheSpecs.get(name) : defaultSpec;
+        final Cache secondTier = secondTierCacheProvider == null ? null : secondTierCacheProvider.getCache(name);
+
+        final TwoTierCache newCache = new TwoTierCache(name, spec, weigher, secondTier);
+        final TwoTierCache existingCache = caches.putIfAbsent(name, newCache);
+        return existingCache != null ? existingCache : newCache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * @return statistics for every cache created so far, keyed by cache name
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        final Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+
+        for (final Map.Entry<String, TwoTierCache> entry : caches.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().getStatistics());
+        }
+
+        return statistics;
+    }
+}
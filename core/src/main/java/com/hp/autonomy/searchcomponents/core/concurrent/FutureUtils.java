@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.concurrent;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Retrieval of results from futures which run backend calls, rethrowing the original failure rather than an
+ * {@link ExecutionException}.
+ */
+public final class FutureUtils {
+    private FutureUtils() {}
+
+    /**
+     * Waits for the future to complete and returns its result. If the task failed with an exception of the given type,
+     * or with an unchecked exception, that exception is rethrown unchanged.
+     *
+     * @param future        the future to wait for
+     * @param exceptionType the checked exception type thrown by the task
+     * @param <T>           the result type
+     * @param <E>           the checked exception type
+     * @return the result of the task
+     * @throws E if the task threw it
+     */
+    public static <T, E extends Exception> T getResult(final Future<T> future, final Class<E> exceptionType) throws E {
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            Throwables.propagateIfPossible(cause, exceptionType);
+            throw new UncheckedExecutionException(cause);
+        }
+    }
+
+    /**
+     * Waits for the future to complete and returns its result, rethrowing any unchecked exception thrown by the task.
+     *
+     * @param future the future to wait for
+     * @param <T>    the result type
+     * @return the result of the task
+     */
+    public static <T> T getResult(final Future<T> future) {
+        return getResult(future, RuntimeException.class);
+    }
+}
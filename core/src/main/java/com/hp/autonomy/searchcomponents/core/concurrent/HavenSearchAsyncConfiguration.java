@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.concurrent;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Defines the executor used by the asynchronous services. Backend calls still block a thread while they run, but it is
+ * one of this pool's threads rather than the caller's, so the number of in-flight backend calls is bounded by the pool
+ * and not by the number of web requests.
+ */
+@Configuration
+public class HavenSearchAsyncConfiguration {
+    public static final String ASYNC_EXECUTOR_SERVICE = "asyncSearchExecutorService";
+    public static final String MAX_THREADS_PROPERTY = "haven-search.async.max-threads";
+    public static final String QUEUE_CAPACITY_PROPERTY = "haven-search.async.queue-capacity";
+
+    private static final String ASYNC_EXECUTOR_THREAD_NAME_FORMAT = "haven-search-async-%d";
+
+    @Bean(name = ASYNC_EXECUTOR_SERVICE, destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = ASYNC_EXECUTOR_SERVICE)
+    public ListeningExecutorService asyncSearchExecutorService(
+            @Value("${" + MAX_THREADS_PROPERTY + ":20}") final int maxThreads,
+            @Value("${" + QUEUE_CAPACITY_PROPERTY + ":1000}") final int queueCapacity
+    ) {
+        return SearchExecutors.queuedExecutor(maxThreads, queueCapacity, ASYNC_EXECUTOR_THREAD_NAME_FORMAT);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.concurrent;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory methods for the executors used to fan requests out to a backend.
+ */
+public final class SearchExecutors {
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private SearchExecutors() {}
+
+    /**
+     * Creates an executor which runs at most maxThreads tasks on its own threads. Tasks submitted while every thread is
+     * busy are run on the submitting thread, so nested fan-outs cannot deadlock and a saturated pool slows callers down
+     * instead of queueing unbounded work. The Spring Security context of the submitting thread is propagated to the
+     * pool so that services which look up the current principal behave as they would when called synchronously.
+     *
+     * @param maxThreads       the maximum number of pool threads; should not exceed the number of connections available
+     *                         to the backend
+     * @param threadNameFormat a {@link String#format(String, Object...)} pattern for naming pool threads
+     * @return the executor
+     */
+    public static ListeningExecutorService boundedExecutor(final int maxThreads, final String threadNameFormat) {
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                0,
+                maxThreads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat(threadNameFormat).setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+
+        return MoreExecutors.listeningDecorator(new DelegatingSecurityContextExecutorService(threadPoolExecutor));
+    }
+
+    /**
+     * Creates an executor for callers which must not block, such as asynchronous services. At most maxThreads tasks run
+     * at once and up to queueCapacity more wait in a queue; beyond that, submission fails with a
+     * {@link java.util.concurrent.RejectedExecutionException} rather than running the task on the caller's thread. The
+     * Spring Security context of the submitting thread is propagated to the pool.
+     *
+     * @param maxThreads       the maximum number of pool threads
+     * @param queueCapacity    the maximum number of tasks waiting for a thread
+     * @param threadNameFormat a {@link String#format(String, Object...)} pattern for naming pool threads
+     * @return the executor
+     */
+    public static ListeningExecutorService queuedExecutor(final int maxThreads, final int queueCapacity, final String threadNameFormat) {
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat(threadNameFormat).setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+
+        return MoreExecutors.listeningDecorator(new DelegatingSecurityContextExecutorService(threadPoolExecutor));
+    }
+
+    /**
+     * Creates an executor which runs scheduled tasks, such as background refreshes, one at a time on a single daemon
+     * thread.
+     *
+     * @param threadName the name of the thread
+     * @return the executor
+     */
+    public static ScheduledExecutorService scheduledExecutor(final String threadName) {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(threadName).setDaemon(true).build());
+    }
+
+    /**
+     * @return an executor which runs every task on the submitting thread
+     */
+    public static ListeningExecutorService directExecutor() {
+        return MoreExecutors.newDirectExecutorService();
+    }
+}
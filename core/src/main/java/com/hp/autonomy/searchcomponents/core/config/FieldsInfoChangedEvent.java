@@ -0,0 +1,24 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.config;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by the application when it reloads its configuration, so that values derived from the {@link FieldsInfo}
+ * are rebuilt even if the field configuration was modified in place. Publish it from the config service's reload or
+ * update path, e.g. {@code WriteableConfigService.postUpdate}.
+ */
+public class FieldsInfoChangedEvent extends ApplicationEvent {
+    private static final long serialVersionUID = -4385305624567916384L;
+
+    /**
+     * @param source the config service or config which changed
+     */
+    public FieldsInfoChangedEvent(final Object source) {
+        super(source);
+    }
+}
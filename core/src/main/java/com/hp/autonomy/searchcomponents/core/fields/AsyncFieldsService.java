@@ -0,0 +1,25 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.fields;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.FieldTypeParam;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asynchronous form of {@link FieldsService}. The future fails with the exception the synchronous service would have
+ * thrown.
+ *
+ * @param <R> the fields request type
+ */
+public interface AsyncFieldsService<R extends FieldsRequest> {
+
+    ListenableFuture<Map<FieldTypeParam, List<TagName>>> getFields(R request, FieldTypeParam... fieldTypes);
+
+}
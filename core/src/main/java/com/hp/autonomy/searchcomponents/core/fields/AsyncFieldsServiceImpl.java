@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.fields;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.FieldTypeParam;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link AsyncFieldsService} which runs a {@link FieldsService} on an executor.
+ *
+ * @param <R> the fields request type
+ * @param <E> the checked exception thrown by the synchronous service
+ */
+public class AsyncFieldsServiceImpl<R extends FieldsRequest, E extends Exception> implements AsyncFieldsService<R> {
+    private final FieldsService<R, E> fieldsService;
+    private final ListeningExecutorService executorService;
+
+    public AsyncFieldsServiceImpl(final FieldsService<R, E> fieldsService, final ListeningExecutorService executorService) {
+        this.fieldsService = fieldsService;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public ListenableFuture<Map<FieldTypeParam, List<TagName>>> getFields(final R request, final FieldTypeParam... fieldTypes) {
+        return executorService.submit(new Callable<Map<FieldTypeParam, List<TagName>>>() {
+            @Override
+            public Map<FieldTypeParam, List<TagName>> call() throws E {
+                return fieldsService.getFields(request, fieldTypes);
+            }
+        });
+    }
+}
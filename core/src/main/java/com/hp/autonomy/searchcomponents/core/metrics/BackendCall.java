@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import lombok.Data;
+
+/**
+ * The measurements taken for a single call to a backend.
+ */
+@Data
+public class BackendCall {
+    /**
+     * Value of a measurement which could not be taken for a call
+     */
+    public static final long UNKNOWN = -1L;
+
+    private final MetricKey key;
+
+    /**
+     * True if the call threw an exception, either while sending the request or while processing the response
+     */
+    private final boolean error;
+
+    /**
+     * Time from sending the request until the response was available to be processed, or until the call failed if no
+     * response was received
+     */
+    private final long latencyNanos;
+
+    /**
+     * Time spent processing the response, or {@link #UNKNOWN}
+     */
+    private final long parseNanos;
+
+    /**
+     * Number of bytes of the response body which were read, or {@link #UNKNOWN}
+     */
+    private final long responseBytes;
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link SearchMetricsRegistry} which forwards every call to a number of other registries.
+ */
+public class CompositeSearchMetricsRegistry implements SearchMetricsRegistry {
+    private final List<SearchMetricsRegistry> registries;
+
+    public CompositeSearchMetricsRegistry(final SearchMetricsRegistry... registries) {
+        this(Arrays.asList(registries));
+    }
+
+    public CompositeSearchMetricsRegistry(final Collection<? extends SearchMetricsRegistry> registries) {
+        this.registries = Collections.unmodifiableList(new ArrayList<>(registries));
+    }
+
+    @Override
+    public void recordCall(final BackendCall call) {
+        for (final SearchMetricsRegistry registry : registries) {
+            registry.recordCall(call);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Defines the registry which the IDOL and HOD backend services record their calls in, unless the application defines
+ * its own.
+ */
+@Configuration
+public class HavenSearchMetricsConfiguration {
+    @Bean
+    @ConditionalOnMissingBean(SearchMetricsRegistry.class)
+    public SearchMetricsRegistry searchMetricsRegistry(@Value("${" + InMemorySearchMetricsRegistry.MAX_KEYS_PROPERTY + ":" + InMemorySearchMetricsRegistry.DEFAULT_MAX_KEYS + "}") final int maxKeys) {
+        return new InMemorySearchMetricsRegistry(maxKeys);
+    }
+}
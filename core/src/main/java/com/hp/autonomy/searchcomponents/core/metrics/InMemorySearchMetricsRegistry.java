@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link SearchMetricsRegistry} which aggregates calls in memory, so that they can be exposed by the application
+ * through whichever monitoring endpoint it uses. One {@link OperationMetrics} is held for each distinct
+ * {@link MetricKey}. The number of keys is bounded: once the maximum is reached, calls with a new key are recorded
+ * against the same backend and operation with the database tag {@link MetricKey#OTHER_DATABASES}.
+ */
+public class InMemorySearchMetricsRegistry implements SearchMetricsRegistry {
+    public static final String MAX_KEYS_PROPERTY = "haven-search.metrics.max-keys";
+    public static final int DEFAULT_MAX_KEYS = 1000;
+
+    private final ConcurrentMap<MetricKey, OperationMetrics> metrics = new ConcurrentHashMap<>();
+    private final int maxKeys;
+
+    public InMemorySearchMetricsRegistry() {
+        this(DEFAULT_MAX_KEYS);
+    }
+
+    /**
+     * @param maxKeys the number of keys after which new database tags are recorded as {@link MetricKey#OTHER_DATABASES}
+     */
+    public InMemorySearchMetricsRegistry(final int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public void recordCall(final BackendCall call) {
+        MetricKey key = call.getKey();
+        OperationMetrics operationMetrics = metrics.get(key);
+
+        if (operationMetrics == null) {
+            if (metrics.size() >= maxKeys) {
+                // The overflow key for each backend and operation is still created, so the map can exceed maxKeys by
+                // the number of distinct operations, which is small and fixed
+                key = new MetricKey(key.getBackend(), key.getOperation(), MetricKey.OTHER_DATABASES);
+            }
+
+            operationMetrics = getOrCreate(key);
+        }
+
+        operationMetrics.record(call);
+    }
+
+    private OperationMetrics getOrCreate(final MetricKey key) {
+        final OperationMetrics operationMetrics = metrics.get(key);
+
+        if (operationMetrics != null) {
+            return operationMetrics;
+        }
+
+        final OperationMetrics newMetrics = new OperationMetrics();
+        final OperationMetrics existingMetrics = metrics.putIfAbsent(key, newMetrics);
+        return existingMetrics == null ? newMetrics : existingMetrics;
+    }
+
+    /**
+     * @return a live, unmodifiable view of the metrics recorded so far
+     */
+    public Map<MetricKey, OperationMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * @param key the tags of the calls
+     * @return the metrics recorded for the given tags, or null if there have been no such calls
+     */
+    public OperationMetrics getMetrics(final MetricKey key) {
+        return metrics.get(key);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock free histogram of durations. Durations are counted in buckets whose upper bounds are successive powers of two
+ * microseconds, so percentiles are accurate to within a factor of two, which is enough to tell which backend call is
+ * slow without storing every sample.
+ */
+public class LatencyHistogram {
+    // The last bucket holds everything over 2^26 microseconds, about 67 seconds
+    private static final int BUCKET_COUNT = 28;
+
+    private final PowerOfTwoBuckets buckets = new PowerOfTwoBuckets(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param nanos the duration to record; negative durations are ignored
+     */
+    public void record(final long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        buckets.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+
+        long max = maxNanos.get();
+
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return the mean of the recorded durations, or 0 if none have been recorded
+     */
+    public double getMeanNanos() {
+        final long currentCount = count.get();
+        return currentCount == 0 ? 0 : (double) totalNanos.get() / currentCount;
+    }
+
+    /**
+     * Returns an upper bound for the given percentile of the recorded durations. The bound is the upper bound of the
+     * bucket containing the percentile, but is never more than the largest duration recorded.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound, or 0 if no durations have been recorded
+     */
+    public long getPercentileNanos(final double percentile) {
+        final int index = buckets.percentileIndex(percentile);
+
+        if (index < 0) {
+            return 0;
+        }
+
+        final long max = maxNanos.get();
+        return index == BUCKET_COUNT - 1 ? max : Math.min(bucketUpperBoundNanos(index), max);
+    }
+
+    static int bucketIndex(final long nanos) {
+        return PowerOfTwoBuckets.index(TimeUnit.NANOSECONDS.toMicros(nanos), BUCKET_COUNT);
+    }
+
+    static long bucketUpperBoundNanos(final int index) {
+        return TimeUnit.MICROSECONDS.toNanos(1L << index);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Identifies a set of backend calls whose metrics are aggregated together. These are the tags attached to every
+ * recorded call.
+ */
+@Data
+public class MetricKey implements Serializable {
+    private static final long serialVersionUID = 2374036912046745813L;
+
+    /**
+     * The database tag of calls restricted to more than one database
+     */
+    public static final String MULTIPLE_DATABASES = "<multiple>";
+
+    /**
+     * The database tag used by {@link InMemorySearchMetricsRegistry} once it holds its maximum number of keys
+     */
+    public static final String OTHER_DATABASES = "<other>";
+
+    /**
+     * The backend or service which was called, e.g. "content" or "hod"
+     */
+    private final String backend;
+
+    /**
+     * The ACI action or HOD API which was called, in lower case
+     */
+    private final String operation;
+
+    /**
+     * The database or index the call was restricted to, {@link #MULTIPLE_DATABASES} if it was restricted to several, or
+     * null if it was not restricted
+     */
+    private final String database;
+
+    /**
+     * @param databases the databases or indexes a call was restricted to
+     * @return the database tag for the call; a single name is kept, but any combination of names has the same tag so
+     * that the number of keys does not grow with the combinations requested
+     */
+    public static String databaseTag(final Collection<String> databases) {
+        if (databases.isEmpty()) {
+            return null;
+        }
+
+        return databases.size() == 1 ? databases.iterator().next() : MULTIPLE_DATABASES;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated measurements for all backend calls sharing a {@link MetricKey}.
+ */
+public class OperationMetrics {
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final SizeHistogram responseSizes = new SizeHistogram();
+
+    void record(final BackendCall call) {
+        requestCount.incrementAndGet();
+
+        if (call.isError()) {
+            errorCount.incrementAndGet();
+        }
+
+        latency.record(call.getLatencyNanos());
+
+        if (call.getParseNanos() != BackendCall.UNKNOWN) {
+            parseTime.record(call.getParseNanos());
+        }
+
+        if (call.getResponseBytes() != BackendCall.UNKNOWN) {
+            responseSizes.record(call.getResponseBytes());
+        }
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return the total size of the responses whose size was measured
+     */
+    public long getResponseBytes() {
+        return responseSizes.getTotalBytes();
+    }
+
+    /**
+     * @return the time spent waiting for the backend
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the time spent processing responses
+     */
+    public LatencyHistogram getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * @return the distribution of response sizes
+     */
+    public SizeHistogram getResponseSizes() {
+        return responseSizes;
+    }
+}
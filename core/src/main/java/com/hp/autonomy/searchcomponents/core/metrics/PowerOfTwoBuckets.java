@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free counts of values in buckets whose upper bounds are successive powers of two. Bucket 0 holds values up to 1,
+ * bucket i holds values up to 2^i, and the last bucket holds everything larger. The unit of the values is chosen by the
+ * histogram using the buckets.
+ */
+class PowerOfTwoBuckets {
+    private final AtomicLongArray buckets;
+
+    PowerOfTwoBuckets(final int bucketCount) {
+        buckets = new AtomicLongArray(bucketCount);
+    }
+
+    void record(final long value) {
+        buckets.incrementAndGet(index(value, buckets.length()));
+    }
+
+    int size() {
+        return buckets.length();
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the index of the bucket containing the percentile, or -1 if nothing has been recorded
+     */
+    int percentileIndex(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        final int bucketCount = buckets.length();
+        long total = 0;
+        final long[] counts = new long[bucketCount];
+
+        for (int i = 0; i < bucketCount; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return -1;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long cumulative = 0;
+
+        for (int i = 0; i < bucketCount - 1; i++) {
+            cumulative += counts[i];
+
+            if (cumulative >= rank) {
+                return i;
+            }
+        }
+
+        return bucketCount - 1;
+    }
+
+    static int index(final long value, final int bucketCount) {
+        if (value <= 1) {
+            return 0;
+        }
+
+        // Index of the smallest power of two which is at least value
+        final int index = Long.SIZE - Long.numberOfLeadingZeros(value - 1);
+        return Math.min(index, bucketCount - 1);
+    }
+}
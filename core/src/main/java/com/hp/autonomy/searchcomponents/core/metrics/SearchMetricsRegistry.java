@@ -0,0 +1,19 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+/**
+ * Destination for the measurements taken by instrumented backend services. Implementations are called on the thread
+ * making the backend call, so must be thread safe and should not block.
+ */
+public interface SearchMetricsRegistry {
+    /**
+     * Records a completed backend call.
+     *
+     * @param call the measurements taken for the call
+     */
+    void recordCall(BackendCall call);
+}
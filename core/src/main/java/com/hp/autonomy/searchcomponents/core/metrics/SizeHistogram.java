@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock free histogram of response sizes. Sizes are counted in buckets whose upper bounds are successive powers of two
+ * bytes, so percentiles are accurate to within a factor of two.
+ */
+public class SizeHistogram {
+    // The last bucket holds everything over 2^30 bytes, 1 GB
+    private static final int BUCKET_COUNT = 32;
+
+    private final PowerOfTwoBuckets buckets = new PowerOfTwoBuckets(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong maxBytes = new AtomicLong();
+
+    /**
+     * @param bytes the size to record; negative sizes are ignored
+     */
+    public void record(final long bytes) {
+        if (bytes < 0) {
+            return;
+        }
+
+        buckets.record(bytes);
+        count.incrementAndGet();
+        totalBytes.addAndGet(bytes);
+
+        long max = maxBytes.get();
+
+        while (bytes > max && !maxBytes.compareAndSet(max, bytes)) {
+            max = maxBytes.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes.get();
+    }
+
+    /**
+     * @return the mean of the recorded sizes, or 0 if none have been recorded
+     */
+    public double getMeanBytes() {
+        final long currentCount = count.get();
+        return currentCount == 0 ? 0 : (double) totalBytes.get() / currentCount;
+    }
+
+    /**
+     * Returns an upper bound for the given percentile of the recorded sizes. The bound is the upper bound of the bucket
+     * containing the percentile, but is never more than the largest size recorded.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound, or 0 if no sizes have been recorded
+     */
+    public long getPercentileBytes(final double percentile) {
+        final int index = buckets.percentileIndex(percentile);
+
+        if (index < 0) {
+            return 0;
+        }
+
+        final long max = maxBytes.get();
+        return index == BUCKET_COUNT - 1 ? max : Math.min(1L << index, max);
+    }
+}
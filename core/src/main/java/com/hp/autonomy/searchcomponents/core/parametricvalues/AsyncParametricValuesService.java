@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.hp.autonomy.types.idol.RecursiveField;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Asynchronous form of {@link ParametricValuesService}. Each method returns as soon as the request has been submitted;
+ * the future fails with the exception the synchronous service would have thrown.
+ *
+ * @param <R> the parametric request type
+ * @param <S> the database type
+ */
+public interface AsyncParametricValuesService<R extends ParametricRequest<S>, S extends Serializable> {
+
+    ListenableFuture<Set<QueryTagInfo>> getAllParametricValues(R parametricRequest);
+
+    ListenableFuture<List<RangeInfo>> getNumericParametricValuesInBuckets(R parametricRequest, Map<String, BucketingParams> bucketingParamsPerField);
+
+    ListenableFuture<List<RecursiveField>> getDependentParametricValues(R parametricRequest);
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.hp.autonomy.types.idol.RecursiveField;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link AsyncParametricValuesService} which runs a {@link ParametricValuesService} on an executor.
+ *
+ * @param <R> the parametric request type
+ * @param <S> the database type
+ * @param <E> the checked exception thrown by the synchronous service
+ */
+public class AsyncParametricValuesServiceImpl<R extends ParametricRequest<S>, S extends Serializable, E extends Exception> implements AsyncParametricValuesService<R, S> {
+    private final ParametricValuesService<R, S, E> parametricValuesService;
+    private final ListeningExecutorService executorService;
+
+    public AsyncParametricValuesServiceImpl(final ParametricValuesService<R, S, E> parametricValuesService, final ListeningExecutorService executorService) {
+        this.parametricValuesService = parametricValuesService;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public ListenableFuture<Set<QueryTagInfo>> getAllParametricValues(final R parametricRequest) {
+        return executorService.submit(new Callable<Set<QueryTagInfo>>() {
+            @Override
+            public Set<QueryTagInfo> call() throws E {
+                return parametricValuesService.getAllParametricValues(parametricRequest);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<List<RangeInfo>> getNumericParametricValuesInBuckets(final R parametricRequest, final Map<String, BucketingParams> bucketingParamsPerField) {
+        return executorService.submit(new Callable<List<RangeInfo>>() {
+            @Override
+            public List<RangeInfo> call() throws E {
+                return parametricValuesService.getNumericParametricValuesInBuckets(parametricRequest, bucketingParamsPerField);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<List<RecursiveField>> getDependentParametricValues(final R parametricRequest) {
+        return executorService.submit(new Callable<List<RecursiveField>>() {
+            @Override
+            public List<RecursiveField> call() throws E {
+                return parametricValuesService.getDependentParametricValues(parametricRequest);
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts of documents in calendar-aligned date buckets, as described by {@link DateHistogramParams}. The first bucket
+ * starts at the beginning of the interval containing the minimum, and buckets continue until one ends at or after the
+ * maximum, so that histograms for adjacent ranges with the same interval share their boundaries.
+ * <p>
+ * Boundaries are held as epoch seconds, which is how IDOL represents autn_date. Not thread safe.
+ */
+public class DateBuckets {
+    /**
+     * The maximum number of buckets in one histogram, so that a small interval over a long range cannot produce an
+     * unbounded request.
+     */
+    public static final int MAX_BUCKETS = 10000;
+
+    private final DateInterval interval;
+    private final DateHistogramParams params;
+    private final long[] boundaries;
+    private final int[] counts;
+
+    /**
+     * @param params the range and resolution of the histogram
+     * @throws IllegalArgumentException if the histogram would have more than {@link #MAX_BUCKETS} buckets
+     */
+    public DateBuckets(final DateHistogramParams params) {
+        this.params = params;
+        interval = params.resolveInterval();
+
+        final DateTime max = params.getMax().withZone(params.getTimeZone());
+        final List<Long> boundaryList = new ArrayList<>();
+
+        DateTime start = interval.floor(params.getMin().withZone(params.getTimeZone()));
+        boundaryList.add(toSeconds(start));
+
+        do {
+            start = interval.next(start);
+            boundaryList.add(toSeconds(start));
+
+            if (boundaryList.size() > MAX_BUCKETS + 1) {
+                throw new IllegalArgumentException("Too many " + interval + " buckets between " + params.getMin() + " and " + params.getMax());
+            }
+        } while (start.isBefore(max));
+
+        boundaries = new long[boundaryList.size()];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaries[i] = boundaryList.get(i);
+        }
+
+        counts = new int[boundaries.length - 1];
+    }
+
+    public DateInterval getInterval() {
+        return interval;
+    }
+
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * The boundaries to send to the server: the start of every bucket, followed by the end of the last bucket.
+     *
+     * @return a new array of boundaries in epoch seconds
+     */
+    public double[] getBoundaries() {
+        final double[] result = new double[boundaries.length];
+
+        for (int i = 0; i < boundaries.length; i++) {
+            result[i] = boundaries[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds to the count of the bucket which starts at the given value.
+     *
+     * @param bucketMin the start of the bucket in epoch seconds, as returned by the server
+     * @param count     the number of documents to add
+     */
+    public void addCount(final double bucketMin, final int count) {
+        final int index = indexOf(Math.round(bucketMin));
+
+        if (index >= 0) {
+            counts[index] += count;
+        }
+    }
+
+    /**
+     * @param seconds a date in epoch seconds
+     * @return the index of the bucket containing the date, or -1 if it is outside the histogram
+     */
+    public int indexOf(final long seconds) {
+        final int searchResult = Arrays.binarySearch(boundaries, seconds);
+        final int index = searchResult >= 0 ? searchResult : -searchResult - 2;
+        return index >= 0 && index < counts.length ? index : -1;
+    }
+
+    public DateHistogram toHistogram() {
+        final List<DateHistogram.Bucket> buckets = new ArrayList<>(counts.length);
+
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new DateHistogram.Bucket(toDate(boundaries[i]), toDate(boundaries[i + 1]), counts[i]));
+        }
+
+        return new DateHistogram(interval, params.getTimeZone(), buckets);
+    }
+
+    private DateTime toDate(final long seconds) {
+        return new DateTime(seconds * 1000, params.getTimeZone());
+    }
+
+    private static long toSeconds(final DateTime date) {
+        return date.getMillis() / 1000;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import lombok.Data;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Document counts in calendar-aligned date buckets, in date order. Every bucket in the requested range is present,
+ * including empty ones.
+ */
+@Data
+public class DateHistogram implements Serializable {
+    private static final long serialVersionUID = -2879196418418870937L;
+
+    private final DateInterval interval;
+    private final DateTimeZone timeZone;
+    private final List<Bucket> buckets;
+
+    /**
+     * Combines this histogram with one for an adjacent or overlapping range, such as the range exposed by panning the
+     * time axis. Where both histograms have a bucket, the other histogram's count is used, since it is newer.
+     *
+     * @param other a histogram with the same interval and time zone
+     * @return the combined histogram
+     * @throws IllegalArgumentException if the histograms have different intervals or time zones, or there is a gap
+     *                                  between them, since the counts in the gap are not known
+     */
+    public DateHistogram merge(final DateHistogram other) {
+        if (interval != other.interval || !timeZone.equals(other.timeZone)) {
+            throw new IllegalArgumentException("Only histograms with the same interval and time zone can be merged");
+        }
+
+        final Map<DateTime, Bucket> bucketsByMin = new TreeMap<>();
+        for (final Bucket bucket : buckets) {
+            bucketsByMin.put(bucket.getMin(), bucket);
+        }
+        for (final Bucket bucket : other.buckets) {
+            bucketsByMin.put(bucket.getMin(), bucket);
+        }
+
+        DateTime previousMax = null;
+        for (final Bucket bucket : bucketsByMin.values()) {
+            if (previousMax != null && !previousMax.isEqual(bucket.getMin())) {
+                throw new IllegalArgumentException("Histograms with a gap between " + previousMax + " and " + bucket.getMin() + " cannot be merged");
+            }
+
+            previousMax = bucket.getMax();
+        }
+
+        return new DateHistogram(interval, timeZone, new ArrayList<>(bucketsByMin.values()));
+    }
+
+    /**
+     * @return the start of the first bucket, or null if there are no buckets
+     */
+    public DateTime getMin() {
+        return buckets.isEmpty() ? null : buckets.get(0).getMin();
+    }
+
+    /**
+     * @return the end of the last bucket, or null if there are no buckets
+     */
+    public DateTime getMax() {
+        return buckets.isEmpty() ? null : buckets.get(buckets.size() - 1).getMax();
+    }
+
+    @Data
+    public static class Bucket implements Serializable {
+        private static final long serialVersionUID = 6155349734458357307L;
+
+        private final DateTime min;
+        private final DateTime max;
+        private final int count;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The range and resolution of a date histogram.
+ */
+@Data
+public class DateHistogramParams {
+    private final DateTime min;
+    private final DateTime max;
+    private final int targetNumberOfBuckets;
+    private final DateInterval interval;
+    private final DateTimeZone timeZone;
+
+    /**
+     * @param min                   the earliest date to count
+     * @param max                   the date up to which to count, exclusive
+     * @param targetNumberOfBuckets the maximum number of buckets; used to choose the interval if none is given
+     * @param interval              the bucket width, or null to choose one from the target number of buckets
+     * @param timeZone              the time zone in which buckets are aligned, or null for UTC
+     */
+    @JsonCreator
+    public DateHistogramParams(@JsonProperty("min") final DateTime min,
+                               @JsonProperty("max") final DateTime max,
+                               @JsonProperty("targetNumberOfBuckets") final int targetNumberOfBuckets,
+                               @JsonProperty("interval") final DateInterval interval,
+                               @JsonProperty("timeZone") final DateTimeZone timeZone) {
+        this.min = min;
+        this.max = max;
+        this.targetNumberOfBuckets = targetNumberOfBuckets;
+        this.interval = interval;
+        this.timeZone = timeZone == null ? DateTimeZone.UTC : timeZone;
+    }
+
+    /**
+     * @param min                   the earliest date to count
+     * @param max                   the date up to which to count, exclusive
+     * @param targetNumberOfBuckets the maximum number of buckets
+     */
+    public DateHistogramParams(final DateTime min, final DateTime max, final int targetNumberOfBuckets) {
+        this(min, max, targetNumberOfBuckets, null, null);
+    }
+
+    /**
+     * Parameters for extending an existing histogram to a new range, for example when the user pans the time axis. Only
+     * the parts of the new range which the histogram does not already cover are returned: none if it is covered, one if
+     * it extends past one end of the histogram and two if it extends past both. Each part runs from the end of the
+     * histogram, so a new range which does not reach the histogram also covers the gap between them. The interval and
+     * time zone are kept so that the new buckets line up with the existing ones and can be
+     * {@link DateHistogram#merge merged}.
+     *
+     * @param histogram the existing histogram
+     * @param min       the earliest date of the new range
+     * @param max       the end of the new range, exclusive
+     * @return the parameters for each uncovered part, in date order
+     */
+    public static List<DateHistogramParams> extending(final DateHistogram histogram, final DateTime min, final DateTime max) {
+        final List<DateHistogramParams> parts = new ArrayList<>(2);
+
+        if (histogram.getBuckets().isEmpty()) {
+            parts.add(new DateHistogramParams(min, max, 0, histogram.getInterval(), histogram.getTimeZone()));
+            return parts;
+        }
+
+        if (min.isBefore(histogram.getMin())) {
+            parts.add(new DateHistogramParams(min, histogram.getMin(), 0, histogram.getInterval(), histogram.getTimeZone()));
+        }
+
+        if (max.isAfter(histogram.getMax())) {
+            parts.add(new DateHistogramParams(histogram.getMax(), max, 0, histogram.getInterval(), histogram.getTimeZone()));
+        }
+
+        return parts;
+    }
+
+    /**
+     * @return the interval to use: the given interval, or the smallest which fits the target number of buckets
+     */
+    public DateInterval resolveInterval() {
+        return interval != null ? interval : DateInterval.forRange(min.withZone(timeZone), max.withZone(timeZone), targetNumberOfBuckets);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import java.io.Serializable;
+
+/**
+ * Counts documents by {@link ParametricValuesService#AUTN_DATE_FIELD} in calendar-aligned buckets, for timelines.
+ *
+ * @param <R> the parametric request type
+ * @param <S> the database type
+ * @param <E> the checked exception thrown by the service
+ */
+public interface DateHistogramService<R extends ParametricRequest<S>, S extends Serializable, E extends Exception> {
+
+    /**
+     * Counts the documents matching the request in every bucket of the histogram, in a single request to the server.
+     * To extend a histogram when the user pans, request only the uncovered ranges given by
+     * {@link DateHistogramParams#extending} and {@link DateHistogram#merge merge} each result.
+     *
+     * @param parametricRequest the query restrictions; the field names are ignored
+     * @param params            the range and resolution of the histogram
+     * @return the histogram
+     * @throws E if the request fails
+     */
+    DateHistogram getDateHistogram(R parametricRequest, DateHistogramParams params) throws E;
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.Period;
+
+/**
+ * Calendar-aligned widths for date histogram buckets, in increasing order of size. Buckets start on the boundaries of
+ * the unit in the histogram's time zone: midnight for days, Monday for weeks, the first of the month for months and so
+ * on, so their widths follow the calendar rather than being a fixed number of seconds.
+ */
+public enum DateInterval {
+    SECOND(Period.seconds(1)),
+    MINUTE(Period.minutes(1)),
+    HOUR(Period.hours(1)),
+    DAY(Period.days(1)),
+    WEEK(Period.weeks(1)),
+    MONTH(Period.months(1)),
+    QUARTER(Period.months(3)),
+    YEAR(Period.years(1)),
+    DECADE(Period.years(10));
+
+    private final Period period;
+
+    DateInterval(final Period period) {
+        this.period = period;
+    }
+
+    /**
+     * @param date a date
+     * @return the start of the interval containing the date
+     */
+    public DateTime floor(final DateTime date) {
+        switch (this) {
+            case SECOND:
+                return date.secondOfMinute().roundFloorCopy();
+            case MINUTE:
+                return date.minuteOfHour().roundFloorCopy();
+            case HOUR:
+                return date.hourOfDay().roundFloorCopy();
+            case DAY:
+                return date.dayOfMonth().roundFloorCopy();
+            case WEEK:
+                return date.withDayOfWeek(DateTimeConstants.MONDAY).dayOfMonth().roundFloorCopy();
+            case MONTH:
+                return date.monthOfYear().roundFloorCopy();
+            case QUARTER:
+                final DateTime month = date.monthOfYear().roundFloorCopy();
+                return month.withMonthOfYear(month.getMonthOfYear() - (month.getMonthOfYear() - 1) % 3);
+            case YEAR:
+                return date.year().roundFloorCopy();
+            case DECADE:
+            default:
+                final DateTime year = date.year().roundFloorCopy();
+                return year.withYear(year.getYear() - year.getYear() % 10);
+        }
+    }
+
+    /**
+     * @param date the start of an interval
+     * @return the start of the next interval
+     */
+    public DateTime next(final DateTime date) {
+        return date.plus(period);
+    }
+
+    /**
+     * Chooses the smallest interval which covers the given dates in no more than the target number of buckets.
+     *
+     * @param min                   the earliest date
+     * @param max                   the latest date
+     * @param targetNumberOfBuckets the maximum number of buckets
+     * @return the interval, or the largest interval if none is large enough
+     */
+    public static DateInterval forRange(final DateTime min, final DateTime max, final int targetNumberOfBuckets) {
+        for (final DateInterval interval : values()) {
+            if (interval.countBuckets(min, max, targetNumberOfBuckets) <= targetNumberOfBuckets) {
+                return interval;
+            }
+        }
+
+        return DECADE;
+    }
+
+    /**
+     * Counts the buckets needed to cover the given dates, stopping once the limit is exceeded so that choosing an
+     * interval for a long range does not step through it a second at a time.
+     *
+     * @param min   the earliest date
+     * @param max   the latest date
+     * @param limit the count beyond which to stop
+     * @return the number of buckets, or a number greater than the limit
+     */
+    int countBuckets(final DateTime min, final DateTime max, final int limit) {
+        int count = 0;
+
+        for (DateTime start = floor(min); start.isBefore(max) || count == 0; start = next(start)) {
+            if (++count > limit) {
+                break;
+            }
+        }
+
+        return count;
+    }
+}
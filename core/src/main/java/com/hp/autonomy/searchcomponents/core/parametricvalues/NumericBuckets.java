@@ -0,0 +1,191 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts of documents in equally sized numeric buckets, as described by a {@link BucketSizeEvaluator}. Bucket i covers
+ * values from min + i * bucketSize up to the start of the next bucket, or up to the maximum for the last bucket.
+ * <p>
+ * Bucket boundaries are computed by multiplication rather than repeated addition so they do not drift, and counts are
+ * placed by index rather than by comparing floating point keys, so there is no boxing and no per bucket lookup cost.
+ * Not thread safe.
+ */
+public class NumericBuckets {
+    private final double min;
+    private final double max;
+    private final double bucketSize;
+    private final boolean unboundedMax;
+    private final int[] counts;
+
+    public NumericBuckets(final BucketSizeEvaluator bucketSizeEvaluator) {
+        this(bucketSizeEvaluator.getMin(), bucketSizeEvaluator.getMax(), bucketSizeEvaluator.getBucketSize(), bucketSizeEvaluator.unboundedMax());
+    }
+
+    /**
+     * @param min          the start of the first bucket
+     * @param max          the end of the last bucket
+     * @param bucketSize   the size of each bucket; the last bucket may be smaller
+     * @param unboundedMax true if the last bucket should include all values above its start when querying
+     */
+    public NumericBuckets(final double min, final double max, final double bucketSize, final boolean unboundedMax) {
+        this.min = min;
+        this.max = max;
+        this.bucketSize = bucketSize;
+        this.unboundedMax = unboundedMax;
+
+        counts = new int[countBuckets(min, max, bucketSize)];
+    }
+
+    private static int countBuckets(final double min, final double max, final double bucketSize) {
+        if (bucketSize <= 0 || max <= min) {
+            return 0;
+        }
+
+        // A bucket is needed for every start value below the maximum; correct for rounding in the division
+        int bucketCount = (int) Math.ceil((max - min) / bucketSize);
+
+        while (min + bucketCount * bucketSize < max) {
+            bucketCount++;
+        }
+
+        while (bucketCount > 1 && min + (bucketCount - 1) * bucketSize >= max) {
+            bucketCount--;
+        }
+
+        return bucketCount;
+    }
+
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * @param index the bucket index
+     * @return the inclusive lower bound of the bucket
+     */
+    public double getBucketMin(final int index) {
+        return min + index * bucketSize;
+    }
+
+    /**
+     * @param index the bucket index
+     * @return the exclusive upper bound of the bucket
+     */
+    public double getBucketMax(final int index) {
+        return index == counts.length - 1 ? max : getBucketMin(index + 1);
+    }
+
+    public int getCount(final int index) {
+        return counts[index];
+    }
+
+    /**
+     * The boundaries to send to the server: the start of every bucket, followed by the maximum unless the last bucket
+     * is unbounded.
+     *
+     * @return a new array of boundaries
+     */
+    public double[] getBoundaries() {
+        final int bucketCount = counts.length;
+        final double[] boundaries = new double[unboundedMax || bucketCount == 0 ? bucketCount : bucketCount + 1];
+
+        for (int i = 0; i < bucketCount; i++) {
+            boundaries[i] = getBucketMin(i);
+        }
+
+        if (boundaries.length > bucketCount) {
+            boundaries[bucketCount] = max;
+        }
+
+        return boundaries;
+    }
+
+    /**
+     * @param value a value between the minimum and the maximum
+     * @return the index of the bucket starting nearest to the value, clamped to the valid range, or -1 if there are no
+     * buckets
+     */
+    public int indexOf(final double value) {
+        if (counts.length == 0) {
+            return -1;
+        }
+
+        // Bucket starts returned by the server may differ from ours in the last few digits, so round to the nearest
+        final long index = Math.round((value - min) / bucketSize);
+        return (int) Math.max(0, Math.min(counts.length - 1, index));
+    }
+
+    /**
+     * Adds to the count of the bucket which starts at the given value.
+     *
+     * @param bucketMin the start of the bucket, as returned by the server
+     * @param count     the number of documents to add
+     */
+    public void addCount(final double bucketMin, final int count) {
+        final int index = indexOf(bucketMin);
+
+        if (index >= 0) {
+            counts[index] += count;
+        }
+    }
+
+    /**
+     * Adds to the count of the bucket containing the given value. Values below the minimum are ignored, as are values at
+     * or above the maximum unless the last bucket is unbounded.
+     *
+     * @param value a field value
+     * @param count the number of documents with the value
+     * @return true if the value was counted
+     */
+    public boolean addValue(final double value, final int count) {
+        if (counts.length == 0 || value < min || value >= max && !unboundedMax) {
+            return false;
+        }
+
+        int index = (int) Math.min(counts.length - 1, (long) Math.floor((value - min) / bucketSize));
+
+        // Correct for rounding in the division, so that values on a boundary always fall in the bucket it starts
+        if (index > 0 && value < getBucketMin(index)) {
+            index--;
+        } else if (index < counts.length - 1 && value >= getBucketMin(index + 1)) {
+            index++;
+        }
+
+        counts[index] += count;
+        return true;
+    }
+
+    /**
+     * @return the sum of the counts of all the buckets
+     */
+    public int getTotalCount() {
+        int totalCount = 0;
+
+        for (final int count : counts) {
+            totalCount += count;
+        }
+
+        return totalCount;
+    }
+
+    /**
+     * @return a value for every bucket in order, including empty buckets
+     */
+    public List<RangeInfo.Value> toValues() {
+        final List<RangeInfo.Value> values = new ArrayList<>(counts.length);
+
+        for (int i = 0; i < counts.length; i++) {
+            values.add(new RangeInfo.Value(counts[i], getBucketMin(i), getBucketMax(i)));
+        }
+
+        return values;
+    }
+}
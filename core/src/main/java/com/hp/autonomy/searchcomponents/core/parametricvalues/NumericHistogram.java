@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagCountInfo;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * The distinct values of a numeric field and their document counts, held in sorted primitive arrays. Used to bucket
+ * numeric values on the client when the server cannot compute the ranges itself.
+ * <p>
+ * Each value is parsed exactly once, when the histogram is created. Immutable.
+ */
+public class NumericHistogram {
+    private final double[] values;
+    private final int[] counts;
+
+    /**
+     * @param values the field values, which need not be sorted
+     * @param counts the document count for each value
+     */
+    public NumericHistogram(final double[] values, final int[] counts) {
+        if (values.length != counts.length) {
+            throw new IllegalArgumentException("There must be a count for every value");
+        }
+
+        this.values = values.clone();
+        this.counts = counts.clone();
+
+        if (!isSorted(this.values)) {
+            sort(this.values, this.counts);
+        }
+    }
+
+    /**
+     * Creates a histogram from parametric values returned by the server. Values which are not numbers are ignored.
+     *
+     * @param tagValues the values and their counts
+     * @return the histogram
+     */
+    public static NumericHistogram fromTagValues(final Collection<QueryTagCountInfo> tagValues) {
+        final double[] values = new double[tagValues.size()];
+        final int[] counts = new int[tagValues.size()];
+        int size = 0;
+
+        for (final QueryTagCountInfo tagValue : tagValues) {
+            try {
+                values[size] = Double.parseDouble(tagValue.getValue());
+                counts[size] = tagValue.getCount();
+                size++;
+            } catch (final NumberFormatException ignored) {
+                // Not a numeric value, so it cannot be bucketed
+            }
+        }
+
+        return new NumericHistogram(Arrays.copyOf(values, size), Arrays.copyOf(counts, size));
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * @return the smallest value; the histogram must not be empty
+     */
+    public double getMin() {
+        return values[0];
+    }
+
+    /**
+     * @return the largest value; the histogram must not be empty
+     */
+    public double getMax() {
+        return values[values.length - 1];
+    }
+
+    public double getValue(final int index) {
+        return values[index];
+    }
+
+    public int getCount(final int index) {
+        return counts[index];
+    }
+
+    /**
+     * @param from the inclusive lower bound
+     * @param to   the exclusive upper bound
+     * @return the total count of the values in the given range
+     */
+    public int getCountBetween(final double from, final double to) {
+        int total = 0;
+
+        for (int i = firstIndexAtLeast(from); i < values.length && values[i] < to; i++) {
+            total += counts[i];
+        }
+
+        return total;
+    }
+
+    /**
+     * Adds the count of every value to the bucket containing it. Only values from the first bucket onwards are
+     * considered; the search for the first such value is a binary search.
+     *
+     * @param buckets the buckets to fill
+     * @return the total count added to the buckets
+     */
+    public int addTo(final NumericBuckets buckets) {
+        int total = 0;
+
+        for (int i = buckets.getBucketCount() == 0 ? values.length : firstIndexAtLeast(buckets.getBucketMin(0)); i < values.length; i++) {
+            if (buckets.addValue(values[i], counts[i])) {
+                total += counts[i];
+            }
+        }
+
+        return total;
+    }
+
+    private int firstIndexAtLeast(final double value) {
+        int low = 0;
+        int high = values.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static boolean isSorted(final double[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] > values[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void sort(final double[] values, final int[] counts) {
+        final Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        final double[] unsortedValues = values.clone();
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                return Double.compare(unsortedValues[first], unsortedValues[second]);
+            }
+        });
+
+        final int[] unsortedCounts = counts.clone();
+        for (int i = 0; i < order.length; i++) {
+            values[i] = unsortedValues[order[i]];
+            counts[i] = unsortedCounts[order[i]];
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.search;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.hp.autonomy.types.requests.Documents;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link AsyncDocumentsService} which runs a {@link DocumentsService} on an executor.
+ *
+ * @param <S> the database type
+ * @param <D> the search result type
+ * @param <E> the checked exception thrown by the synchronous service
+ */
+public class AsyncDocumentsServiceImpl<S extends Serializable, D extends SearchResult, E extends Exception> implements AsyncDocumentsService<S, D> {
+    private final DocumentsService<S, D, E> documentsService;
+    private final ListeningExecutorService executorService;
+
+    public AsyncDocumentsServiceImpl(final DocumentsService<S, D, E> documentsService, final ListeningExecutorService executorService) {
+        this.documentsService = documentsService;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public ListenableFuture<Documents<D>> queryTextIndex(final SearchRequest<S> searchRequest) {
+        return executorService.submit(new Callable<Documents<D>>() {
+            @Override
+            public Documents<D> call() throws E {
+                return documentsService.queryTextIndex(searchRequest);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Documents<D>> queryTextIndexForPromotions(final SearchRequest<S> searchRequest) {
+        return executorService.submit(new Callable<Documents<D>>() {
+            @Override
+            public Documents<D> call() throws E {
+                return documentsService.queryTextIndexForPromotions(searchRequest);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Documents<D>> findSimilar(final SuggestRequest<S> suggestRequest) {
+        return executorService.submit(new Callable<Documents<D>>() {
+            @Override
+            public Documents<D> call() throws E {
+                return documentsService.findSimilar(suggestRequest);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<List<D>> getDocumentContent(final GetContentRequest<S> request) {
+        return executorService.submit(new Callable<List<D>>() {
+            @Override
+            public List<D> call() throws E {
+                return documentsService.getDocumentContent(request);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<String> getStateToken(final QueryRestrictions<S> queryRestrictions, final int maxResults, final boolean promotions) {
+        return executorService.submit(new Callable<String>() {
+            @Override
+            public String call() throws E {
+                return documentsService.getStateToken(queryRestrictions, maxResults, promotions);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<StateTokenAndResultCount> getStateTokenAndResultCount(final QueryRestrictions<S> queryRestrictions, final int maxResults, final boolean promotions) {
+        return executorService.submit(new Callable<StateTokenAndResultCount>() {
+            @Override
+            public StateTokenAndResultCount call() throws E {
+                return documentsService.getStateTokenAndResultCount(queryRestrictions, maxResults, promotions);
+            }
+        });
+    }
+}
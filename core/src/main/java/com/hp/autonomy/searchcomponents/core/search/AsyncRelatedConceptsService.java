@@ -0,0 +1,25 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.search;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.hp.autonomy.types.requests.idol.actions.query.QuerySummaryElement;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Asynchronous form of {@link RelatedConceptsService}. The future fails with the exception the synchronous service would
+ * have thrown.
+ *
+ * @param <Q> the related concept type
+ * @param <S> the database type
+ */
+public interface AsyncRelatedConceptsService<Q extends QuerySummaryElement, S extends Serializable> {
+
+    ListenableFuture<List<Q>> findRelatedConcepts(RelatedConceptsRequest<S> relatedConceptsRequest);
+
+}
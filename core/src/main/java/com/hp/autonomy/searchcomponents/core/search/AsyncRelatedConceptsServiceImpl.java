@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.search;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.hp.autonomy.types.requests.idol.actions.query.QuerySummaryElement;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link AsyncRelatedConceptsService} which runs a {@link RelatedConceptsService} on an executor.
+ *
+ * @param <Q> the related concept type
+ * @param <S> the database type
+ * @param <E> the checked exception thrown by the synchronous service
+ */
+public class AsyncRelatedConceptsServiceImpl<Q extends QuerySummaryElement, S extends Serializable, E extends Exception> implements AsyncRelatedConceptsService<Q, S> {
+    private final RelatedConceptsService<Q, S, E> relatedConceptsService;
+    private final ListeningExecutorService executorService;
+
+    public AsyncRelatedConceptsServiceImpl(final RelatedConceptsService<Q, S, E> relatedConceptsService, final ListeningExecutorService executorService) {
+        this.relatedConceptsService = relatedConceptsService;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public ListenableFuture<List<Q>> findRelatedConcepts(final RelatedConceptsRequest<S> relatedConceptsRequest) {
+        return executorService.submit(new Callable<List<Q>>() {
+            @Override
+            public List<Q> call() throws E {
+                return relatedConceptsService.findRelatedConcepts(relatedConceptsRequest);
+            }
+        });
+    }
+}
@@ -8,23 +8,53 @@ package com.hp.autonomy.searchcomponents.core.search.fields;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
 import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldsInfoChangedEvent;
 import com.hp.autonomy.searchcomponents.core.config.HavenSearchCapable;
+import org.springframework.context.event.EventListener;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public abstract class AbstractDocumentFieldsService implements DocumentFieldsService {
     protected final ConfigService<? extends HavenSearchCapable> configService;
 
+    // Rebuilt whenever the configured fields change
+    private volatile CachedPrintFields cachedPrintFields;
+
     protected AbstractDocumentFieldsService(final ConfigService<? extends HavenSearchCapable> configService) {
         this.configService = configService;
     }
 
     @Override
     public List<String> getPrintFields() {
+        return getCachedPrintFields().printFields;
+    }
+
+    /**
+     * Discards the cached print fields. Replacing the config or its {@link FieldsInfo} is detected automatically; this
+     * is called when a {@link FieldsInfoChangedEvent} is published, for field configuration modified in place.
+     */
+    @EventListener(FieldsInfoChangedEvent.class)
+    public void invalidatePrintFields() {
+        cachedPrintFields = null;
+    }
+
+    private CachedPrintFields getCachedPrintFields() {
         final FieldsInfo fieldsInfo = configService.getConfig().getFieldsInfo();
+        CachedPrintFields printFields = cachedPrintFields;
+
+        if (printFields == null || !printFields.isCurrent(fieldsInfo)) {
+            printFields = new CachedPrintFields(fieldsInfo, buildPrintFields(fieldsInfo));
+            cachedPrintFields = printFields;
+        }
 
+        return printFields;
+    }
+
+    private List<String> buildPrintFields(final FieldsInfo fieldsInfo) {
         final List<String> fields = new ArrayList<>();
 
         for (final FieldInfo<?> field : getHardCodedFields()) {
@@ -40,6 +70,23 @@ public abstract class AbstractDocumentFieldsService implements DocumentFieldsSer
             }
         }
 
-        return fields;
+        return Collections.unmodifiableList(fields);
+    }
+
+    private static class CachedPrintFields {
+        private final FieldsInfo fieldsInfo;
+        // FieldsInfo.merge replaces the field config map without replacing the FieldsInfo
+        private final Map<String, FieldInfo<?>> fieldConfig;
+        private final List<String> printFields;
+
+        private CachedPrintFields(final FieldsInfo fieldsInfo, final List<String> printFields) {
+            this.fieldsInfo = fieldsInfo;
+            fieldConfig = fieldsInfo.getFieldConfig();
+            this.printFields = printFields;
+        }
+
+        private boolean isCurrent(final FieldsInfo currentFieldsInfo) {
+            return fieldsInfo == currentFieldsInfo && fieldConfig == currentFieldsInfo.getFieldConfig();
+        }
     }
 }
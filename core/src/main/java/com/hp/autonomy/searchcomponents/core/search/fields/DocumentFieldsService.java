@@ -11,6 +11,10 @@ import java.util.Collection;
 import java.util.List;
 
 public interface DocumentFieldsService {
+    /**
+     * @return the names of the fields to print for each document; the list must not be modified. Implementations which
+     * return the same list until the fields change let callers cache values derived from it.
+     */
     List<String> getPrintFields();
 
     Collection<FieldInfo<?>> getHardCodedFields();
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.searchpage;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricRequest;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsService;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsRequest;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import com.hp.autonomy.searchcomponents.core.search.SearchResult;
+import com.hp.autonomy.types.requests.Documents;
+import com.hp.autonomy.types.requests.idol.actions.query.QuerySummaryElement;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link SearchPageService} which submits each requested panel to the asynchronous services, then waits for all of them
+ * against a single deadline. Backends build their own parametric and related concepts requests.
+ *
+ * @param <S> the database type
+ * @param <D> the search result type
+ * @param <R> the parametric request type
+ * @param <Q> the related concept type
+ */
+public abstract class AbstractSearchPageService<S extends Serializable, D extends SearchResult, R extends ParametricRequest<S>, Q extends QuerySummaryElement> implements SearchPageService<S, D, Q> {
+    private final AsyncDocumentsService<S, D> documentsService;
+    private final AsyncParametricValuesService<R, S> parametricValuesService;
+    private final AsyncRelatedConceptsService<Q, S> relatedConceptsService;
+    private final long defaultTimeoutMillis;
+
+    protected AbstractSearchPageService(
+            final AsyncDocumentsService<S, D> documentsService,
+            final AsyncParametricValuesService<R, S> parametricValuesService,
+            final AsyncRelatedConceptsService<Q, S> relatedConceptsService,
+            final long defaultTimeoutMillis
+    ) {
+        this.documentsService = documentsService;
+        this.parametricValuesService = parametricValuesService;
+        this.relatedConceptsService = relatedConceptsService;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    /**
+     * @param queryRestrictions the restrictions shared by the page
+     * @param fieldNames        the fields to return values for
+     * @param maxValues         the maximum number of values for each field, or null for the backend default
+     * @return the parametric request
+     */
+    protected abstract R createParametricRequest(QueryRestrictions<S> queryRestrictions, List<String> fieldNames, Integer maxValues);
+
+    /**
+     * @param queryRestrictions  the restrictions shared by the page
+     * @param querySummaryLength the number of related concepts to return, or 0 for the backend default
+     * @return the related concepts request
+     */
+    protected abstract RelatedConceptsRequest<S> createRelatedConceptsRequest(QueryRestrictions<S> queryRestrictions, int querySummaryLength);
+
+    /**
+     * Called once for each page, before any panel is submitted. The default submitter sends each panel to the
+     * asynchronous services; backends may override this to share work, such as building request parameters, between
+     * the panels of the page.
+     *
+     * @param request the page request
+     * @return the submitter for the panels of the page
+     */
+    protected PanelSubmitter createPanelSubmitter(final SearchPageRequest<S> request) {
+        return new PanelSubmitter() {
+            @Override
+            public ListenableFuture<?> submit(final SearchPanel panel) {
+                return AbstractSearchPageService.this.submit(panel, request);
+            }
+        };
+    }
+
+    @Override
+    public SearchPage<D, Q> getSearchPage(final SearchPageRequest<S> request) {
+        final long timeoutMillis = request.getTimeoutMillis() == null ? defaultTimeoutMillis : request.getTimeoutMillis();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        final SearchPage<D, Q> page = new SearchPage<>();
+        final Map<SearchPanel, ListenableFuture<?>> futures = new EnumMap<>(SearchPanel.class);
+        final PanelSubmitter panelSubmitter = createPanelSubmitter(request);
+
+        for (final SearchPanel panel : getRequestedPanels(request)) {
+            try {
+                futures.put(panel, panelSubmitter.submit(panel));
+            } catch (final RejectedExecutionException e) {
+                // the executor is saturated; fail the panel rather than wait for capacity
+                page.getErrors().put(panel, e);
+            }
+        }
+
+        for (final Map.Entry<SearchPanel, ListenableFuture<?>> entry : futures.entrySet()) {
+            final SearchPanel panel = entry.getKey();
+            final ListenableFuture<?> future = entry.getValue();
+
+            try {
+                setPanel(page, panel, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (final ExecutionException e) {
+                page.getErrors().put(panel, e.getCause());
+            } catch (final TimeoutException e) {
+                future.cancel(true);
+                page.getErrors().put(panel, e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                page.getErrors().put(panel, e);
+            }
+        }
+
+        return page;
+    }
+
+    private Set<SearchPanel> getRequestedPanels(final SearchPageRequest<S> request) {
+        final Set<SearchPanel> panels = EnumSet.noneOf(SearchPanel.class);
+
+        if (request.isResults()) {
+            panels.add(SearchPanel.RESULTS);
+        }
+
+        if (request.isPromotions()) {
+            panels.add(SearchPanel.PROMOTIONS);
+        }
+
+        if (request.isParametricValues()) {
+            panels.add(SearchPanel.PARAMETRIC_VALUES);
+        }
+
+        if (request.isNumericParametricValues()) {
+            panels.add(SearchPanel.NUMERIC_PARAMETRIC_VALUES);
+        }
+
+        if (request.isRelatedConcepts()) {
+            panels.add(SearchPanel.RELATED_CONCEPTS);
+        }
+
+        return panels;
+    }
+
+    /**
+     * Submits one panel of the page to the asynchronous services
+     *
+     * @param panel   the panel
+     * @param request the page request
+     * @return the future result of the panel
+     */
+    protected ListenableFuture<?> submit(final SearchPanel panel, final SearchPageRequest<S> request) {
+        final QueryRestrictions<S> queryRestrictions = request.getQueryRestrictions();
+
+        switch (panel) {
+            case RESULTS:
+                return documentsService.queryTextIndex(createSearchRequest(request, request.getQueryType()));
+            case PROMOTIONS:
+                return documentsService.queryTextIndexForPromotions(createSearchRequest(request, SearchRequest.QueryType.PROMOTIONS));
+            case PARAMETRIC_VALUES:
+                return parametricValuesService.getAllParametricValues(createParametricRequest(queryRestrictions, request.getParametricFieldNames(), request.getMaxParametricValues()));
+            case NUMERIC_PARAMETRIC_VALUES:
+                final List<String> bucketedFieldNames = new ArrayList<>(request.getBucketingParamsPerField().keySet());
+                return parametricValuesService.getNumericParametricValuesInBuckets(createParametricRequest(queryRestrictions, bucketedFieldNames, null), request.getBucketingParamsPerField());
+            case RELATED_CONCEPTS:
+            default:
+                return relatedConceptsService.findRelatedConcepts(createRelatedConceptsRequest(queryRestrictions, request.getQuerySummaryLength()));
+        }
+    }
+
+    /**
+     * @param request   the page request
+     * @param queryType the type of query for the panel
+     * @return the search request for the results or promotions panel
+     */
+    protected SearchRequest<S> createSearchRequest(final SearchPageRequest<S> request, final SearchRequest.QueryType queryType) {
+        return new SearchRequest.Builder<S>()
+                .setQueryRestrictions(request.getQueryRestrictions())
+                .setStart(request.getStart())
+                .setMaxResults(request.getMaxResults())
+                .setSummary(request.getSummary())
+                .setSummaryCharacters(request.getSummaryCharacters())
+                .setSort(request.getSort())
+                .setHighlight(request.isHighlight())
+                .setAutoCorrect(request.isAutoCorrect())
+                .setPrint(request.getPrint())
+                .setQueryType(queryType)
+                .build();
+    }
+
+    /**
+     * Submits the panels of one page
+     */
+    protected interface PanelSubmitter {
+        /**
+         * @param panel the panel to submit
+         * @return the future result of the panel
+         * @throws RejectedExecutionException if the panel cannot be accepted for execution
+         */
+        ListenableFuture<?> submit(SearchPanel panel);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setPanel(final SearchPage<D, Q> page, final SearchPanel panel, final Object value) {
+        switch (panel) {
+            case RESULTS:
+                page.setResults((Documents<D>) value);
+                break;
+            case PROMOTIONS:
+                page.setPromotions((Documents<D>) value);
+                break;
+            case PARAMETRIC_VALUES:
+                page.setParametricValues((Set<QueryTagInfo>) value);
+                break;
+            case NUMERIC_PARAMETRIC_VALUES:
+                page.setNumericParametricValues((List<RangeInfo>) value);
+                break;
+            case RELATED_CONCEPTS:
+                page.setRelatedConcepts((List<Q>) value);
+                break;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.searchpage;
+
+import com.hp.autonomy.searchcomponents.core.search.SearchResult;
+import com.hp.autonomy.types.requests.Documents;
+import com.hp.autonomy.types.requests.idol.actions.query.QuerySummaryElement;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The panels of a search page. A panel which was not requested, or which failed, is null; the failure of each panel
+ * which failed is in {@link #getErrors()}, and is a {@link java.util.concurrent.TimeoutException} if the panel did not
+ * complete before the page deadline.
+ *
+ * @param <D> the search result type
+ * @param <Q> the related concept type
+ */
+@Data
+public class SearchPage<D extends SearchResult, Q extends QuerySummaryElement> {
+    private Documents<D> results;
+    private Documents<D> promotions;
+    private Set<QueryTagInfo> parametricValues;
+    private List<RangeInfo> numericParametricValues;
+    private List<Q> relatedConcepts;
+    private final Map<SearchPanel, Throwable> errors = new EnumMap<>(SearchPanel.class);
+
+    /**
+     * @return true if every requested panel succeeded
+     */
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+}
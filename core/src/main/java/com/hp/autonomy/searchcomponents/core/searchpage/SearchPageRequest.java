@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.searchpage;
+
+import com.hp.autonomy.searchcomponents.core.parametricvalues.BucketingParams;
+import com.hp.autonomy.searchcomponents.core.search.AciSearchRequest;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request for the panels of a search page. Every panel is restricted by the same {@link QueryRestrictions}; the other
+ * properties apply only to the panel named in their prefix.
+ *
+ * @param <S> the database type
+ */
+@Data
+public class SearchPageRequest<S extends Serializable> {
+    private final QueryRestrictions<S> queryRestrictions;
+
+    private final boolean results;
+    private final boolean promotions;
+    private final int start;
+    private final int maxResults;
+    private final String summary;
+    private final Integer summaryCharacters;
+    private final String sort;
+    private final boolean highlight;
+    private final boolean autoCorrect;
+    private final String print;
+    private final SearchRequest.QueryType queryType;
+
+    private final boolean parametricValues;
+    private final List<String> parametricFieldNames;
+    private final Integer maxParametricValues;
+
+    private final boolean numericParametricValues;
+    private final Map<String, BucketingParams> bucketingParamsPerField;
+
+    private final boolean relatedConcepts;
+    private final int querySummaryLength;
+
+    /**
+     * Time allowed for the whole page in milliseconds, or null for the service default
+     */
+    private final Long timeoutMillis;
+
+    private SearchPageRequest(final Builder<S> builder) {
+        queryRestrictions = builder.queryRestrictions;
+        results = builder.results;
+        promotions = builder.promotions;
+        start = builder.start;
+        maxResults = builder.maxResults;
+        summary = builder.summary;
+        summaryCharacters = builder.summaryCharacters;
+        sort = builder.sort;
+        highlight = builder.highlight;
+        autoCorrect = builder.autoCorrect;
+        print = builder.print;
+        queryType = builder.queryType;
+        parametricValues = builder.parametricValues;
+        parametricFieldNames = builder.parametricFieldNames;
+        maxParametricValues = builder.maxParametricValues;
+        numericParametricValues = builder.numericParametricValues;
+        bucketingParamsPerField = builder.bucketingParamsPerField;
+        relatedConcepts = builder.relatedConcepts;
+        querySummaryLength = builder.querySummaryLength;
+        timeoutMillis = builder.timeoutMillis;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder<S extends Serializable> {
+        private QueryRestrictions<S> queryRestrictions;
+        private boolean results = true;
+        private boolean promotions;
+        private int start = AciSearchRequest.DEFAULT_START;
+        private int maxResults = AciSearchRequest.DEFAULT_MAX_RESULTS;
+        private String summary;
+        private Integer summaryCharacters;
+        private String sort;
+        private boolean highlight;
+        private boolean autoCorrect;
+        private String print = AciSearchRequest.DEFAULT_PRINT;
+        private SearchRequest.QueryType queryType = SearchRequest.QueryType.MODIFIED;
+        private boolean parametricValues;
+        private List<String> parametricFieldNames = Collections.emptyList();
+        private Integer maxParametricValues;
+        private boolean numericParametricValues;
+        private Map<String, BucketingParams> bucketingParamsPerField = Collections.emptyMap();
+        private boolean relatedConcepts;
+        private int querySummaryLength;
+        private Long timeoutMillis;
+
+        public SearchPageRequest<S> build() {
+            return new SearchPageRequest<>(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.searchpage;
+
+import com.hp.autonomy.searchcomponents.core.search.SearchResult;
+import com.hp.autonomy.types.requests.idol.actions.query.QuerySummaryElement;
+
+import java.io.Serializable;
+
+/**
+ * Fetches the panels of a search page concurrently, so that the time taken is that of the slowest panel rather than
+ * the sum of all of them.
+ *
+ * @param <S> the database type
+ * @param <D> the search result type
+ * @param <Q> the related concept type
+ */
+public interface SearchPageService<S extends Serializable, D extends SearchResult, Q extends QuerySummaryElement> {
+    String TIMEOUT_PROPERTY = "haven-search.search-page.timeout-millis";
+    long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    /**
+     * Fetches the requested panels. Failures are reported per panel rather than thrown, and panels which have not
+     * completed when the page deadline passes are cancelled.
+     *
+     * @param request the panels to fetch and their restrictions
+     * @return the page
+     */
+    SearchPage<D, Q> getSearchPage(SearchPageRequest<S> request);
+
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.searchpage;
+
+/**
+ * The parts of a search page which can be requested from a {@link SearchPageService}.
+ */
+public enum SearchPanel {
+    RESULTS,
+    PROMOTIONS,
+    PARAMETRIC_VALUES,
+    NUMERIC_PARAMETRIC_VALUES,
+    RELATED_CONCEPTS
+}
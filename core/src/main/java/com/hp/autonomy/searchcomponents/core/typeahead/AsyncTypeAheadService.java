@@ -0,0 +1,20 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+
+/**
+ * Asynchronous form of {@link TypeAheadService}. The future fails with the exception the synchronous service would have
+ * thrown.
+ */
+public interface AsyncTypeAheadService {
+
+    ListenableFuture<List<String>> getSuggestions(String text);
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link AsyncTypeAheadService} which runs a {@link TypeAheadService} on an executor.
+ *
+ * @param <E> the checked exception thrown by the synchronous service
+ */
+public class AsyncTypeAheadServiceImpl<E extends Exception> implements AsyncTypeAheadService {
+    private final TypeAheadService<E> typeAheadService;
+    private final ListeningExecutorService executorService;
+
+    public AsyncTypeAheadServiceImpl(final TypeAheadService<E> typeAheadService, final ListeningExecutorService executorService) {
+        this.typeAheadService = typeAheadService;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public ListenableFuture<List<String>> getSuggestions(final String text) {
+        return executorService.submit(new Callable<List<String>>() {
+            @Override
+            public List<String> call() throws E {
+                return typeAheadService.getSuggestions(text);
+            }
+        });
+    }
+}
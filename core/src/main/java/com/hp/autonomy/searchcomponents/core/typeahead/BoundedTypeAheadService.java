@@ -0,0 +1,25 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import java.util.List;
+
+/**
+ * {@link TypeAheadService} which can return more or fewer than {@link TypeAheadConstants#MAX_RESULTS} suggestions.
+ *
+ * @param <E> the checked exception thrown by the service
+ */
+public interface BoundedTypeAheadService<E extends Exception> extends TypeAheadService<E> {
+
+    /**
+     * @param text       the text typed by the user
+     * @param maxResults the maximum number of suggestions to return
+     * @return the suggestions, best first
+     * @throws E if the backend fails
+     */
+    List<String> getSuggestions(String text, int maxResults) throws E;
+
+}
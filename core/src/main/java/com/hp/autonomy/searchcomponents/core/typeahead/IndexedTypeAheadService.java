@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+/**
+ * {@link TypeAheadService} which answers from a {@link LocalTypeAheadIndex} where it can, and otherwise asks the backend
+ * service and records its answer in the index.
+ *
+ * @param <E> the checked exception thrown by the backend service
+ */
+public class IndexedTypeAheadService<E extends Exception> implements BoundedTypeAheadService<E> {
+    private final LocalTypeAheadIndex index;
+    private final BoundedTypeAheadService<E> fallback;
+
+    public IndexedTypeAheadService(final LocalTypeAheadIndex index, final BoundedTypeAheadService<E> fallback) {
+        this.index = index;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public List<String> getSuggestions(final String text) throws E {
+        return getSuggestions(text, TypeAheadConstants.MAX_RESULTS);
+    }
+
+    @Override
+    public List<String> getSuggestions(final String text, final int maxResults) throws E {
+        if (StringUtils.isBlank(text)) {
+            return fallback.getSuggestions(text, maxResults);
+        }
+
+        final List<String> indexedSuggestions = index.getSuggestions(text);
+
+        // Fewer suggestions than the index holds per prefix means there are no more to find
+        if (indexedSuggestions != null && (indexedSuggestions.size() < index.getMaxResults() || maxResults <= indexedSuggestions.size())) {
+            return indexedSuggestions.subList(0, Math.min(maxResults, indexedSuggestions.size()));
+        }
+
+        final List<String> suggestions = fallback.getSuggestions(text, maxResults);
+
+        // The backend ranks suggestions, so the first maxResults of a longer list are its answer for the index's size
+        if (maxResults >= index.getMaxResults()) {
+            index.recordSuggestions(text, suggestions.subList(0, Math.min(index.getMaxResults(), suggestions.size())));
+        }
+
+        return suggestions;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process type-ahead index which answers the prefixes it can answer exactly, so that only the rest need to be sent
+ * to the backend. It combines two sources:
+ * <ul>
+ * <li>a sweep: weighted terms loaded in bulk for a set of root prefixes, held in a {@link PrefixTrie}</li>
+ * <li>recent suggestions: the backend's answers for recently requested prefixes</li>
+ * </ul>
+ * A swept root is either complete, or truncated at a minimum weight. The trie answers a prefix under a truncated root
+ * only when every completion it returns outweighs that minimum, since no unswept term could displace them.
+ */
+public class LocalTypeAheadIndex {
+    private static final long COMPLETE = Long.MIN_VALUE;
+
+    private final int maxResults;
+    private final Cache<String, List<String>> recentSuggestions;
+
+    private volatile Sweep sweep;
+
+    /**
+     * @param maxResults                  the number of suggestions returned by the backend for a prefix
+     * @param maxRecentSuggestions        the maximum number of prefixes for which recent suggestions are kept
+     * @param recentSuggestionsTtlSeconds how long recent suggestions are kept
+     */
+    public LocalTypeAheadIndex(final int maxResults, final long maxRecentSuggestions, final long recentSuggestionsTtlSeconds) {
+        this.maxResults = maxResults;
+
+        recentSuggestions = CacheBuilder.newBuilder()
+                .maximumSize(maxRecentSuggestions)
+                .expireAfterWrite(recentSuggestionsTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * @return the number of suggestions returned by the backend for a prefix
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * @param text the text typed by the user
+     * @return the suggestions for the text, or null if the index cannot answer it
+     */
+    public List<String> getSuggestions(final String text) {
+        final List<String> recent = recentSuggestions.getIfPresent(text);
+        if (recent != null) {
+            return recent;
+        }
+
+        final List<String> swept = getSweptSuggestions(text.toLowerCase(Locale.ROOT));
+        if (swept != null) {
+            return swept;
+        }
+
+        return getSuggestionsFromShorterPrefix(text);
+    }
+
+    /**
+     * Records the backend's suggestions for some text.
+     *
+     * @param text        the text typed by the user
+     * @param suggestions the suggestions returned by the backend
+     */
+    public void recordSuggestions(final String text, final List<String> suggestions) {
+        recentSuggestions.put(text, Collections.unmodifiableList(new ArrayList<>(suggestions)));
+    }
+
+    /**
+     * Replaces the swept terms.
+     *
+     * @param weightedTerms  the swept terms, in lower case, and their weights
+     * @param rootMinWeights for each root prefix which was swept, the lowest weight returned if the sweep was truncated,
+     *                       or null if every term under the root was returned
+     */
+    public void setSweep(final Map<String, Long> weightedTerms, final Map<String, Long> rootMinWeights) {
+        final Map<String, Long> rootThresholds = new HashMap<>();
+        for (final Map.Entry<String, Long> entry : rootMinWeights.entrySet()) {
+            rootThresholds.put(entry.getKey(), entry.getValue() == null ? COMPLETE : entry.getValue());
+        }
+
+        sweep = new Sweep(PrefixTrie.build(weightedTerms, maxResults), rootThresholds);
+    }
+
+    /**
+     * @return the number of swept terms
+     */
+    public int getSweptTermCount() {
+        final Sweep currentSweep = sweep;
+        return currentSweep == null ? 0 : currentSweep.trie.size();
+    }
+
+    private List<String> getSweptSuggestions(final String prefix) {
+        final Sweep currentSweep = sweep;
+        if (currentSweep == null || prefix.isEmpty()) {
+            return null;
+        }
+
+        final Long threshold = findRootThreshold(currentSweep, prefix);
+        if (threshold == null) {
+            return null;
+        }
+
+        final List<PrefixTrie.Completion> completions = currentSweep.trie.getCompletions(prefix);
+        final boolean exact = completions.size() < maxResults
+                ? threshold == COMPLETE
+                : completions.get(maxResults - 1).getWeight() > threshold;
+
+        if (!exact) {
+            return null;
+        }
+
+        final List<String> suggestions = new ArrayList<>(completions.size());
+        for (final PrefixTrie.Completion completion : completions) {
+            suggestions.add(completion.getTerm());
+        }
+
+        return suggestions;
+    }
+
+    private Long findRootThreshold(final Sweep currentSweep, final String prefix) {
+        for (int length = prefix.length(); length > 0; length--) {
+            final Long threshold = currentSweep.rootThresholds.get(prefix.substring(0, length));
+
+            if (threshold != null) {
+                return threshold;
+            }
+        }
+
+        return null;
+    }
+
+    // If the backend returned fewer than maxResults suggestions for a shorter prefix, and they all extend that prefix,
+    // they are every possible suggestion for this text too
+    private List<String> getSuggestionsFromShorterPrefix(final String text) {
+        final String lowerCaseText = text.toLowerCase(Locale.ROOT);
+
+        for (int length = text.length() - 1; length > 0; length--) {
+            final String shorterText = text.substring(0, length);
+            final List<String> shorterSuggestions = recentSuggestions.getIfPresent(shorterText);
+
+            if (shorterSuggestions != null && shorterSuggestions.size() < maxResults && allStartWith(shorterSuggestions, shorterText.toLowerCase(Locale.ROOT))) {
+                final List<String> suggestions = new ArrayList<>();
+
+                for (final String suggestion : shorterSuggestions) {
+                    if (suggestion.toLowerCase(Locale.ROOT).startsWith(lowerCaseText)) {
+                        suggestions.add(suggestion);
+                    }
+                }
+
+                return suggestions;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean allStartWith(final List<String> suggestions, final String lowerCasePrefix) {
+        for (final String suggestion : suggestions) {
+            if (!suggestion.toLowerCase(Locale.ROOT).startsWith(lowerCasePrefix)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static class Sweep {
+        private final PrefixTrie trie;
+        private final Map<String, Long> rootThresholds;
+
+        private Sweep(final PrefixTrie trie, final Map<String, Long> rootThresholds) {
+            this.trie = trie;
+            this.rootThresholds = rootThresholds;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable trie of weighted terms. Every node stores the indexes of the highest weighted terms beneath it, so a prefix
+ * lookup costs one step per character of the prefix regardless of how many terms share it.
+ */
+public final class PrefixTrie {
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final String[] terms;
+    private final long[] weights;
+    private final int maxCompletions;
+    private final Node root;
+
+    private PrefixTrie(final String[] terms, final long[] weights, final int maxCompletions) {
+        this.terms = terms;
+        this.weights = weights;
+        this.maxCompletions = maxCompletions;
+
+        root = buildNode(0, terms.length, 0);
+    }
+
+    /**
+     * @param weightedTerms  the terms to index and their weights
+     * @param maxCompletions the maximum number of completions returned for a prefix
+     * @return the trie
+     */
+    public static PrefixTrie build(final Map<String, Long> weightedTerms, final int maxCompletions) {
+        final String[] terms = weightedTerms.keySet().toArray(new String[weightedTerms.size()]);
+        Arrays.sort(terms);
+
+        final long[] weights = new long[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            weights[i] = weightedTerms.get(terms[i]);
+        }
+
+        return new PrefixTrie(terms, weights, maxCompletions);
+    }
+
+    /**
+     * @return the number of terms in the trie
+     */
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * @return the maximum number of completions returned for a prefix
+     */
+    public int getMaxCompletions() {
+        return maxCompletions;
+    }
+
+    /**
+     * @param prefix the prefix to complete
+     * @return the highest weighted terms starting with the prefix, highest weight first, with ties in alphabetical order
+     */
+    public List<Completion> getCompletions(final String prefix) {
+        Node node = root;
+
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            final int childIndex = Arrays.binarySearch(node.childChars, prefix.charAt(i));
+            node = childIndex < 0 ? null : node.children[childIndex];
+        }
+
+        if (node == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Completion> completions = new ArrayList<>(node.top.length);
+        for (final int termIndex : node.top) {
+            completions.add(new Completion(terms[termIndex], weights[termIndex]));
+        }
+
+        return completions;
+    }
+
+    // Builds the node for the terms in [start, end), which share their first depth characters
+    private Node buildNode(final int start, final int end, final int depth) {
+        // Terms are sorted, so a term which ends at this node comes first
+        final boolean terminal = start < end && terms[start].length() == depth;
+        final int childrenStart = terminal ? start + 1 : start;
+
+        final List<Character> childChars = new ArrayList<>();
+        final List<Node> children = new ArrayList<>();
+
+        int childStart = childrenStart;
+        while (childStart < end) {
+            final char c = terms[childStart].charAt(depth);
+
+            int childEnd = childStart + 1;
+            while (childEnd < end && terms[childEnd].charAt(depth) == c) {
+                childEnd++;
+            }
+
+            childChars.add(c);
+            children.add(buildNode(childStart, childEnd, depth + 1));
+            childStart = childEnd;
+        }
+
+        final List<Integer> candidates = new ArrayList<>();
+        if (terminal) {
+            candidates.add(start);
+        }
+
+        for (final Node child : children) {
+            for (final int termIndex : child.top) {
+                candidates.add(termIndex);
+            }
+        }
+
+        Collections.sort(candidates, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer a, final Integer b) {
+                final int weightComparison = Long.compare(weights[b], weights[a]);
+                return weightComparison != 0 ? weightComparison : Integer.compare(a, b);
+            }
+        });
+
+        final int[] top = new int[Math.min(maxCompletions, candidates.size())];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = candidates.get(i);
+        }
+
+        return new Node(toCharArray(childChars), children.isEmpty() ? NO_NODES : children.toArray(new Node[children.size()]), top);
+    }
+
+    private static char[] toCharArray(final List<Character> characters) {
+        if (characters.isEmpty()) {
+            return NO_CHARS;
+        }
+
+        final char[] chars = new char[characters.size()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = characters.get(i);
+        }
+
+        return chars;
+    }
+
+    @Data
+    public static class Completion {
+        private final String term;
+        private final long weight;
+    }
+
+    private static final class Node {
+        private final char[] childChars;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(final char[] childChars, final Node[] children, final int[] top) {
+            this.childChars = childChars;
+            this.children = children;
+            this.top = top;
+        }
+    }
+}
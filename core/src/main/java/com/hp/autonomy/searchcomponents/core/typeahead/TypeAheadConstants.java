@@ -8,5 +8,10 @@ package com.hp.autonomy.searchcomponents.core.typeahead;
 public class TypeAheadConstants {
     public static final int MAX_RESULTS = 7;
 
+    /**
+     * The number of suggestions fetched for a type-ahead session, so that longer prefixes can be answered by filtering
+     */
+    public static final int SESSION_FETCH_SIZE = 50;
+
     private TypeAheadConstants() {}
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TypeAheadService} which remembers the last suggestions fetched for each user. While the user keeps typing, so
+ * that each text extends the last one fetched, suggestions are found by filtering the remembered list. The backend is
+ * only asked again when fewer than {@link TypeAheadConstants#MAX_RESULTS} remembered suggestions match, unless the
+ * remembered list already held every suggestion for its prefix. Suggestions are only remembered if they all start with
+ * the text they were fetched for.
+ * <p>
+ * The remembered list is ordered by the backend, so when enough of it matches, its first matches are exactly what the
+ * backend would return for the longer text.
+ *
+ * @param <E> the checked exception thrown by the backend service
+ */
+public class TypeAheadSessionService<E extends Exception> implements TypeAheadService<E> {
+    private final BoundedTypeAheadService<E> backend;
+    private final AuthenticationInformationRetriever<?, ?> authenticationInformationRetriever;
+    private final int fetchSize;
+    private final Cache<String, Session> sessions;
+
+    /**
+     * @param backend                            the service which fetches suggestions
+     * @param authenticationInformationRetriever identifies the user; users who are not authenticated have no session
+     * @param fetchSize                          the number of suggestions to fetch from the backend for each session
+     * @param maxSessions                        the maximum number of sessions to remember
+     * @param sessionTtlSeconds                  how long a session is remembered after it was last used
+     */
+    public TypeAheadSessionService(
+            final BoundedTypeAheadService<E> backend,
+            final AuthenticationInformationRetriever<?, ?> authenticationInformationRetriever,
+            final int fetchSize,
+            final long maxSessions,
+            final long sessionTtlSeconds
+    ) {
+        this.backend = backend;
+        this.authenticationInformationRetriever = authenticationInformationRetriever;
+        this.fetchSize = fetchSize;
+
+        sessions = CacheBuilder.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterAccess(sessionTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public List<String> getSuggestions(final String text) throws E {
+        final Authentication authentication = authenticationInformationRetriever.getAuthentication();
+
+        if (authentication == null || authentication.getName() == null || StringUtils.isBlank(text)) {
+            return backend.getSuggestions(text);
+        }
+
+        final String lowerCaseText = text.toLowerCase(Locale.ROOT);
+        final Session session = sessions.getIfPresent(authentication.getName());
+
+        if (session != null && lowerCaseText.startsWith(session.lowerCasePrefix)) {
+            final List<String> filtered = filter(session.suggestions, lowerCaseText, TypeAheadConstants.MAX_RESULTS);
+
+            if (filtered.size() >= TypeAheadConstants.MAX_RESULTS || session.complete) {
+                return filtered;
+            }
+        }
+
+        final List<String> suggestions = backend.getSuggestions(text, fetchSize);
+
+        if (filter(suggestions, lowerCaseText, suggestions.size()).size() == suggestions.size()) {
+            sessions.put(authentication.getName(), new Session(lowerCaseText, suggestions, suggestions.size() < fetchSize));
+        } else {
+            sessions.invalidate(authentication.getName());
+        }
+
+        return new ArrayList<>(suggestions.subList(0, Math.min(TypeAheadConstants.MAX_RESULTS, suggestions.size())));
+    }
+
+    private static List<String> filter(final List<String> suggestions, final String lowerCaseText, final int maxResults) {
+        final List<String> filtered = new ArrayList<>();
+
+        for (final String suggestion : suggestions) {
+            if (suggestion.toLowerCase(Locale.ROOT).startsWith(lowerCaseText)) {
+                filtered.add(suggestion);
+
+                if (filtered.size() == maxResults) {
+                    break;
+                }
+            }
+        }
+
+        return filtered;
+    }
+
+    private static class Session {
+        private final String lowerCasePrefix;
+        private final List<String> suggestions;
+        private final boolean complete;
+
+        private Session(final String lowerCasePrefix, final List<String> suggestions, final boolean complete) {
+            this.lowerCasePrefix = lowerCasePrefix;
+            this.suggestions = new ArrayList<>(suggestions);
+            this.complete = complete;
+        }
+    }
+}
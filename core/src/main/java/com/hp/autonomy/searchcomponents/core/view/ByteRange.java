@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single range of bytes requested from a viewed document, as in an HTTP Range header. The end is inclusive; a null
+ * end means the rest of the document.
+ */
+@Data
+public class ByteRange implements Serializable {
+    private static final long serialVersionUID = -3416278530126373954L;
+
+    private static final Pattern RANGE_HEADER_PATTERN = Pattern.compile("^\\s*bytes\\s*=\\s*(\\d+)\\s*-\\s*(\\d*)\\s*$");
+
+    private final long start;
+    private final Long end;
+
+    /**
+     * Parses an HTTP Range header. Only single ranges with an explicit start are supported, because the length of a
+     * viewed document is not known until it has been read.
+     *
+     * @param header the value of the Range header
+     * @return the range, or null if the header is absent or not supported, in which case the whole document should be
+     * sent
+     */
+    public static ByteRange parse(final String header) {
+        if (header == null) {
+            return null;
+        }
+
+        final Matcher matcher = RANGE_HEADER_PATTERN.matcher(header);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        try {
+            final long start = Long.parseLong(matcher.group(1));
+            final Long end = matcher.group(2).isEmpty() ? null : Long.valueOf(matcher.group(2));
+            return end != null && end < start ? null : new ByteRange(start, end);
+        } catch (final NumberFormatException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * @param position a byte offset in the document
+     * @return true if the range ends before the offset
+     */
+    public boolean endsBefore(final long position) {
+        return end != null && end < position;
+    }
+}
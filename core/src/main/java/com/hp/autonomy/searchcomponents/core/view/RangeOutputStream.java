@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream which writes only the requested range of the bytes written to it, and fails once more than the maximum
+ * document size has been written.
+ */
+public class RangeOutputStream extends FilterOutputStream {
+    private final ByteRange range;
+    private final long maxDocumentSize;
+
+    private long position;
+    private long written;
+
+    /**
+     * @param out             the stream to write the range to
+     * @param range           the range to write, or null to write everything
+     * @param maxDocumentSize the maximum number of bytes which may be written to this stream
+     */
+    public RangeOutputStream(final OutputStream out, final ByteRange range, final long maxDocumentSize) {
+        super(out);
+
+        this.range = range;
+        this.maxDocumentSize = maxDocumentSize;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (position + length > maxDocumentSize) {
+            throw new ViewDocumentTooLargeException(maxDocumentSize);
+        }
+
+        final long rangeStart = range == null ? 0 : range.getStart();
+        final long rangeEndExclusive = range == null || range.getEnd() == null ? Long.MAX_VALUE : range.getEnd() + 1;
+
+        final long from = Math.max(position, rangeStart);
+        final long to = Math.min(position + length, rangeEndExclusive);
+
+        if (from < to) {
+            out.write(bytes, offset + (int) (from - position), (int) (to - from));
+            written += to - from;
+        }
+
+        position += length;
+    }
+
+    /**
+     * @return true if every byte in the range has been written, so the rest of the document need not be read
+     */
+    public boolean isRangeComplete() {
+        return range != null && range.endsBefore(position);
+    }
+
+    /**
+     * @param documentComplete true if the whole document has been written to this stream
+     * @return the range which was written
+     */
+    public ViewedRange getViewedRange(final boolean documentComplete) {
+        final long start = range == null ? 0 : Math.min(range.getStart(), position);
+        return new ViewedRange(start, written, documentComplete ? position : null);
+    }
+}
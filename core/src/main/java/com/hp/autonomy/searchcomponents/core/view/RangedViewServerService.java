@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * {@link ViewServerService} which can write part of a viewed document.
+ *
+ * @param <S> the database type
+ * @param <E> the checked exception thrown by the service
+ */
+public interface RangedViewServerService<S extends Serializable, E extends Exception> extends ViewServerService<S, E> {
+
+    /**
+     * View part of the document with the given reference in the given index, writing the output to the given output
+     * stream.
+     *
+     * @param documentReference   The document reference
+     * @param database            The database or index containing the document
+     * @param highlightExpression Text to highlight in the document
+     * @param range               The range of bytes to write, or null to write the whole document
+     * @param outputStream        The output stream to write the viewed document to
+     * @return The range which was written
+     * @throws E any error
+     */
+    ViewedRange viewDocument(String documentReference, S database, String highlightExpression, ByteRange range, OutputStream outputStream) throws E, IOException;
+
+}
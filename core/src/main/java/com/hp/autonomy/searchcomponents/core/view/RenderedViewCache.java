@@ -0,0 +1,320 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import com.google.common.base.Joiner;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk cache of rendered documents. Entries are stored in files named by a hash of their key, so the key should
+ * include everything which affects the rendering, including the version of the source document; a new version is then
+ * a new entry and the old one is evicted when it becomes the least recently used. Hits are read from the file and
+ * written to the client's output stream; since that stream is not a file or socket channel, this is an ordinary copy
+ * through a small heap buffer, not a zero-copy transfer. What the cache saves is the ViewServer rendering.
+ * <p>
+ * The cache is disabled unless a directory is configured.
+ */
+@Slf4j
+@Component
+public class RenderedViewCache implements InitializingBean {
+    public static final String DIRECTORY_PROPERTY = "haven-search.view.cache.directory";
+    public static final String MAX_SIZE_PROPERTY = "haven-search.view.cache.max-size";
+
+    static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+    private static final String ENTRY_SUFFIX = ".html";
+    private static final String PARTIAL_SUFFIX = ".partial";
+
+    private final Path directory;
+    private final long maxSize;
+
+    // access-ordered, so iteration starts at the least recently used entry
+    private final Map<String, Long> entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    public RenderedViewCache() {
+        this(null, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param directory the directory to store rendered documents in, or blank to disable the cache
+     * @param maxSize   the maximum total size of the rendered documents in bytes
+     */
+    @Autowired
+    public RenderedViewCache(
+            @Value("${" + DIRECTORY_PROPERTY + ":}") final String directory,
+            @Value("${" + MAX_SIZE_PROPERTY + ":" + DEFAULT_MAX_SIZE + "}") final long maxSize
+    ) {
+        this.directory = StringUtils.isBlank(directory) ? null : Paths.get(directory);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates the cache directory if necessary and indexes any entries already in it, oldest first, so that the cache
+     * survives a restart.
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (directory == null) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+
+        final List<Path> entries = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path path : stream) {
+                if (path.getFileName().toString().endsWith(PARTIAL_SUFFIX)) {
+                    Files.deleteIfExists(path);
+                } else if (path.getFileName().toString().endsWith(ENTRY_SUFFIX)) {
+                    entries.add(path);
+                }
+            }
+        }
+
+        Collections.sort(entries, new Comparator<Path>() {
+            @Override
+            public int compare(final Path a, final Path b) {
+                return Long.compare(lastModified(a), lastModified(b));
+            }
+        });
+
+        for (final Path entry : entries) {
+            final String fileName = entry.getFileName().toString();
+            add(fileName.substring(0, fileName.length() - ENTRY_SUFFIX.length()), Files.size(entry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Writes a cached rendering to the given output stream.
+     *
+     * @param keyParts     the parts of the key of the rendering
+     * @param range        the range of bytes to write, or null for all of them
+     * @param outputStream the stream to write to
+     * @return the range which was written, or null if the rendering is not cached
+     * @throws IOException if writing to the output stream fails
+     */
+    public ViewedRange write(final List<?> keyParts, final ByteRange range, final OutputStream outputStream) throws IOException {
+        if (directory == null) {
+            return null;
+        }
+
+        final String hash = hash(keyParts);
+
+        synchronized (this) {
+            // updates the access order
+            if (entrySizes.get(hash) == null) {
+                return null;
+            }
+        }
+
+        try (final FileChannel channel = FileChannel.open(entryPath(hash), StandardOpenOption.READ)) {
+            final long documentLength = channel.size();
+            final long start = range == null ? 0 : Math.min(range.getStart(), documentLength);
+            final long end = range == null || range.getEnd() == null ? documentLength : Math.min(range.getEnd() + 1, documentLength);
+
+            outputStream.flush();
+            // the target wraps a plain output stream, so transferTo falls back to copying through a heap buffer
+            final WritableByteChannel target = Channels.newChannel(outputStream);
+
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+
+            outputStream.flush();
+            return new ViewedRange(start, end - start, documentLength);
+        } catch (final NoSuchFileException ignored) {
+            // evicted or removed since the lookup
+            remove(hash);
+            return null;
+        }
+    }
+
+    /**
+     * Starts a new cache entry. Write the whole rendering to the entry, then call {@link Entry#commit()} to add it to the
+     * cache; an entry which is closed without being committed is discarded.
+     *
+     * @param keyParts the parts of the key of the rendering
+     * @return the entry, or null if the cache is disabled or the entry cannot be created
+     */
+    public Entry create(final List<?> keyParts) {
+        if (directory == null) {
+            return null;
+        }
+
+        final String hash = hash(keyParts);
+
+        try {
+            final Path partial = Files.createTempFile(directory, hash, PARTIAL_SUFFIX);
+            return new Entry(hash, partial, Files.newOutputStream(partial));
+        } catch (final IOException e) {
+            log.warn("Could not create rendered view cache entry in {}", directory, e);
+            return null;
+        }
+    }
+
+    private synchronized void add(final String hash, final long entrySize) {
+        final Long previous = entrySizes.put(hash, entrySize);
+        size += entrySize - (previous == null ? 0 : previous);
+
+        final Iterator<Map.Entry<String, Long>> iterator = entrySizes.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue();
+            deleteQuietly(entryPath(eldest.getKey()));
+        }
+    }
+
+    private synchronized void remove(final String hash) {
+        final Long entrySize = entrySizes.remove(hash);
+        if (entrySize != null) {
+            size -= entrySize;
+        }
+    }
+
+    private Path entryPath(final String hash) {
+        return directory.resolve(hash + ENTRY_SUFFIX);
+    }
+
+    private String hash(final List<?> keyParts) {
+        return Hashing.sha256().hashString(Joiner.on('\u0000').useForNull("").join(keyParts), StandardCharsets.UTF_8).toString();
+    }
+
+    private long lastModified(final Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (final IOException ignored) {
+            return 0;
+        }
+    }
+
+    private void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            log.warn("Could not delete rendered view cache file {}", path, e);
+        }
+    }
+
+    /**
+     * A cache entry being written. Failures to write the entry are not reported to the caller, so that a full disk does
+     * not interrupt the rendering being copied to the client; the entry is discarded instead.
+     */
+    public class Entry extends OutputStream {
+        private final String hash;
+        private final Path partial;
+        private final OutputStream fileOutputStream;
+
+        private long written;
+        private boolean failed;
+        private boolean closed;
+
+        private Entry(final String hash, final Path partial, final OutputStream fileOutputStream) {
+            this.hash = hash;
+            this.partial = partial;
+            this.fileOutputStream = fileOutputStream;
+        }
+
+        @Override
+        public void write(final int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            if (failed) {
+                return;
+            }
+
+            written += length;
+
+            if (written > maxSize) {
+                failed = true;
+                return;
+            }
+
+            try {
+                fileOutputStream.write(bytes, offset, length);
+            } catch (final IOException e) {
+                log.warn("Could not write rendered view cache file {}", partial, e);
+                failed = true;
+            }
+        }
+
+        /**
+         * Adds the entry to the cache, unless writing it failed.
+         */
+        public void commit() {
+            closeFile();
+
+            if (!failed) {
+                try {
+                    Files.move(partial, entryPath(hash), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    add(hash, written);
+                } catch (final IOException e) {
+                    log.warn("Could not add rendered view cache file {}", partial, e);
+                }
+            }
+
+            deleteQuietly(partial);
+        }
+
+        /**
+         * Discards the entry if it has not been committed.
+         */
+        @Override
+        public void close() {
+            closeFile();
+            deleteQuietly(partial);
+        }
+
+        private void closeFile() {
+            if (!closed) {
+                closed = true;
+
+                try {
+                    fileOutputStream.close();
+                } catch (final IOException e) {
+                    log.warn("Could not close rendered view cache file {}", partial, e);
+                    failed = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a viewed document is larger than the configured maximum. When the length of the document is known in
+ * advance this is thrown before anything is written. Otherwise it is thrown once the maximum has been read, and output
+ * written before then is not retracted: the response status and the start of the document may already have been sent,
+ * so the client sees a truncated response with a success status. Callers which catch this after output has been
+ * committed should abort the response rather than try to send an error.
+ */
+public class ViewDocumentTooLargeException extends RuntimeException {
+    private static final long serialVersionUID = -1391306766211651374L;
+
+    @Getter
+    private final long maxDocumentSize;
+
+    public ViewDocumentTooLargeException(final long maxDocumentSize) {
+        super("Viewed document is larger than the maximum of " + maxDocumentSize + " bytes");
+
+        this.maxDocumentSize = maxDocumentSize;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies viewed documents from the backend to the client through a fixed pool of fixed-size buffers. Each read from the
+ * backend waits for the previous buffer to be written to the client, so a slow client slows the backend read rather
+ * than filling the heap, and the pool bounds the buffer memory used by concurrent views. A view which cannot get a
+ * buffer within the buffer timeout fails with an {@link IOException} rather than waiting indefinitely.
+ */
+@Component
+public class ViewStreamer {
+    public static final String BUFFER_SIZE_PROPERTY = "haven-search.view.buffer-size";
+    public static final String BUFFER_COUNT_PROPERTY = "haven-search.view.buffer-count";
+    public static final String MAX_DOCUMENT_SIZE_PROPERTY = "haven-search.view.max-document-size";
+    public static final String BUFFER_TIMEOUT_PROPERTY = "haven-search.view.buffer-timeout";
+
+    static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    static final int DEFAULT_BUFFER_COUNT = 64;
+    static final long DEFAULT_MAX_DOCUMENT_SIZE = 256L * 1024 * 1024;
+    static final long DEFAULT_BUFFER_TIMEOUT = 30000;
+
+    private final long maxDocumentSize;
+    private final long bufferTimeout;
+    private final BlockingQueue<byte[]> buffers;
+
+    public ViewStreamer() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT, DEFAULT_MAX_DOCUMENT_SIZE);
+    }
+
+    public ViewStreamer(final int bufferSize, final int bufferCount, final long maxDocumentSize) {
+        this(bufferSize, bufferCount, maxDocumentSize, DEFAULT_BUFFER_TIMEOUT);
+    }
+
+    /**
+     * @param bufferSize      the size of each buffer in bytes
+     * @param bufferCount     the number of buffers, and so the number of documents which can be copied at once
+     * @param maxDocumentSize the maximum size of a viewed document in bytes
+     * @param bufferTimeout   how long to wait for a free buffer in milliseconds
+     */
+    @Autowired
+    public ViewStreamer(
+            @Value("${" + BUFFER_SIZE_PROPERTY + ":" + DEFAULT_BUFFER_SIZE + "}") final int bufferSize,
+            @Value("${" + BUFFER_COUNT_PROPERTY + ":" + DEFAULT_BUFFER_COUNT + "}") final int bufferCount,
+            @Value("${" + MAX_DOCUMENT_SIZE_PROPERTY + ":" + DEFAULT_MAX_DOCUMENT_SIZE + "}") final long maxDocumentSize,
+            @Value("${" + BUFFER_TIMEOUT_PROPERTY + ":" + DEFAULT_BUFFER_TIMEOUT + "}") final long bufferTimeout
+    ) {
+        this.maxDocumentSize = maxDocumentSize;
+        this.bufferTimeout = bufferTimeout;
+
+        buffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            buffers.add(new byte[bufferSize]);
+        }
+    }
+
+    /**
+     * Copies the requested range of a document of unknown length. Reading stops as soon as the range has been written.
+     * <p>
+     * A document which turns out to be larger than the maximum document size is only detected once the maximum has been
+     * read, after earlier bytes have been written to the output stream; see {@link ViewDocumentTooLargeException}.
+     *
+     * @param inputStream  the document
+     * @param outputStream the stream to write the range to
+     * @param range        the range to write, or null for the whole document
+     * @return the range which was written
+     * @throws IOException                   if reading or writing fails, or no buffer is free within the buffer timeout
+     * @throws ViewDocumentTooLargeException if the document is larger than the maximum document size
+     */
+    public ViewedRange copy(final InputStream inputStream, final OutputStream outputStream, final ByteRange range) throws IOException {
+        return copy(inputStream, outputStream, range, -1);
+    }
+
+    /**
+     * Copies the requested range of a document. Reading stops as soon as the range has been written. If the length of
+     * the document is known and larger than the maximum document size, nothing is written.
+     *
+     * @param inputStream    the document
+     * @param outputStream   the stream to write the range to
+     * @param range          the range to write, or null for the whole document
+     * @param documentLength the length of the document in bytes, or a negative number if it is not known
+     * @return the range which was written
+     * @throws IOException                   if reading or writing fails, or no buffer is free within the buffer timeout
+     * @throws ViewDocumentTooLargeException if the document is larger than the maximum document size
+     */
+    public ViewedRange copy(final InputStream inputStream, final OutputStream outputStream, final ByteRange range, final long documentLength) throws IOException {
+        if (documentLength > maxDocumentSize) {
+            throw new ViewDocumentTooLargeException(maxDocumentSize);
+        }
+
+        final RangeOutputStream rangeOutputStream = open(outputStream, range);
+        final byte[] buffer = acquireBuffer();
+
+        try {
+            int read;
+            while (!rangeOutputStream.isRangeComplete() && (read = inputStream.read(buffer)) != -1) {
+                rangeOutputStream.write(buffer, 0, read);
+            }
+
+            rangeOutputStream.flush();
+            return rangeOutputStream.getViewedRange(!rangeOutputStream.isRangeComplete());
+        } finally {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Opens a stream for documents which are generated rather than copied. Bytes outside the range are discarded.
+     *
+     * @param outputStream the stream to write the range to
+     * @param range        the range to write, or null for the whole document
+     * @return the stream to write the document to
+     */
+    public RangeOutputStream open(final OutputStream outputStream, final ByteRange range) {
+        return new RangeOutputStream(outputStream, range, maxDocumentSize);
+    }
+
+    private byte[] acquireBuffer() throws IOException {
+        try {
+            final byte[] buffer = buffers.poll(bufferTimeout, TimeUnit.MILLISECONDS);
+
+            if (buffer == null) {
+                throw new IOException("Timed out after " + bufferTimeout + " ms waiting for a view buffer; all of them are in use. " +
+                        "Increase " + BUFFER_COUNT_PROPERTY + " or " + BUFFER_TIMEOUT_PROPERTY + " if this happens under normal load");
+            }
+
+            return buffer;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a view buffer", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * The bytes of a document which were written by a ranged view.
+ */
+@Data
+public class ViewedRange implements Serializable {
+    private static final long serialVersionUID = 6002593453590089713L;
+
+    /**
+     * The offset of the first byte written
+     */
+    private final long start;
+
+    /**
+     * The number of bytes written
+     */
+    private final long length;
+
+    /**
+     * The length of the whole document, or null if the view stopped before the end of the document
+     */
+    private final Long documentLength;
+
+    /**
+     * @return the value of an HTTP Content-Range header describing the bytes written
+     */
+    public String toContentRange() {
+        final String total = documentLength == null ? "*" : String.valueOf(documentLength);
+        return length == 0 ? "bytes */" + total : "bytes " + start + '-' + (start + length - 1) + '/' + total;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.security.Principal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SecurityInfoKeyGeneratorTest {
+    @Mock
+    private AuthenticationInformationRetriever<?, Principal> authenticationInformationRetriever;
+
+    @Mock
+    private Principal principal;
+
+    private SecurityInfoKeyGenerator<Principal> keyGenerator;
+
+    @Before
+    public void setUp() {
+        keyGenerator = new SecurityInfoKeyGenerator<Principal>(authenticationInformationRetriever) {
+            @Override
+            protected String getSecurityInfo(final Principal principal) {
+                return principal.getName();
+            }
+        };
+    }
+
+    @Test
+    public void keysDifferBySecurityInfo() {
+        when(authenticationInformationRetriever.getPrincipal()).thenReturn(principal);
+
+        when(principal.getName()).thenReturn("alice");
+        final Object aliceKey = keyGenerator.generate(this, null, "query", 10);
+
+        when(principal.getName()).thenReturn("bob");
+        final Object bobKey = keyGenerator.generate(this, null, "query", 10);
+
+        assertThat(aliceKey, is(not(bobKey)));
+        assertThat(bobKey, is(keyGenerator.generate(this, null, "query", 10)));
+    }
+
+    @Test
+    public void noPrincipal() {
+        assertThat(keyGenerator.generate(this, null, "query"), is((Object) new SecureCacheKey(null, "query")));
+    }
+}
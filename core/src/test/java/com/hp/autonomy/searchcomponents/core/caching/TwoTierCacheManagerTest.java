@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.caching;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class TwoTierCacheManagerTest {
+    private static final CacheSpec DEFAULT_SPEC = new CacheSpec(60, 100);
+
+    private InMemorySecondTierCacheProvider secondTierCacheProvider;
+    private TwoTierCacheManager cacheManager;
+
+    @Before
+    public void setUp() {
+        secondTierCacheProvider = new InMemorySecondTierCacheProvider();
+        cacheManager = new TwoTierCacheManager(
+                Collections.singletonMap(CacheNames.FIELDS, new CacheSpec(60, 5)),
+                DEFAULT_SPEC,
+                new CacheValueWeigher(),
+                secondTierCacheProvider
+        );
+    }
+
+    @Test
+    public void returnsSameCacheForName() {
+        assertThat(cacheManager.getCache(CacheNames.DATABASES), is(sameInstance(cacheManager.getCache(CacheNames.DATABASES))));
+        assertThat(cacheManager.getCacheNames().contains(CacheNames.DATABASES), is(true));
+    }
+
+    @Test
+    public void readsThroughToSecondTier() {
+        secondTierCacheProvider.getCache(CacheNames.DATABASES).put("key", "value");
+
+        final Cache cache = cacheManager.getCache(CacheNames.DATABASES);
+        assertThat(cache.get("key", String.class), is("value"));
+        assertThat(cache.get("key", String.class), is("value"));
+        assertThat(cache.get("other"), is(nullValue()));
+
+        final CacheStatistics statistics = cacheManager.getStatistics().get(CacheNames.DATABASES);
+        assertThat(statistics.getHitCount(), is(1L));
+        assertThat(statistics.getSecondTierHitCount(), is(1L));
+        assertThat(statistics.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void writesAndEvictsBothTiers() {
+        final Cache cache = cacheManager.getCache(CacheNames.DATABASES);
+        final Cache secondTier = secondTierCacheProvider.getCache(CacheNames.DATABASES);
+
+        cache.put("key", "value");
+        assertThat(secondTier.get("key", String.class), is("value"));
+
+        cache.evict("key");
+        assertThat(secondTier.get("key"), is(nullValue()));
+        assertThat(cache.get("key"), is(nullValue()));
+    }
+
+    @Test
+    public void cachesNullValues() {
+        final Cache cache = cacheManager.getCache(CacheNames.DATABASES);
+        cache.put("key", null);
+
+        assertThat(cache.get("key").get(), is(nullValue()));
+        assertThat(cacheManager.getStatistics().get(CacheNames.DATABASES).getHitCount(), is(1L));
+    }
+
+    @Test
+    public void evictsByWeight() {
+        final TwoTierCacheManager localCacheManager = new TwoTierCacheManager(
+                Collections.singletonMap(CacheNames.FIELDS, new CacheSpec(60, 5)),
+                DEFAULT_SPEC,
+                new CacheValueWeigher(),
+                null
+        );
+
+        final Cache cache = localCacheManager.getCache(CacheNames.FIELDS);
+        cache.put("large", Arrays.asList("a", "b", "c", "d", "e", "f"));
+
+        assertThat(cache.get("large"), is(nullValue()));
+
+        final CacheStatistics statistics = localCacheManager.getStatistics().get(CacheNames.FIELDS);
+        assertThat(statistics.getEvictionCount(), is(1L));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class InMemorySearchMetricsRegistryTest {
+    private final InMemorySearchMetricsRegistry metricsRegistry = new InMemorySearchMetricsRegistry(2);
+
+    @Test
+    public void newDatabasesBeyondMaxKeysAreRecordedAsOther() {
+        metricsRegistry.recordCall(call("News"));
+        metricsRegistry.recordCall(call("Sport"));
+        metricsRegistry.recordCall(call("Weather"));
+        metricsRegistry.recordCall(call("Travel"));
+        metricsRegistry.recordCall(call("News"));
+
+        assertThat(metricsRegistry.getMetrics(key("News")).getRequestCount(), is(2L));
+        assertThat(metricsRegistry.getMetrics(key("Weather")), is(nullValue()));
+        assertThat(metricsRegistry.getMetrics(key(MetricKey.OTHER_DATABASES)).getRequestCount(), is(2L));
+    }
+
+    @Test
+    public void databaseTag() {
+        assertThat(MetricKey.databaseTag(Collections.<String>emptyList()), is(nullValue()));
+        assertThat(MetricKey.databaseTag(Collections.singletonList("News")), is("News"));
+        assertThat(MetricKey.databaseTag(Arrays.asList("News", "Sport")), is(MetricKey.MULTIPLE_DATABASES));
+    }
+
+    private BackendCall call(final String database) {
+        return new BackendCall(key(database), false, 1000, BackendCall.UNKNOWN, BackendCall.UNKNOWN);
+    }
+
+    private MetricKey key(final String database) {
+        return new MetricKey("content", "query", database);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class LatencyHistogramTest {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogram() {
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getPercentileNanos(99), is(0L));
+        assertThat(histogram.getMeanNanos(), is(0.0));
+    }
+
+    @Test
+    public void bucketsArePowersOfTwoMicroseconds() {
+        assertThat(LatencyHistogram.bucketIndex(0), is(0));
+        assertThat(LatencyHistogram.bucketIndex(TimeUnit.MICROSECONDS.toNanos(1)), is(0));
+        assertThat(LatencyHistogram.bucketIndex(TimeUnit.MICROSECONDS.toNanos(2)), is(1));
+        assertThat(LatencyHistogram.bucketIndex(TimeUnit.MICROSECONDS.toNanos(3)), is(2));
+        assertThat(LatencyHistogram.bucketIndex(TimeUnit.MICROSECONDS.toNanos(1024)), is(10));
+        assertThat(LatencyHistogram.bucketIndex(TimeUnit.HOURS.toNanos(1)), is(27));
+    }
+
+    @Test
+    public void percentilesAreBucketUpperBounds() {
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(histogram.getCount(), is(100L));
+        assertThat(histogram.getMaxNanos(), is(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertThat(histogram.getPercentileNanos(50), is(TimeUnit.MICROSECONDS.toNanos(1024)));
+        assertThat(histogram.getPercentileNanos(99), is(TimeUnit.MICROSECONDS.toNanos(1024)));
+        assertThat(histogram.getPercentileNanos(100), is(TimeUnit.MILLISECONDS.toNanos(100)));
+    }
+
+    @Test
+    public void percentileNeverExceedsMax() {
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(600));
+
+        assertThat(histogram.getPercentileNanos(50), is(TimeUnit.MICROSECONDS.toNanos(600)));
+    }
+
+    @Test
+    public void negativeDurationsAreIgnored() {
+        histogram.record(-1);
+
+        assertThat(histogram.getCount(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPercentile() {
+        histogram.getPercentileNanos(101);
+    }
+}
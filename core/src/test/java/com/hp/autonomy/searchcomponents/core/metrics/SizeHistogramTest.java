@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.metrics;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class SizeHistogramTest {
+    private final SizeHistogram histogram = new SizeHistogram();
+
+    @Test
+    public void emptyHistogram() {
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getPercentileBytes(99), is(0L));
+        assertThat(histogram.getMeanBytes(), is(0.0));
+    }
+
+    @Test
+    public void percentilesAreBucketUpperBoundsInBytes() {
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+
+        histogram.record(50000);
+
+        assertThat(histogram.getCount(), is(100L));
+        assertThat(histogram.getTotalBytes(), is(99L * 1000 + 50000));
+        assertThat(histogram.getMaxBytes(), is(50000L));
+        assertThat(histogram.getPercentileBytes(50), is(1024L));
+        assertThat(histogram.getPercentileBytes(100), is(50000L));
+    }
+
+    @Test
+    public void smallSizesAreNotRoundedToZero() {
+        histogram.record(600);
+
+        assertThat(histogram.getPercentileBytes(50), is(600L));
+    }
+
+    @Test
+    public void negativeSizesAreIgnored() {
+        histogram.record(-1);
+
+        assertThat(histogram.getCount(), is(0L));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DateBucketsTest {
+    private static final DateTimeZone UTC = DateTimeZone.UTC;
+
+    @Test
+    public void choosesSmallestIntervalWithinTarget() {
+        assertEquals(DateInterval.DAY, DateInterval.forRange(date(2016, 1, 1), date(2016, 1, 20), 30));
+        assertEquals(DateInterval.WEEK, DateInterval.forRange(date(2016, 1, 1), date(2016, 3, 1), 30));
+        assertEquals(DateInterval.MONTH, DateInterval.forRange(date(2016, 1, 1), date(2017, 1, 1), 30));
+        assertEquals(DateInterval.YEAR, DateInterval.forRange(date(1990, 1, 1), date(2016, 1, 1), 30));
+    }
+
+    @Test
+    public void alignsToCalendar() {
+        assertEquals(date(2016, 3, 14), DateInterval.WEEK.floor(new DateTime(2016, 3, 17, 15, 30, UTC)));
+        assertEquals(date(2016, 4, 1), DateInterval.QUARTER.floor(date(2016, 6, 30)));
+        assertEquals(date(2010, 1, 1), DateInterval.DECADE.floor(date(2016, 6, 30)));
+    }
+
+    @Test
+    public void monthBucketsFollowCalendar() {
+        final DateBuckets buckets = new DateBuckets(new DateHistogramParams(date(2016, 1, 15), date(2016, 3, 10), 0, DateInterval.MONTH, UTC));
+
+        assertEquals(3, buckets.getBucketCount());
+
+        final double[] boundaries = buckets.getBoundaries();
+        assertEquals(seconds(date(2016, 1, 1)), boundaries[0], 0);
+        assertEquals(seconds(date(2016, 2, 1)), boundaries[1], 0);
+        assertEquals(seconds(date(2016, 3, 1)), boundaries[2], 0);
+        assertEquals(seconds(date(2016, 4, 1)), boundaries[3], 0);
+    }
+
+    @Test
+    public void bucketsAlignInTimeZone() {
+        final DateTimeZone zone = DateTimeZone.forOffsetHours(2);
+        final DateBuckets buckets = new DateBuckets(new DateHistogramParams(new DateTime(2016, 1, 1, 12, 0, zone), new DateTime(2016, 1, 2, 12, 0, zone), 0, DateInterval.DAY, zone));
+
+        assertEquals(seconds(new DateTime(2016, 1, 1, 0, 0, zone)), buckets.getBoundaries()[0], 0);
+    }
+
+    @Test
+    public void countsByBucketStart() {
+        final DateBuckets buckets = new DateBuckets(new DateHistogramParams(date(2016, 1, 1), date(2016, 1, 4), 0, DateInterval.DAY, UTC));
+        buckets.addCount(seconds(date(2016, 1, 2)), 5);
+        buckets.addCount(seconds(date(2016, 1, 3)), 2);
+        buckets.addCount(seconds(date(2015, 1, 1)), 7);
+
+        final List<DateHistogram.Bucket> histogram = buckets.toHistogram().getBuckets();
+        assertEquals(3, histogram.size());
+        assertEquals(new DateHistogram.Bucket(date(2016, 1, 1), date(2016, 1, 2), 0), histogram.get(0));
+        assertEquals(new DateHistogram.Bucket(date(2016, 1, 2), date(2016, 1, 3), 5), histogram.get(1));
+        assertEquals(new DateHistogram.Bucket(date(2016, 1, 3), date(2016, 1, 4), 2), histogram.get(2));
+    }
+
+    @Test
+    public void extensionLinesUpWithExistingBuckets() {
+        final DateBuckets initial = new DateBuckets(new DateHistogramParams(date(2016, 1, 1), date(2016, 3, 1), 2));
+        initial.addCount(seconds(date(2016, 1, 1)), 1);
+        final DateHistogram histogram = initial.toHistogram();
+        assertEquals(DateInterval.MONTH, histogram.getInterval());
+
+        final List<DateHistogramParams> parts = DateHistogramParams.extending(histogram, date(2016, 2, 1), date(2016, 4, 15));
+        assertEquals(1, parts.size());
+        assertEquals(date(2016, 3, 1), parts.get(0).getMin());
+
+        final DateBuckets extension = new DateBuckets(parts.get(0));
+        extension.addCount(seconds(date(2016, 4, 1)), 3);
+
+        final DateHistogram merged = histogram.merge(extension.toHistogram());
+        assertEquals(4, merged.getBuckets().size());
+        assertEquals(date(2016, 1, 1), merged.getMin());
+        assertEquals(date(2016, 5, 1), merged.getMax());
+        assertEquals(1, merged.getBuckets().get(0).getCount());
+        assertEquals(3, merged.getBuckets().get(3).getCount());
+    }
+
+    @Test
+    public void extendingRequestsOnlyUncoveredParts() {
+        final DateHistogram histogram = new DateBuckets(new DateHistogramParams(date(2016, 3, 1), date(2016, 5, 1), 0, DateInterval.MONTH, UTC)).toHistogram();
+
+        assertEquals(0, DateHistogramParams.extending(histogram, date(2016, 3, 10), date(2016, 4, 20)).size());
+
+        final List<DateHistogramParams> parts = DateHistogramParams.extending(histogram, date(2016, 1, 15), date(2016, 6, 15));
+        assertEquals(2, parts.size());
+        assertEquals(date(2016, 1, 15), parts.get(0).getMin());
+        assertEquals(date(2016, 3, 1), parts.get(0).getMax());
+        assertEquals(date(2016, 5, 1), parts.get(1).getMin());
+        assertEquals(date(2016, 6, 15), parts.get(1).getMax());
+
+        DateHistogram merged = histogram;
+        for (final DateHistogramParams part : parts) {
+            merged = merged.merge(new DateBuckets(part).toHistogram());
+        }
+
+        assertEquals(6, merged.getBuckets().size());
+        assertEquals(date(2016, 1, 1), merged.getMin());
+        assertEquals(date(2016, 7, 1), merged.getMax());
+    }
+
+    @Test
+    public void extendingToDistantRangeCoversGap() {
+        final DateHistogram histogram = new DateBuckets(new DateHistogramParams(date(2016, 1, 1), date(2016, 2, 1), 0, DateInterval.MONTH, UTC)).toHistogram();
+
+        final List<DateHistogramParams> parts = DateHistogramParams.extending(histogram, date(2016, 5, 1), date(2016, 6, 1));
+        assertEquals(1, parts.size());
+        assertEquals(date(2016, 2, 1), parts.get(0).getMin());
+
+        assertEquals(5, histogram.merge(new DateBuckets(parts.get(0)).toHistogram()).getBuckets().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeRejectsGap() {
+        final DateHistogram january = new DateBuckets(new DateHistogramParams(date(2016, 1, 1), date(2016, 2, 1), 0, DateInterval.MONTH, UTC)).toHistogram();
+        final DateHistogram march = new DateBuckets(new DateHistogramParams(date(2016, 3, 1), date(2016, 4, 1), 0, DateInterval.MONTH, UTC)).toHistogram();
+
+        january.merge(march);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyBuckets() {
+        new DateBuckets(new DateHistogramParams(date(1990, 1, 1), date(2016, 1, 1), 0, DateInterval.MINUTE, UTC));
+    }
+
+    private static DateTime date(final int year, final int month, final int day) {
+        return new DateTime(year, month, day, 0, 0, UTC);
+    }
+
+    private static double seconds(final DateTime date) {
+        return date.getMillis() / 1000;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class NumericBucketsTest {
+    @Test
+    public void boundedBoundaries() {
+        final NumericBuckets buckets = new NumericBuckets(1, 6, 1, false);
+        assertEquals(5, buckets.getBucketCount());
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5, 6}, buckets.getBoundaries(), 0);
+    }
+
+    @Test
+    public void unboundedBoundaries() {
+        final NumericBuckets buckets = new NumericBuckets(1, 22, 5, true);
+        assertEquals(5, buckets.getBucketCount());
+        assertArrayEquals(new double[]{1, 6, 11, 16, 21}, buckets.getBoundaries(), 0);
+        assertEquals(22, buckets.getBucketMax(4), 0);
+    }
+
+    @Test
+    public void lastBucketEndsAtMax() {
+        final NumericBuckets buckets = new NumericBuckets(0, 10, 3, false);
+        assertEquals(4, buckets.getBucketCount());
+        assertArrayEquals(new double[]{0, 3, 6, 9, 10}, buckets.getBoundaries(), 0);
+        assertEquals(10, buckets.getBucketMax(3), 0);
+    }
+
+    @Test
+    public void countsArePlacedByIndex() {
+        final NumericBuckets buckets = new NumericBuckets(1, 6, 1, false);
+        buckets.addCount(2, 5);
+        buckets.addCount(3, 2);
+
+        final List<RangeInfo.Value> values = buckets.toValues();
+        assertEquals(5, values.size());
+        assertEquals(new RangeInfo.Value(0, 1, 2), values.get(0));
+        assertEquals(new RangeInfo.Value(5, 2, 3), values.get(1));
+        assertEquals(new RangeInfo.Value(2, 3, 4), values.get(2));
+        assertEquals(new RangeInfo.Value(0, 4, 5), values.get(3));
+        assertEquals(new RangeInfo.Value(0, 5, 6), values.get(4));
+    }
+
+    @Test
+    public void boundariesDoNotDrift() {
+        // Adding 0.1 ten times gives 0.9999999999999999, which would create an extra bucket just below the maximum
+        final NumericBuckets buckets = new NumericBuckets(0, 1, 0.1, false);
+        assertEquals(10, buckets.getBucketCount());
+        assertEquals(11, buckets.getBoundaries().length);
+
+        buckets.addCount(0.3, 7);
+        buckets.addCount(0.30000000000000004, 1);
+        assertEquals(8, buckets.getCount(3));
+    }
+
+    @Test
+    public void manyBuckets() {
+        final NumericBuckets buckets = new NumericBuckets(0, 10000, 1, false);
+        assertEquals(10000, buckets.getBucketCount());
+
+        buckets.addCount(9999, 3);
+        assertEquals(3, buckets.getCount(9999));
+        assertEquals(10001, buckets.getBoundaries().length);
+    }
+
+    @Test
+    public void noBucketsForEmptyRange() {
+        final NumericBuckets buckets = new NumericBuckets(5, 5, 0, false);
+        assertEquals(0, buckets.getBucketCount());
+        assertEquals(0, buckets.getBoundaries().length);
+
+        buckets.addCount(5, 1);
+        assertEquals(0, buckets.toValues().size());
+    }
+}
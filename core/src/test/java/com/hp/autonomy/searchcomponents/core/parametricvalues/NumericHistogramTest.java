@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.parametricvalues;
+
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagCountInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumericHistogramTest {
+    @Test
+    public void parsesTagValues() {
+        final NumericHistogram histogram = NumericHistogram.fromTagValues(Arrays.asList(
+                new QueryTagCountInfo("1", 3),
+                new QueryTagCountInfo("not a number", 4),
+                new QueryTagCountInfo("2.5", 2)
+        ));
+
+        assertEquals(2, histogram.size());
+        assertEquals(1, histogram.getMin(), 0);
+        assertEquals(2.5, histogram.getMax(), 0);
+        assertEquals(2, histogram.getCount(1));
+    }
+
+    @Test
+    public void sortsValues() {
+        final NumericHistogram histogram = new NumericHistogram(new double[]{21, 3, 12, 1}, new int[]{1, 2, 3, 4});
+
+        assertEquals(1, histogram.getMin(), 0);
+        assertEquals(21, histogram.getMax(), 0);
+        assertEquals(2, histogram.getCount(1));
+        assertEquals(3, histogram.getCount(2));
+    }
+
+    @Test
+    public void countBetween() {
+        final NumericHistogram histogram = new NumericHistogram(new double[]{1, 3, 6, 9, 12}, new int[]{3, 2, 1, 1, 1});
+
+        assertEquals(5, histogram.getCountBetween(1, 6));
+        assertEquals(2, histogram.getCountBetween(6, 12));
+        assertEquals(0, histogram.getCountBetween(13, 20));
+    }
+
+    @Test
+    public void fillsBuckets() {
+        final NumericHistogram histogram = new NumericHistogram(new double[]{1, 3, 6, 9, 12, 21}, new int[]{3, 2, 1, 1, 1, 1});
+        final NumericBuckets buckets = new NumericBuckets(1, 22, 5, true);
+
+        assertEquals(9, histogram.addTo(buckets));
+
+        final List<RangeInfo.Value> values = buckets.toValues();
+        assertEquals(new RangeInfo.Value(5, 1, 6), values.get(0));
+        assertEquals(new RangeInfo.Value(2, 6, 11), values.get(1));
+        assertEquals(new RangeInfo.Value(1, 11, 16), values.get(2));
+        assertEquals(new RangeInfo.Value(0, 16, 21), values.get(3));
+        assertEquals(new RangeInfo.Value(1, 21, 22), values.get(4));
+    }
+
+    @Test
+    public void valuesOutsideBoundedBucketsAreNotCounted() {
+        final NumericHistogram histogram = new NumericHistogram(new double[]{1, 3, 6, 9, 12, 21}, new int[]{3, 2, 1, 1, 1, 1});
+        final NumericBuckets buckets = new NumericBuckets(7, 12, 1, false);
+
+        assertEquals(1, histogram.addTo(buckets));
+        assertEquals(1, buckets.getCount(2));
+        assertEquals(1, buckets.getTotalCount());
+    }
+
+    @Test
+    public void valuesAboveUnboundedMaxAreInLastBucket() {
+        final NumericHistogram histogram = new NumericHistogram(new double[]{0.1, 0.5, 0.9}, new int[]{1, 1, 1});
+        final NumericBuckets buckets = new NumericBuckets(0.1, 0.9, 0.16, true);
+
+        assertEquals(3, histogram.addTo(buckets));
+        assertEquals(1, buckets.getCount(buckets.getBucketCount() - 1));
+    }
+
+    @Test
+    public void empty() {
+        final NumericHistogram histogram = NumericHistogram.fromTagValues(Collections.<QueryTagCountInfo>emptyList());
+
+        assertTrue(histogram.isEmpty());
+        assertEquals(0, histogram.addTo(new NumericBuckets(0, 10, 1, false)));
+    }
+}
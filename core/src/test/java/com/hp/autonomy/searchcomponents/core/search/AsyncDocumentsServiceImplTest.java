@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.search;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.hp.autonomy.searchcomponents.core.concurrent.FutureUtils;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
+import com.hp.autonomy.types.requests.Documents;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncDocumentsServiceImplTest {
+    @Mock
+    private DocumentsService<String, SearchResult, IOException> documentsService;
+
+    @Mock
+    private SearchRequest<String> searchRequest;
+
+    private ListeningExecutorService executorService;
+    private AsyncDocumentsService<String, SearchResult> asyncDocumentsService;
+
+    @Before
+    public void setUp() {
+        executorService = SearchExecutors.queuedExecutor(1, 1, "async-test-%d");
+        asyncDocumentsService = new AsyncDocumentsServiceImpl<>(documentsService, executorService);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void runsOnExecutorThread() throws IOException {
+        final Thread caller = Thread.currentThread();
+        @SuppressWarnings("unchecked")
+        final Documents<SearchResult> documents = mock(Documents.class);
+
+        when(documentsService.queryTextIndex(searchRequest)).thenAnswer(new Answer<Documents<SearchResult>>() {
+            @Override
+            public Documents<SearchResult> answer(final InvocationOnMock invocation) {
+                assertThat(Thread.currentThread(), is(not(caller)));
+                return documents;
+            }
+        });
+
+        assertThat(FutureUtils.getResult(asyncDocumentsService.queryTextIndex(searchRequest), IOException.class), is(documents));
+    }
+
+    @Test(expected = IOException.class)
+    public void failsWithServiceException() throws IOException {
+        when(documentsService.getStateToken(null, 10, false)).thenThrow(new IOException("backend down"));
+
+        FutureUtils.getResult(asyncDocumentsService.getStateToken(null, 10, false), IOException.class);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void rejectsWhenQueueIsFull() throws IOException, InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        when(documentsService.queryTextIndex(searchRequest)).thenAnswer(new Answer<Documents<SearchResult>>() {
+            @Override
+            public Documents<SearchResult> answer(final InvocationOnMock invocation) throws InterruptedException {
+                started.countDown();
+                release.await();
+                return null;
+            }
+        });
+
+        try {
+            final ListenableFuture<Documents<SearchResult>> running = asyncDocumentsService.queryTextIndex(searchRequest);
+            started.await();
+            final ListenableFuture<Documents<SearchResult>> queued = asyncDocumentsService.queryTextIndex(searchRequest);
+
+            assertThat(running.isDone() || queued.isDone(), is(false));
+            asyncDocumentsService.queryTextIndex(searchRequest);
+        } finally {
+            release.countDown();
+        }
+    }
+}
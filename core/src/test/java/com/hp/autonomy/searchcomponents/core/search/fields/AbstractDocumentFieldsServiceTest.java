@@ -16,9 +16,13 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -50,4 +54,33 @@ public abstract class AbstractDocumentFieldsServiceTest {
         when(configService.getConfig()).thenReturn(config);
         assertThat(documentFieldsService.getPrintFields(), hasSize(numberOfHardCodedFields + 1));
     }
+
+    @Test
+    public void printFieldsAreCachedUntilFieldsChange() {
+        fieldsInfo = new FieldsInfo.Builder().build();
+        when(config.getFieldsInfo()).thenReturn(fieldsInfo);
+        when(configService.getConfig()).thenReturn(config);
+        final List<String> printFields = documentFieldsService.getPrintFields();
+        assertThat(documentFieldsService.getPrintFields(), is(sameInstance(printFields)));
+
+        final FieldsInfo updatedFieldsInfo = new FieldsInfo.Builder()
+                .populateResponseMap("Some Id", new FieldInfo<String>("Some Id", Collections.singletonList("SomeField"), FieldType.STRING))
+                .build();
+        when(config.getFieldsInfo()).thenReturn(updatedFieldsInfo);
+        assertThat(documentFieldsService.getPrintFields(), hasItem("SomeField"));
+    }
+
+    @Test
+    public void invalidatePrintFieldsPicksUpInPlaceChanges() {
+        fieldsInfo = new FieldsInfo.Builder().build();
+        when(config.getFieldsInfo()).thenReturn(fieldsInfo);
+        when(configService.getConfig()).thenReturn(config);
+        final List<String> printFields = documentFieldsService.getPrintFields();
+
+        fieldsInfo.getFieldConfig().put("Some Id", new FieldInfo<String>("Some Id", Collections.singletonList("SomeField"), FieldType.STRING));
+        assertThat(documentFieldsService.getPrintFields(), is(sameInstance(printFields)));
+
+        documentFieldsService.invalidatePrintFields();
+        assertThat(documentFieldsService.getPrintFields(), hasItem("SomeField"));
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.searchpage;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricRequest;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsService;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsRequest;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import com.hp.autonomy.searchcomponents.core.search.SearchResult;
+import com.hp.autonomy.types.requests.Documents;
+import com.hp.autonomy.types.requests.idol.actions.query.QuerySummaryElement;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AbstractSearchPageServiceTest {
+    @Mock
+    private AsyncDocumentsService<String, SearchResult> documentsService;
+
+    @Mock
+    private AsyncParametricValuesService<ParametricRequest<String>, String> parametricValuesService;
+
+    @Mock
+    private AsyncRelatedConceptsService<QuerySummaryElement, String> relatedConceptsService;
+
+    @Mock
+    private QueryRestrictions<String> queryRestrictions;
+
+    @Mock
+    private ParametricRequest<String> parametricRequest;
+
+    @Mock
+    private RelatedConceptsRequest<String> relatedConceptsRequest;
+
+    @Mock
+    private Documents<SearchResult> documents;
+
+    private SearchPageService<String, SearchResult, QuerySummaryElement> searchPageService;
+
+    @Before
+    public void setUp() {
+        searchPageService = new AbstractSearchPageService<String, SearchResult, ParametricRequest<String>, QuerySummaryElement>(documentsService, parametricValuesService, relatedConceptsService, 100) {
+            @Override
+            protected ParametricRequest<String> createParametricRequest(final QueryRestrictions<String> queryRestrictions, final List<String> fieldNames, final Integer maxValues) {
+                return parametricRequest;
+            }
+
+            @Override
+            protected RelatedConceptsRequest<String> createRelatedConceptsRequest(final QueryRestrictions<String> queryRestrictions, final int querySummaryLength) {
+                return relatedConceptsRequest;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void fetchesRequestedPanelsWithSharedRestrictions() {
+        final Set<QueryTagInfo> parametricValues = Collections.emptySet();
+        when(documentsService.queryTextIndex(any(SearchRequest.class))).thenReturn(Futures.immediateFuture(documents));
+        when(parametricValuesService.getAllParametricValues(parametricRequest)).thenReturn(Futures.immediateFuture(parametricValues));
+
+        final SearchPage<SearchResult, QuerySummaryElement> page = searchPageService.getSearchPage(new SearchPageRequest.Builder<String>()
+                .setQueryRestrictions(queryRestrictions)
+                .setParametricValues(true)
+                .build());
+
+        assertThat(page.isComplete(), is(true));
+        assertThat(page.getResults(), is(documents));
+        assertThat(page.getParametricValues(), is(parametricValues));
+        assertThat(page.getPromotions(), is(nullValue()));
+        assertThat(page.getRelatedConcepts(), is(nullValue()));
+
+        final ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(documentsService).queryTextIndex(captor.capture());
+        assertThat(captor.getValue().getQueryRestrictions(), is(sameInstance((Object) queryRestrictions)));
+        verify(documentsService, never()).queryTextIndexForPromotions(any(SearchRequest.class));
+        verify(relatedConceptsService, never()).findRelatedConcepts(any(RelatedConceptsRequest.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void failedPanelDoesNotFailPage() {
+        final IllegalStateException failure = new IllegalStateException("no related concepts");
+        when(documentsService.queryTextIndex(any(SearchRequest.class))).thenReturn(Futures.immediateFuture(documents));
+        when(relatedConceptsService.findRelatedConcepts(relatedConceptsRequest)).thenReturn(Futures.<List<QuerySummaryElement>>immediateFailedFuture(failure));
+
+        final SearchPage<SearchResult, QuerySummaryElement> page = searchPageService.getSearchPage(new SearchPageRequest.Builder<String>()
+                .setQueryRestrictions(queryRestrictions)
+                .setRelatedConcepts(true)
+                .build());
+
+        assertThat(page.isComplete(), is(false));
+        assertThat(page.getResults(), is(documents));
+        assertThat(page.getErrors().get(SearchPanel.RELATED_CONCEPTS), is((Throwable) failure));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void slowPanelIsCancelledAtDeadline() {
+        final SettableFuture<Documents<SearchResult>> slowFuture = SettableFuture.create();
+        when(documentsService.queryTextIndex(any(SearchRequest.class))).thenReturn(slowFuture);
+        when(documentsService.queryTextIndexForPromotions(any(SearchRequest.class))).thenReturn(Futures.immediateFuture(documents));
+
+        final SearchPage<SearchResult, QuerySummaryElement> page = searchPageService.getSearchPage(new SearchPageRequest.Builder<String>()
+                .setQueryRestrictions(queryRestrictions)
+                .setPromotions(true)
+                .setTimeoutMillis(10L)
+                .build());
+
+        assertThat(page.getPromotions(), is(documents));
+        assertThat(page.getResults(), is(nullValue()));
+        assertThat(page.getErrors().get(SearchPanel.RESULTS), instanceOf(TimeoutException.class));
+        assertThat(slowFuture.isCancelled(), is(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void rejectedPanelIsReported() {
+        when(documentsService.queryTextIndex(any(SearchRequest.class))).thenThrow(new RejectedExecutionException());
+
+        final SearchPage<SearchResult, QuerySummaryElement> page = searchPageService.getSearchPage(new SearchPageRequest.Builder<String>()
+                .setQueryRestrictions(queryRestrictions)
+                .build());
+
+        assertThat(page.getErrors().get(SearchPanel.RESULTS), instanceOf(RejectedExecutionException.class));
+    }
+}
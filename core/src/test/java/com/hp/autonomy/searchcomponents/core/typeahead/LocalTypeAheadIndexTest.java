@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class LocalTypeAheadIndexTest {
+    private LocalTypeAheadIndex index;
+
+    @Before
+    public void setUp() {
+        index = new LocalTypeAheadIndex(2, 100, 60);
+    }
+
+    @Test
+    public void unknownText() {
+        assertThat(index.getSuggestions("yod"), is(nullValue()));
+    }
+
+    @Test
+    public void recentSuggestions() {
+        index.recordSuggestions("yod", Arrays.asList("yoda", "yodel"));
+        assertThat(index.getSuggestions("yod"), contains("yoda", "yodel"));
+    }
+
+    @Test
+    public void incompleteRecentSuggestionsAreNotFiltered() {
+        index.recordSuggestions("yo", Arrays.asList("yoda", "yoke"));
+        assertThat(index.getSuggestions("yod"), is(nullValue()));
+    }
+
+    @Test
+    public void completeRecentSuggestionsAreFiltered() {
+        index.recordSuggestions("yo", Collections.singletonList("Yoda"));
+        assertThat(index.getSuggestions("yod"), contains("Yoda"));
+        assertThat(index.getSuggestions("yok").isEmpty(), is(true));
+    }
+
+    @Test
+    public void completeSweep() {
+        index.setSweep(weightedTerms(), Collections.<String, Long>singletonMap("y", null));
+
+        assertThat(index.getSuggestions("Yo"), contains("yoda", "yoghurt"));
+        assertThat(index.getSuggestions("yodel"), contains("yodel"));
+        assertThat(index.getSuggestions("z"), is(nullValue()));
+    }
+
+    @Test
+    public void truncatedSweep() {
+        index.setSweep(weightedTerms(), Collections.singletonMap("y", 20L));
+
+        // Unswept terms weigh at most 20, so they cannot displace yoda and yoghurt but could displace yodel
+        assertThat(index.getSuggestions("yo"), contains("yoda", "yoghurt"));
+        assertThat(index.getSuggestions("yod"), is(nullValue()));
+    }
+
+    private Map<String, Long> weightedTerms() {
+        final Map<String, Long> terms = new HashMap<>();
+        terms.put("yoda", 50L);
+        terms.put("yodel", 20L);
+        terms.put("yoghurt", 30L);
+        return terms;
+    }
+}
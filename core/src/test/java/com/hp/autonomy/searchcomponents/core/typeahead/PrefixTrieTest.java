@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+
+public class PrefixTrieTest {
+    private PrefixTrie trie;
+
+    @Before
+    public void setUp() {
+        final Map<String, Long> terms = new HashMap<>();
+        terms.put("yoda", 50L);
+        terms.put("yodel", 20L);
+        terms.put("yo", 5L);
+        terms.put("yoghurt", 30L);
+        terms.put("yoke", 20L);
+        terms.put("zebra", 100L);
+
+        trie = PrefixTrie.build(terms, 3);
+    }
+
+    @Test
+    public void completionsAreHighestWeightFirst() {
+        assertThat(terms(trie.getCompletions("y")), contains("yoda", "yoghurt", "yodel"));
+    }
+
+    @Test
+    public void tiesAreAlphabetical() {
+        assertThat(terms(trie.getCompletions("yo")).subList(1, 3), contains("yoghurt", "yodel"));
+        assertThat(terms(trie.getCompletions("yod")), contains("yoda", "yodel"));
+    }
+
+    @Test
+    public void prefixIsItsOwnCompletion() {
+        assertThat(terms(trie.getCompletions("yoda")), contains("yoda"));
+    }
+
+    @Test
+    public void emptyPrefixCompletesEverything() {
+        assertThat(terms(trie.getCompletions("")), contains("zebra", "yoda", "yoghurt"));
+        assertThat(trie.size(), is(6));
+    }
+
+    @Test
+    public void unknownPrefix() {
+        assertThat(trie.getCompletions("x"), is(empty()));
+        assertThat(trie.getCompletions("yodas"), is(empty()));
+    }
+
+    private List<String> terms(final List<PrefixTrie.Completion> completions) {
+        final List<String> terms = new ArrayList<>();
+        for (final PrefixTrie.Completion completion : completions) {
+            terms.add(completion.getTerm());
+        }
+
+        return terms;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.typeahead;
+
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.core.Authentication;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TypeAheadSessionServiceTest {
+    private static final int FETCH_SIZE = 10;
+
+    @Mock
+    private BoundedTypeAheadService<RuntimeException> backend;
+
+    @Mock
+    private AuthenticationInformationRetriever<Authentication, ?> authenticationInformationRetriever;
+
+    @Mock
+    private Authentication authentication;
+
+    private TypeAheadService<RuntimeException> sessionService;
+
+    @Before
+    public void setUp() {
+        when(authenticationInformationRetriever.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("user");
+
+        sessionService = new TypeAheadSessionService<>(backend, authenticationInformationRetriever, FETCH_SIZE, 100, 60);
+    }
+
+    @Test
+    public void filtersWhileEnoughSuggestionsMatch() {
+        final List<String> suggestions = Arrays.asList("electric", "electron", "election", "elector", "electrode", "electrum", "electra", "elect", "elecs", "eleca");
+        when(backend.getSuggestions("elec", FETCH_SIZE)).thenReturn(suggestions);
+
+        assertThat(sessionService.getSuggestions("elec"), hasSize(TypeAheadConstants.MAX_RESULTS));
+        assertThat(sessionService.getSuggestions("elect"), contains("electric", "electron", "election", "elector", "electrode", "electrum", "electra"));
+        assertThat(sessionService.getSuggestions("Elect"), hasSize(TypeAheadConstants.MAX_RESULTS));
+
+        verify(backend, times(1)).getSuggestions(anyString(), anyInt());
+    }
+
+    @Test
+    public void fetchesWhenTooFewSuggestionsMatch() {
+        final List<String> suggestions = Arrays.asList("electric", "electron", "election", "elector", "electrode", "electrum", "electra", "elect", "elecs", "eleca");
+        when(backend.getSuggestions("elec", FETCH_SIZE)).thenReturn(suggestions);
+        when(backend.getSuggestions("electr", FETCH_SIZE)).thenReturn(Arrays.asList("electric", "electron", "electrode", "electrum", "electra"));
+
+        sessionService.getSuggestions("elec");
+        assertThat(sessionService.getSuggestions("electr"), contains("electric", "electron", "electrode", "electrum", "electra"));
+
+        verify(backend).getSuggestions("electr", FETCH_SIZE);
+    }
+
+    @Test
+    public void completeSuggestionsAreAlwaysFiltered() {
+        when(backend.getSuggestions("elec", FETCH_SIZE)).thenReturn(Arrays.asList("electric", "electron", "elecs"));
+
+        sessionService.getSuggestions("elec");
+        assertThat(sessionService.getSuggestions("electr"), contains("electric", "electron"));
+
+        verify(backend, times(1)).getSuggestions(anyString(), anyInt());
+    }
+
+    @Test
+    public void suggestionsNotMatchingTheTextAreNotRemembered() {
+        when(backend.getSuggestions("elec", FETCH_SIZE)).thenReturn(Arrays.asList("electric", "power"));
+        when(backend.getSuggestions("elect", FETCH_SIZE)).thenReturn(Arrays.asList("electric", "power"));
+
+        sessionService.getSuggestions("elec");
+        sessionService.getSuggestions("elect");
+
+        verify(backend).getSuggestions("elect", FETCH_SIZE);
+    }
+
+    @Test
+    public void noSessionWithoutAuthentication() {
+        when(authenticationInformationRetriever.getAuthentication()).thenReturn(null);
+        sessionService.getSuggestions("elec");
+
+        verify(backend).getSuggestions("elec");
+        verify(backend, never()).getSuggestions(anyString(), anyInt());
+    }
+}
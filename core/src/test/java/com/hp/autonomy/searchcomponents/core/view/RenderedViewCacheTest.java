@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class RenderedViewCacheTest {
+    private static final List<?> KEY = Arrays.asList("http://example.com/doc", null, 1L);
+
+    private Path directory;
+    private RenderedViewCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rendered-views");
+        cache = new RenderedViewCache(directory.toString(), 10);
+        cache.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void missThenHit() throws IOException {
+        assertThat(cache.write(KEY, null, new ByteArrayOutputStream()), is(nullValue()));
+
+        put(KEY, "<p>hi</p>");
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertThat(cache.write(KEY, null, outputStream), is(new ViewedRange(0, 9, 9L)));
+        assertThat(outputStream.toString("UTF-8"), is("<p>hi</p>"));
+    }
+
+    @Test
+    public void rangedHit() throws IOException {
+        put(KEY, "<p>hi</p>");
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertThat(cache.write(KEY, new ByteRange(3, 20L), outputStream).toContentRange(), is("bytes 3-8/9"));
+        assertThat(outputStream.toString("UTF-8"), is("hi</p>"));
+    }
+
+    @Test
+    public void newVersionIsNewEntry() throws IOException {
+        put(KEY, "<p>hi</p>");
+
+        assertThat(cache.write(Arrays.asList("http://example.com/doc", null, 2L), null, new ByteArrayOutputStream()), is(nullValue()));
+    }
+
+    @Test
+    public void uncommittedEntryIsDiscarded() throws IOException {
+        try (final RenderedViewCache.Entry entry = cache.create(KEY)) {
+            entry.write("<p>".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(cache.write(KEY, null, new ByteArrayOutputStream()), is(nullValue()));
+        assertThat(directory.toFile().list().length, is(0));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        final List<?> otherKey = Arrays.asList("other");
+        final List<?> thirdKey = Arrays.asList("third");
+
+        put(KEY, "aaaa");
+        put(otherKey, "bbbb");
+        cache.write(KEY, null, new ByteArrayOutputStream());
+        put(thirdKey, "cccc");
+
+        assertThat(cache.write(KEY, null, new ByteArrayOutputStream()), is(notNullValue()));
+        assertThat(cache.write(otherKey, null, new ByteArrayOutputStream()), is(nullValue()));
+        assertThat(cache.write(thirdKey, null, new ByteArrayOutputStream()), is(notNullValue()));
+        assertThat(directory.toFile().list().length, is(2));
+    }
+
+    @Test
+    public void entryLargerThanCacheIsNotStored() throws IOException {
+        put(KEY, "<p>too large</p>");
+
+        assertThat(cache.write(KEY, null, new ByteArrayOutputStream()), is(nullValue()));
+    }
+
+    @Test
+    public void entriesSurviveRestart() throws IOException {
+        put(KEY, "<p>hi</p>");
+
+        final RenderedViewCache restarted = new RenderedViewCache(directory.toString(), 10);
+        restarted.afterPropertiesSet();
+
+        assertThat(restarted.write(KEY, null, new ByteArrayOutputStream()), is(notNullValue()));
+    }
+
+    @Test
+    public void disabledWithoutDirectory() throws IOException {
+        final RenderedViewCache disabled = new RenderedViewCache();
+
+        assertThat(disabled.isEnabled(), is(false));
+        assertThat(disabled.create(KEY), is(nullValue()));
+        assertThat(disabled.write(KEY, null, new ByteArrayOutputStream()), is(nullValue()));
+    }
+
+    private void put(final List<?> key, final String content) throws IOException {
+        try (final RenderedViewCache.Entry entry = cache.create(key)) {
+            entry.write(content.getBytes(StandardCharsets.UTF_8));
+            entry.commit();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.core.view;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+public class ViewStreamerTest {
+    private static final String DOCUMENT = "0123456789abcdefghij";
+
+    private ViewStreamer viewStreamer;
+    private ByteArrayOutputStream outputStream;
+
+    @Before
+    public void setUp() {
+        viewStreamer = new ViewStreamer(4, 1, 100);
+        outputStream = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void copiesWholeDocument() throws IOException {
+        final ViewedRange viewedRange = viewStreamer.copy(document(), outputStream, null);
+
+        assertThat(written(), is(DOCUMENT));
+        assertThat(viewedRange, is(new ViewedRange(0, 20, 20L)));
+        assertThat(viewedRange.toContentRange(), is("bytes 0-19/20"));
+    }
+
+    @Test
+    public void copiesBoundedRangeAndStopsReading() throws IOException {
+        final InputStream inputStream = document();
+        final ViewedRange viewedRange = viewStreamer.copy(inputStream, outputStream, new ByteRange(5, 9L));
+
+        assertThat(written(), is("56789"));
+        assertThat(viewedRange, is(new ViewedRange(5, 5, null)));
+        assertThat(viewedRange.toContentRange(), is("bytes 5-9/*"));
+        assertThat(inputStream.available(), is(8));
+    }
+
+    @Test
+    public void copiesOpenEndedRange() throws IOException {
+        final ViewedRange viewedRange = viewStreamer.copy(document(), outputStream, new ByteRange(15, null));
+
+        assertThat(written(), is("fghij"));
+        assertThat(viewedRange.toContentRange(), is("bytes 15-19/20"));
+    }
+
+    @Test
+    public void rangeBeyondDocument() throws IOException {
+        final ViewedRange viewedRange = viewStreamer.copy(document(), outputStream, new ByteRange(30, 40L));
+
+        assertThat(written(), is(""));
+        assertThat(viewedRange.toContentRange(), is("bytes */20"));
+    }
+
+    @Test
+    public void buffersAreReturnedToPool() throws IOException {
+        viewStreamer.copy(document(), new ByteArrayOutputStream(), null);
+        viewStreamer.copy(document(), outputStream, null);
+
+        assertThat(written(), is(DOCUMENT));
+    }
+
+    @Test(expected = ViewDocumentTooLargeException.class)
+    public void documentTooLarge() throws IOException {
+        new ViewStreamer(4, 1, 10).copy(document(), outputStream, null);
+    }
+
+    @Test
+    public void documentOfKnownLengthTooLargeWritesNothing() throws IOException {
+        try {
+            new ViewStreamer(4, 1, 10).copy(document(), outputStream, null, DOCUMENT.length());
+            fail("Expected ViewDocumentTooLargeException");
+        } catch (final ViewDocumentTooLargeException ignored) {
+            assertThat(written(), is(""));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void failsWhenNoBufferIsFreeWithinTimeout() throws IOException {
+        final ViewStreamer singleBufferStreamer = new ViewStreamer(4, 1, 100, 10);
+
+        // the outer copy holds the only buffer while the inner copy waits for one
+        singleBufferStreamer.copy(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                singleBufferStreamer.copy(document(), new ByteArrayOutputStream(), null);
+                return -1;
+            }
+        }, outputStream, null);
+    }
+
+    @Test
+    public void parseRange() {
+        assertThat(ByteRange.parse("bytes=5-9"), is(new ByteRange(5, 9L)));
+        assertThat(ByteRange.parse("bytes=5-"), is(new ByteRange(5, null)));
+    }
+
+    @Test
+    public void parseUnsupportedRanges() {
+        assertThat(ByteRange.parse(null), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=-5"), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=0-1,5-6"), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=9-5"), is(nullValue()));
+        assertThat(ByteRange.parse("lines=1-2"), is(nullValue()));
+    }
+
+    private InputStream document() {
+        return new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String written() {
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
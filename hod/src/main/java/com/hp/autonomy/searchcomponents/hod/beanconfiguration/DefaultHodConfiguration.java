@@ -7,12 +7,14 @@ package com.hp.autonomy.searchcomponents.hod.beanconfiguration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.hod.client.api.authentication.EntityType;
 import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
 import com.hp.autonomy.hod.client.api.resource.ResourcesService;
 import com.hp.autonomy.hod.client.api.textindex.query.content.GetContentService;
 import com.hp.autonomy.hod.client.api.textindex.query.parametric.GetParametricValuesService;
+import com.hp.autonomy.hod.client.api.textindex.query.search.Entity;
 import com.hp.autonomy.hod.client.api.textindex.query.search.FindSimilarService;
 import com.hp.autonomy.hod.client.api.textindex.query.search.QueryTextIndexService;
 import com.hp.autonomy.hod.client.error.HodErrorException;
@@ -20,13 +22,27 @@ import com.hp.autonomy.hod.sso.HodAuthentication;
 import com.hp.autonomy.hod.sso.HodAuthenticationPrincipal;
 import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
 import com.hp.autonomy.searchcomponents.core.authentication.SpringSecurityAuthenticationInformationRetriever;
+import com.hp.autonomy.searchcomponents.core.concurrent.HavenSearchAsyncConfiguration;
 import com.hp.autonomy.searchcomponents.core.databases.DatabasesService;
+import com.hp.autonomy.searchcomponents.core.fields.AsyncFieldsService;
+import com.hp.autonomy.searchcomponents.core.fields.AsyncFieldsServiceImpl;
 import com.hp.autonomy.searchcomponents.core.fields.FieldsService;
 import com.hp.autonomy.searchcomponents.core.languages.LanguagesService;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.AdaptiveBucketSizeEvaluatorFactory;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesServiceImpl;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsServiceImpl;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsServiceImpl;
 import com.hp.autonomy.searchcomponents.core.search.DocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsService;
 import com.hp.autonomy.searchcomponents.core.search.fields.DocumentFieldsService;
+import com.hp.autonomy.searchcomponents.core.searchpage.SearchPageService;
+import com.hp.autonomy.searchcomponents.core.typeahead.AsyncTypeAheadService;
+import com.hp.autonomy.searchcomponents.core.typeahead.AsyncTypeAheadServiceImpl;
+import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadService;
 import com.hp.autonomy.searchcomponents.hod.configuration.HodSearchCapable;
 import com.hp.autonomy.searchcomponents.hod.databases.Database;
 import com.hp.autonomy.searchcomponents.hod.databases.HodDatabasesRequest;
@@ -36,8 +52,11 @@ import com.hp.autonomy.searchcomponents.hod.languages.HodLanguagesService;
 import com.hp.autonomy.searchcomponents.hod.parametricvalues.HodParametricRequest;
 import com.hp.autonomy.searchcomponents.hod.parametricvalues.HodParametricValuesService;
 import com.hp.autonomy.searchcomponents.hod.search.HodDocumentsService;
+import com.hp.autonomy.searchcomponents.hod.search.HodSearchPageService;
 import com.hp.autonomy.searchcomponents.hod.search.HodSearchResult;
 import com.hp.autonomy.searchcomponents.hod.search.fields.HodSearchResultDeserializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -95,6 +114,62 @@ class DefaultHodConfiguration {
         return new HodParametricValuesService(fieldsService, getParametricValuesService, configService, authenticationInformationRetriever, bucketSizeEvaluatorFactory);
     }
 
+    @Bean
+    @ConditionalOnMissingBean(AsyncDocumentsService.class)
+    public AsyncDocumentsService<ResourceIdentifier, HodSearchResult> asyncDocumentsService(
+            final DocumentsService<ResourceIdentifier, HodSearchResult, HodErrorException> documentsService,
+            @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService
+    ) {
+        return new AsyncDocumentsServiceImpl<>(documentsService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncParametricValuesService.class)
+    public AsyncParametricValuesService<HodParametricRequest, ResourceIdentifier> asyncParametricValuesService(
+            final ParametricValuesService<HodParametricRequest, ResourceIdentifier, HodErrorException> parametricValuesService,
+            @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService
+    ) {
+        return new AsyncParametricValuesServiceImpl<>(parametricValuesService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncRelatedConceptsService.class)
+    public AsyncRelatedConceptsService<Entity, ResourceIdentifier> asyncRelatedConceptsService(
+            final RelatedConceptsService<Entity, ResourceIdentifier, HodErrorException> relatedConceptsService,
+            @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService
+    ) {
+        return new AsyncRelatedConceptsServiceImpl<>(relatedConceptsService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncFieldsService.class)
+    public AsyncFieldsService<HodFieldsRequest> asyncFieldsService(
+            final FieldsService<HodFieldsRequest, HodErrorException> fieldsService,
+            @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService
+    ) {
+        return new AsyncFieldsServiceImpl<>(fieldsService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncTypeAheadService.class)
+    public AsyncTypeAheadService asyncTypeAheadService(
+            final TypeAheadService<HodErrorException> typeAheadService,
+            @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService
+    ) {
+        return new AsyncTypeAheadServiceImpl<>(typeAheadService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SearchPageService.class)
+    public SearchPageService<ResourceIdentifier, HodSearchResult, Entity> searchPageService(
+            final AsyncDocumentsService<ResourceIdentifier, HodSearchResult> documentsService,
+            final AsyncParametricValuesService<HodParametricRequest, ResourceIdentifier> parametricValuesService,
+            final AsyncRelatedConceptsService<Entity, ResourceIdentifier> relatedConceptsService,
+            @Value("${" + SearchPageService.TIMEOUT_PROPERTY + ":" + SearchPageService.DEFAULT_TIMEOUT_MILLIS + "}") final long timeoutMillis
+    ) {
+        return new HodSearchPageService(documentsService, parametricValuesService, relatedConceptsService, timeoutMillis);
+    }
+
     @Bean
     @ConditionalOnMissingBean(AuthenticationInformationRetriever.class)
     public AuthenticationInformationRetriever<HodAuthentication<EntityType.Combined>, HodAuthenticationPrincipal> authenticationInformationRetriever() {
@@ -27,6 +27,8 @@ import com.hp.autonomy.hod.client.api.textindex.query.search.FindSimilarServiceI
 import com.hp.autonomy.hod.client.api.textindex.query.search.QueryTextIndexService;
 import com.hp.autonomy.hod.client.api.textindex.query.search.QueryTextIndexServiceImpl;
 import com.hp.autonomy.hod.client.config.HodServiceConfig;
+import com.hp.autonomy.searchcomponents.core.metrics.SearchMetricsRegistry;
+import com.hp.autonomy.searchcomponents.hod.metrics.InstrumentedHodServices;
 import com.hp.autonomy.searchcomponents.hod.search.HodSearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -39,61 +41,71 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @ComponentScan({"com.hp.autonomy.searchcomponents.core", "com.hp.autonomy.searchcomponents.hod"})
 public class HavenSearchHodConfiguration {
+    private static final String GET_CONTENT_API = "getcontent";
+    private static final String GET_PARAMETRIC_VALUES_API = "getparametricvalues";
+    private static final String QUERY_TEXT_INDEX_API = "querytextindex";
+    private static final String FIND_SIMILAR_API = "findsimilar";
+    private static final String VIEW_DOCUMENT_API = "viewdocument";
+    private static final String RETRIEVE_INDEX_FIELDS_API = "retrieveindexfields";
+    private static final String FIND_RELATED_CONCEPTS_API = "findrelatedconcepts";
+    private static final String AUTOCOMPLETE_API = "autocomplete";
+    private static final String RESOURCES_API = "resources";
+
     @Autowired
     private HodServiceConfig<EntityType.Combined, TokenType.Simple> hodServiceConfig;
 
     @Bean
-    public GetContentService<HodSearchResult> getContentService() {
-        return new GetContentServiceImpl<>(hodServiceConfig, HodSearchResult.class);
+    public GetContentService<HodSearchResult> getContentService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<GetContentService<HodSearchResult>>instrument(GetContentService.class, new GetContentServiceImpl<>(hodServiceConfig, HodSearchResult.class), GET_CONTENT_API, searchMetricsRegistry);
     }
 
     @Bean
-    public GetContentService<Document> viewGetContentService() {
-        return new GetContentServiceImpl<>(hodServiceConfig, Document.class);
+    public GetContentService<Document> viewGetContentService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<GetContentService<Document>>instrument(GetContentService.class, new GetContentServiceImpl<>(hodServiceConfig, Document.class), GET_CONTENT_API, searchMetricsRegistry);
     }
 
     @Bean
-    public GetParametricValuesService getParametricValuesService() {
-        return new GetParametricValuesServiceImpl(hodServiceConfig);
+    public GetParametricValuesService getParametricValuesService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<GetParametricValuesService>instrument(GetParametricValuesService.class, new GetParametricValuesServiceImpl(hodServiceConfig), GET_PARAMETRIC_VALUES_API, searchMetricsRegistry);
     }
 
     @Bean
-    public QueryTextIndexService<HodSearchResult> queryTextIndexService() {
-        return new QueryTextIndexServiceImpl<>(hodServiceConfig, HodSearchResult.class);
+    public QueryTextIndexService<HodSearchResult> queryTextIndexService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<QueryTextIndexService<HodSearchResult>>instrument(QueryTextIndexService.class, new QueryTextIndexServiceImpl<>(hodServiceConfig, HodSearchResult.class), QUERY_TEXT_INDEX_API, searchMetricsRegistry);
     }
 
     @Bean
-    public FindSimilarService<HodSearchResult> findSimilarService() {
-        return new FindSimilarServiceImpl<>(hodServiceConfig, HodSearchResult.class);
+    public FindSimilarService<HodSearchResult> findSimilarService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<FindSimilarService<HodSearchResult>>instrument(FindSimilarService.class, new FindSimilarServiceImpl<>(hodServiceConfig, HodSearchResult.class), FIND_SIMILAR_API, searchMetricsRegistry);
     }
 
     @Bean
-    public ViewDocumentService viewDocumentService() {
-        return new ViewDocumentServiceImpl(hodServiceConfig);
+    public ViewDocumentService viewDocumentService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<ViewDocumentService>instrument(ViewDocumentService.class, new ViewDocumentServiceImpl(hodServiceConfig), VIEW_DOCUMENT_API, searchMetricsRegistry);
     }
 
     @Bean
-    public QueryTextIndexService<Document> documentQueryTextIndexService() {
-        return QueryTextIndexServiceImpl.documentsService(hodServiceConfig);
+    public QueryTextIndexService<Document> documentQueryTextIndexService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<QueryTextIndexService<Document>>instrument(QueryTextIndexService.class, QueryTextIndexServiceImpl.documentsService(hodServiceConfig), QUERY_TEXT_INDEX_API, searchMetricsRegistry);
     }
 
     @Bean
-    public RetrieveIndexFieldsService retrieveIndexFieldsService() {
-        return new RetrieveIndexFieldsServiceImpl(hodServiceConfig);
+    public RetrieveIndexFieldsService retrieveIndexFieldsService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<RetrieveIndexFieldsService>instrument(RetrieveIndexFieldsService.class, new RetrieveIndexFieldsServiceImpl(hodServiceConfig), RETRIEVE_INDEX_FIELDS_API, searchMetricsRegistry);
     }
 
     @Bean
-    public FindRelatedConceptsService relatedConceptsService() {
-        return new FindRelatedConceptsServiceImpl(hodServiceConfig);
+    public FindRelatedConceptsService relatedConceptsService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<FindRelatedConceptsService>instrument(FindRelatedConceptsService.class, new FindRelatedConceptsServiceImpl(hodServiceConfig), FIND_RELATED_CONCEPTS_API, searchMetricsRegistry);
     }
 
     @Bean
-    public AutocompleteService autocompleteService(final HodServiceConfig<EntityType.Combined, TokenType.Simple> hodServiceConfig) {
-        return new AutocompleteServiceImpl(hodServiceConfig);
+    public AutocompleteService autocompleteService(final HodServiceConfig<EntityType.Combined, TokenType.Simple> hodServiceConfig, final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<AutocompleteService>instrument(AutocompleteService.class, new AutocompleteServiceImpl(hodServiceConfig), AUTOCOMPLETE_API, searchMetricsRegistry);
     }
 
     @Bean
-    public ResourcesService resourcesService() {
-        return new ResourcesServiceImpl(hodServiceConfig);
+    public ResourcesService resourcesService(final SearchMetricsRegistry searchMetricsRegistry) {
+        return InstrumentedHodServices.<ResourcesService>instrument(ResourcesService.class, new ResourcesServiceImpl(hodServiceConfig), RESOURCES_API, searchMetricsRegistry);
     }
 }
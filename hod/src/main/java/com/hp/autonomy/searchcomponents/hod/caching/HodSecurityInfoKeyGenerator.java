@@ -0,0 +1,25 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.hod.caching;
+
+import com.hp.autonomy.hod.sso.HodAuthenticationPrincipal;
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import com.hp.autonomy.searchcomponents.core.caching.SecurityInfoKeyGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HodSecurityInfoKeyGenerator extends SecurityInfoKeyGenerator<HodAuthenticationPrincipal> {
+    @Autowired
+    public HodSecurityInfoKeyGenerator(final AuthenticationInformationRetriever<?, HodAuthenticationPrincipal> authenticationInformationRetriever) {
+        super(authenticationInformationRetriever);
+    }
+
+    @Override
+    protected String getSecurityInfo(final HodAuthenticationPrincipal principal) {
+        return principal.getSecurityInfo();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.hod.metrics;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.searchcomponents.core.metrics.BackendCall;
+import com.hp.autonomy.searchcomponents.core.metrics.MetricKey;
+import com.hp.autonomy.searchcomponents.core.metrics.SearchMetricsRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Wraps HP Haven OnDemand client services so that every call they make is recorded as a {@link BackendCall}. Calls are
+ * tagged with the given API name and the index found among the method arguments, or
+ * {@link MetricKey#MULTIPLE_DATABASES} if there are several.
+ * <p>
+ * The HOD client parses each response before returning it, so the parse time and response size of HOD calls are
+ * {@link BackendCall#UNKNOWN} and the latency includes parsing.
+ */
+public final class InstrumentedHodServices {
+    /**
+     * The backend name used to tag HOD calls
+     */
+    public static final String METRICS_NAME = "hod";
+
+    private InstrumentedHodServices() {}
+
+    /**
+     * Instruments a service. The HOD client services are generic, so their class literals are raw types; pass the
+     * parameterized interface as an explicit type argument, e.g.
+     * {@code InstrumentedHodServices.<QueryTextIndexService<Document>>instrument(QueryTextIndexService.class, ...)}.
+     * The type argument must be the interface itself and not an implementation, since the proxy only implements the
+     * interface.
+     *
+     * @param serviceType     the service interface, possibly raw
+     * @param service         the service to instrument
+     * @param api             the name of the HOD API called by the service, e.g. "querytextindex"
+     * @param metricsRegistry the registry to record calls in
+     * @param <T>             the service interface
+     * @return a proxy implementing the service interface which delegates to the given service
+     */
+    public static <T> T instrument(final Class<? super T> serviceType, final T service, final String api, final SearchMetricsRegistry metricsRegistry) {
+        if (!serviceType.isInterface()) {
+            throw new IllegalArgumentException(serviceType.getName() + " is not an interface");
+        }
+
+        // the proxy implements serviceType, which is T or its raw type
+        @SuppressWarnings("unchecked")
+        final T proxy = (T) Proxy.newProxyInstance(serviceType.getClassLoader(), new Class<?>[]{serviceType}, new MetricsInvocationHandler(service, api, metricsRegistry));
+        return proxy;
+    }
+
+    private static class MetricsInvocationHandler implements InvocationHandler {
+        private final Object service;
+        private final String api;
+        private final SearchMetricsRegistry metricsRegistry;
+
+        private MetricsInvocationHandler(final Object service, final String api, final SearchMetricsRegistry metricsRegistry) {
+            this.service = service;
+            this.api = api;
+            this.metricsRegistry = metricsRegistry;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeService(method, args);
+            }
+
+            final MetricKey key = new MetricKey(METRICS_NAME, api, findIndexTag(args));
+            final long startNanos = System.nanoTime();
+            boolean error = true;
+
+            try {
+                final Object result = invokeService(method, args);
+                error = false;
+                return result;
+            } finally {
+                metricsRegistry.recordCall(new BackendCall(key, error, System.nanoTime() - startNanos, BackendCall.UNKNOWN, BackendCall.UNKNOWN));
+            }
+        }
+
+        private Object invokeService(final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(service, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private String findIndexTag(final Object[] args) {
+            if (args == null) {
+                return null;
+            }
+
+            final List<String> indexes = new ArrayList<>();
+
+            for (final Object arg : args) {
+                if (arg instanceof ResourceIdentifier) {
+                    indexes.add(toIndexName((ResourceIdentifier) arg));
+                } else if (arg instanceof Collection) {
+                    for (final Object element : (Collection<?>) arg) {
+                        if (element instanceof ResourceIdentifier) {
+                            indexes.add(toIndexName((ResourceIdentifier) element));
+                        }
+                    }
+                }
+            }
+
+            return MetricKey.databaseTag(indexes);
+        }
+
+        private String toIndexName(final ResourceIdentifier resourceIdentifier) {
+            return resourceIdentifier.getDomain() + ':' + resourceIdentifier.getName();
+        }
+    }
+}
@@ -19,6 +19,8 @@ import com.hp.autonomy.searchcomponents.core.fields.FieldsService;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.AdaptiveBucketSizeEvaluatorFactory;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.BucketSizeEvaluator;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.BucketingParams;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.NumericBuckets;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.NumericHistogram;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricRequest;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricValuesService;
 import com.hp.autonomy.searchcomponents.hod.configuration.HodSearchCapable;
@@ -36,7 +38,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -118,45 +119,16 @@ public class HodParametricValuesService implements ParametricValuesService<HodPa
     }
 
     private void getNumericParametricValuesInBucketsForField(final Collection<RangeInfo> ranges, final QueryTagInfo queryTagInfo, final BucketingParams bucketingParams) {
-        final Set<QueryTagCountInfo> numericFieldValuesWithCount = queryTagInfo.getValues();
-        final double maxContinuousValue = Double.parseDouble(numericFieldValuesWithCount.toArray(new QueryTagCountInfo[numericFieldValuesWithCount.size()])[numericFieldValuesWithCount.size() - 1].getValue());
-        final double minContinuousValue = Double.parseDouble(numericFieldValuesWithCount.iterator().next().getValue());
-
-        final BucketSizeEvaluator bucketSizeEvaluator = bucketSizeEvaluatorFactory.getBucketSizeEvaluator(new BucketingParams(bucketingParams, minContinuousValue, maxContinuousValue));
-        final double maxValue = bucketSizeEvaluator.getMax();
-        final double minValue = bucketSizeEvaluator.getMin();
-        final double bucketSize = bucketSizeEvaluator.getBucketSize();
-
-        final List<RangeInfo.Value> buckets = new ArrayList<>(bucketSizeEvaluator.getTargetNumberOfBuckets());
-        final Iterator<QueryTagCountInfo> iterator = numericFieldValuesWithCount.iterator();
-
-        QueryTagCountInfo valueAndCount = null;
-        double boundaryValue = minValue;
-        int totalCount = 0;
-        for (int i = -1; i < bucketSizeEvaluator.getTargetNumberOfBuckets() && (valueAndCount == null || Double.parseDouble(valueAndCount.getValue()) < maxValue || bucketSizeEvaluator.unboundedMax()); i++) {
-            while (iterator.hasNext() && Double.parseDouble((valueAndCount = iterator.next()).getValue()) < boundaryValue) {
-                if (i >= 0) {
-                    final int count = valueAndCount.getCount();
-                    totalCount += count;
-                    buckets.get(i).addData(count);
-                }
-            }
-
-            while (valueAndCount != null && Double.parseDouble(valueAndCount.getValue()) >= boundaryValue + bucketSize) {
-                buckets.add(new RangeInfo.Value(0, boundaryValue, boundaryValue += bucketSize));
-            }
-
-            if (valueAndCount != null) {
-                final double value = Double.parseDouble(valueAndCount.getValue());
-                if (value >= boundaryValue && (value < maxValue || bucketSizeEvaluator.unboundedMax())) {
-                    final int count = valueAndCount.getCount();
-                    totalCount += count;
-                    buckets.add(new RangeInfo.Value(count, boundaryValue, Math.min(boundaryValue += bucketSize, maxValue)));
-                }
-            }
+        final NumericHistogram histogram = NumericHistogram.fromTagValues(queryTagInfo.getValues());
+        if (histogram.isEmpty()) {
+            return;
         }
 
-        ranges.add(new RangeInfo(new TagName(queryTagInfo.getName()), totalCount, minValue, maxValue, bucketSize, buckets));
+        final BucketSizeEvaluator bucketSizeEvaluator = bucketSizeEvaluatorFactory.getBucketSizeEvaluator(new BucketingParams(bucketingParams, histogram.getMin(), histogram.getMax()));
+        final NumericBuckets buckets = new NumericBuckets(bucketSizeEvaluator);
+        final int totalCount = histogram.addTo(buckets);
+
+        ranges.add(new RangeInfo(new TagName(queryTagInfo.getName()), totalCount, bucketSizeEvaluator.getMin(), bucketSizeEvaluator.getMax(), bucketSizeEvaluator.getBucketSize(), buckets.toValues()));
     }
 
     private Set<QueryTagInfo> getNumericParametricValues(final ParametricRequest<ResourceIdentifier> parametricRequest) throws HodErrorException {
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.hod.search;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.hod.client.api.textindex.query.search.Entity;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsService;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsRequest;
+import com.hp.autonomy.searchcomponents.core.searchpage.AbstractSearchPageService;
+import com.hp.autonomy.searchcomponents.hod.parametricvalues.HodParametricRequest;
+
+import java.util.List;
+
+/**
+ * HP Haven OnDemand {@link com.hp.autonomy.searchcomponents.core.searchpage.SearchPageService}.
+ */
+public class HodSearchPageService extends AbstractSearchPageService<ResourceIdentifier, HodSearchResult, HodParametricRequest, Entity> {
+    public HodSearchPageService(
+            final AsyncDocumentsService<ResourceIdentifier, HodSearchResult> documentsService,
+            final AsyncParametricValuesService<HodParametricRequest, ResourceIdentifier> parametricValuesService,
+            final AsyncRelatedConceptsService<Entity, ResourceIdentifier> relatedConceptsService,
+            final long defaultTimeoutMillis
+    ) {
+        super(documentsService, parametricValuesService, relatedConceptsService, defaultTimeoutMillis);
+    }
+
+    @Override
+    protected HodParametricRequest createParametricRequest(final QueryRestrictions<ResourceIdentifier> queryRestrictions, final List<String> fieldNames, final Integer maxValues) {
+        final HodParametricRequest.Builder builder = new HodParametricRequest.Builder()
+                .setFieldNames(fieldNames)
+                .setQueryRestrictions(queryRestrictions);
+
+        if (maxValues != null) {
+            builder.setMaxValues(maxValues);
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    protected RelatedConceptsRequest<ResourceIdentifier> createRelatedConceptsRequest(final QueryRestrictions<ResourceIdentifier> queryRestrictions, final int querySummaryLength) {
+        return new HodRelatedConceptsRequest.Builder()
+                .setQuerySummaryLength(querySummaryLength)
+                .setQueryRestrictions(queryRestrictions)
+                .build();
+    }
+}
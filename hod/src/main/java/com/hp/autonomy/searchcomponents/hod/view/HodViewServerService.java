@@ -21,7 +21,11 @@ import com.hp.autonomy.hod.client.error.HodErrorCode;
 import com.hp.autonomy.hod.client.error.HodErrorException;
 import com.hp.autonomy.hod.sso.HodAuthenticationPrincipal;
 import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
-import com.hp.autonomy.searchcomponents.core.view.ViewServerService;
+import com.hp.autonomy.searchcomponents.core.view.ByteRange;
+import com.hp.autonomy.searchcomponents.core.view.RangeOutputStream;
+import com.hp.autonomy.searchcomponents.core.view.RangedViewServerService;
+import com.hp.autonomy.searchcomponents.core.view.ViewStreamer;
+import com.hp.autonomy.searchcomponents.core.view.ViewedRange;
 import com.hp.autonomy.searchcomponents.hod.configuration.HodSearchCapable;
 import com.hp.autonomy.types.requests.Documents;
 import org.apache.commons.io.IOUtils;
@@ -31,10 +35,13 @@ import org.apache.commons.validator.routines.UrlValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -44,12 +51,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of {@link HodViewServerService}, using the java HOD client.
  */
 @Service
-public class HodViewServerService implements ViewServerService<ResourceIdentifier, HodErrorException> {
+public class HodViewServerService implements RangedViewServerService<ResourceIdentifier, HodErrorException> {
     // Field on text index documents which (when present) contains the view URL
     private static final String URL_FIELD = "url";
 
@@ -58,23 +66,36 @@ public class HodViewServerService implements ViewServerService<ResourceIdentifie
     public static final String REFERENCE_FIELD = "static_reference";
     public static final String HOD_RULE_CATEGORY = "default";
 
+    private static final Pattern LINE_BREAK_PATTERN = Pattern.compile("\n");
+
     private final ViewDocumentService viewDocumentService;
     private final GetContentService<Document> getContentService;
     private final QueryTextIndexService<Document> queryTextIndexService;
     private final ConfigService<? extends HodSearchCapable> configService;
     private final AuthenticationInformationRetriever<?, HodAuthenticationPrincipal> authenticationInformationRetriever;
+    private final ViewStreamer viewStreamer;
 
-    @Autowired
     public HodViewServerService(
             final ViewDocumentService viewDocumentService,
             final GetContentService<Document> viewGetContentService,
             final QueryTextIndexService<Document> queryTextIndexService,
             final ConfigService<? extends HodSearchCapable> configService, final AuthenticationInformationRetriever<?, HodAuthenticationPrincipal> authenticationInformationRetriever) {
+        this(viewDocumentService, viewGetContentService, queryTextIndexService, configService, authenticationInformationRetriever, new ViewStreamer());
+    }
+
+    @Autowired
+    public HodViewServerService(
+            final ViewDocumentService viewDocumentService,
+            final GetContentService<Document> viewGetContentService,
+            final QueryTextIndexService<Document> queryTextIndexService,
+            final ConfigService<? extends HodSearchCapable> configService, final AuthenticationInformationRetriever<?, HodAuthenticationPrincipal> authenticationInformationRetriever,
+            final ViewStreamer viewStreamer) {
         this.viewDocumentService = viewDocumentService;
         getContentService = viewGetContentService;
         this.queryTextIndexService = queryTextIndexService;
         this.configService = configService;
         this.authenticationInformationRetriever = authenticationInformationRetriever;
+        this.viewStreamer = viewStreamer;
     }
 
     private String resolveTitle(final Document document) {
@@ -89,22 +110,33 @@ public class HodViewServerService implements ViewServerService<ResourceIdentifie
         }
     }
 
-    private String escapeAndAddLineBreaks(final String input) {
-        return input == null ? "" : StringEscapeUtils.escapeHtml(input).replace("\n", "<br>");
-    }
+    private void writeEscapedWithLineBreaks(final Writer writer, final String input) throws IOException {
+        if (input != null) {
+            final String[] lines = LINE_BREAK_PATTERN.split(input, -1);
 
-    // Format the document's content for display in a browser
-    private InputStream formatRawContent(final Document document) {
-        final String body = "<h1>" + escapeAndAddLineBreaks(resolveTitle(document)) + "</h1>"
-                + "<p>" + escapeAndAddLineBreaks(document.getContent()) + "</p>";
+            for (int i = 0; i < lines.length; i++) {
+                if (i > 0) {
+                    writer.write("<br>");
+                }
 
-        return IOUtils.toInputStream(body, StandardCharsets.UTF_8);
+                StringEscapeUtils.escapeHtml(writer, lines[i]);
+            }
+        }
     }
 
-    // TODO: Reconcile with the above
-    private String formatRawContent(final String title, final String content) {
-        return "<h1>" + escapeAndAddLineBreaks(title) + "</h1>"
-                + "<p>" + escapeAndAddLineBreaks(content) + "</p>";
+    // Format content for display in a browser, escaping it straight into the output rather than building the page in memory
+    private ViewedRange writeRawContent(final String title, final String content, final ByteRange range, final OutputStream outputStream) throws IOException {
+        final RangeOutputStream rangeOutputStream = viewStreamer.open(outputStream, range);
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(rangeOutputStream, StandardCharsets.UTF_8));
+
+        writer.write("<h1>");
+        writeEscapedWithLineBreaks(writer, title);
+        writer.write("</h1><p>");
+        writeEscapedWithLineBreaks(writer, content);
+        writer.write("</p>");
+        writer.flush();
+
+        return rangeOutputStream.getViewedRange(true);
     }
 
     private String hodFieldValueAsString(final Object value) {
@@ -113,6 +145,11 @@ public class HodViewServerService implements ViewServerService<ResourceIdentifie
 
     @Override
     public void viewDocument(final String reference, final ResourceIdentifier index, final String highlightExpression, final OutputStream outputStream) throws IOException, HodErrorException {
+        viewDocument(reference, index, highlightExpression, null, outputStream);
+    }
+
+    @Override
+    public ViewedRange viewDocument(final String reference, final ResourceIdentifier index, final String highlightExpression, final ByteRange range, final OutputStream outputStream) throws IOException, HodErrorException {
         final GetContentRequestBuilder getContentParams = new GetContentRequestBuilder().setPrint(Print.all);
         final Documents<Document> documents = getContentService.getContent(Collections.singletonList(reference), index, getContentParams);
 
@@ -151,22 +188,21 @@ public class HodViewServerService implements ViewServerService<ResourceIdentifie
                     }
 
                     inputStream = viewDocumentService.viewUrl(encodedUrl, builder);
+                    return viewStreamer.copy(inputStream, outputStream, range);
                 } else {
                     throw new URISyntaxException(encodedUrl, "Invalid URL");
                 }
             } catch (URISyntaxException | MalformedURLException e) {
                 // URL was not valid, fall back to using the document content
-                inputStream = formatRawContent(document);
+                return writeRawContent(resolveTitle(document), document.getContent(), range, outputStream);
             } catch (final HodErrorException e) {
                 if (e.getErrorCode() == HodErrorCode.BACKEND_REQUEST_FAILED) {
                     // HOD failed to read the url, fall back to using the document content
-                    inputStream = formatRawContent(document);
+                    return writeRawContent(resolveTitle(document), document.getContent(), range, outputStream);
                 } else {
                     throw e;
                 }
             }
-
-            IOUtils.copy(inputStream, outputStream);
         } finally {
             IOUtils.closeQuietly(inputStream);
         }
@@ -191,8 +227,6 @@ public class HodViewServerService implements ViewServerService<ResourceIdentifie
         final String staticContent = hodFieldValueAsString(fields.get(CONTENT_FIELD));
         final String staticTitle = hodFieldValueAsString(fields.get(TITLE_FIELD));
 
-        try (InputStream inputStream = IOUtils.toInputStream(formatRawContent(staticTitle, staticContent), StandardCharsets.UTF_8)) {
-            IOUtils.copy(inputStream, outputStream);
-        }
+        writeRawContent(staticTitle, staticContent, null, outputStream);
     }
 }
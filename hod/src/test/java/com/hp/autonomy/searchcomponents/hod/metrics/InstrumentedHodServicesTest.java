@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.hod.metrics;
+
+import com.hp.autonomy.hod.client.api.resource.ResourceIdentifier;
+import com.hp.autonomy.searchcomponents.core.metrics.InMemorySearchMetricsRegistry;
+import com.hp.autonomy.searchcomponents.core.metrics.MetricKey;
+import com.hp.autonomy.searchcomponents.core.metrics.OperationMetrics;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
+
+public class InstrumentedHodServicesTest {
+    private static final String API = "querytextindex";
+    private static final ResourceIdentifier NEWS = new ResourceIdentifier("domain", "news");
+    private static final ResourceIdentifier SPORT = new ResourceIdentifier("domain", "sport");
+
+    private InMemorySearchMetricsRegistry metricsRegistry;
+
+    @Before
+    public void setUp() {
+        metricsRegistry = new InMemorySearchMetricsRegistry();
+    }
+
+    @Test
+    public void recordsSuccessfulCalls() throws IOException {
+        final TestService service = InstrumentedHodServices.instrument(TestService.class, new TestServiceImpl(null), API, metricsRegistry);
+
+        assertThat(service.query(NEWS), is("domain:news"));
+        assertThat(service.query(NEWS), is("domain:news"));
+
+        final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey(InstrumentedHodServices.METRICS_NAME, API, "domain:news"));
+        assertThat(metrics, notNullValue());
+        assertThat(metrics.getRequestCount(), is(2L));
+        assertThat(metrics.getErrorCount(), is(0L));
+        assertThat(metrics.getLatency().getCount(), is(2L));
+    }
+
+    @Test
+    public void tagsCallsToSeveralIndexesTogether() throws IOException {
+        final TestService service = InstrumentedHodServices.instrument(TestService.class, new TestServiceImpl(null), API, metricsRegistry);
+
+        service.queryAll(Arrays.asList(NEWS, SPORT));
+
+        final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey(InstrumentedHodServices.METRICS_NAME, API, MetricKey.MULTIPLE_DATABASES));
+        assertThat(metrics.getRequestCount(), is(1L));
+    }
+
+    @Test
+    public void recordsErrorsAndRethrowsTheServiceException() {
+        final IOException exception = new IOException("HOD is down");
+        final TestService service = InstrumentedHodServices.instrument(TestService.class, new TestServiceImpl(exception), API, metricsRegistry);
+
+        try {
+            service.query(NEWS);
+            fail("Exception should have been thrown");
+        } catch (final IOException e) {
+            // the exception thrown by the service, not the InvocationTargetException wrapping it
+            assertThat(e, is(sameInstance(exception)));
+        }
+
+        final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey(InstrumentedHodServices.METRICS_NAME, API, "domain:news"));
+        assertThat(metrics.getRequestCount(), is(1L));
+        assertThat(metrics.getErrorCount(), is(1L));
+    }
+
+    @Test
+    public void objectMethodsAreNotRecorded() {
+        final TestService service = InstrumentedHodServices.instrument(TestService.class, new TestServiceImpl(null), API, metricsRegistry);
+
+        assertThat(service.toString(), is(TestServiceImpl.class.getSimpleName()));
+        assertThat(metricsRegistry.getMetrics(new MetricKey(InstrumentedHodServices.METRICS_NAME, API, null)), is((OperationMetrics) null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void serviceTypeMustBeAnInterface() {
+        InstrumentedHodServices.instrument(TestServiceImpl.class, new TestServiceImpl(null), API, metricsRegistry);
+    }
+
+    public interface TestService {
+        String query(ResourceIdentifier index) throws IOException;
+
+        String queryAll(List<ResourceIdentifier> indexes) throws IOException;
+    }
+
+    private static class TestServiceImpl implements TestService {
+        private final IOException exception;
+
+        private TestServiceImpl(final IOException exception) {
+            this.exception = exception;
+        }
+
+        @Override
+        public String query(final ResourceIdentifier index) throws IOException {
+            if (exception != null) {
+                throw exception;
+            }
+
+            return index.getDomain() + ':' + index.getName();
+        }
+
+        @Override
+        public String queryAll(final List<ResourceIdentifier> indexes) throws IOException {
+            return query(indexes.get(0));
+        }
+
+        @Override
+        public String toString() {
+            return TestServiceImpl.class.getSimpleName();
+        }
+    }
+}
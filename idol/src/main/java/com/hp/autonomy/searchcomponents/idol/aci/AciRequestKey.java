@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.aci;
+
+import com.autonomy.aci.client.transport.AciParameter;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Canonical form of an ACI request, suitable for use as a map key. Parameter names are case insensitive and parameter
+ * order is irrelevant, so two parameter sets which would result in the same action on the server produce equal keys.
+ * The security info is held apart from the other parameters so that responses are always partitioned by user.
+ */
+@Data
+public class AciRequestKey implements Serializable {
+    private static final long serialVersionUID = -6043935412380853291L;
+
+    static final String SECURITY_INFO_PARAMETER = "securityinfo";
+
+    private final String namespace;
+    private final String securityInfo;
+    private final SortedMap<String, String> parameters;
+
+    /**
+     * @param namespace     distinguishes requests with identical parameters sent to different servers
+     * @param aciParameters the request parameters; these are copied, so later changes do not affect the key
+     */
+    public AciRequestKey(final String namespace, final Iterable<? extends AciParameter> aciParameters) {
+        this.namespace = namespace;
+
+        final SortedMap<String, String> canonicalParameters = new TreeMap<>();
+        String securityInfo = null;
+
+        for (final AciParameter aciParameter : aciParameters) {
+            final String name = aciParameter.getName().toLowerCase(Locale.ENGLISH);
+
+            if (SECURITY_INFO_PARAMETER.equals(name)) {
+                securityInfo = aciParameter.getValue();
+            } else {
+                canonicalParameters.put(name, aciParameter.getValue());
+            }
+        }
+
+        this.securityInfo = securityInfo;
+        parameters = Collections.unmodifiableSortedMap(canonicalParameters);
+    }
+
+    /**
+     * @param name the parameter name, in any case
+     * @return the value of the parameter, or null if it is not present
+     */
+    public String getParameter(final String name) {
+        final String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+        return SECURITY_INFO_PARAMETER.equals(lowerCaseName) ? securityInfo : parameters.get(lowerCaseName);
+    }
+}
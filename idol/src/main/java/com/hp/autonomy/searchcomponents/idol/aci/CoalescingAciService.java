@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.aci;
+
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.transport.AciServerDetails;
+import com.google.common.util.concurrent.SettableFuture;
+import com.hp.autonomy.searchcomponents.core.concurrent.FutureUtils;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagActions;
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link AciService} decorator which shares a single backend request between callers who send an identical action at
+ * the same time. Requests are identical if they have the same canonical parameters (including the security info) and
+ * use the same {@link Processor} instance, so callers always receive a response of the type they asked for and never
+ * one generated for another user.
+ * <p>
+ * Only actions which are known to be read only are coalesced, and all callers receive the same response object, so
+ * callers must not modify the responses of coalesced actions. The content and QMS services are only wrapped when
+ * {@link #ENABLED_PROPERTY} is true.
+ */
+public class CoalescingAciService implements AciService {
+    public static final String ENABLED_PROPERTY = "haven-search.aci.coalescing.enabled";
+
+    /**
+     * Actions which are coalesced by default; these are the actions sent in bulk when a page of parametric filters loads.
+     * GetStatus is not included: it is sent by the metadata registry from a single thread, and the services which send
+     * it each use their own processor, so their requests would never be coalesced.
+     */
+    public static final Set<String> DEFAULT_COALESCED_ACTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            TagActions.GetQueryTagValues.name(),
+            TagActions.GetTagNames.name()
+    )));
+
+    private static final String ACTION_PARAMETER = "action";
+
+    private final AciService aciService;
+    private final Set<String> coalescedActions;
+    private final ConcurrentMap<InFlightRequest, SettableFuture<Object>> inFlightRequests = new ConcurrentHashMap<>();
+
+    public CoalescingAciService(final AciService aciService) {
+        this(aciService, DEFAULT_COALESCED_ACTIONS);
+    }
+
+    /**
+     * @param aciService       the service which sends requests to the server
+     * @param coalescedActions names of the actions to coalesce, in any case
+     */
+    public CoalescingAciService(final AciService aciService, final Collection<String> coalescedActions) {
+        this.aciService = aciService;
+
+        final Set<String> actions = new HashSet<>(coalescedActions.size());
+        for (final String action : coalescedActions) {
+            actions.add(action.toLowerCase(Locale.ENGLISH));
+        }
+
+        this.coalescedActions = actions;
+    }
+
+    @Override
+    public <T> T executeAction(final Set<? extends AciParameter> parameters, final Processor<T> processor) {
+        return executeAction(null, parameters, processor);
+    }
+
+    @Override
+    public <T> T executeAction(final AciServerDetails serverDetails, final Set<? extends AciParameter> parameters, final Processor<T> processor) {
+        final AciRequestKey requestKey = new AciRequestKey(serverDetails == null ? null : serverDetails.getProtocol() + "://" + serverDetails.getHost() + ':' + serverDetails.getPort(), parameters);
+        final String action = requestKey.getParameter(ACTION_PARAMETER);
+
+        if (action == null || !coalescedActions.contains(action.toLowerCase(Locale.ENGLISH))) {
+            return sendAction(serverDetails, parameters, processor);
+        }
+
+        final InFlightRequest inFlightRequest = new InFlightRequest(requestKey, processor);
+        final SettableFuture<Object> response = SettableFuture.create();
+        final SettableFuture<Object> existingResponse = inFlightRequests.putIfAbsent(inFlightRequest, response);
+
+        if (existingResponse != null) {
+            // The key includes the processor, so the response was created by a processor returning T
+            @SuppressWarnings("unchecked")
+            final T result = (T) FutureUtils.getResult(existingResponse);
+            return result;
+        }
+
+        try {
+            final T result = sendAction(serverDetails, parameters, processor);
+            response.set(result);
+            return result;
+        } catch (final RuntimeException | Error e) {
+            response.setException(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(inFlightRequest, response);
+        }
+    }
+
+    private <T> T sendAction(final AciServerDetails serverDetails, final Set<? extends AciParameter> parameters, final Processor<T> processor) {
+        return serverDetails == null ? aciService.executeAction(parameters, processor) : aciService.executeAction(serverDetails, parameters, processor);
+    }
+
+    /**
+     * @return the number of distinct coalesced requests currently waiting for a response
+     */
+    public int getInFlightRequestCount() {
+        return inFlightRequests.size();
+    }
+
+    @Data
+    private static class InFlightRequest {
+        private final AciRequestKey requestKey;
+        // The processors used by the services do not override equals, so this compares them by identity
+        private final Processor<?> processor;
+    }
+}
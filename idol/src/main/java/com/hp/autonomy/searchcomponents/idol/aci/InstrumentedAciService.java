@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.aci;
+
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.transport.AciResponseInputStream;
+import com.autonomy.aci.client.transport.AciServerDetails;
+import com.hp.autonomy.searchcomponents.core.metrics.BackendCall;
+import com.hp.autonomy.searchcomponents.core.metrics.MetricKey;
+import com.hp.autonomy.searchcomponents.core.metrics.SearchMetricsRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * {@link AciService} decorator which records a {@link BackendCall} for every action sent. Calls are tagged with the
+ * name given to this service, the action name and the database named by the DatabaseMatch parameter, or
+ * {@link MetricKey#MULTIPLE_DATABASES} if it names several.
+ * <p>
+ * The given {@link Processor} is wrapped so that the time spent waiting for the server can be separated from the time
+ * spent parsing the response, and so that the number of bytes read from the response can be counted.
+ */
+public class InstrumentedAciService implements AciService {
+    private static final String ACTION_PARAMETER = "action";
+    private static final String DATABASE_PARAMETER = "databasematch";
+    private static final Pattern DATABASE_SEPARATOR_PATTERN = Pattern.compile("[+,\\s]+");
+
+    private final AciService aciService;
+    private final String backend;
+    private final SearchMetricsRegistry metricsRegistry;
+
+    /**
+     * @param aciService      the service which sends requests to the server
+     * @param backend         the name used to tag calls made through this service, e.g. "content"
+     * @param metricsRegistry the registry to record calls in
+     */
+    public InstrumentedAciService(final AciService aciService, final String backend, final SearchMetricsRegistry metricsRegistry) {
+        this.aciService = aciService;
+        this.backend = backend;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public <T> T executeAction(final Set<? extends AciParameter> parameters, final Processor<T> processor) {
+        return executeAction(null, parameters, processor);
+    }
+
+    @Override
+    public <T> T executeAction(final AciServerDetails serverDetails, final Set<? extends AciParameter> parameters, final Processor<T> processor) {
+        final MetricKey key = createKey(parameters);
+        final TimingProcessor<T> timingProcessor = new TimingProcessor<>(processor, System.nanoTime());
+        boolean error = true;
+
+        try {
+            final T result = serverDetails == null ? aciService.executeAction(parameters, timingProcessor) : aciService.executeAction(serverDetails, parameters, timingProcessor);
+            error = false;
+            return result;
+        } finally {
+            metricsRegistry.recordCall(timingProcessor.toBackendCall(key, error, System.nanoTime()));
+        }
+    }
+
+    private MetricKey createKey(final Iterable<? extends AciParameter> parameters) {
+        String action = null;
+        String database = null;
+
+        for (final AciParameter parameter : parameters) {
+            final String name = parameter.getName();
+
+            if (action == null && ACTION_PARAMETER.equalsIgnoreCase(name)) {
+                action = parameter.getValue() == null ? null : parameter.getValue().toLowerCase(Locale.ENGLISH);
+            } else if (database == null && DATABASE_PARAMETER.equalsIgnoreCase(name)) {
+                database = parameter.getValue();
+            }
+        }
+
+        return new MetricKey(backend, action, database == null ? null : MetricKey.databaseTag(splitDatabases(database)));
+    }
+
+    private List<String> splitDatabases(final String databaseMatch) {
+        final List<String> databases = new ArrayList<>();
+
+        for (final String database : DATABASE_SEPARATOR_PATTERN.split(databaseMatch)) {
+            if (!database.isEmpty()) {
+                databases.add(database);
+            }
+        }
+
+        return databases;
+    }
+
+    private static class TimingProcessor<T> implements Processor<T> {
+        private static final long serialVersionUID = -2709536367434853420L;
+
+        private final Processor<T> processor;
+        private final long startNanos;
+        private long processStartNanos = BackendCall.UNKNOWN;
+        private long processEndNanos = BackendCall.UNKNOWN;
+        private transient CountingAciResponseInputStream countingStream;
+
+        private TimingProcessor(final Processor<T> processor, final long startNanos) {
+            this.processor = processor;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public T process(final AciResponseInputStream aciResponse) {
+            processStartNanos = System.nanoTime();
+            countingStream = new CountingAciResponseInputStream(aciResponse);
+
+            try {
+                return processor.process(countingStream);
+            } finally {
+                processEndNanos = System.nanoTime();
+            }
+        }
+
+        private BackendCall toBackendCall(final MetricKey key, final boolean error, final long endNanos) {
+            if (processStartNanos == BackendCall.UNKNOWN) {
+                // No response was received, so the whole call was spent waiting for the server
+                return new BackendCall(key, error, endNanos - startNanos, BackendCall.UNKNOWN, BackendCall.UNKNOWN);
+            }
+
+            return new BackendCall(key, error, processStartNanos - startNanos, processEndNanos - processStartNanos, countingStream.getCount());
+        }
+    }
+
+    private static class CountingAciResponseInputStream extends AciResponseInputStream {
+        private final AciResponseInputStream aciResponse;
+        private long count;
+
+        private CountingAciResponseInputStream(final AciResponseInputStream aciResponse) {
+            super(aciResponse);
+            this.aciResponse = aciResponse;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int result = super.read();
+
+            if (result != -1) {
+                count++;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int result = super.read(b, off, len);
+
+            if (result > 0) {
+                count += result;
+            }
+
+            return result;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long result = super.skip(n);
+            count += result;
+            return result;
+        }
+
+        @Override
+        public boolean markSupported() {
+            // Resetting would make the count wrong
+            return false;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return aciResponse.getStatusCode();
+        }
+
+        @Override
+        public String getHeader(final String name) {
+            return aciResponse.getHeader(name);
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return aciResponse.getContentEncoding();
+        }
+
+        @Override
+        public long getContentLength() {
+            return aciResponse.getContentLength();
+        }
+
+        @Override
+        public String getContentType() {
+            return aciResponse.getContentType();
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
@@ -7,17 +7,41 @@ package com.hp.autonomy.searchcomponents.idol.beanconfiguration;
 
 import com.autonomy.aci.client.services.AciErrorException;
 import com.autonomy.aci.client.services.AciService;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.frontend.configuration.authentication.CommunityPrincipal;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
 import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
 import com.hp.autonomy.searchcomponents.core.authentication.SpringSecurityAuthenticationInformationRetriever;
+import com.hp.autonomy.searchcomponents.core.concurrent.HavenSearchAsyncConfiguration;
+import com.hp.autonomy.searchcomponents.core.fields.AsyncFieldsService;
+import com.hp.autonomy.searchcomponents.core.fields.AsyncFieldsServiceImpl;
+import com.hp.autonomy.searchcomponents.core.fields.FieldsService;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesServiceImpl;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsServiceImpl;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsServiceImpl;
 import com.hp.autonomy.searchcomponents.core.search.DocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsService;
+import com.hp.autonomy.searchcomponents.core.searchpage.SearchPageService;
+import com.hp.autonomy.searchcomponents.core.typeahead.AsyncTypeAheadService;
+import com.hp.autonomy.searchcomponents.core.typeahead.AsyncTypeAheadServiceImpl;
+import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadService;
 import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.fields.IdolFieldsRequest;
+import com.hp.autonomy.searchcomponents.idol.parametricvalues.IdolParametricRequest;
 import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
 import com.hp.autonomy.searchcomponents.idol.search.IdolDocumentService;
+import com.hp.autonomy.searchcomponents.idol.search.IdolSearchPageService;
 import com.hp.autonomy.searchcomponents.idol.search.IdolSearchResult;
+import com.hp.autonomy.searchcomponents.idol.search.QueryResponseCache;
 import com.hp.autonomy.searchcomponents.idol.search.QueryResponseParser;
+import com.hp.autonomy.types.idol.QsElement;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,8 +52,44 @@ class DefaultIdolConfiguration {
     @SuppressWarnings("MethodWithTooManyParameters")
     @Bean
     @ConditionalOnMissingBean(DocumentsService.class)
-    public DocumentsService<String, IdolSearchResult, AciErrorException> documentsService(final ConfigService<? extends IdolSearchCapable> configService, final HavenSearchAciParameterHandler parameterHandler, final QueryResponseParser queryResponseParser, final AciService contentAciService, final AciService qmsAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory) {
-        return new IdolDocumentService(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory);
+    public DocumentsService<String, IdolSearchResult, AciErrorException> documentsService(final ConfigService<? extends IdolSearchCapable> configService, final HavenSearchAciParameterHandler parameterHandler, final QueryResponseParser queryResponseParser, final AciService contentAciService, final AciService qmsAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory, @Qualifier("aciExecutorService") final ListeningExecutorService aciExecutorService, final QueryResponseCache queryResponseCache) {
+        return new IdolDocumentService(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory, aciExecutorService, queryResponseCache);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncDocumentsService.class)
+    public AsyncDocumentsService<String, IdolSearchResult> asyncDocumentsService(final DocumentsService<String, IdolSearchResult, AciErrorException> documentsService, @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService) {
+        return new AsyncDocumentsServiceImpl<>(documentsService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncParametricValuesService.class)
+    public AsyncParametricValuesService<IdolParametricRequest, String> asyncParametricValuesService(final ParametricValuesService<IdolParametricRequest, String, AciErrorException> parametricValuesService, @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService) {
+        return new AsyncParametricValuesServiceImpl<>(parametricValuesService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncRelatedConceptsService.class)
+    public AsyncRelatedConceptsService<QsElement, String> asyncRelatedConceptsService(final RelatedConceptsService<QsElement, String, AciErrorException> relatedConceptsService, @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService) {
+        return new AsyncRelatedConceptsServiceImpl<>(relatedConceptsService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncFieldsService.class)
+    public AsyncFieldsService<IdolFieldsRequest> asyncFieldsService(final FieldsService<IdolFieldsRequest, AciErrorException> fieldsService, @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService) {
+        return new AsyncFieldsServiceImpl<>(fieldsService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AsyncTypeAheadService.class)
+    public AsyncTypeAheadService asyncTypeAheadService(@Qualifier("typeAheadService") final TypeAheadService<AciErrorException> typeAheadService, @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService) {
+        return new AsyncTypeAheadServiceImpl<>(typeAheadService, executorService);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SearchPageService.class)
+    public SearchPageService<String, IdolSearchResult, QsElement> searchPageService(final DocumentsService<String, IdolSearchResult, AciErrorException> documentsService, final ParametricValuesService<IdolParametricRequest, String, AciErrorException> parametricValuesService, final RelatedConceptsService<QsElement, String, AciErrorException> relatedConceptsService, final HavenSearchAciParameterHandler parameterHandler, @Qualifier(HavenSearchAsyncConfiguration.ASYNC_EXECUTOR_SERVICE) final ListeningExecutorService executorService, @Value("${" + SearchPageService.TIMEOUT_PROPERTY + ":" + SearchPageService.DEFAULT_TIMEOUT_MILLIS + "}") final long timeoutMillis) {
+        return new IdolSearchPageService(documentsService, parametricValuesService, relatedConceptsService, parameterHandler, executorService, timeoutMillis);
     }
 
     @Bean
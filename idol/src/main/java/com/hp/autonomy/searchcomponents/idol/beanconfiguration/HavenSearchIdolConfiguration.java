@@ -11,20 +11,32 @@ import com.autonomy.aci.client.services.AciService;
 import com.autonomy.aci.client.services.impl.AciServiceImpl;
 import com.autonomy.aci.client.transport.AciServerDetails;
 import com.autonomy.aci.client.transport.impl.AciHttpClientImpl;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.hp.autonomy.frontend.configuration.AbstractConfigurableAciService;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.idol.aci.CoalescingAciService;
+import com.hp.autonomy.searchcomponents.idol.aci.InstrumentedAciService;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
+import com.hp.autonomy.searchcomponents.core.metrics.SearchMetricsRegistry;
 import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
 import com.hp.autonomy.searchcomponents.idol.configuration.QueryManipulation;
+import com.hp.autonomy.searchcomponents.idol.search.NoOpQueryResponseCache;
+import com.hp.autonomy.searchcomponents.idol.search.QueryResponseCache;
+import com.hp.autonomy.searchcomponents.idol.search.QueryResponseCacheImpl;
 import org.apache.http.client.HttpClient;
 import org.apache.http.config.SocketConfig;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Defines Spring beans required for using this module
  *
@@ -39,38 +51,42 @@ public class HavenSearchIdolConfiguration<C extends IdolSearchCapable> {
     private static final int VALIDATOR_HTTP_SOCKET_TIMEOUT = 2000;
     private static final int VALIDATOR_HTTP_MAX_CONNECTIONS_PER_ROUTE = 5;
     private static final int VALIDATOR_HTTP_MAX_CONNECTIONS_TOTAL = 5;
+    private static final String ACI_EXECUTOR_THREAD_NAME_FORMAT = "haven-search-aci-%d";
+    private static final String CONTENT_METRICS_NAME = "content";
+    private static final String QMS_METRICS_NAME = "qms";
+    private static final String VIEW_METRICS_NAME = "view";
 
     @Bean
-    public AciService contentAciService(@Qualifier("aciService") final AciService aciService, final ConfigService<C> configService) {
-        return new AbstractConfigurableAciService(aciService) {
+    public AciService contentAciService(@Qualifier("aciService") final AciService aciService, final ConfigService<C> configService, final SearchMetricsRegistry searchMetricsRegistry, @Value("${" + CoalescingAciService.ENABLED_PROPERTY + ":false}") final boolean coalescingEnabled) {
+        return coalesce(new InstrumentedAciService(new AbstractConfigurableAciService(aciService) {
             @Override
             public AciServerDetails getServerDetails() {
                 return configService.getConfig().getContentAciServerDetails();
             }
-        };
+        }, CONTENT_METRICS_NAME, searchMetricsRegistry), coalescingEnabled);
     }
 
 
     @Bean
     @ConditionalOnMissingBean(name = "qmsAciService")
-    public AciService qmsAciService(@Qualifier("aciService") final AciService aciService, final ConfigService<C> configService) {
-        return new AbstractConfigurableAciService(aciService) {
+    public AciService qmsAciService(@Qualifier("aciService") final AciService aciService, final ConfigService<C> configService, final SearchMetricsRegistry searchMetricsRegistry, @Value("${" + CoalescingAciService.ENABLED_PROPERTY + ":false}") final boolean coalescingEnabled) {
+        return coalesce(new InstrumentedAciService(new AbstractConfigurableAciService(aciService) {
             @Override
             public AciServerDetails getServerDetails() {
                 final QueryManipulation queryManipulation = configService.getConfig().getQueryManipulation();
                 return queryManipulation != null ? queryManipulation.getServer().toAciServerDetails() : null;
             }
-        };
+        }, QMS_METRICS_NAME, searchMetricsRegistry), coalescingEnabled);
     }
 
     @Bean
-    public AciService viewAciService(@Qualifier("aciService") final AciService aciService, final ConfigService<C> configService) {
-        return new AbstractConfigurableAciService(aciService) {
+    public AciService viewAciService(@Qualifier("aciService") final AciService aciService, final ConfigService<C> configService, final SearchMetricsRegistry searchMetricsRegistry) {
+        return new InstrumentedAciService(new AbstractConfigurableAciService(aciService) {
             @Override
             public AciServerDetails getServerDetails() {
                 return configService.getConfig().getViewConfig().toAciServerDetails();
             }
-        };
+        }, VIEW_METRICS_NAME, searchMetricsRegistry);
     }
 
     @Bean
@@ -93,6 +109,33 @@ public class HavenSearchIdolConfiguration<C extends IdolSearchCapable> {
         return new AciServiceImpl(new AciHttpClientImpl(validatorHttpClient));
     }
 
+    /**
+     * Executor for sending independent ACI requests concurrently. Threads beyond the per route connection limit would
+     * only wait for a connection, so the pool is capped at that limit.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "aciExecutorService")
+    public ListeningExecutorService aciExecutorService() {
+        return SearchExecutors.boundedExecutor(HTTP_MAX_CONNECTIONS_PER_ROUTE, ACI_EXECUTOR_THREAD_NAME_FORMAT);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(QueryResponseCache.class)
+    @ConditionalOnProperty(value = QueryResponseCache.ENABLED_PROPERTY, havingValue = "true")
+    public QueryResponseCache queryResponseCache(
+            @Value("${" + QueryResponseCache.EXPIRY_SECONDS_PROPERTY + ":30}") final long expirySeconds,
+            @Value("${" + QueryResponseCache.MAX_HITS_PROPERTY + ":30000}") final long maxHits
+    ) {
+        return new QueryResponseCacheImpl(expirySeconds, TimeUnit.SECONDS, maxHits);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(QueryResponseCache.class)
+    @ConditionalOnProperty(value = QueryResponseCache.ENABLED_PROPERTY, havingValue = "false", matchIfMissing = true)
+    public QueryResponseCache noOpQueryResponseCache() {
+        return new NoOpQueryResponseCache();
+    }
+
     @Bean
     public HttpClient httpClient() {
         return createHttpClient(HTTP_SOCKET_TIMEOUT, HTTP_MAX_CONNECTIONS_PER_ROUTE, HTTP_MAX_CONNECTIONS_TOTAL);
@@ -103,6 +146,10 @@ public class HavenSearchIdolConfiguration<C extends IdolSearchCapable> {
         return createHttpClient(VALIDATOR_HTTP_SOCKET_TIMEOUT, VALIDATOR_HTTP_MAX_CONNECTIONS_PER_ROUTE, VALIDATOR_HTTP_MAX_CONNECTIONS_TOTAL);
     }
 
+    private AciService coalesce(final AciService aciService, final boolean coalescingEnabled) {
+        return coalescingEnabled ? new CoalescingAciService(aciService) : aciService;
+    }
+
     private HttpClient createHttpClient(final int httpSocketTimeout, final int maxConnectionsPerRoute, final int maxConnectionsTotal) {
         final SocketConfig socketConfig = SocketConfig.custom()
                 .setSoTimeout(httpSocketTimeout)
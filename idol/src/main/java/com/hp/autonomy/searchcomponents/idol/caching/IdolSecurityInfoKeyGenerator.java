@@ -0,0 +1,25 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.caching;
+
+import com.hp.autonomy.frontend.configuration.authentication.CommunityPrincipal;
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import com.hp.autonomy.searchcomponents.core.caching.SecurityInfoKeyGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdolSecurityInfoKeyGenerator extends SecurityInfoKeyGenerator<CommunityPrincipal> {
+    @Autowired
+    public IdolSecurityInfoKeyGenerator(final AuthenticationInformationRetriever<?, CommunityPrincipal> authenticationInformationRetriever) {
+        super(authenticationInformationRetriever);
+    }
+
+    @Override
+    protected String getSecurityInfo(final CommunityPrincipal principal) {
+        return principal.getSecurityInfo();
+    }
+}
@@ -11,4 +11,9 @@ import lombok.Data;
 @Data
 public class IdolDatabasesRequest implements DatabasesRequest {
     private static final long serialVersionUID = 3450911770365743948L;
+
+    /**
+     * If true, the databases are requested from the content engine rather than read from the metadata registry
+     */
+    private boolean fresh;
 }
@@ -11,6 +11,7 @@ import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.util.AciParameters;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
 import com.hp.autonomy.searchcomponents.core.databases.DatabasesService;
+import com.hp.autonomy.searchcomponents.idol.metadata.IdolMetadataRegistry;
 import com.hp.autonomy.types.idol.Database;
 import com.hp.autonomy.types.idol.GetStatusResponseData;
 import com.hp.autonomy.types.requests.idol.actions.status.StatusActions;
@@ -27,16 +28,30 @@ import java.util.Set;
 public class IdolDatabasesService implements DatabasesService<Database, IdolDatabasesRequest, AciErrorException> {
     private final AciService contentAciService;
     private final Processor<GetStatusResponseData> responseProcessor;
+    private final IdolMetadataRegistry metadataRegistry;
 
-    @Autowired
     public IdolDatabasesService(final AciService contentAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory) {
+        this(contentAciService, aciResponseProcessorFactory, null);
+    }
+
+    /**
+     * @param metadataRegistry if not null, databases are read from the registry rather than requested from the content
+     *                         engine on every call
+     */
+    @Autowired
+    public IdolDatabasesService(final AciService contentAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory, final IdolMetadataRegistry metadataRegistry) {
         this.contentAciService = contentAciService;
+        this.metadataRegistry = metadataRegistry;
 
         responseProcessor = aciResponseProcessorFactory.createAciResponseProcessor(GetStatusResponseData.class);
     }
 
     @Override
     public Set<Database> getDatabases(final IdolDatabasesRequest request) throws AciErrorException {
+        if (metadataRegistry != null) {
+            return request.isFresh() ? metadataRegistry.refreshDatabases() : metadataRegistry.getDatabases();
+        }
+
         final GetStatusResponseData responseData = contentAciService.executeAction(new AciParameters(StatusActions.GetStatus.name()), responseProcessor);
         final List<Database> allDatabases = responseData.getDatabases().getDatabase();
         final Set<Database> publicDatabases = new LinkedHashSet<>();
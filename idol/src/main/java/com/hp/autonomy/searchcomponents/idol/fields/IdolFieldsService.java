@@ -13,6 +13,7 @@ import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
 import com.hp.autonomy.searchcomponents.core.caching.CacheNames;
 import com.hp.autonomy.searchcomponents.core.fields.FieldsRequest;
 import com.hp.autonomy.searchcomponents.core.fields.FieldsService;
+import com.hp.autonomy.searchcomponents.idol.metadata.IdolMetadataRegistry;
 import com.hp.autonomy.types.idol.GetTagNamesResponseData;
 import com.hp.autonomy.types.requests.idol.actions.tags.TagActions;
 import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
@@ -32,19 +33,38 @@ import java.util.Map;
 public class IdolFieldsService implements FieldsService<IdolFieldsRequest, AciErrorException> {
     private final AciService contentAciService;
     private final Processor<GetTagNamesResponseData> tagNamesResponseProcessor;
+    private final IdolMetadataRegistry metadataRegistry;
 
-    @Autowired
     public IdolFieldsService(final AciService contentAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory) {
+        this(contentAciService, aciResponseProcessorFactory, null);
+    }
+
+    /**
+     * @param metadataRegistry if not null, requests without a maximum number of values are answered from the registry
+     *                         for the field types it holds
+     */
+    @Autowired
+    public IdolFieldsService(final AciService contentAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory, final IdolMetadataRegistry metadataRegistry) {
         this.contentAciService = contentAciService;
+        this.metadataRegistry = metadataRegistry;
         tagNamesResponseProcessor = aciResponseProcessorFactory.createAciResponseProcessor(GetTagNamesResponseData.class);
     }
 
+    /**
+     * @return true if field names are read from an {@link IdolMetadataRegistry}; the registry refreshes them itself, so
+     * they are only cached by Spring when they are requested from the content engine
+     */
+    public boolean isRegistryBacked() {
+        return metadataRegistry != null;
+    }
+
     @Override
-    @Cacheable(CacheNames.FIELDS)
+    @Cacheable(value = CacheNames.FIELDS, condition = "!#root.target.registryBacked or #p0.maxValues != null")
     public Map<FieldTypeParam, List<TagName>> getFields(final IdolFieldsRequest request, final FieldTypeParam... fieldTypes) throws AciErrorException {
         final Map<FieldTypeParam, List<TagName>> results = new EnumMap<>(FieldTypeParam.class);
         for (final FieldTypeParam fieldType : fieldTypes) {
-            results.put(fieldType, getTagNames(request, fieldType));
+            final List<TagName> registeredTagNames = metadataRegistry != null && request.getMaxValues() == null ? metadataRegistry.getFields(fieldType) : null;
+            results.put(fieldType, registeredTagNames != null ? registeredTagNames : getTagNames(request, fieldType));
         }
 
         return results;
@@ -10,6 +10,7 @@ import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.util.AciParameters;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
 import com.hp.autonomy.searchcomponents.core.languages.LanguagesService;
+import com.hp.autonomy.searchcomponents.idol.metadata.IdolMetadataRegistry;
 import com.hp.autonomy.types.idol.GetStatusResponseData;
 import com.hp.autonomy.types.idol.LanguageSettingsResponseData;
 import com.hp.autonomy.types.idol.LanguageType;
@@ -31,18 +32,40 @@ public class IdolLanguagesService implements LanguagesService {
     private final AciService contentAciService;
     private final Processor<GetStatusResponseData> getStatusProcessor;
     private final Processor<LanguageSettingsResponseData> languageSettingsProcessor;
+    private final IdolMetadataRegistry metadataRegistry;
 
-    @Autowired
     public IdolLanguagesService(final AciService contentAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory) {
+        this(contentAciService, aciResponseProcessorFactory, null);
+    }
+
+    /**
+     * @param metadataRegistry if not null, languages are read from the registry rather than requested from the content
+     *                         engine on every call
+     */
+    @Autowired
+    public IdolLanguagesService(final AciService contentAciService, final AciResponseJaxbProcessorFactory aciResponseProcessorFactory, final IdolMetadataRegistry metadataRegistry) {
         this.contentAciService = contentAciService;
+        this.metadataRegistry = metadataRegistry;
 
         getStatusProcessor = aciResponseProcessorFactory.createAciResponseProcessor(GetStatusResponseData.class);
         languageSettingsProcessor = aciResponseProcessorFactory.createAciResponseProcessor(LanguageSettingsResponseData.class);
     }
 
+    /**
+     * @return true if languages are read from an {@link IdolMetadataRegistry}; the registry refreshes them itself, so
+     * they are only cached by Spring when they are requested from the content engine
+     */
+    public boolean isRegistryBacked() {
+        return metadataRegistry != null;
+    }
+
     @Override
-    @Cacheable(value = "IdolLanguagesService.getLanguages", key = "#root.methodName")
+    @Cacheable(value = "IdolLanguagesService.getLanguages", key = "#root.methodName", condition = "!#root.target.registryBacked")
     public Map<String, LanguageType> getLanguages() {
+        if (metadataRegistry != null) {
+            return metadataRegistry.getLanguages();
+        }
+
         final GetStatusResponseData getStatusResponseData = contentAciService.executeAction(new AciParameters(StatusActions.GetStatus.name()), getStatusProcessor);
 
         final List<LanguageType> languageTypes = getStatusResponseData.getLanguageTypeSettings().getLanguageType();
@@ -69,14 +92,18 @@ public class IdolLanguagesService implements LanguagesService {
     }
 
     @Override
-    @Cacheable(value = "IdolLanguagesService.getDefaultLanguageId", key = "#root.methodName")
+    @Cacheable(value = "IdolLanguagesService.getDefaultLanguageId", key = "#root.methodName", condition = "!#root.target.registryBacked")
     public String getDefaultLanguageId() {
+        if (metadataRegistry != null) {
+            return metadataRegistry.getDefaultLanguageId();
+        }
+
         final Languages languages = contentAciService.executeAction(new AciParameters(GeneralActions.LanguageSettings.name()), languageSettingsProcessor).getLanguages();
         return languages.getDefaultLanguageType();
     }
 
     @Override
-    @Cacheable("IdolLanguagesService.isValidLanguage")
+    @Cacheable(value = "IdolLanguagesService.isValidLanguage", condition = "!#root.target.registryBacked")
     public boolean isValidLanguage(final String language) {
         return getLanguages().containsKey(language);
     }
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.metadata;
+
+import com.hp.autonomy.types.idol.Database;
+import com.hp.autonomy.types.idol.LanguageType;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.FieldTypeParam;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of the databases, field names and languages of the content engine, as loaded by
+ * {@link IdolMetadataRegistry}. Snapshots are never modified after they are published.
+ */
+@Data
+public class IdolMetadata {
+    private final Set<Database> databases;
+    private final Map<FieldTypeParam, List<TagName>> fields;
+    private final Map<String, LanguageType> languages;
+    private final String defaultLanguageId;
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.metadata;
+
+import com.autonomy.aci.client.services.AciService;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
+import com.hp.autonomy.searchcomponents.idol.databases.IdolDatabasesRequest;
+import com.hp.autonomy.searchcomponents.idol.databases.IdolDatabasesService;
+import com.hp.autonomy.searchcomponents.idol.fields.IdolFieldsRequest;
+import com.hp.autonomy.searchcomponents.idol.fields.IdolFieldsService;
+import com.hp.autonomy.searchcomponents.idol.languages.IdolLanguagesService;
+import com.hp.autonomy.types.idol.Database;
+import com.hp.autonomy.types.idol.LanguageType;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.FieldTypeParam;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the databases, field names and languages of the content engine in memory and refreshes them in the background,
+ * so that request threads read the latest snapshot instead of sending GetStatus or GetTagNames.
+ * <p>
+ * The first snapshot is loaded on the refresh thread as soon as the bean is initialised, without blocking startup. Reads
+ * which arrive before it is published do not wait for it, but request the part of the metadata they need directly. If
+ * the first load fails, the next scheduled refresh tries again. Once a snapshot has been published, a failed refresh of
+ * one part of the metadata keeps the previous value of that part until the next refresh.
+ */
+@Slf4j
+@Component
+public class IdolMetadataRegistry implements InitializingBean, DisposableBean {
+    public static final String REFRESH_INTERVAL_PROPERTY = "haven-search.metadata.refresh-interval-seconds";
+
+    // Missing database warnings can arrive in bursts; one background refresh serves all of them
+    private static final long DATABASES_REFRESH_MIN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    static final FieldTypeParam[] FIELD_TYPES = {FieldTypeParam.Parametric, FieldTypeParam.Numeric, FieldTypeParam.NumericDate, FieldTypeParam.Date};
+
+    private final IdolDatabasesService databasesLoader;
+    private final IdolFieldsService fieldsLoader;
+    private final IdolLanguagesService languagesLoader;
+    private final long refreshIntervalSeconds;
+    private final Lock loadLock = new ReentrantLock();
+    private final AtomicLong lastDatabasesRefreshRequest = new AtomicLong(System.nanoTime() - DATABASES_REFRESH_MIN_INTERVAL_NANOS);
+
+    private volatile IdolMetadata metadata;
+    private volatile ScheduledExecutorService executor;
+
+    @Autowired
+    public IdolMetadataRegistry(
+            final AciService contentAciService,
+            final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
+            @Value("${" + REFRESH_INTERVAL_PROPERTY + ":300}") final long refreshIntervalSeconds
+    ) {
+        // Plain instances rather than the service beans, so that loads are never answered from a cache
+        databasesLoader = new IdolDatabasesService(contentAciService, aciResponseProcessorFactory);
+        fieldsLoader = new IdolFieldsService(contentAciService, aciResponseProcessorFactory);
+        languagesLoader = new IdolLanguagesService(contentAciService, aciResponseProcessorFactory);
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = SearchExecutors.scheduledExecutor("idol-metadata-refresh");
+
+        final Runnable refreshTask = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    refresh();
+                } catch (final RuntimeException e) {
+                    log.warn("Failed to refresh IDOL metadata", e);
+                }
+            }
+        };
+
+        executor.execute(refreshTask);
+        executor.scheduleWithFixedDelay(refreshTask, refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        final ScheduledExecutorService currentExecutor = executor;
+
+        if (currentExecutor != null) {
+            currentExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the public databases
+     */
+    public Set<Database> getDatabases() {
+        final IdolMetadata current = getMetadata();
+        return current != null ? current.getDatabases() : loadDatabases();
+    }
+
+    /**
+     * Requests the public databases from the content engine and, unless another thread is refreshing the registry,
+     * publishes them in a new snapshot. Use this when the current snapshot is known to be out of date.
+     *
+     * @return the public databases
+     */
+    public Set<Database> refreshDatabases() {
+        final Set<Database> databases = loadDatabases();
+
+        if (loadLock.tryLock()) {
+            try {
+                final IdolMetadata previous = metadata;
+
+                if (previous != null) {
+                    metadata = new IdolMetadata(databases, previous.getFields(), previous.getLanguages(), previous.getDefaultLanguageId());
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        return databases;
+    }
+
+    /**
+     * Asks the refresh thread to reload the public databases, without waiting for them. Requests made within a few
+     * seconds of the previous one are ignored, as are requests made before the bean is initialised.
+     */
+    public void requestDatabasesRefresh() {
+        final ScheduledExecutorService currentExecutor = executor;
+        final long now = System.nanoTime();
+        final long lastRequest = lastDatabasesRefreshRequest.get();
+
+        if (currentExecutor == null || now - lastRequest < DATABASES_REFRESH_MIN_INTERVAL_NANOS || !lastDatabasesRefreshRequest.compareAndSet(lastRequest, now)) {
+            return;
+        }
+
+        try {
+            currentExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refreshDatabases();
+                    } catch (final RuntimeException e) {
+                        log.warn("Failed to refresh IDOL databases", e);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            log.debug("Not refreshing IDOL databases; the registry is shutting down", e);
+        }
+    }
+
+    /**
+     * @param fieldType the field type
+     * @return the names of fields of the type, or null if the registry does not hold fields of the type
+     */
+    public List<TagName> getFields(final FieldTypeParam fieldType) {
+        final IdolMetadata current = getMetadata();
+        return current != null ? current.getFields().get(fieldType) : loadFields().get(fieldType);
+    }
+
+    /**
+     * @return the UTF8 language types, keyed by name
+     */
+    public Map<String, LanguageType> getLanguages() {
+        final IdolMetadata current = getMetadata();
+        return current != null ? current.getLanguages() : loadLanguages();
+    }
+
+    /**
+     * @return the default language type
+     */
+    public String getDefaultLanguageId() {
+        final IdolMetadata current = getMetadata();
+        return current != null ? current.getDefaultLanguageId() : languagesLoader.getDefaultLanguageId();
+    }
+
+    /**
+     * @return the current snapshot, or null if the first snapshot has not been loaded yet
+     */
+    public IdolMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Loads the metadata from the content engine and publishes a new snapshot.
+     *
+     * @return the new snapshot
+     */
+    public IdolMetadata refresh() {
+        loadLock.lock();
+
+        try {
+            final IdolMetadata refreshed = load(metadata);
+            metadata = refreshed;
+            return refreshed;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private IdolMetadata load(final IdolMetadata previous) {
+        final Set<Database> databases = previous == null ? loadDatabases() : loadOrKeep(new Loader<Set<Database>>() {
+            @Override
+            public Set<Database> load() {
+                return loadDatabases();
+            }
+        }, previous.getDatabases());
+
+        final Map<FieldTypeParam, List<TagName>> fields = previous == null ? loadFields() : loadOrKeep(new Loader<Map<FieldTypeParam, List<TagName>>>() {
+            @Override
+            public Map<FieldTypeParam, List<TagName>> load() {
+                return loadFields();
+            }
+        }, previous.getFields());
+
+        final Map<String, LanguageType> languages = previous == null ? loadLanguages() : loadOrKeep(new Loader<Map<String, LanguageType>>() {
+            @Override
+            public Map<String, LanguageType> load() {
+                return loadLanguages();
+            }
+        }, previous.getLanguages());
+
+        final String defaultLanguageId = previous == null ? languagesLoader.getDefaultLanguageId() : loadOrKeep(new Loader<String>() {
+            @Override
+            public String load() {
+                return languagesLoader.getDefaultLanguageId();
+            }
+        }, previous.getDefaultLanguageId());
+
+        return new IdolMetadata(databases, fields, languages, defaultLanguageId);
+    }
+
+    private Set<Database> loadDatabases() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(databasesLoader.getDatabases(new IdolDatabasesRequest())));
+    }
+
+    private Map<FieldTypeParam, List<TagName>> loadFields() {
+        return Collections.unmodifiableMap(new EnumMap<>(fieldsLoader.getFields(new IdolFieldsRequest(), FIELD_TYPES)));
+    }
+
+    private Map<String, LanguageType> loadLanguages() {
+        return Collections.unmodifiableMap(languagesLoader.getLanguages());
+    }
+
+    private <T> T loadOrKeep(final Loader<T> loader, final T previous) {
+        try {
+            return loader.load();
+        } catch (final RuntimeException e) {
+            log.warn("Failed to refresh IDOL metadata; keeping the previous value", e);
+            return previous;
+        }
+    }
+
+    private interface Loader<T> {
+        T load();
+    }
+}
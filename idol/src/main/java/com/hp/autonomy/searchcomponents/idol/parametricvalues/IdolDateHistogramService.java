@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.parametricvalues;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.aci.content.ranges.Range;
+import com.hp.autonomy.aci.content.ranges.Ranges;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.DateBuckets;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.DateHistogram;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.DateHistogramParams;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.DateHistogramService;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricValuesService;
+import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
+import com.hp.autonomy.types.idol.FlatField;
+import com.hp.autonomy.types.idol.GetQueryTagValuesResponseData;
+import com.hp.autonomy.types.idol.TagValue;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagActions;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.GetQueryTagValuesParams;
+import org.apache.commons.lang.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.xml.bind.JAXBElement;
+import java.util.Collections;
+
+/**
+ * Computes every bucket of a date histogram with a single GetQueryTagValues request, passing the calendar-aligned bucket
+ * boundaries as Ranges on autn_date.
+ */
+@Service
+public class IdolDateHistogramService implements DateHistogramService<IdolParametricRequest, String, AciErrorException> {
+    private final HavenSearchAciParameterHandler parameterHandler;
+    private final AciService contentAciService;
+    private final Processor<GetQueryTagValuesResponseData> queryTagValuesResponseProcessor;
+
+    @Autowired
+    public IdolDateHistogramService(final HavenSearchAciParameterHandler parameterHandler,
+                                    final AciService contentAciService,
+                                    final AciResponseJaxbProcessorFactory aciResponseProcessorFactory) {
+        this.parameterHandler = parameterHandler;
+        this.contentAciService = contentAciService;
+        queryTagValuesResponseProcessor = aciResponseProcessorFactory.createAciResponseProcessor(GetQueryTagValuesResponseData.class);
+    }
+
+    @Override
+    public DateHistogram getDateHistogram(final IdolParametricRequest parametricRequest, final DateHistogramParams params) throws AciErrorException {
+        final DateBuckets buckets = new DateBuckets(params);
+
+        final AciParameters aciParameters = new AciParameters(TagActions.GetQueryTagValues.name());
+        parameterHandler.addSearchRestrictions(aciParameters, parametricRequest.getQueryRestrictions());
+        if (parametricRequest.isModified()) {
+            parameterHandler.addQmsParameters(aciParameters, parametricRequest.getQueryRestrictions());
+        }
+
+        aciParameters.add(GetQueryTagValuesParams.DocumentCount.name(), true);
+        aciParameters.add(GetQueryTagValuesParams.FieldName.name(), ParametricValuesService.AUTN_DATE_FIELD);
+        aciParameters.add(GetQueryTagValuesParams.Ranges.name(), new Ranges(Collections.singletonList(new Range(ParametricValuesService.AUTN_DATE_FIELD, buckets.getBoundaries()))));
+
+        final GetQueryTagValuesResponseData responseData = contentAciService.executeAction(aciParameters, queryTagValuesResponseProcessor);
+        for (final FlatField field : responseData.getField()) {
+            for (final JAXBElement<?> element : field.getValueAndSubvalueOrValues()) {
+                if (IdolParametricValuesService.VALUE_NODE_NAME.equals(element.getName().getLocalPart())) {
+                    // Range values are of the form "min,max"
+                    final TagValue tagValue = (TagValue) element.getValue();
+                    final String rangeValue = tagValue.getValue();
+                    final int separatorIndex = rangeValue.indexOf(',');
+                    final String rangeMin = separatorIndex < 0 ? rangeValue : rangeValue.substring(0, separatorIndex);
+
+                    if (NumberUtils.isNumber(rangeMin)) {
+                        buckets.addCount(NumberUtils.toDouble(rangeMin), tagValue.getCount());
+                    }
+                }
+            }
+        }
+
+        return buckets.toHistogram();
+    }
+}
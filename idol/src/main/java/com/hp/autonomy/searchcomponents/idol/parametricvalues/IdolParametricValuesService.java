@@ -9,23 +9,39 @@ import com.autonomy.aci.client.services.AciErrorException;
 import com.autonomy.aci.client.services.AciService;
 import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.util.AciParameters;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.hp.autonomy.aci.content.database.Databases;
 import com.hp.autonomy.aci.content.ranges.Range;
 import com.hp.autonomy.aci.content.ranges.Ranges;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
 import com.hp.autonomy.searchcomponents.core.caching.CacheNames;
+import com.hp.autonomy.searchcomponents.core.concurrent.FutureUtils;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
 import com.hp.autonomy.searchcomponents.core.fields.FieldsService;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.AdaptiveBucketSizeEvaluatorFactory;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.BucketSizeEvaluator;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.BucketingParams;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.NumericBuckets;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricRequest;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricValuesService;
 import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.idol.aci.AciRequestKey;
 import com.hp.autonomy.searchcomponents.idol.fields.IdolFieldsRequest;
 import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
+import com.hp.autonomy.searchcomponents.idol.search.PreparedRestrictions;
 import com.hp.autonomy.types.idol.FlatField;
 import com.hp.autonomy.types.idol.GetQueryTagValuesResponseData;
 import com.hp.autonomy.types.idol.RecursiveField;
 import com.hp.autonomy.types.idol.TagValue;
+import com.hp.autonomy.types.requests.idol.actions.query.params.QueryParams;
 import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagCountInfo;
 import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
 import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
@@ -33,10 +49,11 @@ import com.hp.autonomy.types.requests.idol.actions.tags.TagActions;
 import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
 import com.hp.autonomy.types.requests.idol.actions.tags.params.FieldTypeParam;
 import com.hp.autonomy.types.requests.idol.actions.tags.params.GetQueryTagValuesParams;
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -46,44 +63,162 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("WeakerAccess")
 @Service
-public class IdolParametricValuesService implements ParametricValuesService<IdolParametricRequest, String, AciErrorException> {
+public class IdolParametricValuesService implements ParametricValuesService<IdolParametricRequest, String, AciErrorException>, PreparedRestrictionsParametricValuesService {
     static final String VALUE_NODE_NAME = "value";
     static final String VALUES_NODE_NAME = "values";
     static final String VALUE_MIN_NODE_NAME = "valuemin";
     static final String VALUE_MAX_NODE_NAME = "valuemax";
 
+    public static final String DATABASES_PER_REQUEST_PROPERTY = "haven-search.parametric-values.databases-per-request";
+    public static final String FIELDS_PER_REQUEST_PROPERTY = "haven-search.parametric-values.fields-per-request";
+    public static final String PARTITION_CACHE_EXPIRY_SECONDS_PROPERTY = "haven-search.parametric-values.partition-cache.expiry-seconds";
+    public static final String PARTITION_CACHE_MAX_SIZE_PROPERTY = "haven-search.parametric-values.partition-cache.max-size";
+    public static final long DEFAULT_PARTITION_CACHE_EXPIRY_SECONDS = 30L;
+    public static final long DEFAULT_PARTITION_CACHE_MAX_SIZE = 1000L;
+
+    private static final String PARTITION_CACHE_NAMESPACE = "content";
+
     private final HavenSearchAciParameterHandler parameterHandler;
     private final FieldsService<IdolFieldsRequest, AciErrorException> fieldsService;
     private final AciService contentAciService;
     private final AdaptiveBucketSizeEvaluatorFactory bucketSizeEvaluatorFactory;
+    private final ListeningExecutorService executorService;
     private final Processor<GetQueryTagValuesResponseData> queryTagValuesResponseProcessor;
+    private final int databasesPerRequest;
+    private final int fieldsPerRequest;
+
+    // Responses for each group of databases, so that changing the database selection only re-queries the new groups
+    private final Cache<AciRequestKey, List<FlatField>> partitionCache;
 
-    @Autowired
     public IdolParametricValuesService(final HavenSearchAciParameterHandler parameterHandler,
                                        final FieldsService<IdolFieldsRequest, AciErrorException> fieldsService,
                                        final AciService contentAciService,
                                        final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
                                        final AdaptiveBucketSizeEvaluatorFactory bucketSizeEvaluatorFactory) {
+        this(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, bucketSizeEvaluatorFactory, SearchExecutors.directExecutor());
+    }
+
+    /**
+     * @param executorService executor used to send independent ACI requests concurrently; should be bounded by the number
+     *                        of connections available to Content
+     */
+    public IdolParametricValuesService(final HavenSearchAciParameterHandler parameterHandler,
+                                       final FieldsService<IdolFieldsRequest, AciErrorException> fieldsService,
+                                       final AciService contentAciService,
+                                       final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
+                                       final AdaptiveBucketSizeEvaluatorFactory bucketSizeEvaluatorFactory,
+                                       final ListeningExecutorService executorService) {
+        this(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, bucketSizeEvaluatorFactory, executorService, 0);
+    }
+
+    /**
+     * @param executorService     executor used to send independent ACI requests concurrently; should be bounded by the
+     *                            number of connections available to Content
+     * @param databasesPerRequest if positive, requests for all parametric values over more databases than this are split
+     *                            into one request per group of this many databases, sent concurrently
+     */
+    public IdolParametricValuesService(final HavenSearchAciParameterHandler parameterHandler,
+                                       final FieldsService<IdolFieldsRequest, AciErrorException> fieldsService,
+                                       final AciService contentAciService,
+                                       final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
+                                       final AdaptiveBucketSizeEvaluatorFactory bucketSizeEvaluatorFactory,
+                                       final ListeningExecutorService executorService,
+                                       final int databasesPerRequest) {
+        this(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, bucketSizeEvaluatorFactory, executorService, databasesPerRequest, 0);
+    }
+
+    /**
+     * @param executorService     executor used to send independent ACI requests concurrently; should be bounded by the
+     *                            number of connections available to Content
+     * @param databasesPerRequest if positive, requests for all parametric values over more databases than this are split
+     *                            into one request per group of this many databases, sent concurrently
+     * @param fieldsPerRequest    if positive, requests for all parametric values of more fields than this are split into
+     *                            one request per chunk of this many fields, sent concurrently
+     */
+    public IdolParametricValuesService(final HavenSearchAciParameterHandler parameterHandler,
+                                       final FieldsService<IdolFieldsRequest, AciErrorException> fieldsService,
+                                       final AciService contentAciService,
+                                       final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
+                                       final AdaptiveBucketSizeEvaluatorFactory bucketSizeEvaluatorFactory,
+                                       final ListeningExecutorService executorService,
+                                       final int databasesPerRequest,
+                                       final int fieldsPerRequest) {
+        this(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, bucketSizeEvaluatorFactory, executorService, databasesPerRequest, fieldsPerRequest, DEFAULT_PARTITION_CACHE_EXPIRY_SECONDS, DEFAULT_PARTITION_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * @param executorService             executor used to send independent ACI requests concurrently; should be bounded
+     *                                    by the number of connections available to Content
+     * @param databasesPerRequest         if positive, requests for all parametric values over more databases than this
+     *                                    are split into one request per group of this many databases, sent concurrently
+     * @param fieldsPerRequest            if positive, requests for all parametric values of more fields than this are
+     *                                    split into one request per chunk of this many fields, sent concurrently
+     * @param partitionCacheExpirySeconds how long the response for a group of databases is cached; 0 disables the cache
+     * @param partitionCacheMaxSize       the maximum number of group responses cached
+     */
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    @Autowired
+    public IdolParametricValuesService(final HavenSearchAciParameterHandler parameterHandler,
+                                       final FieldsService<IdolFieldsRequest, AciErrorException> fieldsService,
+                                       final AciService contentAciService,
+                                       final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
+                                       final AdaptiveBucketSizeEvaluatorFactory bucketSizeEvaluatorFactory,
+                                       @Qualifier("aciExecutorService") final ListeningExecutorService executorService,
+                                       @Value("${" + DATABASES_PER_REQUEST_PROPERTY + ":0}") final int databasesPerRequest,
+                                       @Value("${" + FIELDS_PER_REQUEST_PROPERTY + ":0}") final int fieldsPerRequest,
+                                       @Value("${" + PARTITION_CACHE_EXPIRY_SECONDS_PROPERTY + ":" + DEFAULT_PARTITION_CACHE_EXPIRY_SECONDS + "}") final long partitionCacheExpirySeconds,
+                                       @Value("${" + PARTITION_CACHE_MAX_SIZE_PROPERTY + ":" + DEFAULT_PARTITION_CACHE_MAX_SIZE + "}") final long partitionCacheMaxSize) {
         this.parameterHandler = parameterHandler;
         this.fieldsService = fieldsService;
         this.contentAciService = contentAciService;
         this.bucketSizeEvaluatorFactory = bucketSizeEvaluatorFactory;
+        this.executorService = executorService;
         queryTagValuesResponseProcessor = aciResponseProcessorFactory.createAciResponseProcessor(GetQueryTagValuesResponseData.class);
+        this.databasesPerRequest = databasesPerRequest;
+        this.fieldsPerRequest = fieldsPerRequest;
+
+        partitionCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(partitionCacheExpirySeconds, TimeUnit.SECONDS)
+                .maximumSize(partitionCacheMaxSize)
+                .build();
     }
 
     @Override
     public Set<QueryTagInfo> getAllParametricValues(final IdolParametricRequest parametricRequest) throws AciErrorException {
-        final Collection<String> fieldNames = new HashSet<>();
-        fieldNames.addAll(parametricRequest.getFieldNames());
+        return getAllParametricValues(parametricRequest, null, null);
+    }
+
+    /**
+     * Retrieves the values of all the requested fields, passing the values of each field to the listener as soon as they
+     * are retrieved. If there are more fields than the configured number of fields per request, the fields are
+     * requested in chunks which are sent concurrently, so the listener receives the values of the fastest chunks first.
+     *
+     * @param parametricRequest the fields to retrieve, or no fields to retrieve all parametric fields
+     * @param listener          receives the values of each field, or null
+     * @return the values of all the fields
+     * @throws AciErrorException if a request fails
+     */
+    public Set<QueryTagInfo> getAllParametricValues(final IdolParametricRequest parametricRequest, final ParametricValuesListener listener) throws AciErrorException {
+        return getAllParametricValues(parametricRequest, null, listener);
+    }
+
+    @Override
+    public Set<QueryTagInfo> getAllParametricValues(final IdolParametricRequest parametricRequest, final PreparedRestrictions preparedRestrictions) throws AciErrorException {
+        return getAllParametricValues(parametricRequest, preparedRestrictions, null);
+    }
+
+    private Set<QueryTagInfo> getAllParametricValues(final IdolParametricRequest parametricRequest, final PreparedRestrictions preparedRestrictions, final ParametricValuesListener listener) {
+        final List<String> fieldNames = new ArrayList<>(new LinkedHashSet<>(parametricRequest.getFieldNames()));
         if (fieldNames.isEmpty()) {
             fieldNames.addAll(lookupFieldIds());
         }
@@ -91,8 +226,50 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
         final Set<QueryTagInfo> results;
         if (fieldNames.isEmpty()) {
             results = Collections.emptySet();
+        } else if (fieldsPerRequest > 0 && fieldNames.size() > fieldsPerRequest) {
+            results = getAllParametricValuesInChunks(parametricRequest, preparedRestrictions, fieldNames, listener);
+        } else {
+            results = getParametricValues(parametricRequest, preparedRestrictions, fieldNames, listener);
+        }
+
+        return results;
+    }
+
+    private Set<QueryTagInfo> getAllParametricValuesInChunks(final IdolParametricRequest parametricRequest, final PreparedRestrictions preparedRestrictions, final List<String> fieldNames, final ParametricValuesListener callerListener) {
+        // Chunks complete on different executor threads; the wrapper ensures the listener is called by one at a time
+        final ParametricValuesListener listener = callerListener == null ? null : new SerializingListener(callerListener);
+        final List<ListenableFuture<Set<QueryTagInfo>>> chunkResults = new ArrayList<>();
+        try {
+            for (final List<String> chunk : Lists.partition(fieldNames, fieldsPerRequest)) {
+                chunkResults.add(executorService.submit(new Callable<Set<QueryTagInfo>>() {
+                    @Override
+                    public Set<QueryTagInfo> call() {
+                        return getParametricValues(parametricRequest, preparedRestrictions, chunk, listener);
+                    }
+                }));
+            }
+
+            final Set<QueryTagInfo> results = new LinkedHashSet<>(fieldNames.size());
+            for (final ListenableFuture<Set<QueryTagInfo>> chunkResult : chunkResults) {
+                results.addAll(FutureUtils.getResult(chunkResult));
+            }
+
+            return results;
+        } catch (final RuntimeException e) {
+            for (final ListenableFuture<Set<QueryTagInfo>> chunkResult : chunkResults) {
+                chunkResult.cancel(true);
+            }
+
+            throw e;
+        }
+    }
+
+    private Set<QueryTagInfo> getParametricValues(final IdolParametricRequest parametricRequest, final PreparedRestrictions preparedRestrictions, final Collection<String> fieldNames, final ParametricValuesListener listener) {
+        final Set<QueryTagInfo> results;
+        if (shouldSplitByDatabase(parametricRequest)) {
+            results = getAllParametricValuesByDatabase(parametricRequest, preparedRestrictions, fieldNames);
         } else {
-            final List<FlatField> fields = getFlatFields(parametricRequest, fieldNames);
+            final List<FlatField> fields = getFlatFields(parametricRequest, preparedRestrictions, fieldNames);
             results = new LinkedHashSet<>(fields.size());
             for (final FlatField field : fields) {
                 final List<JAXBElement<? extends Serializable>> valueElements = field.getValueAndSubvalueOrValues();
@@ -110,14 +287,92 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
             }
         }
 
+        if (listener != null) {
+            for (final QueryTagInfo result : results) {
+                listener.onFieldValues(result);
+            }
+        }
+
         return results;
     }
 
+    private boolean shouldSplitByDatabase(final ParametricRequest<String> parametricRequest) {
+        return databasesPerRequest > 0
+                && parametricRequest.getQueryRestrictions().getDatabases().size() > databasesPerRequest
+                && QueryTagValuesMerger.isMergeable(parametricRequest.getSort());
+    }
+
+    /**
+     * Sends one request for each group of databases and merges the value counts. The databases are sorted before they
+     * are grouped, so that a group is unchanged, and its response can be taken from the cache, when databases outside
+     * it are added to or removed from the selection.
+     */
+    private Set<QueryTagInfo> getAllParametricValuesByDatabase(final IdolParametricRequest parametricRequest, final PreparedRestrictions preparedRestrictions, final Collection<String> fieldNames) {
+        final AciParameters aciParameters = createAciParameters(parametricRequest.getQueryRestrictions(), preparedRestrictions, parametricRequest.isModified());
+        addFlatFieldParameters(aciParameters, parametricRequest, fieldNames);
+
+        final List<String> databases = new ArrayList<>(parametricRequest.getQueryRestrictions().getDatabases());
+        Collections.sort(databases);
+
+        final List<ListenableFuture<List<FlatField>>> partitionResults = new ArrayList<>();
+        try {
+            for (final List<String> partition : Lists.partition(databases, databasesPerRequest)) {
+                final AciParameters partitionParameters = new AciParameters();
+                partitionParameters.addAll(aciParameters);
+                partitionParameters.put(QueryParams.DatabaseMatch.name(), new Databases(partition));
+
+                partitionResults.add(executorService.submit(new Callable<List<FlatField>>() {
+                    @Override
+                    public List<FlatField> call() {
+                        return getCachedFlatFields(partitionParameters);
+                    }
+                }));
+            }
+
+            final QueryTagValuesMerger merger = new QueryTagValuesMerger(parametricRequest.getSort(), parametricRequest.getMaxValues());
+            for (final ListenableFuture<List<FlatField>> partitionResult : partitionResults) {
+                for (final FlatField field : FutureUtils.getResult(partitionResult)) {
+                    final String fieldName = field.getName().get(0);
+                    for (final JAXBElement<?> element : field.getValueAndSubvalueOrValues()) {
+                        if (VALUE_NODE_NAME.equals(element.getName().getLocalPart())) {
+                            final TagValue tagValue = (TagValue) element.getValue();
+                            merger.add(fieldName, tagValue.getValue(), tagValue.getCount());
+                        }
+                    }
+                }
+            }
+
+            return merger.getResults();
+        } catch (final RuntimeException e) {
+            for (final ListenableFuture<List<FlatField>> partitionResult : partitionResults) {
+                partitionResult.cancel(true);
+            }
+
+            throw e;
+        }
+    }
+
+    private List<FlatField> getCachedFlatFields(final AciParameters aciParameters) {
+        try {
+            return partitionCache.get(new AciRequestKey(PARTITION_CACHE_NAMESPACE, aciParameters), new Callable<List<FlatField>>() {
+                @Override
+                public List<FlatField> call() {
+                    return contentAciService.executeAction(aciParameters, queryTagValuesResponseProcessor).getField();
+                }
+            });
+        } catch (final ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Range queries for fields whose bounds are already known are sent at once, concurrently with the lookup of the
+     * bounds of the other fields, so those fields do not wait for the extra round trip.
+     */
     @Override
     @Cacheable(CacheNames.PARAMETRIC_VALUES_IN_BUCKETS)
     public List<RangeInfo> getNumericParametricValuesInBuckets(final IdolParametricRequest parametricRequest, final Map<String, BucketingParams> bucketingParamsPerField) throws AciErrorException {
         final int numberOfFields = bucketingParamsPerField.size();
-        final List<RangeInfo> results = new ArrayList<>(numberOfFields);
         final Map<String, BucketSizeEvaluator> bucketSizeEvaluators = new HashMap<>(numberOfFields);
         final Map<String, BucketingParams> fieldsNeedingMetadata = new HashMap<>(numberOfFields);
         for (final Map.Entry<String, BucketingParams> entry : bucketingParamsPerField.entrySet()) {
@@ -129,16 +384,31 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
             }
         }
 
-        if (!fieldsNeedingMetadata.isEmpty()) {
-            getMissingValueBounds(parametricRequest, fieldsNeedingMetadata, bucketSizeEvaluators);
-        }
-
-        if (!bucketSizeEvaluators.isEmpty()) {
-            final List<Range> ranges = generateRanges(bucketSizeEvaluators);
-
-            queryForRanges(results, parametricRequest, bucketSizeEvaluators, ranges);
+        final ListenableFuture<List<RangeInfo>> knownBoundsResults = bucketSizeEvaluators.isEmpty()
+                ? Futures.immediateFuture(Collections.<RangeInfo>emptyList())
+                : executorService.submit(new Callable<List<RangeInfo>>() {
+                    @Override
+                    public List<RangeInfo> call() {
+                        return queryForRanges(parametricRequest, bucketSizeEvaluators);
+                    }
+                });
+
+        final List<RangeInfo> lookedUpBoundsResults;
+        try {
+            if (fieldsNeedingMetadata.isEmpty()) {
+                lookedUpBoundsResults = Collections.emptyList();
+            } else {
+                final Map<String, BucketSizeEvaluator> lookedUpBucketSizeEvaluators = getMissingValueBounds(parametricRequest, fieldsNeedingMetadata);
+                lookedUpBoundsResults = lookedUpBucketSizeEvaluators.isEmpty() ? Collections.<RangeInfo>emptyList() : queryForRanges(parametricRequest, lookedUpBucketSizeEvaluators);
+            }
+        } catch (final RuntimeException e) {
+            knownBoundsResults.cancel(true);
+            throw e;
         }
 
+        final List<RangeInfo> results = new ArrayList<>(numberOfFields);
+        results.addAll(FutureUtils.getResult(knownBoundsResults));
+        results.addAll(lookedUpBoundsResults);
         return results;
     }
 
@@ -154,7 +424,7 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
         if (fieldNames.isEmpty()) {
             results = Collections.emptyList();
         } else {
-            final AciParameters aciParameters = createAciParameters(parametricRequest.getQueryRestrictions(), parametricRequest.isModified());
+            final AciParameters aciParameters = createAciParameters(parametricRequest.getQueryRestrictions(), null, parametricRequest.isModified());
 
             aciParameters.add(GetQueryTagValuesParams.DocumentCount.name(), true);
             aciParameters.add(GetQueryTagValuesParams.FieldName.name(), StringUtils.join(fieldNames.toArray(), ','));
@@ -170,15 +440,23 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
         return results;
     }
 
-    private AciParameters createAciParameters(final QueryRestrictions<String> queryRestrictions, final boolean modified) {
+    private AciParameters createAciParameters(final QueryRestrictions<String> queryRestrictions, final PreparedRestrictions preparedRestrictions, final boolean modified) {
         final AciParameters aciParameters = new AciParameters(TagActions.GetQueryTagValues.name());
-        parameterHandler.addSearchRestrictions(aciParameters, queryRestrictions);
+        addSearchRestrictions(aciParameters, queryRestrictions, preparedRestrictions);
         if (modified) {
             parameterHandler.addQmsParameters(aciParameters, queryRestrictions);
         }
         return aciParameters;
     }
 
+    private void addSearchRestrictions(final AciParameters aciParameters, final QueryRestrictions<String> queryRestrictions, final PreparedRestrictions preparedRestrictions) {
+        if (preparedRestrictions == null) {
+            parameterHandler.addSearchRestrictions(aciParameters, queryRestrictions);
+        } else {
+            preparedRestrictions.addTo(aciParameters);
+        }
+    }
+
     private Collection<String> lookupFieldIds() {
         final List<TagName> fields = fieldsService.getFields(new IdolFieldsRequest.Builder().build(), FieldTypeParam.Parametric).get(FieldTypeParam.Parametric);
         final Collection<String> fieldIds = new ArrayList<>(fields.size());
@@ -189,8 +467,8 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
         return fieldIds;
     }
 
-    private void getMissingValueBounds(final ParametricRequest<String> parametricRequest, final Map<String, BucketingParams> fieldsNeedingMetadata, final Map<String, BucketSizeEvaluator> bucketSizeEvaluators) {
-        final AciParameters aciParameters = createAciParameters(parametricRequest.getQueryRestrictions(), parametricRequest.isModified());
+    private Map<String, BucketSizeEvaluator> getMissingValueBounds(final ParametricRequest<String> parametricRequest, final Map<String, BucketingParams> fieldsNeedingMetadata) {
+        final AciParameters aciParameters = createAciParameters(parametricRequest.getQueryRestrictions(), null, parametricRequest.isModified());
 
         aciParameters.add(GetQueryTagValuesParams.MaxValues.name(), 1);
         aciParameters.add(GetQueryTagValuesParams.FieldName.name(), StringUtils.join(fieldsNeedingMetadata.keySet().toArray(), ','));
@@ -198,6 +476,7 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
 
         final GetQueryTagValuesResponseData responseData = contentAciService.executeAction(aciParameters, queryTagValuesResponseProcessor);
         final Collection<FlatField> fields = responseData.getField();
+        final Map<String, BucketSizeEvaluator> bucketSizeEvaluators = new HashMap<>(fields.size());
         for (final FlatField field : fields) {
             final List<JAXBElement<? extends Serializable>> valueElements = field.getValueAndSubvalueOrValues();
             final TagName tagName = new TagName(field.getName().get(0));
@@ -216,84 +495,94 @@ public class IdolParametricValuesService implements ParametricValuesService<Idol
             final BucketSizeEvaluator bucketSizeEvaluator = bucketSizeEvaluatorFactory.getBucketSizeEvaluator(new BucketingParams(bucketingParams, minValue, maxValue));
             bucketSizeEvaluators.put(tagName.getId(), bucketSizeEvaluator);
         }
+
+        return bucketSizeEvaluators;
     }
 
-    private List<Range> generateRanges(final Map<String, BucketSizeEvaluator> bucketSizeEvaluators) {
-        final List<Range> ranges = new ArrayList<>(bucketSizeEvaluators.size());
+    private List<RangeInfo> queryForRanges(final ParametricRequest<String> parametricRequest, final Map<String, BucketSizeEvaluator> bucketSizeEvaluators) {
+        final List<String> fieldNames = new ArrayList<>(bucketSizeEvaluators.keySet());
+        final List<Range> ranges = new ArrayList<>(fieldNames.size());
         for (final Map.Entry<String, BucketSizeEvaluator> entry : bucketSizeEvaluators.entrySet()) {
             final BucketSizeEvaluator bucketSizeEvaluator = entry.getValue();
-
-            double value = bucketSizeEvaluator.getMin();
-            final List<Double> boundaries = new ArrayList<>(bucketSizeEvaluator.getTargetNumberOfBuckets());
-            boundaries.add(value);
-            while ((value += bucketSizeEvaluator.getBucketSize()) < bucketSizeEvaluator.getMax()) {
-                boundaries.add(value);
-            }
-            if (!bucketSizeEvaluator.unboundedMax()) {
-                boundaries.add(bucketSizeEvaluator.getMax());
-            }
-
-            ranges.add(new Range(entry.getKey(), ArrayUtils.toPrimitive(boundaries.toArray(new Double[boundaries.size()])), bucketSizeEvaluator.unboundedMax()));
+            ranges.add(new Range(entry.getKey(), new NumericBuckets(bucketSizeEvaluator).getBoundaries(), bucketSizeEvaluator.unboundedMax()));
         }
-        return ranges;
-    }
 
-    private void queryForRanges(final List<RangeInfo> results, final ParametricRequest<String> parametricRequest, final Map<String, BucketSizeEvaluator> bucketSizeEvaluators, final List<Range> ranges) {
         final IdolParametricRequest bucketingRequest = new IdolParametricRequest.Builder()
-                .setFieldNames(new ArrayList<>(bucketSizeEvaluators.keySet()))
+                .setFieldNames(fieldNames)
                 .setMaxValues(null)
                 .setSort(parametricRequest.getSort())
                 .setRanges(ranges)
                 .setQueryRestrictions(parametricRequest.getQueryRestrictions())
                 .setModified(parametricRequest.isModified())
                 .build();
-        final List<FlatField> flatFields = getFlatFields(bucketingRequest, parametricRequest.getFieldNames());
+        final List<FlatField> flatFields = getFlatFields(bucketingRequest, null, fieldNames);
+        final List<RangeInfo> results = new ArrayList<>(flatFields.size());
         for (final FlatField field : flatFields) {
             final TagName tagName = new TagName(field.getName().get(0));
             final BucketSizeEvaluator bucketSizeEvaluator = bucketSizeEvaluators.get(tagName.getId());
+            if (bucketSizeEvaluator == null) {
+                continue;
+            }
 
-            final List<JAXBElement<? extends Serializable>> valueElements = field.getValueAndSubvalueOrValues();
-            final Map<Double, RangeInfo.Value> values = new TreeMap<>();
+            final NumericBuckets buckets = new NumericBuckets(bucketSizeEvaluator);
             int count = 0;
-            for (final JAXBElement<?> element : valueElements) {
+            for (final JAXBElement<?> element : field.getValueAndSubvalueOrValues()) {
                 final String elementLocalName = element.getName().getLocalPart();
                 if (VALUE_NODE_NAME.equals(elementLocalName)) {
+                    // Range values are of the form "min,max", where either bound may be empty
                     final TagValue tagValue = (TagValue) element.getValue();
-                    final String[] rangeValues = tagValue.getValue().split(",");
-                    final double min = NumberUtils.toDouble(rangeValues[0], bucketSizeEvaluator.getMin());
-                    final double max = rangeValues.length > 1 ? Double.parseDouble(rangeValues[1]) : bucketSizeEvaluator.getMax();
-                    values.put(min, new RangeInfo.Value(tagValue.getCount(), min, max));
+                    final String rangeValue = tagValue.getValue();
+                    final int separatorIndex = rangeValue.indexOf(',');
+                    final String rangeMin = separatorIndex < 0 ? rangeValue : rangeValue.substring(0, separatorIndex);
+                    buckets.addCount(NumberUtils.toDouble(rangeMin, bucketSizeEvaluator.getMin()), tagValue.getCount());
                 } else if (VALUES_NODE_NAME.equals(elementLocalName)) {
                     count = (Integer) element.getValue();
                 }
             }
 
-            for (double d = bucketSizeEvaluator.getMin(); d < bucketSizeEvaluator.getMax(); d += bucketSizeEvaluator.getBucketSize()) {
-                if (!values.containsKey(d)) {
-                    values.put(d, new RangeInfo.Value(0, d, d + bucketSizeEvaluator.getBucketSize()));
-                }
-            }
-
-            results.add(new RangeInfo(tagName, count, bucketSizeEvaluator.getMin(), bucketSizeEvaluator.getMax(), bucketSizeEvaluator.getBucketSize(), new ArrayList<>(values.values())));
+            results.add(new RangeInfo(tagName, count, bucketSizeEvaluator.getMin(), bucketSizeEvaluator.getMax(), bucketSizeEvaluator.getBucketSize(), buckets.toValues()));
         }
+
+        return results;
     }
 
-    private List<FlatField> getFlatFields(final ParametricRequest<String> parametricRequest, final Collection<String> fieldNames) {
+    private List<FlatField> getFlatFields(final ParametricRequest<String> parametricRequest, final PreparedRestrictions preparedRestrictions, final Collection<String> fieldNames) {
         final AciParameters aciParameters = new AciParameters(TagActions.GetQueryTagValues.name());
-        parameterHandler.addSearchRestrictions(aciParameters, parametricRequest.getQueryRestrictions());
+        addSearchRestrictions(aciParameters, parametricRequest.getQueryRestrictions(), preparedRestrictions);
 
         if (parametricRequest.isModified()) {
             parameterHandler.addQmsParameters(aciParameters, parametricRequest.getQueryRestrictions());
         }
 
+        addFlatFieldParameters(aciParameters, parametricRequest, fieldNames);
+
+        final GetQueryTagValuesResponseData responseData = contentAciService.executeAction(aciParameters, queryTagValuesResponseProcessor);
+        return responseData.getField();
+    }
+
+    private void addFlatFieldParameters(final AciParameters aciParameters, final ParametricRequest<String> parametricRequest, final Collection<String> fieldNames) {
         aciParameters.add(GetQueryTagValuesParams.DocumentCount.name(), true);
         aciParameters.add(GetQueryTagValuesParams.MaxValues.name(), parametricRequest.getMaxValues());
         aciParameters.add(GetQueryTagValuesParams.FieldName.name(), StringUtils.join(fieldNames.toArray(), ','));
         aciParameters.add(GetQueryTagValuesParams.Sort.name(), parametricRequest.getSort());
         aciParameters.add(GetQueryTagValuesParams.Ranges.name(), new Ranges(parametricRequest.getRanges()));
         aciParameters.add(GetQueryTagValuesParams.ValueDetails.name(), true);
+    }
 
-        final GetQueryTagValuesResponseData responseData = contentAciService.executeAction(aciParameters, queryTagValuesResponseProcessor);
-        return responseData.getField();
+    /**
+     * Serializes the calls made to a listener by the chunks of one request. The lock is private to the request, so a
+     * listener shared between requests, or locked by its owner, cannot block the executor threads of other requests.
+     */
+    private static class SerializingListener implements ParametricValuesListener {
+        private final ParametricValuesListener listener;
+
+        private SerializingListener(final ParametricValuesListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public synchronized void onFieldValues(final QueryTagInfo field) {
+            listener.onFieldValues(field);
+        }
     }
 }
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.parametricvalues;
+
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+
+/**
+ * Receives the values of each parametric field as soon as they are retrieved, so that they can be shown before the
+ * values of slower fields arrive.
+ */
+public interface ParametricValuesListener {
+    /**
+     * Called once for each field with values. When the fields are requested in chunks, this is called on the executor
+     * thread which retrieved the chunk, so successive calls may come from different threads. Calls made for one request
+     * are never concurrent, so implementations used by one request at a time need no locking of their own, and the state
+     * they build is visible to the caller once the request returns. The service serializes the calls with a lock of its
+     * own rather than the listener's monitor, so a listener shared by concurrent requests, or read by other threads
+     * while a request is running, must do its own synchronization or use thread safe collections.
+     *
+     * @param field the field and its values
+     */
+    void onFieldValues(QueryTagInfo field);
+}
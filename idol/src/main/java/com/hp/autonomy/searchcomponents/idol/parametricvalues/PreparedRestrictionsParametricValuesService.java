@@ -0,0 +1,20 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.parametricvalues;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.hp.autonomy.searchcomponents.idol.search.PreparedRestrictions;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+
+import java.util.Set;
+
+/**
+ * Parametric values lookup which takes its restriction parameters from {@link PreparedRestrictions} instead of building
+ * them from the request's query restrictions.
+ */
+public interface PreparedRestrictionsParametricValuesService {
+    Set<QueryTagInfo> getAllParametricValues(IdolParametricRequest parametricRequest, PreparedRestrictions preparedRestrictions) throws AciErrorException;
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.parametricvalues;
+
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagCountInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.SortParam;
+import org.apache.commons.lang.math.NumberUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Merges the values of parametric fields returned by GetQueryTagValues requests for separate groups of databases. The
+ * counts of a value are summed across the groups, then the first maxValues values of each field in the sort order are
+ * kept, using a bounded heap so that fields with many values are not sorted in full. As when a DAH distributes the
+ * action, a value which was cut off by maxValues in every group is missing from the merged result even if its summed
+ * count would have placed it.
+ */
+class QueryTagValuesMerger {
+    private final Comparator<QueryTagCountInfo> comparator;
+    private final Integer maxValues;
+
+    private final Map<String, Map<String, Integer>> countsByField = new LinkedHashMap<>();
+
+    /**
+     * @param sort      the sort order of the values, which must be {@link #isMergeable mergeable}
+     * @param maxValues the maximum number of values to keep for each field, or null to keep all of them
+     */
+    QueryTagValuesMerger(final SortParam sort, final Integer maxValues) {
+        comparator = getComparator(sort);
+        this.maxValues = maxValues;
+
+        if (comparator == null) {
+            throw new IllegalArgumentException("Values sorted by " + sort + " cannot be merged");
+        }
+    }
+
+    /**
+     * @param sort the sort order of the values
+     * @return true if values sorted in the given order can be merged; date orders cannot, since the merger cannot
+     * parse the value formats which IDOL supports, and unsorted values have no order to merge
+     */
+    static boolean isMergeable(final SortParam sort) {
+        return getComparator(sort) != null;
+    }
+
+    void add(final String fieldName, final String value, final int count) {
+        Map<String, Integer> counts = countsByField.get(fieldName);
+
+        if (counts == null) {
+            counts = new LinkedHashMap<>();
+            countsByField.put(fieldName, counts);
+        }
+
+        final Integer previousCount = counts.get(value);
+        counts.put(value, previousCount == null ? count : previousCount + count);
+    }
+
+    Set<QueryTagInfo> getResults() {
+        final Set<QueryTagInfo> results = new LinkedHashSet<>(countsByField.size());
+
+        for (final Map.Entry<String, Map<String, Integer>> entry : countsByField.entrySet()) {
+            results.add(new QueryTagInfo(new TagName(entry.getKey()), getTopValues(entry.getValue())));
+        }
+
+        return results;
+    }
+
+    private Set<QueryTagCountInfo> getTopValues(final Map<String, Integer> counts) {
+        final int limit = maxValues == null ? counts.size() : Math.min(maxValues, counts.size());
+
+        // the head of the heap is the value which would be cut off first
+        final PriorityQueue<QueryTagCountInfo> heap = new PriorityQueue<>(Math.max(limit, 1), Collections.reverseOrder(comparator));
+
+        for (final Map.Entry<String, Integer> entry : counts.entrySet()) {
+            final QueryTagCountInfo value = new QueryTagCountInfo(entry.getKey(), entry.getValue());
+
+            if (heap.size() < limit) {
+                heap.add(value);
+            } else if (limit > 0 && comparator.compare(value, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(value);
+            }
+        }
+
+        final List<QueryTagCountInfo> values = new ArrayList<>(heap);
+        Collections.sort(values, comparator);
+        return new LinkedHashSet<>(values);
+    }
+
+    private static Comparator<QueryTagCountInfo> getComparator(final SortParam sort) {
+        if (sort == null) {
+            return null;
+        }
+
+        switch (sort) {
+            case DocumentCount:
+                return new CountComparator(true);
+            case ReverseDocumentCount:
+                return new CountComparator(false);
+            case Alphabetical:
+                return new AlphabeticalComparator();
+            case ReverseAlphabetical:
+                return Collections.reverseOrder(new AlphabeticalComparator());
+            case NumberIncreasing:
+                return new NumericComparator();
+            case NumberDecreasing:
+                return Collections.reverseOrder(new NumericComparator());
+            default:
+                return null;
+        }
+    }
+
+    private static class CountComparator implements Comparator<QueryTagCountInfo> {
+        private final boolean decreasing;
+
+        CountComparator(final boolean decreasing) {
+            this.decreasing = decreasing;
+        }
+
+        @Override
+        public int compare(final QueryTagCountInfo a, final QueryTagCountInfo b) {
+            final int countComparison = decreasing ? Integer.compare(b.getCount(), a.getCount()) : Integer.compare(a.getCount(), b.getCount());
+            return countComparison == 0 ? a.getValue().compareTo(b.getValue()) : countComparison;
+        }
+    }
+
+    private static class AlphabeticalComparator implements Comparator<QueryTagCountInfo> {
+        @Override
+        public int compare(final QueryTagCountInfo a, final QueryTagCountInfo b) {
+            final int comparison = String.CASE_INSENSITIVE_ORDER.compare(a.getValue(), b.getValue());
+            return comparison == 0 ? a.getValue().compareTo(b.getValue()) : comparison;
+        }
+    }
+
+    private static class NumericComparator implements Comparator<QueryTagCountInfo> {
+        @Override
+        public int compare(final QueryTagCountInfo a, final QueryTagCountInfo b) {
+            final int comparison = Double.compare(NumberUtils.toDouble(a.getValue()), NumberUtils.toDouble(b.getValue()));
+            return comparison == 0 ? a.getValue().compareTo(b.getValue()) : comparison;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.impl.AbstractStAXProcessor;
+import com.hp.autonomy.searchcomponents.idol.search.fields.DocumentFieldsCollectorFactory;
+import com.hp.autonomy.types.requests.Documents;
+
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Implementation of {@link AbstractStAXProcessor} to process the hits in the output of Query or Suggest directly into
+ * {@link IdolSearchResult}s, without building a JAXB object graph or a DOM for each document.
+ */
+public class DocumentsProcessor extends AbstractStAXProcessor<Documents<IdolSearchResult>> {
+    private static final long serialVersionUID = -1465296018472413578L;
+
+    private final IdolQueryResponseProcessor queryResponseProcessor;
+
+    public DocumentsProcessor(final DocumentFieldsCollectorFactory documentFieldsCollectorFactory) {
+        queryResponseProcessor = new IdolQueryResponseProcessor(documentFieldsCollectorFactory);
+    }
+
+    @Override
+    public Documents<IdolSearchResult> process(final XMLStreamReader xmlStreamReader) {
+        final IdolQueryResponse response = queryResponseProcessor.process(xmlStreamReader);
+        return new Documents<>(response.getHits(), response.getTotalHits(), null, null, null, null);
+    }
+}
@@ -32,9 +32,11 @@ import com.hp.autonomy.types.requests.idol.actions.query.params.SummaryParam;
 import com.hp.autonomy.types.requests.qms.actions.query.params.QmsQueryParams;
 import org.joda.time.ReadableInstant;
 import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Set;
 
 @SuppressWarnings("WeakerAccess")
@@ -43,12 +45,17 @@ public class HavenSearchAciParameterHandlerImpl implements HavenSearchAciParamet
     private static final String IDOL_DATE_PARAMETER_FORMAT = "HH:mm:ss dd/MM/yyyy";
     private static final String GET_CONTENT_QUERY_TEXT = "*";
 
+    // Joda formatters are immutable and thread safe, so one instance can serve every request
+    private static final DateTimeFormatter IDOL_DATE_PARAMETER_FORMATTER = DateTimeFormat.forPattern(IDOL_DATE_PARAMETER_FORMAT);
+
     protected final ConfigService<? extends IdolSearchCapable> configService;
     protected final DocumentFieldsService documentFieldsService;
     protected final AuthenticationInformationRetriever<?, CommunityPrincipal> authenticationInformationRetriever;
 
     private final Escaper urlFragmentEscaper = UrlEscapers.urlFragmentEscaper();
 
+    private volatile PrintFieldsParameter printFieldsParameter;
+
     @Autowired
     public HavenSearchAciParameterHandlerImpl(
             final ConfigService<? extends IdolSearchCapable> configService,
@@ -128,10 +135,23 @@ public class HavenSearchAciParameterHandlerImpl implements HavenSearchAciParamet
     private void addPrintParameters(final AciParameters aciParameters, final PrintParam print) {
         aciParameters.add(QueryParams.Print.name(), print);
         if (print == PrintParam.Fields) {
-            aciParameters.add(QueryParams.PrintFields.name(), new PrintFields(documentFieldsService.getPrintFields()));
+            aciParameters.add(QueryParams.PrintFields.name(), getPrintFieldsParameter());
         }
     }
 
+    // The serialised value is rebuilt whenever the fields service returns a different list
+    private String getPrintFieldsParameter() {
+        final List<String> printFields = documentFieldsService.getPrintFields();
+        PrintFieldsParameter parameter = printFieldsParameter;
+
+        if (parameter == null || parameter.printFields != printFields) {
+            parameter = new PrintFieldsParameter(printFields);
+            printFieldsParameter = parameter;
+        }
+
+        return parameter.value;
+    }
+
     @Override
     public void addGetContentOutputParameters(final AciParameters parameters, final String database, final String documentReference, final String referenceField) {
         parameters.add(GetContentParams.SecurityInfo.name(), getSecurityInfo());
@@ -166,13 +186,24 @@ public class HavenSearchAciParameterHandlerImpl implements HavenSearchAciParamet
         aciParameters.add(QmsQueryParams.ExpandQuery.name(), configService.getConfig().getQueryManipulation().getExpandQuery());
     }
 
+    // Security info works like a credential, so it is escaped for each action rather than kept beyond the request
     private String getSecurityInfo() {
-        return authenticationInformationRetriever.getPrincipal() != null && authenticationInformationRetriever.getPrincipal().getSecurityInfo() != null
-                ? urlFragmentEscaper.escape(authenticationInformationRetriever.getPrincipal().getSecurityInfo())
-                : null;
+        final CommunityPrincipal principal = authenticationInformationRetriever.getPrincipal();
+        final String securityInfo = principal != null ? principal.getSecurityInfo() : null;
+        return securityInfo != null ? urlFragmentEscaper.escape(securityInfo) : null;
     }
 
     protected String formatDate(final ReadableInstant date) {
-        return date == null ? null : DateTimeFormat.forPattern(IDOL_DATE_PARAMETER_FORMAT).print(date);
+        return date == null ? null : IDOL_DATE_PARAMETER_FORMATTER.print(date);
+    }
+
+    private static class PrintFieldsParameter {
+        private final List<String> printFields;
+        private final String value;
+
+        private PrintFieldsParameter(final List<String> printFields) {
+            this.printFields = printFields;
+            value = new PrintFields(printFields).toString();
+        }
     }
 }
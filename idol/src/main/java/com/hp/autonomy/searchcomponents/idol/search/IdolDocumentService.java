@@ -9,9 +9,13 @@ import com.autonomy.aci.client.services.AciErrorException;
 import com.autonomy.aci.client.services.AciService;
 import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.util.AciParameters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.hp.autonomy.aci.content.identifier.reference.Reference;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.concurrent.FutureUtils;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
 import com.hp.autonomy.searchcomponents.core.search.*;
 import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
 import com.hp.autonomy.types.idol.Hit;
@@ -23,13 +27,19 @@ import com.hp.autonomy.types.requests.idol.actions.query.params.PrintParam;
 import com.hp.autonomy.types.requests.idol.actions.query.params.QueryParams;
 import com.hp.autonomy.types.requests.idol.actions.query.params.SuggestParams;
 import com.hp.autonomy.types.requests.qms.actions.query.params.QmsQueryParams;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @SuppressWarnings("WeakerAccess")
-public class IdolDocumentService implements DocumentsService<String, IdolSearchResult, AciErrorException> {
+@Slf4j
+public class IdolDocumentService implements DocumentsService<String, IdolSearchResult, AciErrorException>, PreparedRestrictionsDocumentsService {
+    private static final String CONTENT_CACHE_NAMESPACE = "content";
+    private static final String QMS_CACHE_NAMESPACE = "qms";
+
     protected final ConfigService<? extends IdolSearchCapable> configService;
     protected final HavenSearchAciParameterHandler parameterHandler;
     protected final QueryResponseParser queryResponseParser;
@@ -37,6 +47,11 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
     protected final AciService qmsAciService;
     protected final Processor<QueryResponseData> queryResponseProcessor;
     protected final Processor<SuggestResponseData> suggestResponseProcessor;
+    protected final ListeningExecutorService executorService;
+    protected final QueryResponseCache queryResponseCache;
+
+    // Null if the parser cannot stream responses, in which case they are unmarshalled with JAXB
+    private final StreamingQueryResponseParser streamingQueryResponseParser;
 
     @SuppressWarnings("ConstructorWithTooManyParameters")
     public IdolDocumentService(
@@ -46,21 +61,67 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
             final AciService contentAciService,
             final AciService qmsAciService,
             final AciResponseJaxbProcessorFactory aciResponseProcessorFactory) {
+        this(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory, SearchExecutors.directExecutor());
+    }
+
+    /**
+     * @param executorService executor used to send independent ACI requests concurrently; should be bounded by the number
+     *                        of connections available to Content
+     */
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    public IdolDocumentService(
+            final ConfigService<? extends IdolSearchCapable> configService,
+            final HavenSearchAciParameterHandler parameterHandler,
+            final QueryResponseParser queryResponseParser,
+            final AciService contentAciService,
+            final AciService qmsAciService,
+            final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
+            final ListeningExecutorService executorService) {
+        this(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory, executorService, null);
+    }
+
+    /**
+     * @param executorService    executor used to send independent ACI requests concurrently; should be bounded by the number
+     *                           of connections available to Content
+     * @param queryResponseCache cache for the responses to search queries, or null if they should not be cached. Only
+     *                           used if queryResponseParser is a {@link StreamingQueryResponseParser}.
+     */
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    public IdolDocumentService(
+            final ConfigService<? extends IdolSearchCapable> configService,
+            final HavenSearchAciParameterHandler parameterHandler,
+            final QueryResponseParser queryResponseParser,
+            final AciService contentAciService,
+            final AciService qmsAciService,
+            final AciResponseJaxbProcessorFactory aciResponseProcessorFactory,
+            final ListeningExecutorService executorService,
+            final QueryResponseCache queryResponseCache) {
         this.configService = configService;
         this.parameterHandler = parameterHandler;
         this.queryResponseParser = queryResponseParser;
         this.contentAciService = contentAciService;
         this.qmsAciService = qmsAciService;
+        this.executorService = executorService;
+        this.queryResponseCache = queryResponseCache;
 
         queryResponseProcessor = aciResponseProcessorFactory.createAciResponseProcessor(QueryResponseData.class);
         suggestResponseProcessor = aciResponseProcessorFactory.createAciResponseProcessor(SuggestResponseData.class);
+
+        streamingQueryResponseParser = queryResponseParser instanceof StreamingQueryResponseParser && ((StreamingQueryResponseParser) queryResponseParser).getQueryResponseProcessor() != null
+                ? (StreamingQueryResponseParser) queryResponseParser
+                : null;
     }
 
     @Override
     public Documents<IdolSearchResult> queryTextIndex(final SearchRequest<String> searchRequest) throws AciErrorException {
+        return queryTextIndex(searchRequest, (PreparedRestrictions) null);
+    }
+
+    @Override
+    public Documents<IdolSearchResult> queryTextIndex(final SearchRequest<String> searchRequest, final PreparedRestrictions preparedRestrictions) throws AciErrorException {
         final SearchRequest.QueryType queryType = searchRequest.getQueryType();
         final boolean useQms = qmsEnabled() && queryType != SearchRequest.QueryType.RAW;
-        return queryTextIndex(useQms ? qmsAciService : contentAciService, searchRequest, queryType == SearchRequest.QueryType.PROMOTIONS);
+        return queryTextIndex(useQms ? qmsAciService : contentAciService, searchRequest, preparedRestrictions, queryType == SearchRequest.QueryType.PROMOTIONS);
     }
 
     private boolean qmsEnabled() {
@@ -69,7 +130,12 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
 
     @Override
     public Documents<IdolSearchResult> queryTextIndexForPromotions(final SearchRequest<String> searchRequest) throws AciErrorException {
-        return qmsEnabled() ? queryTextIndex(qmsAciService, searchRequest, true) : new Documents<>(Collections.<IdolSearchResult>emptyList(), 0, null, null, null, null);
+        return queryTextIndexForPromotions(searchRequest, null);
+    }
+
+    @Override
+    public Documents<IdolSearchResult> queryTextIndexForPromotions(final SearchRequest<String> searchRequest, final PreparedRestrictions preparedRestrictions) throws AciErrorException {
+        return qmsEnabled() ? queryTextIndex(qmsAciService, searchRequest, preparedRestrictions, true) : new Documents<>(Collections.<IdolSearchResult>emptyList(), 0, null, null, null, null);
     }
 
     @Override
@@ -80,6 +146,10 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
         parameterHandler.addSearchRestrictions(aciParameters, suggestRequest.getQueryRestrictions());
         parameterHandler.addSearchOutputParameters(aciParameters, suggestRequest);
 
+        if (streamingQueryResponseParser != null) {
+            return contentAciService.executeAction(aciParameters, streamingQueryResponseParser.getDocumentsProcessor());
+        }
+
         final SuggestResponseData responseData = contentAciService.executeAction(aciParameters, suggestResponseProcessor);
         final List<Hit> hits = responseData.getHits();
         return new Documents<>(queryResponseParser.parseQueryHits(hits), responseData.getTotalhits(), null, null, null, null);
@@ -87,17 +157,56 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
 
     @Override
     public List<IdolSearchResult> getDocumentContent(final GetContentRequest<String> request) throws AciErrorException {
-        final List<IdolSearchResult> results = new ArrayList<>(request.getIndexesAndReferences().size());
+        final PrintParam print = PrintParam.fromValue(request.getPrint());
+        final List<String> indexes = new ArrayList<>(request.getIndexesAndReferences().size());
+        final List<ListenableFuture<List<IdolSearchResult>>> indexResults = new ArrayList<>(request.getIndexesAndReferences().size());
 
         for (final GetContentRequestIndex<String> indexAndReferences : request.getIndexesAndReferences()) {
-
             // We use Query and not GetContent here so we can use Combine=simple to ensure returned references are unique
             final AciParameters aciParameters = new AciParameters(QueryActions.Query.name());
-            parameterHandler.addGetDocumentOutputParameters(aciParameters, indexAndReferences, PrintParam.fromValue(request.getPrint()));
+            parameterHandler.addGetDocumentOutputParameters(aciParameters, indexAndReferences, print);
+
+            indexes.add(indexAndReferences.getIndex());
+            indexResults.add(executorService.submit(new Callable<List<IdolSearchResult>>() {
+                @Override
+                public List<IdolSearchResult> call() {
+                    if (streamingQueryResponseParser != null) {
+                        return contentAciService.executeAction(aciParameters, streamingQueryResponseParser.getDocumentsProcessor()).getDocuments();
+                    }
+
+                    final QueryResponseData responseData = contentAciService.executeAction(aciParameters, queryResponseProcessor);
+                    return queryResponseParser.parseQueryHits(responseData.getHits());
+                }
+            }));
+        }
 
-            final QueryResponseData responseData = contentAciService.executeAction(aciParameters, queryResponseProcessor);
-            final List<Hit> hits = responseData.getHits();
-            results.addAll(queryResponseParser.parseQueryHits(hits));
+        return mergeIndexResults(indexes, indexResults);
+    }
+
+    // Merges results in request order. A failed index is logged and skipped so that it does not hide documents from
+    // the others; the failure is only thrown if no index succeeded.
+    private List<IdolSearchResult> mergeIndexResults(final List<String> indexes, final List<ListenableFuture<List<IdolSearchResult>>> indexResults) {
+        final List<IdolSearchResult> results = new ArrayList<>();
+        RuntimeException failure = null;
+        int failedIndexes = 0;
+
+        for (int i = 0; i < indexResults.size(); i++) {
+            try {
+                results.addAll(FutureUtils.getResult(indexResults.get(i)));
+            } catch (final RuntimeException e) {
+                log.warn("Failed to get document content from index {}", indexes.get(i), e);
+                failedIndexes++;
+
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null && failedIndexes == indexResults.size()) {
+            throw failure;
         }
 
         return results;
@@ -110,6 +219,10 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
 
     @Override
     public StateTokenAndResultCount getStateTokenAndResultCount(final QueryRestrictions<String> queryRestrictions, final int maxResults, final boolean promotions) throws AciErrorException {
+        // The restrictions are shared by both queries, so only generate them once
+        final AciParameters restrictionParameters = new AciParameters();
+        parameterHandler.addSearchRestrictions(restrictionParameters, queryRestrictions);
+
         final AciParameters aciParameters = new AciParameters(QueryActions.Query.name());
         aciParameters.add(QueryParams.StoreState.name(), true);
         aciParameters.add(QueryParams.StoredStateTokenLifetime.name(), -1);  // negative value means no expiry (DAH)
@@ -119,29 +232,49 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
         if (promotions) {
             aciParameters.add(QmsQueryParams.Promotions.name(), true);
         }
-        parameterHandler.addSearchRestrictions(aciParameters, queryRestrictions);
+        aciParameters.addAll(restrictionParameters);
 
         // Unset combine=simple for state token generation
         aciParameters.remove(QueryParams.Combine.name());
 
-        final QueryResponseData responseData = contentAciService.executeAction(aciParameters, queryResponseProcessor);
-        final TypedStateToken tokenData = new TypedStateToken(responseData.getState(), promotions ? TypedStateToken.StateTokenType.PROMOTIONS : TypedStateToken.StateTokenType.QUERY);
+        // The two queries are independent, so generate the state token while fetching the result count
+        final ListenableFuture<IdolQueryResponse> response = executorService.submit(new Callable<IdolQueryResponse>() {
+            @Override
+            public IdolQueryResponse call() {
+                return executeNoResultsQuery(aciParameters);
+            }
+        });
 
-        // Now fetch result count with combine=simple
+        // Fetch result count with combine=simple
         final AciParameters resultCountAciParameters = new AciParameters(QueryActions.Query.name());
         resultCountAciParameters.add(QueryParams.TotalResults.name(), true);
         resultCountAciParameters.add(QueryParams.Print.name(), PrintParam.NoResults);
         resultCountAciParameters.add(QueryParams.Predict.name(), false);
-        parameterHandler.addSearchRestrictions(resultCountAciParameters, queryRestrictions);
-        final QueryResponseData resultCountResponseData = contentAciService.executeAction(resultCountAciParameters, queryResponseProcessor);
+        resultCountAciParameters.addAll(restrictionParameters);
+        final IdolQueryResponse resultCountResponse = executeNoResultsQuery(resultCountAciParameters);
+
+        final TypedStateToken tokenData = new TypedStateToken(FutureUtils.getResult(response).getState(), promotions ? TypedStateToken.StateTokenType.PROMOTIONS : TypedStateToken.StateTokenType.QUERY);
+        return new StateTokenAndResultCount(tokenData, resultCountResponse.getTotalHits());
+    }
 
-        return new StateTokenAndResultCount(tokenData, resultCountResponseData.getTotalhits());
+    // Only the state token and total hits are read from a Print=NoResults query
+    private IdolQueryResponse executeNoResultsQuery(final AciParameters aciParameters) {
+        if (streamingQueryResponseParser != null) {
+            return contentAciService.executeAction(aciParameters, streamingQueryResponseParser.getQueryResponseProcessor());
+        }
+
+        final QueryResponseData responseData = contentAciService.executeAction(aciParameters, queryResponseProcessor);
+        return new IdolQueryResponse(Collections.<IdolSearchResult>emptyList(), responseData.getTotalhits(), responseData.getWarning(), null, null, null, responseData.getState());
     }
 
-    private Documents<IdolSearchResult> queryTextIndex(final AciService aciService, final SearchRequest<String> searchRequest, final boolean promotions) {
+    private Documents<IdolSearchResult> queryTextIndex(final AciService aciService, final SearchRequest<String> searchRequest, final PreparedRestrictions preparedRestrictions, final boolean promotions) {
         final AciParameters aciParameters = new AciParameters(QueryActions.Query.name());
 
-        parameterHandler.addSearchRestrictions(aciParameters, searchRequest.getQueryRestrictions());
+        if (preparedRestrictions == null) {
+            parameterHandler.addSearchRestrictions(aciParameters, searchRequest.getQueryRestrictions());
+        } else {
+            preparedRestrictions.addTo(aciParameters);
+        }
         parameterHandler.addSearchOutputParameters(aciParameters, searchRequest);
         if (searchRequest.getQueryType() != SearchRequest.QueryType.RAW) {
             parameterHandler.addQmsParameters(aciParameters, searchRequest.getQueryRestrictions());
@@ -155,6 +288,17 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
             aciParameters.add(QmsQueryParams.Promotions.name(), true);
         }
 
+        if (streamingQueryResponseParser != null) {
+            final IdolQueryResponse response = executeQueryResponse(aciService, aciParameters);
+
+            return streamingQueryResponseParser.parseQueryResponse(searchRequest, aciParameters, response, new QueryResponseExecutor() {
+                @Override
+                public IdolQueryResponse execute(final AciParameters parameters) {
+                    return executeQueryResponse(aciService, parameters);
+                }
+            });
+        }
+
         final QueryResponseData responseData = executeQuery(aciService, aciParameters);
 
         return queryResponseParser.parseQueryResults(searchRequest, aciParameters, responseData, new QueryExecutor() {
@@ -170,8 +314,32 @@ public class IdolDocumentService implements DocumentsService<String, IdolSearchR
         return aciService.executeAction(aciParameters, queryResponseProcessor);
     }
 
+    @SuppressWarnings("TypeMayBeWeakened")
+    protected IdolQueryResponse executeQueryResponse(final AciService aciService, final AciParameters aciParameters) {
+        final Processor<IdolQueryResponse> processor = streamingQueryResponseParser.getQueryResponseProcessor();
+
+        if (queryResponseCache == null) {
+            return aciService.executeAction(aciParameters, processor);
+        }
+
+        final String namespace = aciService == qmsAciService ? QMS_CACHE_NAMESPACE : CONTENT_CACHE_NAMESPACE;
+        return queryResponseCache.getQueryResponse(namespace, aciParameters, new QueryResponseExecutor() {
+            @Override
+            public IdolQueryResponse execute(final AciParameters parameters) {
+                return aciService.executeAction(parameters, processor);
+            }
+        });
+    }
+
     //TODO replace with method reference or similar once we upgrade to java 8
     public interface QueryExecutor {
         QueryResponseData execute(final AciParameters parameters);
     }
+
+    /**
+     * Equivalent of {@link QueryExecutor} for responses read by a {@link StreamingQueryResponseParser}
+     */
+    public interface QueryResponseExecutor {
+        IdolQueryResponse execute(final AciParameters parameters);
+    }
 }
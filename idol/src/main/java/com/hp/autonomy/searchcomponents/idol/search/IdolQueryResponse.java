@@ -0,0 +1,28 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The parts of a Query response used to build search results, as read by {@link IdolQueryResponseProcessor}. Unlike
+ * {@link com.hp.autonomy.types.idol.QueryResponseData}, the hits have already been turned into search results.
+ */
+@Data
+public class IdolQueryResponse implements Serializable {
+    private static final long serialVersionUID = -3614850264190637741L;
+
+    private final List<IdolSearchResult> hits;
+    private final Integer totalHits;
+    private final List<String> warnings;
+    private final String expandedQuery;
+    private final String spelling;
+    private final String spellingQuery;
+    private final String state;
+}
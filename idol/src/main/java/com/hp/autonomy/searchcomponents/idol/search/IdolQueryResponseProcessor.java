@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.ProcessorException;
+import com.autonomy.aci.client.services.impl.AbstractStAXProcessor;
+import com.autonomy.aci.client.services.impl.ErrorProcessor;
+import com.hp.autonomy.searchcomponents.idol.search.fields.DocumentFieldsCollector;
+import com.hp.autonomy.searchcomponents.idol.search.fields.DocumentFieldsCollectorFactory;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Implementation of {@link AbstractStAXProcessor} to process the output of Query or Suggest directly into
+ * {@link IdolSearchResult}s, without building a JAXB object graph or a DOM for each document. The warnings, spelling
+ * suggestion and state token are read as well, so the response can be handled without unmarshalling it again.
+ */
+@SuppressWarnings("UseOfObsoleteDateTimeApi")
+public class IdolQueryResponseProcessor extends AbstractStAXProcessor<IdolQueryResponse> {
+    private static final long serialVersionUID = 2807362209741585231L;
+
+    private static final String HIT_ELEMENT = "hit";
+    private static final String CONTENT_ELEMENT = "content";
+
+    @SuppressWarnings("NonSerializableFieldInSerializableClass")
+    private final DocumentFieldsCollectorFactory documentFieldsCollectorFactory;
+
+    public IdolQueryResponseProcessor(final DocumentFieldsCollectorFactory documentFieldsCollectorFactory) {
+        this.documentFieldsCollectorFactory = documentFieldsCollectorFactory;
+    }
+
+    @Override
+    public IdolQueryResponse process(final XMLStreamReader xmlStreamReader) {
+        final List<IdolSearchResult> results = new ArrayList<>();
+        final List<String> warnings = new ArrayList<>();
+        Integer totalHits = null;
+        String expandedQuery = null;
+        String spelling = null;
+        String spellingQuery = null;
+        String state = null;
+
+        try {
+            if (isErrorResponse(xmlStreamReader)) {
+                setErrorProcessor(new ErrorProcessor());
+                processErrorResponse(xmlStreamReader);
+            }
+
+            while (xmlStreamReader.hasNext()) {
+                // Other elements are descended into, so the position of these within responsedata does not matter
+                if (xmlStreamReader.next() == XMLEvent.START_ELEMENT) {
+                    switch (getAutnName(xmlStreamReader)) {
+                        case HIT_ELEMENT:
+                            results.add(processHit(xmlStreamReader));
+                            break;
+                        case "totalhits":
+                            totalHits = Integer.valueOf(xmlStreamReader.getElementText().trim());
+                            break;
+                        case "warning":
+                            warnings.add(xmlStreamReader.getElementText());
+                            break;
+                        case "expandedQuery":
+                            expandedQuery = xmlStreamReader.getElementText();
+                            break;
+                        case "spelling":
+                            spelling = xmlStreamReader.getElementText();
+                            break;
+                        case "spellingquery":
+                            spellingQuery = xmlStreamReader.getElementText();
+                            break;
+                        case "state":
+                            state = xmlStreamReader.getElementText();
+                            break;
+                    }
+                }
+            }
+        } catch (final XMLStreamException e) {
+            throw new ProcessorException(e);
+        }
+
+        return new IdolQueryResponse(results, totalHits, warnings, expandedQuery, spelling, spellingQuery, state);
+    }
+
+    private IdolSearchResult processHit(final XMLStreamReader xmlStreamReader) throws XMLStreamException {
+        final IdolSearchResult.Builder searchResultBuilder = new IdolSearchResult.Builder();
+        final DocumentFieldsCollector documentFieldsCollector = documentFieldsCollectorFactory.createDocumentFieldsCollector();
+        String database = null;
+        String promotionName = null;
+
+        while (xmlStreamReader.hasNext()) {
+            final int next = xmlStreamReader.next();
+
+            if (next == XMLEvent.START_ELEMENT) {
+                switch (getAutnName(xmlStreamReader)) {
+                    case "reference":
+                        searchResultBuilder.setReference(xmlStreamReader.getElementText());
+                        break;
+                    case "database":
+                        database = xmlStreamReader.getElementText();
+                        searchResultBuilder.setIndex(database);
+                        break;
+                    case "title":
+                        searchResultBuilder.setTitle(xmlStreamReader.getElementText());
+                        break;
+                    case "summary":
+                        searchResultBuilder.setSummary(xmlStreamReader.getElementText());
+                        break;
+                    case "weight":
+                        searchResultBuilder.setWeight(Double.valueOf(xmlStreamReader.getElementText().trim()));
+                        break;
+                    case "date":
+                        // Seconds since the epoch; autn:datestring holds the same date in the server's display format
+                        searchResultBuilder.setDate(new Date(Long.parseLong(xmlStreamReader.getElementText().trim()) * 1000L));
+                        break;
+                    case "promotionname":
+                        promotionName = xmlStreamReader.getElementText();
+                        searchResultBuilder.setPromotionName(promotionName);
+                        break;
+                    case CONTENT_ELEMENT:
+                        processContent(xmlStreamReader, documentFieldsCollector);
+                        break;
+                    default:
+                        skipElement(xmlStreamReader);
+                }
+            } else if (next == XMLEvent.END_ELEMENT && HIT_ELEMENT.equals(getAutnName(xmlStreamReader))) {
+                documentFieldsCollector.populate(searchResultBuilder, promotionName, database);
+                return searchResultBuilder.build();
+            }
+        }
+
+        throw new ProcessorException("No closing tag found for hit");
+    }
+
+    // Reads the single document element within autn:content, passing the text of each element to the collector in the
+    // same way as the DOM based FieldsParser
+    private void processContent(final XMLStreamReader xmlStreamReader, final DocumentFieldsCollector documentFieldsCollector) throws XMLStreamException {
+        final List<String> elementNames = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+
+        while (xmlStreamReader.hasNext()) {
+            final int next = xmlStreamReader.next();
+
+            if (next == XMLEvent.START_ELEMENT) {
+                if (elementNames.size() == 1) {
+                    documentFieldsCollector.setDocumentHasContent();
+                }
+
+                addFieldValue(documentFieldsCollector, elementNames, text);
+                elementNames.add(xmlStreamReader.getLocalName());
+            } else if (next == XMLEvent.CHARACTERS || next == XMLEvent.CDATA || next == XMLEvent.SPACE) {
+                if (elementNames.size() == 1) {
+                    documentFieldsCollector.setDocumentHasContent();
+                }
+
+                if (!elementNames.isEmpty()) {
+                    text.append(xmlStreamReader.getText());
+                }
+            } else if (next == XMLEvent.END_ELEMENT) {
+                if (elementNames.isEmpty()) {
+                    // End of autn:content
+                    return;
+                }
+
+                addFieldValue(documentFieldsCollector, elementNames, text);
+                elementNames.remove(elementNames.size() - 1);
+            }
+        }
+
+        throw new ProcessorException("No closing tag found for content");
+    }
+
+    private void addFieldValue(final DocumentFieldsCollector documentFieldsCollector, final List<String> elementNames, final StringBuilder text) {
+        if (text.length() > 0) {
+            final String value = text.toString();
+            text.setLength(0);
+
+            if (StringUtils.isNotBlank(value)) {
+                documentFieldsCollector.addFieldValue(elementNames.get(elementNames.size() - 1), value);
+            }
+        }
+    }
+
+    private void skipElement(final XMLStreamReader xmlStreamReader) throws XMLStreamException {
+        int depth = 1;
+
+        while (depth > 0 && xmlStreamReader.hasNext()) {
+            final int next = xmlStreamReader.next();
+
+            if (next == XMLEvent.START_ELEMENT) {
+                depth++;
+            } else if (next == XMLEvent.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    // Response elements are in the autn namespace; the prefix is reported as part of the name if the parser is not
+    // namespace aware
+    private String getAutnName(final XMLStreamReader xmlStreamReader) {
+        final String localName = xmlStreamReader.getLocalName();
+        final int prefixEnd = localName.indexOf(':');
+        return prefixEnd == -1 ? localName : localName.substring(prefixEnd + 1);
+    }
+}
@@ -24,7 +24,7 @@ import java.util.Collections;
 import java.util.List;
 
 @Service
-public class IdolRelatedConceptsService implements RelatedConceptsService<QsElement, String, AciErrorException> {
+public class IdolRelatedConceptsService implements RelatedConceptsService<QsElement, String, AciErrorException>, PreparedRestrictionsRelatedConceptsService {
 
     private final HavenSearchAciParameterHandler parameterHandler;
     private final AciService contentAciService;
@@ -39,8 +39,17 @@ public class IdolRelatedConceptsService implements RelatedConceptsService<QsElem
 
     @Override
     public List<QsElement> findRelatedConcepts(final RelatedConceptsRequest<String> relatedConceptsRequest) throws AciErrorException {
+        return findRelatedConcepts(relatedConceptsRequest, null);
+    }
+
+    @Override
+    public List<QsElement> findRelatedConcepts(final RelatedConceptsRequest<String> relatedConceptsRequest, final PreparedRestrictions preparedRestrictions) throws AciErrorException {
         final AciParameters parameters = new AciParameters(QueryActions.Query.name());
-        parameterHandler.addSearchRestrictions(parameters, relatedConceptsRequest.getQueryRestrictions());
+        if (preparedRestrictions == null) {
+            parameterHandler.addSearchRestrictions(parameters, relatedConceptsRequest.getQueryRestrictions());
+        } else {
+            preparedRestrictions.addTo(parameters);
+        }
         parameters.add(QueryParams.Print.name(), PrintParam.NoResults);
         parameters.add(QueryParams.QuerySummary.name(), true);
         parameters.add(QueryParams.QuerySummaryLength.name(), relatedConceptsRequest.getQuerySummaryLength());
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AsyncParametricValuesServiceImpl;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.ParametricValuesService;
+import com.hp.autonomy.searchcomponents.core.search.AsyncDocumentsServiceImpl;
+import com.hp.autonomy.searchcomponents.core.search.AsyncRelatedConceptsServiceImpl;
+import com.hp.autonomy.searchcomponents.core.search.DocumentsService;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsRequest;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsService;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import com.hp.autonomy.searchcomponents.core.searchpage.AbstractSearchPageService;
+import com.hp.autonomy.searchcomponents.core.searchpage.SearchPageRequest;
+import com.hp.autonomy.searchcomponents.core.searchpage.SearchPanel;
+import com.hp.autonomy.searchcomponents.idol.parametricvalues.IdolParametricRequest;
+import com.hp.autonomy.searchcomponents.idol.parametricvalues.PreparedRestrictionsParametricValuesService;
+import com.hp.autonomy.types.idol.QsElement;
+import com.hp.autonomy.types.requests.Documents;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * IDOL {@link com.hp.autonomy.searchcomponents.core.searchpage.SearchPageService}. The restriction parameters are built
+ * once for each page as {@link PreparedRestrictions}, and passed to the services which accept them; the other panels
+ * are submitted to the asynchronous services as usual.
+ */
+public class IdolSearchPageService extends AbstractSearchPageService<String, IdolSearchResult, IdolParametricRequest, QsElement> {
+    private final HavenSearchAciParameterHandler parameterHandler;
+    private final ListeningExecutorService executorService;
+
+    // Null if the corresponding service does not accept prepared restrictions
+    private final PreparedRestrictionsDocumentsService preparedRestrictionsDocumentsService;
+    private final PreparedRestrictionsParametricValuesService preparedRestrictionsParametricValuesService;
+    private final PreparedRestrictionsRelatedConceptsService preparedRestrictionsRelatedConceptsService;
+
+    /**
+     * @param executorService executor on which the panels are run
+     */
+    public IdolSearchPageService(
+            final DocumentsService<String, IdolSearchResult, AciErrorException> documentsService,
+            final ParametricValuesService<IdolParametricRequest, String, AciErrorException> parametricValuesService,
+            final RelatedConceptsService<QsElement, String, AciErrorException> relatedConceptsService,
+            final HavenSearchAciParameterHandler parameterHandler,
+            final ListeningExecutorService executorService,
+            final long defaultTimeoutMillis
+    ) {
+        super(
+                new AsyncDocumentsServiceImpl<>(documentsService, executorService),
+                new AsyncParametricValuesServiceImpl<>(parametricValuesService, executorService),
+                new AsyncRelatedConceptsServiceImpl<>(relatedConceptsService, executorService),
+                defaultTimeoutMillis
+        );
+
+        this.parameterHandler = parameterHandler;
+        this.executorService = executorService;
+
+        preparedRestrictionsDocumentsService = documentsService instanceof PreparedRestrictionsDocumentsService ? (PreparedRestrictionsDocumentsService) documentsService : null;
+        preparedRestrictionsParametricValuesService = parametricValuesService instanceof PreparedRestrictionsParametricValuesService ? (PreparedRestrictionsParametricValuesService) parametricValuesService : null;
+        preparedRestrictionsRelatedConceptsService = relatedConceptsService instanceof PreparedRestrictionsRelatedConceptsService ? (PreparedRestrictionsRelatedConceptsService) relatedConceptsService : null;
+    }
+
+    @Override
+    protected PanelSubmitter createPanelSubmitter(final SearchPageRequest<String> request) {
+        final PreparedRestrictions preparedRestrictions = new PreparedRestrictions(parameterHandler, request.getQueryRestrictions());
+
+        return new PanelSubmitter() {
+            @Override
+            public ListenableFuture<?> submit(final SearchPanel panel) {
+                switch (panel) {
+                    case RESULTS:
+                        if (preparedRestrictionsDocumentsService != null) {
+                            final SearchRequest<String> searchRequest = createSearchRequest(request, request.getQueryType());
+                            return executorService.submit(new Callable<Documents<IdolSearchResult>>() {
+                                @Override
+                                public Documents<IdolSearchResult> call() {
+                                    return preparedRestrictionsDocumentsService.queryTextIndex(searchRequest, preparedRestrictions);
+                                }
+                            });
+                        }
+                        break;
+                    case PROMOTIONS:
+                        if (preparedRestrictionsDocumentsService != null) {
+                            final SearchRequest<String> searchRequest = createSearchRequest(request, SearchRequest.QueryType.PROMOTIONS);
+                            return executorService.submit(new Callable<Documents<IdolSearchResult>>() {
+                                @Override
+                                public Documents<IdolSearchResult> call() {
+                                    return preparedRestrictionsDocumentsService.queryTextIndexForPromotions(searchRequest, preparedRestrictions);
+                                }
+                            });
+                        }
+                        break;
+                    case PARAMETRIC_VALUES:
+                        if (preparedRestrictionsParametricValuesService != null) {
+                            final IdolParametricRequest parametricRequest = createParametricRequest(request.getQueryRestrictions(), request.getParametricFieldNames(), request.getMaxParametricValues());
+                            return executorService.submit(new Callable<Set<QueryTagInfo>>() {
+                                @Override
+                                public Set<QueryTagInfo> call() {
+                                    return preparedRestrictionsParametricValuesService.getAllParametricValues(parametricRequest, preparedRestrictions);
+                                }
+                            });
+                        }
+                        break;
+                    case RELATED_CONCEPTS:
+                        if (preparedRestrictionsRelatedConceptsService != null) {
+                            final RelatedConceptsRequest<String> relatedConceptsRequest = createRelatedConceptsRequest(request.getQueryRestrictions(), request.getQuerySummaryLength());
+                            return executorService.submit(new Callable<List<QsElement>>() {
+                                @Override
+                                public List<QsElement> call() {
+                                    return preparedRestrictionsRelatedConceptsService.findRelatedConcepts(relatedConceptsRequest, preparedRestrictions);
+                                }
+                            });
+                        }
+                        break;
+                }
+
+                // Numeric parametric values are cached on their request, so they always go through the service interface
+                return IdolSearchPageService.this.submit(panel, request);
+            }
+        };
+    }
+
+    @Override
+    protected IdolParametricRequest createParametricRequest(final QueryRestrictions<String> queryRestrictions, final List<String> fieldNames, final Integer maxValues) {
+        final IdolParametricRequest.Builder builder = new IdolParametricRequest.Builder()
+                .setFieldNames(fieldNames)
+                .setQueryRestrictions(queryRestrictions);
+
+        if (maxValues != null) {
+            builder.setMaxValues(maxValues);
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    protected RelatedConceptsRequest<String> createRelatedConceptsRequest(final QueryRestrictions<String> queryRestrictions, final int querySummaryLength) {
+        return new IdolRelatedConceptsRequest.Builder()
+                .setQuerySummaryLength(querySummaryLength)
+                .setQueryRestrictions(queryRestrictions)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.util.AciParameters;
+import com.google.common.cache.CacheStats;
+
+/**
+ * {@link QueryResponseCache} which caches nothing, used when the query response cache is disabled.
+ */
+public class NoOpQueryResponseCache implements QueryResponseCache {
+    private static final CacheStats NO_STATS = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    @Override
+    public IdolQueryResponse getQueryResponse(final String namespace, final AciParameters aciParameters, final IdolDocumentService.QueryResponseExecutor queryExecutor) {
+        return queryExecutor.execute(aciParameters);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return NO_STATS;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+
+/**
+ * Search restriction parameters built once by a {@link HavenSearchAciParameterHandler} and shared by several requests
+ * with the same restrictions, such as the panels of a search page.
+ */
+public class PreparedRestrictions {
+    private final QueryRestrictions<String> queryRestrictions;
+    private final AciParameters restrictionParameters = new AciParameters();
+
+    public PreparedRestrictions(final HavenSearchAciParameterHandler parameterHandler, final QueryRestrictions<String> queryRestrictions) {
+        this.queryRestrictions = queryRestrictions;
+        parameterHandler.addSearchRestrictions(restrictionParameters, queryRestrictions);
+    }
+
+    public QueryRestrictions<String> getQueryRestrictions() {
+        return queryRestrictions;
+    }
+
+    /**
+     * Adds copies of the restriction parameters, so that each request can modify its own parameters without affecting
+     * the others.
+     *
+     * @param aciParameters the parameters to add to
+     */
+    public void addTo(final AciParameters aciParameters) {
+        for (final AciParameter parameter : restrictionParameters) {
+            aciParameters.add(new AciParameter(parameter.getName(), parameter.getValue()));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import com.hp.autonomy.types.requests.Documents;
+
+/**
+ * Queries which take their restriction parameters from {@link PreparedRestrictions} instead of building them from the
+ * request's query restrictions.
+ */
+public interface PreparedRestrictionsDocumentsService {
+    Documents<IdolSearchResult> queryTextIndex(SearchRequest<String> searchRequest, PreparedRestrictions preparedRestrictions) throws AciErrorException;
+
+    Documents<IdolSearchResult> queryTextIndexForPromotions(SearchRequest<String> searchRequest, PreparedRestrictions preparedRestrictions) throws AciErrorException;
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.hp.autonomy.searchcomponents.core.search.RelatedConceptsRequest;
+import com.hp.autonomy.types.idol.QsElement;
+
+import java.util.List;
+
+/**
+ * Related concepts lookup which takes its restriction parameters from {@link PreparedRestrictions} instead of building
+ * them from the request's query restrictions.
+ */
+public interface PreparedRestrictionsRelatedConceptsService {
+    List<QsElement> findRelatedConcepts(RelatedConceptsRequest<String> relatedConceptsRequest, PreparedRestrictions preparedRestrictions) throws AciErrorException;
+}
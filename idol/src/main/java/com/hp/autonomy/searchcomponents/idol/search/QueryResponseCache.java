@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.util.AciParameters;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Cache of responses to Query actions, so that paging, re-sorting and repeated requests for the same results do not
+ * each cost a round trip to IDOL. The default implementation is only created when {@link #ENABLED_PROPERTY} is true.
+ * Responses are cached after they have been parsed by a {@link StreamingQueryResponseParser}, so a hit costs neither a
+ * request nor unmarshalling. When the cache is disabled a {@link NoOpQueryResponseCache} is defined instead.
+ */
+public interface QueryResponseCache {
+    String PROPERTY_PREFIX = "haven-search.query-response-cache.";
+    String ENABLED_PROPERTY = PROPERTY_PREFIX + "enabled";
+    String EXPIRY_SECONDS_PROPERTY = PROPERTY_PREFIX + "expiry-seconds";
+    String MAX_HITS_PROPERTY = PROPERTY_PREFIX + "max-hits";
+
+    /**
+     * Returns the response for the given query, executing it if no response is cached. Implementations must treat
+     * queries with different security info as distinct.
+     *
+     * @param namespace     identifies the server the query is sent to
+     * @param aciParameters the query parameters
+     * @param queryExecutor executes the query on a cache miss
+     * @return the query response
+     * @throws AciErrorException if the query was executed and failed; failures are not cached
+     */
+    IdolQueryResponse getQueryResponse(String namespace, AciParameters aciParameters, IdolDocumentService.QueryResponseExecutor queryExecutor) throws AciErrorException;
+
+    /**
+     * @return hit, miss and eviction counts for the cache
+     */
+    CacheStats getStats();
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.util.AciParameters;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.hp.autonomy.searchcomponents.idol.aci.AciRequestKey;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default implementation of {@link QueryResponseCache}, holding responses in memory for a fixed time after they are
+ * retrieved. The cache is bounded by the total number of hits held rather than the number of responses, since a
+ * response with a large page of results costs far more memory than an empty one. Concurrent requests for the same
+ * uncached query wait for a single execution.
+ */
+public class QueryResponseCacheImpl implements QueryResponseCache {
+    private final Cache<AciRequestKey, IdolQueryResponse> cache;
+
+    /**
+     * @param expiry     how long a response is held after it is retrieved
+     * @param expiryUnit the unit of expiry
+     * @param maxHits    the maximum total number of hits held; each response also counts as one hit, so that responses
+     *                   without hits are bounded too
+     */
+    public QueryResponseCacheImpl(final long expiry, final TimeUnit expiryUnit, final long maxHits) {
+        cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(expiry, expiryUnit)
+                .maximumWeight(maxHits)
+                .weigher(new Weigher<AciRequestKey, IdolQueryResponse>() {
+                    @Override
+                    public int weigh(final AciRequestKey key, final IdolQueryResponse response) {
+                        return 1 + (response.getHits() == null ? 0 : response.getHits().size());
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public IdolQueryResponse getQueryResponse(final String namespace, final AciParameters aciParameters, final IdolDocumentService.QueryResponseExecutor queryExecutor) {
+        try {
+            return cache.get(new AciRequestKey(namespace, aciParameters), new Callable<IdolQueryResponse>() {
+                @Override
+                public IdolQueryResponse call() {
+                    return queryExecutor.execute(aciParameters);
+                }
+            });
+        } catch (final ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Discards all cached responses
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
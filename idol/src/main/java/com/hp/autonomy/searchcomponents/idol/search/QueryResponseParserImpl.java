@@ -6,12 +6,15 @@
 package com.hp.autonomy.searchcomponents.idol.search;
 
 import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.util.AciParameters;
 import com.hp.autonomy.aci.content.database.Databases;
 import com.hp.autonomy.searchcomponents.core.databases.DatabasesService;
 import com.hp.autonomy.searchcomponents.core.search.AciSearchRequest;
 import com.hp.autonomy.searchcomponents.core.search.AutoCorrectException;
 import com.hp.autonomy.searchcomponents.idol.databases.IdolDatabasesRequest;
+import com.hp.autonomy.searchcomponents.idol.metadata.IdolMetadataRegistry;
+import com.hp.autonomy.searchcomponents.idol.search.fields.DocumentFieldsCollectorFactory;
 import com.hp.autonomy.searchcomponents.idol.search.fields.FieldsParser;
 import com.hp.autonomy.types.idol.Database;
 import com.hp.autonomy.types.idol.Hit;
@@ -36,18 +39,40 @@ import java.util.regex.Pattern;
  */
 @SuppressWarnings("WeakerAccess")
 @Component
-public class QueryResponseParserImpl implements QueryResponseParser {
+public class QueryResponseParserImpl implements StreamingQueryResponseParser {
     private static final Pattern SPELLING_SEPARATOR_PATTERN = Pattern.compile(", ");
 
     static final String MISSING_DATABASE_WARNING = "At least one of the databases provided in the query does not exist";
 
     private final FieldsParser fieldsParser;
     private final DatabasesService<Database, IdolDatabasesRequest, AciErrorException> databasesService;
+    private final IdolMetadataRegistry metadataRegistry;
+    private final Processor<IdolQueryResponse> queryResponseProcessor;
+    private final Processor<Documents<IdolSearchResult>> documentsProcessor;
 
-    @Autowired
     public QueryResponseParserImpl(final FieldsParser fieldsParser, final DatabasesService<Database, IdolDatabasesRequest, AciErrorException> databasesService) {
+        this(fieldsParser, databasesService, null);
+    }
+
+    /**
+     * @param metadataRegistry if not null, asked to refresh its databases in the background when a query names a
+     *                         database which no longer exists
+     */
+    @Autowired
+    public QueryResponseParserImpl(final FieldsParser fieldsParser, final DatabasesService<Database, IdolDatabasesRequest, AciErrorException> databasesService, final IdolMetadataRegistry metadataRegistry) {
         this.fieldsParser = fieldsParser;
         this.databasesService = databasesService;
+        this.metadataRegistry = metadataRegistry;
+
+        // A custom FieldsParser may only understand the DOM, in which case responses are not streamed
+        if (fieldsParser instanceof DocumentFieldsCollectorFactory) {
+            final DocumentFieldsCollectorFactory documentFieldsCollectorFactory = (DocumentFieldsCollectorFactory) fieldsParser;
+            queryResponseProcessor = new IdolQueryResponseProcessor(documentFieldsCollectorFactory);
+            documentsProcessor = new DocumentsProcessor(documentFieldsCollectorFactory);
+        } else {
+            queryResponseProcessor = null;
+            documentsProcessor = null;
+        }
     }
 
     @Override
@@ -70,10 +95,41 @@ public class QueryResponseParserImpl implements QueryResponseParser {
         return documents;
     }
 
+    @Override
+    public Documents<IdolSearchResult> parseQueryResponse(final AciSearchRequest<String> searchRequest, final AciParameters aciParameters, final IdolQueryResponse response, final IdolDocumentService.QueryResponseExecutor queryExecutor) {
+        final Warnings warnings = parseWarnings(searchRequest, aciParameters, response.getWarnings());
+
+        final String spellingQuery = response.getSpellingQuery();
+
+        // If IDOL has a spelling suggestion, retry query for auto correct
+        if (spellingQuery == null) {
+            return new Documents<>(response.getHits(), response.getTotalHits(), response.getExpandedQuery(), null, null, warnings);
+        }
+
+        final Spelling spelling = adjustSpelling(aciParameters, response.getSpelling(), spellingQuery);
+
+        try {
+            final IdolQueryResponse correctedResponse = queryExecutor.execute(aciParameters);
+            return new Documents<>(correctedResponse.getHits(), correctedResponse.getTotalHits(), null, null, spelling, warnings);
+        } catch (AciErrorException e) {
+            throw new AutoCorrectException(e.getMessage(), e, spelling);
+        }
+    }
+
     protected Warnings parseWarnings(final AciSearchRequest<String> searchRequest, final AciParameters aciParameters, final QueryResponseData responseData) {
+        return parseWarnings(searchRequest, aciParameters, responseData.getWarning());
+    }
+
+    private Warnings parseWarnings(final AciSearchRequest<String> searchRequest, final AciParameters aciParameters, final Iterable<String> responseWarnings) {
         Warnings warnings = null;
-        for (final String warning : responseData.getWarning()) {
+        for (final String warning : responseWarnings) {
             if (MISSING_DATABASE_WARNING.equals(warning.trim())) {
+                // The warning means our view of the databases is out of date. Use the current snapshot rather than
+                // sending GetStatus in the middle of the query, and have the registry catch up in the background.
+                if (metadataRegistry != null) {
+                    metadataRegistry.requestDatabasesRefresh();
+                }
+
                 final Set<Database> updatedDatabases = databasesService.getDatabases(new IdolDatabasesRequest());
                 final List<String> oldQueryRestrictionDatabases = searchRequest.getQueryRestrictions().getDatabases();
                 final Set<String> badDatabases = new LinkedHashSet<>(oldQueryRestrictionDatabases);
@@ -93,10 +149,7 @@ public class QueryResponseParserImpl implements QueryResponseParser {
     }
 
     protected Documents<IdolSearchResult> rerunQueryWithAdjustedSpelling(final AciParameters aciParameters, final QueryResponseData responseData, final String spellingQuery, final Warnings warnings, final IdolDocumentService.QueryExecutor queryExecutor) {
-        final String originalQuery = aciParameters.get(QueryParams.Text.name());
-        aciParameters.put(QueryParams.Text.name(), spellingQuery);
-
-        final Spelling spelling = new Spelling(Arrays.asList(SPELLING_SEPARATOR_PATTERN.split(responseData.getSpelling())), spellingQuery, originalQuery);
+        final Spelling spelling = adjustSpelling(aciParameters, responseData.getSpelling(), spellingQuery);
 
         try {
             final QueryResponseData correctedResponseData = queryExecutor.execute(aciParameters);
@@ -108,6 +161,14 @@ public class QueryResponseParserImpl implements QueryResponseParser {
         }
     }
 
+    // Replaces the query text with the spelling suggestion, returning the correction to report
+    private Spelling adjustSpelling(final AciParameters aciParameters, final String corrections, final String spellingQuery) {
+        final String originalQuery = aciParameters.get(QueryParams.Text.name());
+        aciParameters.put(QueryParams.Text.name(), spellingQuery);
+
+        return new Spelling(Arrays.asList(SPELLING_SEPARATOR_PATTERN.split(corrections)), spellingQuery, originalQuery);
+    }
+
     @Override
     public List<IdolSearchResult> parseQueryHits(final Collection<Hit> hits) {
         final List<IdolSearchResult> results = new ArrayList<>(hits.size());
@@ -126,4 +187,14 @@ public class QueryResponseParserImpl implements QueryResponseParser {
         }
         return results;
     }
+
+    @Override
+    public Processor<IdolQueryResponse> getQueryResponseProcessor() {
+        return queryResponseProcessor;
+    }
+
+    @Override
+    public Processor<Documents<IdolSearchResult>> getDocumentsProcessor() {
+        return documentsProcessor;
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.searchcomponents.core.search.AciSearchRequest;
+import com.hp.autonomy.types.requests.Documents;
+
+/**
+ * A {@link QueryResponseParser} which can also parse responses as they are streamed from IDOL. If its parser
+ * implements this interface and {@link #getQueryResponseProcessor()} is not null, {@link IdolDocumentService} uses
+ * these methods in place of the JAXB based ones.
+ */
+public interface StreamingQueryResponseParser extends QueryResponseParser {
+    /**
+     * @return a processor which parses a Query response as it is streamed from IDOL, or null if responses cannot be
+     * streamed
+     */
+    Processor<IdolQueryResponse> getQueryResponseProcessor();
+
+    /**
+     * @return a processor which parses the hits in a Query or Suggest response as it is streamed from IDOL, or null if
+     * responses cannot be streamed
+     */
+    Processor<Documents<IdolSearchResult>> getDocumentsProcessor();
+
+    /**
+     * Equivalent of {@link #parseQueryResults} for a response read by {@link #getQueryResponseProcessor()}
+     */
+    Documents<IdolSearchResult> parseQueryResponse(AciSearchRequest<String> searchRequest, AciParameters aciParameters, IdolQueryResponse response, IdolDocumentService.QueryResponseExecutor queryExecutor);
+}
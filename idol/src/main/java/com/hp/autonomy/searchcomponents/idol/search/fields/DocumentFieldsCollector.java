@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search.fields;
+
+import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldType;
+import com.hp.autonomy.searchcomponents.core.search.PromotionCategory;
+import com.hp.autonomy.searchcomponents.idol.search.IdolSearchResult;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the field values of a single document as they are read from a query response, whether from a DOM or a
+ * stream, and adds them to the search result.
+ */
+public class DocumentFieldsCollector {
+    private static final String QMS_ID_ELEMENT = IdolDocumentFieldsService.QMS_ID_FIELD.toUpperCase();
+    private static final String INJECTED_PROMOTION_ELEMENT = IdolDocumentFieldsService.INJECTED_PROMOTION_FIELD.toUpperCase();
+
+    private static final int UNCONFIGURED_FIELD_SLOT = 0;
+
+    private final FieldMappings fieldMappings;
+    private final Map<String, FieldValues> fieldValuesById = new HashMap<>();
+
+    private boolean documentHasContent;
+    private String qmsId;
+    private Boolean injectedPromotion;
+
+    /**
+     * @param fieldMappings the configured fields
+     */
+    public DocumentFieldsCollector(final FieldMappings fieldMappings) {
+        this.fieldMappings = fieldMappings;
+    }
+
+    /**
+     * Records that the document content element has child nodes. Fields and promotion information are only added to
+     * the result for documents with content.
+     */
+    public void setDocumentHasContent() {
+        documentHasContent = true;
+    }
+
+    /**
+     * Overrides the QMS ID found in the document fields
+     *
+     * @param qmsId the QMS ID, or null if the document has none
+     */
+    public void setQmsId(final String qmsId) {
+        this.qmsId = qmsId;
+    }
+
+    /**
+     * Overrides the injected promotion flag found in the document fields
+     *
+     * @param injectedPromotion whether the document was injected into the results by QMS, or null if unknown
+     */
+    public void setInjectedPromotion(final Boolean injectedPromotion) {
+        this.injectedPromotion = injectedPromotion;
+    }
+
+    /**
+     * Adds the text of a document element to the document fields. The first QMSID and INJECTEDPROMOTION elements also
+     * determine the QMS ID and promotion category of the result.
+     *
+     * @param name        the element name
+     * @param stringValue the element text
+     */
+    public void addFieldValue(final String name, final String stringValue) {
+        if (qmsId == null && QMS_ID_ELEMENT.equals(name)) {
+            qmsId = IdolDocumentFieldsService.QMS_ID_FIELD_INFO.getType().parseValue(String.class, stringValue);
+        } else if (injectedPromotion == null && INJECTED_PROMOTION_ELEMENT.equals(name)) {
+            injectedPromotion = IdolDocumentFieldsService.INJECTED_PROMOTION_FIELD_INFO.getType().parseValue(Boolean.class, stringValue);
+        }
+
+        if (StringUtils.isNotBlank(stringValue)) {
+            final FieldMappings.FieldMapping mapping = fieldMappings.getMapping(name);
+
+            // Fields which are not configured are returned as strings under their IDOL name
+            final String id = mapping == null ? name : mapping.getId();
+            FieldValues fieldValues = fieldValuesById.get(id);
+            if (fieldValues == null) {
+                fieldValues = mapping == null ? new FieldValues(id, FieldType.STRING, 1) : new FieldValues(id, mapping.getType(), mapping.getNumberOfNames());
+                fieldValuesById.put(id, fieldValues);
+            }
+
+            fieldValues.add(mapping == null ? UNCONFIGURED_FIELD_SLOT : mapping.getSlot(), name, stringValue);
+        }
+    }
+
+    /**
+     * Adds the collected fields, QMS ID and promotion category to the search result
+     *
+     * @param searchResultBuilder the result being built
+     * @param promotionName       the promotion name of the hit, if any
+     * @param database            the database of the hit, if any
+     */
+    public void populate(final IdolSearchResult.Builder searchResultBuilder, final CharSequence promotionName, final CharSequence database) {
+        if (documentHasContent) {
+            final Map<String, FieldInfo<?>> fieldMap = new HashMap<>(fieldValuesById.size());
+            for (final FieldValues fieldValues : fieldValuesById.values()) {
+                fieldMap.put(fieldValues.id, new FieldInfo<Object>(fieldValues.id, fieldValues.names, fieldValues.type, fieldValues.values));
+            }
+
+            searchResultBuilder
+                    .setFieldMap(fieldMap)
+                    .setQmsId(qmsId)
+                    .setPromotionCategory(determinePromotionCategory(promotionName, database));
+        } else {
+            searchResultBuilder
+                    .setFieldMap(Collections.<String, FieldInfo<?>>emptyMap())
+                    .setQmsId(null)
+                    .setPromotionCategory(PromotionCategory.NONE);
+        }
+    }
+
+    private PromotionCategory determinePromotionCategory(final CharSequence promotionName, final CharSequence database) {
+        final PromotionCategory promotionCategory;
+        if (injectedPromotion != null && injectedPromotion) {
+            promotionCategory = PromotionCategory.CARDINAL_PLACEMENT;
+        } else if (StringUtils.isNotEmpty(promotionName)) {
+            // If the database isn't found, then assume it is a static content promotion
+            promotionCategory = StringUtils.isNotEmpty(database) ? PromotionCategory.SPOTLIGHT : PromotionCategory.STATIC_CONTENT_PROMOTION;
+        } else {
+            promotionCategory = PromotionCategory.NONE;
+        }
+
+        return promotionCategory;
+    }
+
+    // The values of one field, ordered by the slot of the IDOL field they came from and then by document order
+    private static class FieldValues {
+        private final String id;
+        private final FieldType type;
+        private final List<Integer> slots;
+        private final List<String> names;
+        private final List<Object> values;
+
+        private FieldValues(final String id, final FieldType type, final int expectedSize) {
+            this.id = id;
+            this.type = type;
+
+            slots = new ArrayList<>(expectedSize);
+            names = new ArrayList<>(expectedSize);
+            values = new ArrayList<>(expectedSize);
+        }
+
+        private void add(final int slot, final String name, final String stringValue) {
+            final Object value = type.parseValue(type.getType(), stringValue);
+
+            // Values which cannot be parsed, such as invalid dates, are dropped
+            if (value != null) {
+                // Values usually arrive in slot order, so this loop rarely runs
+                int index = values.size();
+                while (index > 0 && slots.get(index - 1) > slot) {
+                    index--;
+                }
+
+                slots.add(index, slot);
+                names.add(index, name);
+                values.add(index, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search.fields;
+
+/**
+ * Implemented by {@link FieldsParser}s which can collect document fields as a response is streamed, rather than from
+ * the DOM of a JAXB {@link com.hp.autonomy.types.idol.Hit}. Query responses are only streamed if the configured
+ * FieldsParser implements this interface.
+ */
+public interface DocumentFieldsCollectorFactory {
+    /**
+     * @return a collector for the fields of a single document, using the current field configuration
+     */
+    DocumentFieldsCollector createDocumentFieldsCollector();
+}
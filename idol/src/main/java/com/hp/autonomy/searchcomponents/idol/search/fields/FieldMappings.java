@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search.fields;
+
+import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldType;
+import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup table from IDOL field names to the configured fields they populate, compiled from a
+ * {@link FieldsInfo} so that parsing a document does not need to consult the configuration for each field value
+ */
+public class FieldMappings {
+    private final FieldsInfo fieldsInfo;
+    private final Map<String, FieldMapping> mappingsByName;
+
+    /**
+     * @param fieldsInfo the field configuration; may be null if no fields are configured
+     */
+    public FieldMappings(final FieldsInfo fieldsInfo) {
+        this.fieldsInfo = fieldsInfo;
+
+        final Map<String, FieldInfo<?>> fieldConfigByName = fieldsInfo == null || fieldsInfo.getFieldConfigByName() == null
+                ? Collections.<String, FieldInfo<?>>emptyMap()
+                : fieldsInfo.getFieldConfigByName();
+
+        final Map<String, FieldMapping> mappings = new HashMap<>(fieldConfigByName.size());
+        for (final Map.Entry<String, FieldInfo<?>> entry : fieldConfigByName.entrySet()) {
+            final FieldInfo<?> fieldInfo = entry.getValue();
+            final List<String> names = fieldInfo.getNames();
+            final int slot = names.indexOf(entry.getKey());
+            mappings.put(entry.getKey(), new FieldMapping(fieldInfo.getId(), fieldInfo.getType(), slot, names.size()));
+        }
+
+        mappingsByName = Collections.unmodifiableMap(mappings);
+    }
+
+    /**
+     * @param fieldsInfo a field configuration
+     * @return true if these mappings were compiled from the given configuration object
+     */
+    public boolean isCompiledFrom(final FieldsInfo fieldsInfo) {
+        return this.fieldsInfo == fieldsInfo;
+    }
+
+    /**
+     * @param name an IDOL field name
+     * @return the mapping for the field, or null if the field is not configured
+     */
+    public FieldMapping getMapping(final String name) {
+        return mappingsByName.get(name);
+    }
+
+    /**
+     * Where the values of an IDOL field are placed in the search result
+     */
+    @Data
+    public static class FieldMapping {
+        private final String id;
+        private final FieldType type;
+        /**
+         * Position of this IDOL field within the configured field's names; values are ordered by slot
+         */
+        private final int slot;
+        private final int numberOfNames;
+    }
+}
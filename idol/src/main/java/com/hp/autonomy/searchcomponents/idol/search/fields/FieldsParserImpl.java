@@ -9,7 +9,6 @@ import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
 import com.hp.autonomy.searchcomponents.core.config.FieldType;
 import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
-import com.hp.autonomy.searchcomponents.core.search.PromotionCategory;
 import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
 import com.hp.autonomy.searchcomponents.idol.search.IdolSearchResult;
 import com.hp.autonomy.types.idol.DocContent;
@@ -24,17 +23,15 @@ import org.w3c.dom.NodeList;
 import org.w3c.dom.Text;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Component
-public class FieldsParserImpl implements FieldsParser {
+public class FieldsParserImpl implements FieldsParser, DocumentFieldsCollectorFactory {
     private final ConfigService<? extends IdolSearchCapable> configService;
 
+    // Recompiled whenever the configured FieldsInfo is replaced
+    private volatile FieldMappings fieldMappings;
+
     @Autowired
     public FieldsParserImpl(final ConfigService<? extends IdolSearchCapable> configService) {
         this.configService = configService;
@@ -42,84 +39,55 @@ public class FieldsParserImpl implements FieldsParser {
 
     @Override
     public void parseDocumentFields(final Hit hit, final IdolSearchResult.Builder searchResultBuilder) {
-        final FieldsInfo fieldsInfo = configService.getConfig().getFieldsInfo();
-        final Map<String, FieldInfo<?>> fieldConfig = fieldsInfo.getFieldConfigByName();
+        final DocumentFieldsCollector documentFieldsCollector = createDocumentFieldsCollector();
 
         final DocContent content = hit.getContent();
-        Map<String, FieldInfo<?>> fieldMap = Collections.emptyMap();
-        String qmsId = null;
-        PromotionCategory promotionCategory = PromotionCategory.NONE;
         if (content != null) {
             final Element docContent = (Element) content.getContent().get(0);
             if (docContent.hasChildNodes()) {
-                final NodeList childNodes = docContent.getChildNodes();
-                fieldMap = new HashMap<>(childNodes.getLength());
-
-                parseAllFields(fieldConfig, childNodes, fieldMap, docContent.getNodeName());
-                for (final FieldInfo<?> fieldInfo : fieldMap.values()) {
-                    //noinspection SuspiciousMethodCalls
-                    fieldInfo.getNames().removeAll(Collections.singleton(null));
-                    //noinspection SuspiciousMethodCalls
-                    fieldInfo.getValues().removeAll(Collections.singleton(null));
-                }
-                qmsId = parseField(docContent, IdolDocumentFieldsService.QMS_ID_FIELD_INFO, String.class);
-                promotionCategory = determinePromotionCategory(docContent, hit.getPromotionname(), hit.getDatabase());
+                documentFieldsCollector.setDocumentHasContent();
+                parseAllFields(documentFieldsCollector, docContent.getChildNodes(), docContent.getNodeName());
+
+                documentFieldsCollector.setQmsId(parseField(docContent, IdolDocumentFieldsService.QMS_ID_FIELD_INFO, String.class));
+                documentFieldsCollector.setInjectedPromotion(parseField(docContent, IdolDocumentFieldsService.INJECTED_PROMOTION_FIELD_INFO, Boolean.class));
             }
         }
 
-        searchResultBuilder
-                .setFieldMap(fieldMap)
-                .setQmsId(qmsId)
-                .setPromotionCategory(promotionCategory);
+        documentFieldsCollector.populate(searchResultBuilder, hit.getPromotionname(), hit.getDatabase());
+    }
+
+    @Override
+    public DocumentFieldsCollector createDocumentFieldsCollector() {
+        return new DocumentFieldsCollector(getFieldMappings());
     }
 
-    private void parseAllFields(final Map<String, FieldInfo<?>> fieldConfig, final NodeList childNodes, final Map<String, FieldInfo<?>> fieldMap, final String name) {
+    private FieldMappings getFieldMappings() {
+        final FieldsInfo fieldsInfo = configService.getConfig().getFieldsInfo();
+        FieldMappings mappings = fieldMappings;
+
+        if (mappings == null || !mappings.isCompiledFrom(fieldsInfo)) {
+            // Compiling twice in a race is harmless
+            mappings = new FieldMappings(fieldsInfo);
+            fieldMappings = mappings;
+        }
+
+        return mappings;
+    }
+
+    private void parseAllFields(final DocumentFieldsCollector documentFieldsCollector, final NodeList childNodes, final String name) {
         for (int i = 0; i < childNodes.getLength(); i++) {
             final Node node = childNodes.item(i);
             if (node instanceof Text) {
                 final String stringValue = node.getNodeValue();
                 if (StringUtils.isNotBlank(stringValue)) {
-                    final FieldInfo<?> fieldInfo = getFieldInfo(fieldConfig, name);
-                    final String id = fieldInfo.getId();
-                    final FieldType fieldType = fieldInfo.getType();
-                    final Object value = fieldType.parseValue(fieldType.getType(), stringValue);
-                    if (fieldMap.containsKey(id)) {
-                        final List<String> names = fieldInfo.getNames();
-                        //noinspection unchecked
-                        final FieldInfo<Object> objectFieldInfo = (FieldInfo<Object>) fieldMap.get(id);
-                        objectFieldInfo.getValues().add(names.indexOf(name), value);
-                        objectFieldInfo.getNames().add(names.indexOf(name), name);
-                    } else {
-                        final ArrayList<String> names = new ArrayList<>(fieldInfo.getNames().size());
-                        names.add(name);
-                        fieldMap.put(id, new FieldInfo<>(id, names, fieldInfo.getType(), value));
-                    }
+                    documentFieldsCollector.addFieldValue(name, stringValue);
                 }
             } else if (node.getChildNodes().getLength() > 0) {
-                parseAllFields(fieldConfig, node.getChildNodes(), fieldMap, node.getNodeName());
+                parseAllFields(documentFieldsCollector, node.getChildNodes(), node.getNodeName());
             }
         }
     }
 
-    private FieldInfo<?> getFieldInfo(final Map<String, FieldInfo<?>> fieldConfig, final String name) {
-        return fieldConfig.containsKey(name) ? fieldConfig.get(name) : new FieldInfo<>(name, Collections.singletonList(name), FieldType.STRING);
-    }
-
-    private PromotionCategory determinePromotionCategory(final Element docContent, final CharSequence promotionName, final CharSequence database) {
-        final PromotionCategory promotionCategory;
-        final Boolean injectedPromotion = parseField(docContent, IdolDocumentFieldsService.INJECTED_PROMOTION_FIELD_INFO, Boolean.class);
-        if (injectedPromotion != null && injectedPromotion) {
-            promotionCategory = PromotionCategory.CARDINAL_PLACEMENT;
-        } else if (StringUtils.isNotEmpty(promotionName)) {
-            // If the database isn't found, then assume it is a static content promotion
-            promotionCategory = StringUtils.isNotEmpty(database) ? PromotionCategory.SPOTLIGHT : PromotionCategory.STATIC_CONTENT_PROMOTION;
-        } else {
-            promotionCategory = PromotionCategory.NONE;
-        }
-
-        return promotionCategory;
-    }
-
     private <T> List<T> parseFields(final Element node, final String name, final FieldType fieldType, final Class<T> type) {
         final NodeList childNodes = node.getElementsByTagName(name.toUpperCase());
         final int length = childNodes.getLength();
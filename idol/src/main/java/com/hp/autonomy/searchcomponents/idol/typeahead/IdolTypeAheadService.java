@@ -7,7 +7,13 @@ package com.hp.autonomy.searchcomponents.idol.typeahead;
 
 import com.autonomy.aci.client.services.AciErrorException;
 import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import com.hp.autonomy.searchcomponents.core.typeahead.BoundedTypeAheadService;
+import com.hp.autonomy.searchcomponents.core.typeahead.IndexedTypeAheadService;
+import com.hp.autonomy.searchcomponents.core.typeahead.LocalTypeAheadIndex;
+import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadConstants;
 import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadService;
+import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadSessionService;
 import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,11 +22,13 @@ import java.util.List;
 
 @Service("typeAheadService")
 public class IdolTypeAheadService implements TypeAheadService<AciErrorException> {
+    static final long MAX_SESSIONS = 10000;
+    static final long SESSION_TTL_SECONDS = 60;
+
     private final ConfigService<? extends IdolSearchCapable> configService;
     private final TypeAheadService<AciErrorException> termExpandService;
     private final TypeAheadService<AciErrorException> qmsService;
 
-    @Autowired
     public IdolTypeAheadService(
             final ConfigService<? extends IdolSearchCapable> configService,
             final TypeAheadService<AciErrorException> termExpandTypeAheadService,
@@ -31,6 +39,41 @@ public class IdolTypeAheadService implements TypeAheadService<AciErrorException>
         qmsService = qmsTypeAheadService;
     }
 
+    /**
+     * Suggestions are answered from termExpandTypeAheadIndex where possible. QMS suggestions depend on its dictionaries,
+     * so they are only answered locally from QMS's own recent suggestions. Each user's suggestions are fetched in a
+     * {@link TypeAheadSessionService}, so that suggestions for a user who is still typing are found by filtering.
+     */
+    @Autowired
+    public IdolTypeAheadService(
+            final ConfigService<? extends IdolSearchCapable> configService,
+            final BoundedTypeAheadService<AciErrorException> termExpandTypeAheadService,
+            final BoundedTypeAheadService<AciErrorException> qmsTypeAheadService,
+            final TermExpandTypeAheadIndex termExpandTypeAheadIndex,
+            final AuthenticationInformationRetriever<?, ?> authenticationInformationRetriever
+    ) {
+        this(
+                configService,
+                new TypeAheadSessionService<>(
+                        new IndexedTypeAheadService<>(termExpandTypeAheadIndex, termExpandTypeAheadService),
+                        authenticationInformationRetriever,
+                        TypeAheadConstants.SESSION_FETCH_SIZE,
+                        MAX_SESSIONS,
+                        SESSION_TTL_SECONDS
+                ),
+                new TypeAheadSessionService<>(
+                        new IndexedTypeAheadService<>(
+                                new LocalTypeAheadIndex(TypeAheadConstants.SESSION_FETCH_SIZE, TermExpandTypeAheadIndex.MAX_RECENT_SUGGESTIONS, TermExpandTypeAheadIndex.RECENT_SUGGESTIONS_TTL_SECONDS),
+                                qmsTypeAheadService
+                        ),
+                        authenticationInformationRetriever,
+                        TypeAheadConstants.SESSION_FETCH_SIZE,
+                        MAX_SESSIONS,
+                        SESSION_TTL_SECONDS
+                )
+        );
+    }
+
     @Override
     public List<String> getSuggestions(final String text) {
         return configService.getConfig().getQueryManipulation().isEnabled() ? qmsService.getSuggestions(text) : termExpandService.getSuggestions(text);
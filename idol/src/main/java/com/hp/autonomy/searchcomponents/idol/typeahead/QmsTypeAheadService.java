@@ -11,8 +11,8 @@ import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.util.AciParameters;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.typeahead.BoundedTypeAheadService;
 import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadConstants;
-import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadService;
 import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
 import com.hp.autonomy.types.idol.TypeAheadResponseData;
 import com.hp.autonomy.types.requests.qms.actions.typeahead.TypeAheadActions;
@@ -25,7 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 @Service
-public class QmsTypeAheadService implements TypeAheadService<AciErrorException> {
+public class QmsTypeAheadService implements BoundedTypeAheadService<AciErrorException> {
     private final ConfigService<? extends IdolSearchCapable> configService;
     private final AciService qmsAciService;
     private final Processor<TypeAheadResponseData> processor;
@@ -43,11 +43,16 @@ public class QmsTypeAheadService implements TypeAheadService<AciErrorException>
 
     @Override
     public List<String> getSuggestions(final String text) {
+        return getSuggestions(text, TypeAheadConstants.MAX_RESULTS);
+    }
+
+    @Override
+    public List<String> getSuggestions(final String text, final int maxResults) {
         final ModeParam mode = configService.getConfig().getQueryManipulation().getTypeAheadMode();
 
         final AciParameters parameters = new AciParameters(TypeAheadActions.TypeAhead.name());
         parameters.add(TypeAheadParams.Mode.name(), mode);
-        parameters.add(TypeAheadParams.MaxResults.name(), TypeAheadConstants.MAX_RESULTS);
+        parameters.add(TypeAheadParams.MaxResults.name(), maxResults);
         parameters.add(TypeAheadParams.Text.name(), text);
 
         final TypeAheadResponseData response = qmsAciService.executeAction(parameters, processor);
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.typeahead;
+
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
+import com.hp.autonomy.searchcomponents.core.typeahead.LocalTypeAheadIndex;
+import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadConstants;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.configuration.QueryManipulation;
+import com.hp.autonomy.types.idol.TermExpandResponseData;
+import com.hp.autonomy.types.requests.idol.actions.term.TermActions;
+import com.hp.autonomy.types.requests.idol.actions.term.params.ExpandTypeParam;
+import com.hp.autonomy.types.requests.idol.actions.term.params.ExpansionParam;
+import com.hp.autonomy.types.requests.idol.actions.term.params.TermExpandParams;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LocalTypeAheadIndex} for {@link TermExpandTypeAheadService}. When {@link #SWEEP_ENABLED_PROPERTY} is true, it is
+ * swept in the background by sending a TermExpand with MaxTerms={@value #SWEEP_MAX_TERMS} for each letter and digit
+ * (36 actions) at startup and then every {@link #SWEEP_INTERVAL_PROPERTY} seconds. Sweeps are skipped while query
+ * manipulation is enabled, since type-ahead is then answered by QMS. Without a sweep, the index only holds recent
+ * suggestions.
+ */
+@Slf4j
+@Component
+public class TermExpandTypeAheadIndex extends LocalTypeAheadIndex implements InitializingBean, DisposableBean {
+    public static final String SWEEP_ENABLED_PROPERTY = "haven-search.type-ahead.sweep.enabled";
+    public static final String SWEEP_INTERVAL_PROPERTY = "haven-search.type-ahead.sweep-interval-seconds";
+
+    static final String SWEEP_ROOTS = "abcdefghijklmnopqrstuvwxyz0123456789";
+    static final int SWEEP_MAX_TERMS = 1000;
+
+    static final long MAX_RECENT_SUGGESTIONS = 10000;
+    static final long RECENT_SUGGESTIONS_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+
+    private final AciService contentAciService;
+    private final ConfigService<? extends IdolSearchCapable> configService;
+    private final Processor<TermExpandResponseData> processor;
+    private final boolean sweepEnabled;
+    private final long sweepIntervalSeconds;
+
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public TermExpandTypeAheadIndex(
+            final AciService contentAciService,
+            final AciResponseJaxbProcessorFactory processorFactory,
+            final ConfigService<? extends IdolSearchCapable> configService,
+            @Value("${" + SWEEP_ENABLED_PROPERTY + ":false}") final boolean sweepEnabled,
+            @Value("${" + SWEEP_INTERVAL_PROPERTY + ":3600}") final long sweepIntervalSeconds
+    ) {
+        super(TypeAheadConstants.SESSION_FETCH_SIZE, MAX_RECENT_SUGGESTIONS, RECENT_SUGGESTIONS_TTL_SECONDS);
+
+        this.contentAciService = contentAciService;
+        this.configService = configService;
+        this.sweepEnabled = sweepEnabled;
+        this.sweepIntervalSeconds = sweepIntervalSeconds;
+        processor = processorFactory.createAciResponseProcessor(TermExpandResponseData.class);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!sweepEnabled) {
+            return;
+        }
+
+        // The first sweep also runs in the background so that a slow content engine does not delay startup
+        executor = SearchExecutors.scheduledExecutor("type-ahead-sweep");
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (!isQueryManipulationEnabled()) {
+                        sweep();
+                    }
+                } catch (final RuntimeException e) {
+                    log.warn("Failed to sweep type-ahead terms", e);
+                }
+            }
+        }, 0, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads the most common terms for each sweep root and replaces the swept terms in the index. Roots for which the
+     * content engine returns an error are left out of the sweep.
+     */
+    public void sweep() {
+        final Map<String, Long> weightedTerms = new HashMap<>();
+        final Map<String, Long> rootMinWeights = new HashMap<>();
+
+        for (final char root : SWEEP_ROOTS.toCharArray()) {
+            final String rootPrefix = String.valueOf(root);
+            final List<TermExpandResponseData.Term> terms;
+
+            try {
+                terms = termExpand(rootPrefix);
+            } catch (final RuntimeException e) {
+                log.warn("Failed to sweep type-ahead terms for " + rootPrefix, e);
+                continue;
+            }
+
+            long minWeight = Long.MAX_VALUE;
+            for (final TermExpandResponseData.Term term : terms) {
+                final String value = term.getValue().toLowerCase();
+                final long weight = term.getDocumentOccurrences() == null ? 0 : term.getDocumentOccurrences();
+                minWeight = Math.min(minWeight, weight);
+
+                final Long existingWeight = weightedTerms.get(value);
+                if (existingWeight == null || existingWeight < weight) {
+                    weightedTerms.put(value, weight);
+                }
+            }
+
+            rootMinWeights.put(rootPrefix, terms.size() < SWEEP_MAX_TERMS ? null : minWeight);
+        }
+
+        setSweep(weightedTerms, rootMinWeights);
+    }
+
+    private boolean isQueryManipulationEnabled() {
+        final QueryManipulation queryManipulation = configService.getConfig().getQueryManipulation();
+        return queryManipulation != null && queryManipulation.isEnabled();
+    }
+
+    private List<TermExpandResponseData.Term> termExpand(final String text) {
+        final AciParameters parameters = new AciParameters(TermActions.TermExpand.name());
+        parameters.put(TermExpandParams.Expansion.name(), ExpansionParam.Wild);
+        parameters.put(TermExpandParams.Stemming.name(), false);
+        parameters.put(TermExpandParams.MaxTerms.name(), SWEEP_MAX_TERMS);
+        parameters.put(TermExpandParams.Type.name(), ExpandTypeParam.DocOccs);
+        parameters.put(TermExpandParams.Text.name(), text);
+
+        return contentAciService.executeAction(parameters, processor).getTerm();
+    }
+}
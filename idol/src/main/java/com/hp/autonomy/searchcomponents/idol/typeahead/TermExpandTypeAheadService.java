@@ -10,8 +10,8 @@ import com.autonomy.aci.client.services.AciService;
 import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.util.AciParameters;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.typeahead.BoundedTypeAheadService;
 import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadConstants;
-import com.hp.autonomy.searchcomponents.core.typeahead.TypeAheadService;
 import com.hp.autonomy.types.idol.TermExpandResponseData;
 import com.hp.autonomy.types.requests.idol.actions.term.TermActions;
 import com.hp.autonomy.types.requests.idol.actions.term.params.ExpandTypeParam;
@@ -24,7 +24,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 @Service
-public class TermExpandTypeAheadService implements TypeAheadService<AciErrorException> {
+public class TermExpandTypeAheadService implements BoundedTypeAheadService<AciErrorException> {
     private final AciService contentAciService;
     private final Processor<TermExpandResponseData> processor;
 
@@ -39,10 +39,15 @@ public class TermExpandTypeAheadService implements TypeAheadService<AciErrorExce
 
     @Override
     public List<String> getSuggestions(final String text) {
+        return getSuggestions(text, TypeAheadConstants.MAX_RESULTS);
+    }
+
+    @Override
+    public List<String> getSuggestions(final String text, final int maxResults) {
         final AciParameters parameters = new AciParameters(TermActions.TermExpand.name());
         parameters.put(TermExpandParams.Expansion.name(), ExpansionParam.Wild);
         parameters.put(TermExpandParams.Stemming.name(), false);
-        parameters.put(TermExpandParams.MaxTerms.name(), TypeAheadConstants.MAX_RESULTS);
+        parameters.put(TermExpandParams.MaxTerms.name(), maxResults);
         parameters.put(TermExpandParams.Type.name(), ExpandTypeParam.DocOccs);
         parameters.put(TermExpandParams.Text.name(), text);
 
@@ -11,12 +11,17 @@ import com.autonomy.aci.client.services.AciErrorException;
 import com.autonomy.aci.client.services.AciService;
 import com.autonomy.aci.client.services.AciServiceException;
 import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.services.ProcessorException;
 import com.autonomy.aci.client.util.AciParameters;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.frontend.configuration.ServerConfig;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
-import com.hp.autonomy.idolutils.processors.CopyResponseProcessor;
-import com.hp.autonomy.searchcomponents.core.view.ViewServerService;
+import com.hp.autonomy.searchcomponents.core.view.ByteRange;
+import com.hp.autonomy.searchcomponents.core.view.RangedViewServerService;
+import com.hp.autonomy.searchcomponents.core.view.RenderedViewCache;
+import com.hp.autonomy.searchcomponents.core.view.ViewDocumentTooLargeException;
+import com.hp.autonomy.searchcomponents.core.view.ViewStreamer;
+import com.hp.autonomy.searchcomponents.core.view.ViewedRange;
 import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
 import com.hp.autonomy.searchcomponents.idol.view.configuration.ViewCapable;
 import com.hp.autonomy.searchcomponents.idol.view.configuration.ViewConfig;
@@ -31,6 +36,7 @@ import com.hp.autonomy.types.requests.idol.actions.view.ViewActions;
 import com.hp.autonomy.types.requests.idol.actions.view.params.OutputTypeParam;
 import com.hp.autonomy.types.requests.idol.actions.view.params.ViewParams;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.http.client.utils.URIBuilder;
@@ -43,10 +49,11 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
-public class IdolViewServerService implements ViewServerService<String, AciErrorException> {
+public class IdolViewServerService implements RangedViewServerService<String, AciErrorException> {
 
     public static final String AUTN_IDENTIFIER = "AUTN_IDENTIFIER";
     public static final String AUTN_GROUP = "AUTN_GROUP";
@@ -56,13 +63,21 @@ public class IdolViewServerService implements ViewServerService<String, AciError
     private final HavenSearchAciParameterHandler parameterHandler;
     private final Processor<GetContentResponseData> getContentResponseProcessor;
     private final ConfigService<? extends ViewCapable> configService;
+    private final ViewStreamer viewStreamer;
+    private final RenderedViewCache renderedViewCache;
 
-    @Autowired
     public IdolViewServerService(final AciService contentAciService, final AciService viewAciService, final AciResponseJaxbProcessorFactory processorFactory, final HavenSearchAciParameterHandler parameterHandler, final ConfigService<? extends ViewCapable> configService) {
+        this(contentAciService, viewAciService, processorFactory, parameterHandler, configService, new ViewStreamer(), new RenderedViewCache());
+    }
+
+    @Autowired
+    public IdolViewServerService(final AciService contentAciService, final AciService viewAciService, final AciResponseJaxbProcessorFactory processorFactory, final HavenSearchAciParameterHandler parameterHandler, final ConfigService<? extends ViewCapable> configService, final ViewStreamer viewStreamer, final RenderedViewCache renderedViewCache) {
         this.contentAciService = contentAciService;
         this.viewAciService = viewAciService;
         this.parameterHandler = parameterHandler;
         this.configService = configService;
+        this.viewStreamer = viewStreamer;
+        this.renderedViewCache = renderedViewCache;
 
         getContentResponseProcessor = processorFactory.createAciResponseProcessor(GetContentResponseData.class);
     }
@@ -81,7 +96,44 @@ public class IdolViewServerService implements ViewServerService<String, AciError
      */
     @Override
     public void viewDocument(final String documentReference, final String database, final String highlightExpression, final OutputStream outputStream) throws ViewDocumentNotFoundException, ViewNoReferenceFieldException, ReferenceFieldBlankException {
-        final String reference = getReferenceFieldValue(documentReference, database);
+        viewDocument(documentReference, database, highlightExpression, null, outputStream);
+    }
+
+    /**
+     * Provides part of an HTML rendering of the given IDOL document reference. The ViewServer response is streamed to the
+     * output through pooled buffers, and the connection to ViewServer is released as soon as the range has been written.
+     * If the {@link RenderedViewCache} is enabled, complete renderings are cached, keyed on the document version as well
+     * as the view parameters, and repeat views are served from the cache; the GetContent is still made so that document
+     * security is checked on every view.
+     *
+     * @param documentReference The IDOL document reference of the document to view
+     * @param database          The IDOL databases containing the reference (no restriction set on getContent query if this is an empty collection)
+     * @param range             The range of bytes of the rendering to write, or null for all of it
+     * @param outputStream      The ViewServer output
+     * @return The range which was written
+     * @throws ViewDocumentNotFoundException  If the given document reference does not exist in IDOL
+     * @throws ViewNoReferenceFieldException  If the document with the given reference does not have the required reference field
+     * @throws ReferenceFieldBlankException   If the configured reference field name is blank
+     * @throws ViewServerErrorException       If ViewServer returns a status code outside the 200 range
+     * @throws ViewDocumentTooLargeException If the rendering is larger than the configured maximum document size
+     */
+    @Override
+    public ViewedRange viewDocument(final String documentReference, final String database, final String highlightExpression, final ByteRange range, final OutputStream outputStream) throws ViewDocumentNotFoundException, ViewNoReferenceFieldException, ReferenceFieldBlankException {
+        final ViewConfig viewConfig = configService.getConfig().getViewConfig();
+        final List<Hit> documents = getDocuments(documentReference, database, viewConfig);
+        final String reference = getReference(documentReference, viewConfig, viewConfig.getReferenceField(), viewConfig.getViewingMode(), documents);
+
+        final Hit document = documents.get(0);
+        final List<?> cacheKey = Arrays.asList(reference, highlightExpression, viewConfig.getViewingMode(), document.getDatabase(), document.getId(), document.getDate());
+
+        try {
+            final ViewedRange cachedRange = renderedViewCache.write(cacheKey, range, outputStream);
+            if (cachedRange != null) {
+                return cachedRange;
+            }
+        } catch (final IOException e) {
+            throw new ProcessorException("Error writing cached view of document " + documentReference, e);
+        }
 
         final AciParameters viewParameters = new AciParameters(ViewActions.View.name());
         viewParameters.add(ViewParams.NoACI.name(), true);
@@ -102,10 +154,24 @@ public class IdolViewServerService implements ViewServerService<String, AciError
         // this prevents ViewServer from returning the raw file
         viewParameters.add(ViewParams.OutputType.name(), OutputTypeParam.HTML);
         
+        // only complete renderings are cached
+        final RenderedViewCache.Entry cacheEntry = range == null ? renderedViewCache.create(cacheKey) : null;
+
         try {
-            viewAciService.executeAction(viewParameters, new CopyResponseProcessor(outputStream));
+            final OutputStream viewOutputStream = cacheEntry == null ? outputStream : new TeeOutputStream(outputStream, cacheEntry);
+            final ViewedRange viewedRange = viewAciService.executeAction(viewParameters, new RangedCopyResponseProcessor(viewStreamer, viewOutputStream, range));
+
+            if (cacheEntry != null) {
+                cacheEntry.commit();
+            }
+
+            return viewedRange;
         } catch (final AciServiceException e) {
             throw new ViewServerErrorException(documentReference, e);
+        } finally {
+            if (cacheEntry != null) {
+                cacheEntry.close();
+            }
         }
     }
 
@@ -114,8 +180,7 @@ public class IdolViewServerService implements ViewServerService<String, AciError
         throw new NotImplementedException("Viewing static content promotions on premise is not yet possible");
     }
 
-    private String getReferenceFieldValue(final String documentReference, final String database) throws ReferenceFieldBlankException, ViewDocumentNotFoundException, ViewNoReferenceFieldException {
-        final ViewConfig viewConfig = configService.getConfig().getViewConfig();
+    private List<Hit> getDocuments(final String documentReference, final String database, final ViewConfig viewConfig) throws ReferenceFieldBlankException, ViewDocumentNotFoundException {
         final String referenceField = viewConfig.getReferenceField();
 
         final ViewingMode viewingMode = viewConfig.getViewingMode();
@@ -141,7 +206,7 @@ public class IdolViewServerService implements ViewServerService<String, AciError
             throw new ViewDocumentNotFoundException(documentReference);
         }
 
-        return getReference(documentReference, viewConfig, referenceField, viewingMode, documents);
+        return documents;
     }
 
     private String getReference(final String documentReference, final ViewConfig viewConfig, final String referenceField, final ViewingMode viewingMode, final List<Hit> documents) {
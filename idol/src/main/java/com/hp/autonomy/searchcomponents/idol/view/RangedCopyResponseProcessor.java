@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.view;
+
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.services.ProcessorException;
+import com.autonomy.aci.client.transport.AciResponseInputStream;
+import com.hp.autonomy.searchcomponents.core.view.ByteRange;
+import com.hp.autonomy.searchcomponents.core.view.ViewStreamer;
+import com.hp.autonomy.searchcomponents.core.view.ViewedRange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Copies a range of an ACI response to an output stream through a {@link ViewStreamer}, rather than reading the whole
+ * response.
+ */
+class RangedCopyResponseProcessor implements Processor<ViewedRange> {
+    private static final long serialVersionUID = -8243590513744720338L;
+
+    private final transient ViewStreamer viewStreamer;
+    private final transient OutputStream outputStream;
+    private final ByteRange range;
+
+    RangedCopyResponseProcessor(final ViewStreamer viewStreamer, final OutputStream outputStream, final ByteRange range) {
+        this.viewStreamer = viewStreamer;
+        this.outputStream = outputStream;
+        this.range = range;
+    }
+
+    @Override
+    public ViewedRange process(final AciResponseInputStream aciResponse) {
+        try {
+            return viewStreamer.copy(aciResponse, outputStream, range, aciResponse.getContentLength());
+        } catch (final IOException e) {
+            throw new ProcessorException(e);
+        }
+    }
+}
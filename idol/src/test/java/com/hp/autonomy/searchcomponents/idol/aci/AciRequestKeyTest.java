@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.aci;
+
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.util.AciParameters;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+
+public class AciRequestKeyTest {
+    @Test
+    public void parameterOrderAndCaseAreIgnored() {
+        final AciParameters parameters1 = new AciParameters("Query");
+        parameters1.add("Text", "cat");
+        parameters1.add("MaxResults", 10);
+
+        final AciParameters parameters2 = new AciParameters(new AciParameter("MAXRESULTS", 10), new AciParameter("action", "Query"), new AciParameter("text", "cat"));
+
+        assertThat(new AciRequestKey("content", parameters1), is(new AciRequestKey("content", parameters2)));
+    }
+
+    @Test
+    public void securityInfoIsHeldSeparately() {
+        final AciParameters parameters = new AciParameters("Query");
+        parameters.add("SecurityInfo", "abc");
+
+        final AciRequestKey key = new AciRequestKey("content", parameters);
+        assertThat(key.getSecurityInfo(), is("abc"));
+        assertThat(key.getParameter("SECURITYINFO"), is("abc"));
+        assertThat(key.getParameters().containsKey(AciRequestKey.SECURITY_INFO_PARAMETER), is(false));
+    }
+
+    @Test
+    public void keyIsIndependentOfLaterChanges() {
+        final AciParameters parameters = new AciParameters("Query");
+        parameters.add("Text", "cat");
+
+        final AciRequestKey key = new AciRequestKey("content", parameters);
+        parameters.put("Text", "dog");
+
+        assertThat(key, is(not(new AciRequestKey("content", parameters))));
+        assertThat(key.getParameter("text"), is("cat"));
+    }
+}
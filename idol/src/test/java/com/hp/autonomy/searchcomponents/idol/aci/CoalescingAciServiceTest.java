@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.aci;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.types.requests.idol.actions.query.QueryActions;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagActions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CoalescingAciServiceTest {
+    @Mock
+    private AciService aciService;
+
+    @Mock
+    private Processor<Object> processor;
+
+    private final CountDownLatch requestStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseResponse = new CountDownLatch(1);
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private ExecutorService executorService;
+    private CoalescingAciService coalescingAciService;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(2);
+        coalescingAciService = new CoalescingAciService(aciService);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void identicalConcurrentRequestsShareResponse() throws InterruptedException, ExecutionException {
+        final Object response = new Object();
+        mockBlockingResponse(response, null);
+
+        final Future<Object> first = executorService.submit(executeAction(TagActions.GetQueryTagValues.name(), "user1"));
+        requestStarted.await(10, TimeUnit.SECONDS);
+
+        final Future<Object> second = executorService.submit(executeAction(TagActions.GetQueryTagValues.name(), "user1"));
+        waitForWaitingThread();
+        releaseResponse.countDown();
+
+        assertThat(first.get(), is(sameInstance(response)));
+        assertThat(second.get(), is(sameInstance(response)));
+        assertThat(requestCount.get(), is(1));
+        assertThat(coalescingAciService.getInFlightRequestCount(), is(0));
+    }
+
+    @Test
+    public void failureIsSharedWithWaitingCallers() throws InterruptedException {
+        final AciErrorException exception = new AciErrorException("Content is down");
+        mockBlockingResponse(null, exception);
+
+        final Future<Object> first = executorService.submit(executeAction(TagActions.GetTagNames.name(), "user1"));
+        requestStarted.await(10, TimeUnit.SECONDS);
+
+        final Future<Object> second = executorService.submit(executeAction(TagActions.GetTagNames.name(), "user1"));
+        waitForWaitingThread();
+        releaseResponse.countDown();
+
+        for (final Future<Object> future : new Future[]{first, second}) {
+            try {
+                future.get();
+                fail("Exception should have been thrown");
+            } catch (final ExecutionException e) {
+                assertThat(e.getCause(), is(instanceOf(AciErrorException.class)));
+            }
+        }
+
+        assertThat(requestCount.get(), is(1));
+    }
+
+    @Test
+    public void sequentialRequestsAreNotShared() throws Exception {
+        when(aciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(new Object(), new Object());
+
+        executeAction(TagActions.GetQueryTagValues.name(), "user1").call();
+        executeAction(TagActions.GetQueryTagValues.name(), "user1").call();
+
+        verify(aciService, times(2)).executeAction(anySetOf(AciParameter.class), any(Processor.class));
+    }
+
+    @Test
+    public void differentUsersAreNotShared() throws Exception {
+        mockBlockingResponse(new Object(), null);
+
+        final Future<Object> first = executorService.submit(executeAction(TagActions.GetQueryTagValues.name(), "user1"));
+        requestStarted.await(10, TimeUnit.SECONDS);
+
+        // Would block until the first request completes if it were coalesced
+        final Future<Object> second = executorService.submit(executeAction(TagActions.GetQueryTagValues.name(), "user2"));
+        while (requestCount.get() < 2) {
+            Thread.sleep(10);
+        }
+
+        releaseResponse.countDown();
+        first.get();
+        second.get();
+    }
+
+    @Test
+    public void otherActionsAreNotCoalesced() throws Exception {
+        mockBlockingResponse(new Object(), null);
+
+        final Future<Object> first = executorService.submit(executeAction(QueryActions.Query.name(), "user1"));
+        requestStarted.await(10, TimeUnit.SECONDS);
+
+        final Future<Object> second = executorService.submit(executeAction(QueryActions.Query.name(), "user1"));
+        while (requestCount.get() < 2) {
+            Thread.sleep(10);
+        }
+
+        releaseResponse.countDown();
+        first.get();
+        second.get();
+    }
+
+    private void mockBlockingResponse(final Object response, final RuntimeException exception) {
+        when(aciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws InterruptedException {
+                requestCount.incrementAndGet();
+                requestStarted.countDown();
+                releaseResponse.await(10, TimeUnit.SECONDS);
+
+                if (exception != null) {
+                    throw exception;
+                }
+
+                return response;
+            }
+        });
+    }
+
+    private Callable<Object> executeAction(final String action, final String securityInfo) {
+        return new Callable<Object>() {
+            @Override
+            public Object call() {
+                final AciParameters parameters = new AciParameters(action);
+                parameters.add("FieldName", "CATEGORY");
+                parameters.add("SecurityInfo", securityInfo);
+                return coalescingAciService.executeAction(parameters, processor);
+            }
+        };
+    }
+
+    // Gives the second caller time to find the in flight request and start waiting for it
+    private void waitForWaitingThread() throws InterruptedException {
+        Thread.sleep(100);
+    }
+}
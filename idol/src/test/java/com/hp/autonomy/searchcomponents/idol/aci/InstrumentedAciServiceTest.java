@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.aci;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.AciServiceException;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.transport.AciResponseInputStream;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.searchcomponents.core.metrics.InMemorySearchMetricsRegistry;
+import com.hp.autonomy.searchcomponents.core.metrics.MetricKey;
+import com.hp.autonomy.searchcomponents.core.metrics.OperationMetrics;
+import com.hp.autonomy.types.requests.idol.actions.query.QueryActions;
+import com.hp.autonomy.types.requests.idol.actions.query.params.QueryParams;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InstrumentedAciServiceTest {
+    private static final String RESPONSE = "<autnresponse/>";
+
+    @Mock
+    private AciService aciService;
+
+    private InMemorySearchMetricsRegistry metricsRegistry;
+    private InstrumentedAciService instrumentedAciService;
+
+    @Before
+    public void setUp() {
+        metricsRegistry = new InMemorySearchMetricsRegistry();
+        instrumentedAciService = new InstrumentedAciService(aciService, "content", metricsRegistry);
+    }
+
+    @Test
+    public void recordsSuccessfulCalls() {
+        when(aciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                final Processor<?> processor = (Processor<?>) invocation.getArguments()[1];
+                return processor.process(new TestResponseInputStream(RESPONSE));
+            }
+        });
+
+        final AciParameters parameters = new AciParameters(QueryActions.Query.name());
+        parameters.add(QueryParams.DatabaseMatch.name(), "News");
+
+        assertThat(instrumentedAciService.executeAction(parameters, new StringProcessor()), is(RESPONSE));
+        assertThat(instrumentedAciService.executeAction(parameters, new StringProcessor()), is(RESPONSE));
+
+        final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey("content", "query", "News"));
+        assertThat(metrics, notNullValue());
+        assertThat(metrics.getRequestCount(), is(2L));
+        assertThat(metrics.getErrorCount(), is(0L));
+        assertThat(metrics.getResponseBytes(), is(2L * RESPONSE.length()));
+        assertThat(metrics.getLatency().getCount(), is(2L));
+        assertThat(metrics.getParseTime().getCount(), is(2L));
+        assertThat(metrics.getResponseSizes().getMaxBytes(), is((long) RESPONSE.length()));
+    }
+
+    @Test
+    public void tagsCallsToSeveralDatabasesTogether() {
+        when(aciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(null);
+
+        final AciParameters parameters = new AciParameters(QueryActions.Query.name());
+        parameters.add(QueryParams.DatabaseMatch.name(), "News+Sport");
+        instrumentedAciService.executeAction(parameters, new StringProcessor());
+
+        parameters.put(QueryParams.DatabaseMatch.name(), "Sport,Weather");
+        instrumentedAciService.executeAction(parameters, new StringProcessor());
+
+        final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey("content", "query", MetricKey.MULTIPLE_DATABASES));
+        assertThat(metrics.getRequestCount(), is(2L));
+    }
+
+    @Test
+    public void recordsProcessingErrors() {
+        when(aciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                final Processor<?> processor = (Processor<?>) invocation.getArguments()[1];
+                return processor.process(new TestResponseInputStream(RESPONSE));
+            }
+        });
+
+        try {
+            instrumentedAciService.executeAction(new AciParameters(QueryActions.Query.name()), new Processor<Object>() {
+                private static final long serialVersionUID = 2447263384018637395L;
+
+                @Override
+                public Object process(final AciResponseInputStream aciResponse) {
+                    throw new AciErrorException();
+                }
+            });
+
+            fail("Exception should have been thrown");
+        } catch (final AciErrorException ignored) {
+            final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey("content", "query", null));
+            assertThat(metrics.getErrorCount(), is(1L));
+            assertThat(metrics.getParseTime().getCount(), is(1L));
+        }
+    }
+
+    @Test
+    public void recordsTransportErrors() {
+        when(aciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenThrow(new AciServiceException());
+
+        try {
+            instrumentedAciService.executeAction(new AciParameters(QueryActions.Query.name()), new StringProcessor());
+            fail("Exception should have been thrown");
+        } catch (final AciServiceException ignored) {
+            final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey("content", "query", null));
+            assertThat(metrics.getRequestCount(), is(1L));
+            assertThat(metrics.getErrorCount(), is(1L));
+            assertThat(metrics.getLatency().getCount(), is(1L));
+            // No response was received, so neither the parse time nor the size is known
+            assertThat(metrics.getParseTime().getCount(), is(0L));
+            assertThat(metrics.getResponseSizes().getCount(), is(0L));
+        }
+    }
+
+    @Test
+    public void parametersWithoutAction() {
+        when(aciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(null);
+
+        instrumentedAciService.executeAction(new AciParameters(), new StringProcessor());
+
+        final OperationMetrics metrics = metricsRegistry.getMetrics(new MetricKey("content", null, null));
+        assertThat(metrics.getRequestCount(), is(1L));
+        assertThat(metrics.getErrorCount(), is(0L));
+    }
+
+    private static class StringProcessor implements Processor<String> {
+        private static final long serialVersionUID = -1269474524416358702L;
+
+        @Override
+        public String process(final AciResponseInputStream aciResponse) {
+            try {
+                return IOUtils.toString(aciResponse, StandardCharsets.UTF_8);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class TestResponseInputStream extends AciResponseInputStream {
+        private TestResponseInputStream(final String response) {
+            super(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public int getStatusCode() {
+            return 200;
+        }
+
+        @Override
+        public String getHeader(final String name) {
+            return null;
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/xml";
+        }
+    }
+}
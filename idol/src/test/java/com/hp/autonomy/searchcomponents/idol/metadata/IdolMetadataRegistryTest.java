@@ -0,0 +1,207 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.metadata;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.types.idol.Database;
+import com.hp.autonomy.types.idol.Databases;
+import com.hp.autonomy.types.idol.GetStatusResponseData;
+import com.hp.autonomy.types.idol.GetTagNamesResponseData;
+import com.hp.autonomy.types.idol.LanguageSettingsResponseData;
+import com.hp.autonomy.types.idol.LanguageType;
+import com.hp.autonomy.types.idol.LanguageTypeSettings;
+import com.hp.autonomy.types.idol.Languages;
+import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.FieldTypeParam;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdolMetadataRegistryTest {
+    @Mock
+    private AciService contentAciService;
+    @Mock
+    private AciResponseJaxbProcessorFactory aciResponseProcessorFactory;
+    @Mock
+    private Processor<GetStatusResponseData> getStatusProcessor;
+    @Mock
+    private Processor<GetTagNamesResponseData> tagNamesProcessor;
+    @Mock
+    private Processor<LanguageSettingsResponseData> languageSettingsProcessor;
+
+    private IdolMetadataRegistry metadataRegistry;
+
+    @Before
+    public void setUp() {
+        when(aciResponseProcessorFactory.createAciResponseProcessor(GetStatusResponseData.class)).thenReturn(getStatusProcessor);
+        when(aciResponseProcessorFactory.createAciResponseProcessor(GetTagNamesResponseData.class)).thenReturn(tagNamesProcessor);
+        when(aciResponseProcessorFactory.createAciResponseProcessor(LanguageSettingsResponseData.class)).thenReturn(languageSettingsProcessor);
+
+        when(contentAciService.executeAction(any(AciParameters.class), eq(getStatusProcessor))).thenReturn(getStatusResponse());
+        when(contentAciService.executeAction(any(AciParameters.class), eq(tagNamesProcessor))).thenReturn(tagNamesResponse("CATEGORY"));
+        when(contentAciService.executeAction(any(AciParameters.class), eq(languageSettingsProcessor))).thenReturn(languageSettingsResponse());
+
+        metadataRegistry = new IdolMetadataRegistry(contentAciService, aciResponseProcessorFactory, 300);
+    }
+
+    @Test
+    public void doesNotLoadUntilInitialised() {
+        verifyZeroInteractions(contentAciService);
+    }
+
+    @Test
+    public void loadsInBackgroundWhenInitialised() throws InterruptedException {
+        metadataRegistry.afterPropertiesSet();
+
+        try {
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while (metadataRegistry.getMetadata() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+
+            assertThat(metadataRegistry.getMetadata(), is(notNullValue()));
+        } finally {
+            metadataRegistry.destroy();
+        }
+    }
+
+    @Test
+    public void readsBeforeFirstLoadRequestDirectly() {
+        assertThat(metadataRegistry.getDatabases(), hasSize(1));
+        assertThat(metadataRegistry.getDatabases(), hasSize(1));
+
+        assertThat(metadataRegistry.getMetadata(), is(nullValue()));
+        verify(contentAciService, times(2)).executeAction(any(AciParameters.class), eq(getStatusProcessor));
+    }
+
+    @Test
+    public void databasesRefreshIsNotRequestedBeforeInitialisation() {
+        metadataRegistry.requestDatabasesRefresh();
+        verifyZeroInteractions(contentAciService);
+    }
+
+    @Test
+    public void readsSnapshotOnceLoaded() {
+        metadataRegistry.refresh();
+
+        assertThat(metadataRegistry.getDatabases(), hasSize(1));
+        assertThat(metadataRegistry.getDatabases(), hasSize(1));
+        assertThat(metadataRegistry.getFields(FieldTypeParam.Parametric), contains(new TagName("CATEGORY")));
+        assertThat(metadataRegistry.getLanguages(), hasKey("englishUTF8"));
+        assertThat(metadataRegistry.getDefaultLanguageId(), is("englishUTF8"));
+
+        // One GetStatus each for databases and languages, and one GetTagNames per field type
+        verify(contentAciService, times(2)).executeAction(any(AciParameters.class), eq(getStatusProcessor));
+        verify(contentAciService, times(IdolMetadataRegistry.FIELD_TYPES.length)).executeAction(any(AciParameters.class), eq(tagNamesProcessor));
+        verify(contentAciService, times(1)).executeAction(any(AciParameters.class), eq(languageSettingsProcessor));
+    }
+
+    @Test
+    public void refreshReplacesSnapshot() {
+        metadataRegistry.refresh();
+
+        when(contentAciService.executeAction(any(AciParameters.class), eq(tagNamesProcessor))).thenReturn(tagNamesResponse("AUTHOR"));
+        metadataRegistry.refresh();
+
+        assertThat(metadataRegistry.getFields(FieldTypeParam.Parametric), contains(new TagName("AUTHOR")));
+    }
+
+    @Test
+    public void failedRefreshKeepsPreviousValue() {
+        metadataRegistry.refresh();
+
+        when(contentAciService.executeAction(any(AciParameters.class), eq(tagNamesProcessor))).thenThrow(new AciErrorException());
+        metadataRegistry.refresh();
+
+        assertThat(metadataRegistry.getFields(FieldTypeParam.Parametric), contains(new TagName("CATEGORY")));
+        assertThat(metadataRegistry.getDatabases(), hasSize(1));
+    }
+
+    @Test
+    public void refreshDatabasesPublishesNewDatabases() {
+        metadataRegistry.refresh();
+
+        final GetStatusResponseData updatedResponse = getStatusResponse();
+        updatedResponse.getDatabases().getDatabase().add(database("Added", false));
+        when(contentAciService.executeAction(any(AciParameters.class), eq(getStatusProcessor))).thenReturn(updatedResponse);
+
+        assertThat(metadataRegistry.refreshDatabases(), hasSize(2));
+        assertThat(metadataRegistry.getDatabases(), hasSize(2));
+    }
+
+    @Test(expected = AciErrorException.class)
+    public void failedFirstLoadIsThrown() {
+        when(contentAciService.executeAction(any(AciParameters.class), eq(getStatusProcessor))).thenThrow(new AciErrorException());
+        metadataRegistry.getDatabases();
+    }
+
+    private GetStatusResponseData getStatusResponse() {
+        final GetStatusResponseData responseData = new GetStatusResponseData();
+
+        final Databases databases = new Databases();
+        final List<Database> databaseList = databases.getDatabase();
+        databaseList.add(database("Public", false));
+        databaseList.add(database("Internal", true));
+        responseData.setDatabases(databases);
+
+        final LanguageTypeSettings languageTypeSettings = new LanguageTypeSettings();
+        final LanguageType languageType = new LanguageType();
+        languageType.setLanguage("ENGLISH");
+        languageType.setName("englishUTF8");
+        languageType.setEncoding("UTF8");
+        languageTypeSettings.getLanguageType().add(languageType);
+        responseData.setLanguageTypeSettings(languageTypeSettings);
+
+        return responseData;
+    }
+
+    private Database database(final String name, final boolean internal) {
+        final Database database = new Database();
+        database.setName(name);
+        database.setInternal(internal);
+        return database;
+    }
+
+    private GetTagNamesResponseData tagNamesResponse(final String fieldName) {
+        final GetTagNamesResponseData responseData = new GetTagNamesResponseData();
+        final GetTagNamesResponseData.Name name = new GetTagNamesResponseData.Name();
+        name.setValue(fieldName);
+        responseData.getName().add(name);
+        return responseData;
+    }
+
+    private LanguageSettingsResponseData languageSettingsResponse() {
+        final LanguageSettingsResponseData responseData = new LanguageSettingsResponseData();
+        final Languages languages = new Languages();
+        languages.setDefaultLanguageType("englishUTF8");
+        responseData.setLanguages(languages);
+        return responseData;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.parametricvalues;
+
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.DateHistogram;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.DateHistogramParams;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.DateInterval;
+import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
+import com.hp.autonomy.searchcomponents.idol.search.IdolQueryRestrictions;
+import com.hp.autonomy.types.idol.FlatField;
+import com.hp.autonomy.types.idol.GetQueryTagValuesResponseData;
+import com.hp.autonomy.types.idol.TagValue;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.GetQueryTagValuesParams;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.namespace.QName;
+import java.io.Serializable;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdolDateHistogramServiceTest {
+    @Mock
+    private HavenSearchAciParameterHandler parameterHandler;
+
+    @Mock
+    private AciService contentAciService;
+
+    @Mock
+    private AciResponseJaxbProcessorFactory aciResponseProcessorFactory;
+
+    private IdolDateHistogramService dateHistogramService;
+
+    @Before
+    public void setUp() {
+        dateHistogramService = new IdolDateHistogramService(parameterHandler, contentAciService, aciResponseProcessorFactory);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void getDateHistogram() {
+        final DateTime january = new DateTime(2016, 1, 1, 0, 0, DateTimeZone.UTC);
+        final DateTime february = new DateTime(2016, 2, 1, 0, 0, DateTimeZone.UTC);
+        final DateTime march = new DateTime(2016, 3, 1, 0, 0, DateTimeZone.UTC);
+
+        final GetQueryTagValuesResponseData responseData = new GetQueryTagValuesResponseData();
+        final FlatField field = new FlatField();
+        field.getName().add("AUTN_DATE");
+        field.getValueAndSubvalueOrValues().add(createValueElement(february.getMillis() / 1000 + "," + march.getMillis() / 1000, 4));
+        responseData.getField().add(field);
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(responseData);
+
+        final IdolParametricRequest parametricRequest = new IdolParametricRequest.Builder()
+                .setQueryRestrictions(new IdolQueryRestrictions.Builder().setQueryText("*").build())
+                .build();
+        final DateHistogram histogram = dateHistogramService.getDateHistogram(parametricRequest, new DateHistogramParams(january, march, 0, DateInterval.MONTH, null));
+
+        assertEquals(2, histogram.getBuckets().size());
+        assertEquals(new DateHistogram.Bucket(january, february, 0), histogram.getBuckets().get(0));
+        assertEquals(new DateHistogram.Bucket(february, march, 4), histogram.getBuckets().get(1));
+
+        final ArgumentCaptor<AciParameters> captor = ArgumentCaptor.forClass(AciParameters.class);
+        verify(contentAciService).executeAction(captor.capture(), any(Processor.class));
+        assertEquals("autn_date", captor.getValue().get(GetQueryTagValuesParams.FieldName.name()));
+    }
+
+    private JAXBElement<Serializable> createValueElement(final String value, final int count) {
+        final TagValue tagValue = new TagValue();
+        tagValue.setValue(value);
+        tagValue.setCount(count);
+        return new JAXBElement<Serializable>(new QName("", IdolParametricValuesService.VALUE_NODE_NAME), Serializable.class, tagValue);
+    }
+}
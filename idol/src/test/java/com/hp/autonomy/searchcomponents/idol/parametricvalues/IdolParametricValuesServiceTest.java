@@ -9,8 +9,11 @@ import com.autonomy.aci.client.services.AciErrorException;
 import com.autonomy.aci.client.services.AciService;
 import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.transport.AciParameter;
+import com.autonomy.aci.client.util.AciParameters;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
 import com.hp.autonomy.searchcomponents.core.fields.FieldsService;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.AdaptiveBucketSizeEvaluatorFactoryImpl;
 import com.hp.autonomy.searchcomponents.core.parametricvalues.BucketingParams;
@@ -24,33 +27,44 @@ import com.hp.autonomy.types.idol.GetTagNamesResponseData;
 import com.hp.autonomy.types.idol.RecursiveField;
 import com.hp.autonomy.types.idol.TagValue;
 import com.hp.autonomy.types.idol.Values;
+import com.hp.autonomy.types.requests.idol.actions.query.params.QueryParams;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagCountInfo;
 import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
 import com.hp.autonomy.types.requests.idol.actions.tags.RangeInfo;
 import com.hp.autonomy.types.requests.idol.actions.tags.TagName;
 import com.hp.autonomy.types.requests.idol.actions.tags.params.FieldTypeParam;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.GetQueryTagValuesParams;
 import com.hp.autonomy.types.requests.idol.actions.tags.params.SortParam;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.mockito.stubbing.OngoingStubbing;
 
 import javax.xml.bind.JAXBElement;
 import javax.xml.namespace.QName;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.when;
 
@@ -113,6 +127,89 @@ public class IdolParametricValuesServiceTest {
         assertThat(results, is(empty()));
     }
 
+    @Test
+    public void getAllParametricValuesSplitByDatabase() {
+        parametricValuesService = new IdolParametricValuesService(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, new AdaptiveBucketSizeEvaluatorFactoryImpl(), SearchExecutors.directExecutor(), 1);
+
+        final List<String> requestedDatabases = new ArrayList<>();
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new Answer<GetQueryTagValuesResponseData>() {
+            @Override
+            public GetQueryTagValuesResponseData answer(final InvocationOnMock invocation) {
+                final AciParameters aciParameters = (AciParameters) invocation.getArguments()[0];
+                final String database = aciParameters.get(QueryParams.DatabaseMatch.name());
+                requestedDatabases.add(database);
+
+                return "A".equals(database)
+                        ? mockValuesResponse(mockTagValue("cats", 2), mockTagValue("dogs", 1))
+                        : mockValuesResponse(mockTagValue("cats", 1), mockTagValue("mice", 5));
+            }
+        });
+
+        final Set<QueryTagInfo> results = parametricValuesService.getAllParametricValues(mockRequest(Collections.singletonList("CATEGORY"), Arrays.asList("B", "A"), 2));
+        assertThat(results, hasSize(1));
+        assertEquals(Arrays.asList(new QueryTagCountInfo("mice", 5), new QueryTagCountInfo("cats", 3)), new ArrayList<>(results.iterator().next().getValues()));
+        assertEquals(Arrays.asList("A", "B"), requestedDatabases);
+
+        // only the newly selected database is requested
+        parametricValuesService.getAllParametricValues(mockRequest(Collections.singletonList("CATEGORY"), Arrays.asList("B", "C"), 2));
+        assertEquals(Arrays.asList("A", "B", "C"), requestedDatabases);
+    }
+
+    @Test
+    public void getAllParametricValuesSplitByDatabaseWithoutPartitionCache() {
+        parametricValuesService = new IdolParametricValuesService(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, new AdaptiveBucketSizeEvaluatorFactoryImpl(), SearchExecutors.directExecutor(), 1, 0, 0, 0);
+
+        final List<String> requestedDatabases = new ArrayList<>();
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new Answer<GetQueryTagValuesResponseData>() {
+            @Override
+            public GetQueryTagValuesResponseData answer(final InvocationOnMock invocation) {
+                final AciParameters aciParameters = (AciParameters) invocation.getArguments()[0];
+                requestedDatabases.add(aciParameters.get(QueryParams.DatabaseMatch.name()));
+                return mockValuesResponse(mockTagValue("cats", 1));
+            }
+        });
+
+        parametricValuesService.getAllParametricValues(mockRequest(Collections.singletonList("CATEGORY"), Arrays.asList("A", "B"), 2));
+        parametricValuesService.getAllParametricValues(mockRequest(Collections.singletonList("CATEGORY"), Arrays.asList("B", "C"), 2));
+        assertEquals(Arrays.asList("A", "B", "B", "C"), requestedDatabases);
+    }
+
+    @Test
+    public void getAllParametricValuesInChunks() {
+        parametricValuesService = new IdolParametricValuesService(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, new AdaptiveBucketSizeEvaluatorFactoryImpl(), SearchExecutors.directExecutor(), 0, 2);
+
+        final List<String> requestedFieldNames = new ArrayList<>();
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new Answer<GetQueryTagValuesResponseData>() {
+            @Override
+            public GetQueryTagValuesResponseData answer(final InvocationOnMock invocation) {
+                final AciParameters aciParameters = (AciParameters) invocation.getArguments()[0];
+                final String fieldNames = aciParameters.get(GetQueryTagValuesParams.FieldName.name());
+                requestedFieldNames.add(fieldNames);
+
+                final GetQueryTagValuesResponseData responseData = new GetQueryTagValuesResponseData();
+                for (final String fieldName : fieldNames.split(",")) {
+                    final FlatField field = new FlatField();
+                    field.getName().add(fieldName);
+                    field.getValueAndSubvalueOrValues().add(new JAXBElement<Serializable>(new QName("", IdolParametricValuesService.VALUE_NODE_NAME), Serializable.class, mockTagValue("value", 1)));
+                    responseData.getField().add(field);
+                }
+                return responseData;
+            }
+        });
+
+        final List<String> streamedFieldNames = new ArrayList<>();
+        final Set<QueryTagInfo> results = parametricValuesService.getAllParametricValues(mockRequest(Arrays.asList("A", "B", "C")), new ParametricValuesListener() {
+            @Override
+            public void onFieldValues(final QueryTagInfo field) {
+                streamedFieldNames.add(field.getId());
+            }
+        });
+
+        assertThat(results, hasSize(3));
+        assertEquals(Arrays.asList("A,B", "C"), requestedFieldNames);
+        assertEquals(Arrays.asList("A", "B", "C"), streamedFieldNames);
+    }
+
     @Test
     public void getNumericParametricValuesInBuckets() {
         final IdolParametricRequest idolParametricRequest = mockRequest(Collections.singletonList("ParametricNumericDateField"));
@@ -170,6 +267,72 @@ public class IdolParametricValuesServiceTest {
         assertEquals(new RangeInfo.Value(0, 5, 6), iterator.next());
     }
 
+    @Test
+    public void getNumericParametricValuesInBucketsKnownAndUnknownBounds() {
+        final IdolParametricRequest idolParametricRequest = mockRequest(Arrays.asList("PRICE", "WORD_COUNT"));
+        mockFieldResponses();
+
+        final List<RangeInfo> results = parametricValuesService.getNumericParametricValuesInBuckets(idolParametricRequest, ImmutableMap.of(
+                "PRICE", new BucketingParams(5, 0.0, 10.0),
+                "WORD_COUNT", new BucketingParams(5)
+        ));
+
+        assertThat(results, hasSize(2));
+
+        final RangeInfo priceInfo = results.get(0);
+        assertEquals("PRICE", priceInfo.getId());
+        assertEquals(3, priceInfo.getCount());
+        assertEquals(0, priceInfo.getMin(), 0);
+        assertEquals(new RangeInfo.Value(3, 0, 3), priceInfo.getValues().get(0));
+
+        final RangeInfo wordCountInfo = results.get(1);
+        assertEquals("WORD_COUNT", wordCountInfo.getId());
+        assertEquals(4, wordCountInfo.getCount());
+        assertEquals(100, wordCountInfo.getMin(), 0);
+        assertEquals(new RangeInfo.Value(4, 100, 121), wordCountInfo.getValues().get(0));
+    }
+
+    @Test
+    public void knownBoundsDoNotWaitForBoundsLookup() {
+        final ListeningExecutorService executorService = SearchExecutors.boundedExecutor(2, "parametric-test-%d");
+
+        try {
+            parametricValuesService = new IdolParametricValuesService(parameterHandler, fieldsService, contentAciService, aciResponseProcessorFactory, new AdaptiveBucketSizeEvaluatorFactoryImpl(), executorService);
+
+            final IdolParametricRequest idolParametricRequest = mockRequest(Arrays.asList("PRICE", "WORD_COUNT"));
+            final CountDownLatch boundsRequested = new CountDownLatch(1);
+            final CountDownLatch priceRequested = new CountDownLatch(1);
+            final FieldResponseAnswer answer = new FieldResponseAnswer();
+
+            when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new Answer<GetQueryTagValuesResponseData>() {
+                @Override
+                public GetQueryTagValuesResponseData answer(final InvocationOnMock invocation) throws Throwable {
+                    final AciParameters aciParameters = (AciParameters) invocation.getArguments()[0];
+
+                    // Each request waits for the other, so this only completes if they are sent concurrently
+                    if ("PRICE".equals(aciParameters.get(GetQueryTagValuesParams.FieldName.name()))) {
+                        priceRequested.countDown();
+                        assertTrue(boundsRequested.await(10, TimeUnit.SECONDS));
+                    } else if (aciParameters.get(GetQueryTagValuesParams.Ranges.name()) == null) {
+                        boundsRequested.countDown();
+                        assertTrue(priceRequested.await(10, TimeUnit.SECONDS));
+                    }
+
+                    return answer.answer(invocation);
+                }
+            });
+
+            final List<RangeInfo> results = parametricValuesService.getNumericParametricValuesInBuckets(idolParametricRequest, ImmutableMap.of(
+                    "PRICE", new BucketingParams(5, 0.0, 10.0),
+                    "WORD_COUNT", new BucketingParams(5)
+            ));
+
+            assertThat(results, hasSize(2));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     public void getNumericParametricValuesZeroBucketsDesired() {
         final IdolParametricRequest idolParametricRequest = mockRequest(Collections.singletonList("ParametricNumericDateField"));
@@ -220,11 +383,15 @@ public class IdolParametricValuesServiceTest {
     }
 
     private IdolParametricRequest mockRequest(final List<String> fieldNames) {
-        final QueryRestrictions<String> queryRestrictions = new IdolQueryRestrictions.Builder().setQueryText("*").setFieldText("").setDatabases(Collections.<String>emptyList()).build();
+        return mockRequest(fieldNames, Collections.<String>emptyList(), 30);
+    }
+
+    private IdolParametricRequest mockRequest(final List<String> fieldNames, final List<String> databases, final int maxValues) {
+        final QueryRestrictions<String> queryRestrictions = new IdolQueryRestrictions.Builder().setQueryText("*").setFieldText("").setDatabases(databases).build();
         return new IdolParametricRequest.Builder()
                 .setFieldNames(fieldNames)
                 .setQueryRestrictions(queryRestrictions)
-                .setMaxValues(30)
+                .setMaxValues(maxValues)
                 .setSort(SortParam.DocumentCount)
                 .setModified(true)
                 .build();
@@ -289,6 +456,21 @@ public class IdolParametricValuesServiceTest {
         when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(responseData);
     }
 
+    private void mockFieldResponses() {
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenAnswer(new FieldResponseAnswer());
+    }
+
+    private GetQueryTagValuesResponseData mockValuesResponse(final TagValue... tagValues) {
+        final GetQueryTagValuesResponseData responseData = new GetQueryTagValuesResponseData();
+        final FlatField field = new FlatField();
+        field.getName().add("CATEGORY");
+        for (final TagValue tagValue : tagValues) {
+            field.getValueAndSubvalueOrValues().add(new JAXBElement<Serializable>(new QName("", IdolParametricValuesService.VALUE_NODE_NAME), Serializable.class, tagValue));
+        }
+        responseData.getField().add(field);
+        return responseData;
+    }
+
     private TagValue mockTagValue(final String value, final int count) {
         final TagValue tagValue = new TagValue();
         tagValue.setValue(value);
@@ -307,4 +489,49 @@ public class IdolParametricValuesServiceTest {
 
         return responseData;
     }
+
+    /**
+     * Responds to bounds and range requests for the PRICE and WORD_COUNT fields, according to the request parameters.
+     */
+    private static class FieldResponseAnswer implements Answer<GetQueryTagValuesResponseData> {
+        @Override
+        public GetQueryTagValuesResponseData answer(final InvocationOnMock invocation) {
+            final AciParameters aciParameters = (AciParameters) invocation.getArguments()[0];
+            final String fieldNames = aciParameters.get(GetQueryTagValuesParams.FieldName.name());
+            final boolean ranges = aciParameters.get(GetQueryTagValuesParams.Ranges.name()) != null;
+
+            final GetQueryTagValuesResponseData responseData = new GetQueryTagValuesResponseData();
+
+            for (final String fieldName : fieldNames.split(",")) {
+                final FlatField field = new FlatField();
+                field.getName().add(fieldName);
+
+                if (!ranges) {
+                    field.getValueAndSubvalueOrValues().add(createElement(IdolParametricValuesService.VALUE_MIN_NODE_NAME, 100f));
+                    field.getValueAndSubvalueOrValues().add(createElement(IdolParametricValuesService.VALUE_MAX_NODE_NAME, 200f));
+                } else if ("PRICE".equals(fieldName)) {
+                    field.getValueAndSubvalueOrValues().add(createElement(IdolParametricValuesService.VALUES_NODE_NAME, 3));
+                    field.getValueAndSubvalueOrValues().add(createElement(IdolParametricValuesService.VALUE_NODE_NAME, createTagValue("0,3", 3)));
+                } else {
+                    field.getValueAndSubvalueOrValues().add(createElement(IdolParametricValuesService.VALUES_NODE_NAME, 4));
+                    field.getValueAndSubvalueOrValues().add(createElement(IdolParametricValuesService.VALUE_NODE_NAME, createTagValue("100,121", 4)));
+                }
+
+                responseData.getField().add(field);
+            }
+
+            return responseData;
+        }
+
+        private JAXBElement<Serializable> createElement(final String name, final Serializable value) {
+            return new JAXBElement<>(new QName("", name), Serializable.class, value);
+        }
+
+        private TagValue createTagValue(final String value, final int count) {
+            final TagValue tagValue = new TagValue();
+            tagValue.setValue(value);
+            tagValue.setCount(count);
+            return tagValue;
+        }
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.parametricvalues;
+
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagCountInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.QueryTagInfo;
+import com.hp.autonomy.types.requests.idol.actions.tags.params.SortParam;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class QueryTagValuesMergerTest {
+    @Test
+    public void sumsCountsAndKeepsTopValues() {
+        final QueryTagValuesMerger merger = new QueryTagValuesMerger(SortParam.DocumentCount, 2);
+        merger.add("CATEGORY", "cats", 5);
+        merger.add("CATEGORY", "dogs", 4);
+        merger.add("CATEGORY", "mice", 3);
+        merger.add("CATEGORY", "mice", 3);
+        merger.add("CATEGORY", "dogs", 1);
+
+        assertThat(getValues(merger.getResults()), is(Arrays.asList(new QueryTagCountInfo("mice", 6), new QueryTagCountInfo("cats", 5))));
+    }
+
+    @Test
+    public void sortsAlphabetically() {
+        final QueryTagValuesMerger merger = new QueryTagValuesMerger(SortParam.Alphabetical, 2);
+        merger.add("CATEGORY", "mice", 3);
+        merger.add("CATEGORY", "Dogs", 4);
+        merger.add("CATEGORY", "cats", 5);
+
+        assertThat(getValues(merger.getResults()), is(Arrays.asList(new QueryTagCountInfo("cats", 5), new QueryTagCountInfo("Dogs", 4))));
+    }
+
+    @Test
+    public void sortsNumerically() {
+        final QueryTagValuesMerger merger = new QueryTagValuesMerger(SortParam.NumberDecreasing, null);
+        merger.add("PRICE", "9", 1);
+        merger.add("PRICE", "10", 1);
+        merger.add("PRICE", "2.5", 1);
+
+        assertThat(getValues(merger.getResults()), is(Arrays.asList(new QueryTagCountInfo("10", 1), new QueryTagCountInfo("9", 1), new QueryTagCountInfo("2.5", 1))));
+    }
+
+    @Test
+    public void keepsFieldsSeparate() {
+        final QueryTagValuesMerger merger = new QueryTagValuesMerger(SortParam.DocumentCount, 10);
+        merger.add("CATEGORY", "cats", 5);
+        merger.add("AUTHOR", "cats", 2);
+
+        final Set<QueryTagInfo> results = merger.getResults();
+        assertThat(results.size(), is(2));
+        assertThat(results.iterator().next().getValues().iterator().next().getCount(), is(5));
+    }
+
+    @Test
+    public void dateSortsAreNotMergeable() {
+        assertThat(QueryTagValuesMerger.isMergeable(SortParam.DocumentCount), is(true));
+        assertThat(QueryTagValuesMerger.isMergeable(SortParam.Date), is(false));
+        assertThat(QueryTagValuesMerger.isMergeable(SortParam.Off), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDateSort() {
+        new QueryTagValuesMerger(SortParam.ReverseDate, 10);
+    }
+
+    private List<QueryTagCountInfo> getValues(final Set<QueryTagInfo> results) {
+        return new ArrayList<>(results.iterator().next().getValues());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldType;
+import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
+import com.hp.autonomy.searchcomponents.core.search.PromotionCategory;
+import com.hp.autonomy.searchcomponents.idol.search.fields.DocumentFieldsCollector;
+import com.hp.autonomy.searchcomponents.idol.search.fields.FieldMappings;
+import com.hp.autonomy.searchcomponents.idol.search.fields.DocumentFieldsCollectorFactory;
+import com.hp.autonomy.test.xml.XmlTestUtils;
+import com.hp.autonomy.types.requests.Documents;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DocumentsProcessorTest {
+    @Mock
+    private DocumentFieldsCollectorFactory documentFieldsCollectorFactory;
+
+    private DocumentsProcessor processor;
+
+    @Before
+    public void setUp() {
+        final FieldsInfo fieldsInfo = new FieldsInfo.Builder()
+                .populateResponseMap("Custom Date", new FieldInfo<DateTime>("Custom Date", Collections.singletonList("CUSTOM_DATE"), FieldType.DATE))
+                .populateResponseMap("author", new FieldInfo<String>("author", Collections.singletonList("CUSTOM_ARRAY"), FieldType.STRING))
+                .build();
+
+        when(documentFieldsCollectorFactory.createDocumentFieldsCollector()).thenAnswer(new Answer<DocumentFieldsCollector>() {
+            @Override
+            public DocumentFieldsCollector answer(final InvocationOnMock invocation) {
+                return new DocumentFieldsCollector(new FieldMappings(fieldsInfo));
+            }
+        });
+
+        processor = new DocumentsProcessor(documentFieldsCollectorFactory);
+    }
+
+    @Test
+    public void processesXml() throws XMLStreamException {
+        final Documents<IdolSearchResult> documents = processor.process(XmlTestUtils.getResourceAsXMLStreamReader("/query-response.xml"));
+
+        assertThat(documents.getTotalResults(), is(57));
+        assertThat(documents.getDocuments(), hasSize(2));
+
+        final IdolSearchResult result = documents.getDocuments().get(0);
+        assertThat(result.getReference(), is("http://example.com/cats"));
+        assertThat(result.getIndex(), is("Wookiepedia"));
+        assertThat(result.getTitle(), is("Cats"));
+        assertThat(result.getSummary(), is("Cats are small animals"));
+        assertThat(result.getWeight(), is(88.26));
+        assertThat(result.getDate(), is(new DateTime(1454499720000L)));
+        assertThat(result.getQmsId(), is("123"));
+        assertThat(result.getPromotionCategory(), is(PromotionCategory.NONE));
+
+        final Map<String, FieldInfo<?>> fieldMap = result.getFieldMap();
+        assertThat((DateTime) fieldMap.get("Custom Date").getValues().get(0), is(new DateTime(1454499720000L)));
+        assertThat(fieldMap.get("author").getValues(), contains((Object) "a", "b"));
+        assertThat(fieldMap.get("CHILD").getValues().get(0), is((Object) "c & d"));
+        assertThat(fieldMap.get("DREREFERENCE").getValues().get(0), is((Object) "http://example.com/cats"));
+
+        final IdolSearchResult promotion = documents.getDocuments().get(1);
+        assertThat(promotion.getTitle(), is("promotion"));
+        assertThat(promotion.getIndex(), is(nullValue()));
+        assertThat(promotion.getPromotionName(), is("Cat promotion"));
+        assertThat(promotion.getPromotionCategory(), is(PromotionCategory.CARDINAL_PLACEMENT));
+    }
+}
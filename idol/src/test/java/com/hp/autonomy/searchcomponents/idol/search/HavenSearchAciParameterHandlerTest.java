@@ -35,6 +35,8 @@ import static org.hamcrest.Matchers.*;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -71,6 +73,59 @@ public class HavenSearchAciParameterHandlerTest {
         assertThat(aciParameters, is(not(empty())));
     }
 
+    @Test
+    public void addSearchRestrictionsFormatsDates() {
+        final AciParameters aciParameters = new AciParameters();
+        final QueryRestrictions<String> queryRestrictions = new IdolQueryRestrictions.Builder()
+                .setMinDate(new DateTime(2016, 2, 3, 4, 5, 6))
+                .setMaxDate(new DateTime(2016, 12, 13, 14, 15, 16))
+                .build();
+        parameterHandler.addSearchRestrictions(aciParameters, queryRestrictions);
+        assertThat(aciParameters.get(QueryParams.MinDate.name()), is("04:05:06 03/02/2016"));
+        assertThat(aciParameters.get(QueryParams.MaxDate.name()), is("14:15:16 13/12/2016"));
+    }
+
+    @Test
+    public void addSearchOutputParametersEscapesSecurityInfo() {
+        when(authenticationInformationRetriever.getPrincipal()).thenReturn(new CommunityPrincipal(1L, "user", "a b#c"));
+
+        final AciSearchRequest<String> searchRequest = new SearchRequest.Builder<String>().build();
+        final AciParameters first = new AciParameters();
+        parameterHandler.addSearchOutputParameters(first, searchRequest);
+        final AciParameters second = new AciParameters();
+        parameterHandler.addSearchOutputParameters(second, searchRequest);
+
+        assertThat(first.get(QueryParams.SecurityInfo.name()), is("a%20b%23c"));
+        assertThat(second.get(QueryParams.SecurityInfo.name()), is("a%20b%23c"));
+        verify(authenticationInformationRetriever, times(2)).getPrincipal();
+    }
+
+    @Test
+    public void preparedRestrictionsAreCopiedForEachRequest() {
+        final QueryRestrictions<String> queryRestrictions = new IdolQueryRestrictions.Builder()
+                .setQueryText("cat")
+                .setDatabases(Collections.singletonList("Database1"))
+                .build();
+
+        final AciParameters restrictionParameters = new AciParameters();
+        parameterHandler.addSearchRestrictions(restrictionParameters, queryRestrictions);
+        final PreparedRestrictions preparedRestrictions = new PreparedRestrictions(parameterHandler, queryRestrictions);
+
+        final AciParameters first = new AciParameters();
+        preparedRestrictions.addTo(first);
+        final AciParameters second = new AciParameters();
+        preparedRestrictions.addTo(second);
+
+        assertThat(first, is(restrictionParameters));
+
+        for (final AciParameter parameter : first) {
+            parameter.setValue("changed");
+        }
+
+        assertThat(second.get(QueryParams.Text.name()), is("cat"));
+        assertThat(second.get(QueryParams.DatabaseMatch.name()), is("Database1"));
+    }
+
     @Test
     public void addSearchOutputParameters() {
         final AciParameters aciParameters = new AciParameters();
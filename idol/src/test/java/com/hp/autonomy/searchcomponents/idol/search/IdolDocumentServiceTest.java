@@ -5,12 +5,14 @@
 
 package com.hp.autonomy.searchcomponents.idol.search;
 
+import com.autonomy.aci.client.services.AciErrorException;
 import com.autonomy.aci.client.services.AciService;
 import com.autonomy.aci.client.services.Processor;
 import com.autonomy.aci.client.transport.AciParameter;
 import com.autonomy.aci.client.util.AciParameters;
 import com.hp.autonomy.frontend.configuration.ConfigService;
 import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.concurrent.SearchExecutors;
 import com.hp.autonomy.searchcomponents.core.search.AciSearchRequest;
 import com.hp.autonomy.searchcomponents.core.search.GetContentRequest;
 import com.hp.autonomy.searchcomponents.core.search.GetContentRequestIndex;
@@ -20,11 +22,10 @@ import com.hp.autonomy.searchcomponents.core.search.StateTokenAndResultCount;
 import com.hp.autonomy.searchcomponents.core.search.SuggestRequest;
 import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
 import com.hp.autonomy.searchcomponents.idol.configuration.QueryManipulation;
-import com.hp.autonomy.types.idol.Hit;
 import com.hp.autonomy.types.idol.QueryResponseData;
-import com.hp.autonomy.types.idol.SuggestResponseData;
 import com.hp.autonomy.types.requests.Documents;
 import com.hp.autonomy.types.requests.idol.actions.query.params.PrintParam;
+import com.hp.autonomy.types.requests.idol.actions.query.params.QueryParams;
 import com.hp.autonomy.types.requests.idol.actions.query.params.SummaryParam;
 import org.joda.time.DateTime;
 import org.junit.Before;
@@ -32,15 +33,23 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,7 +66,7 @@ public class IdolDocumentServiceTest {
     protected IdolSearchCapable havenSearchConfig;
 
     @Mock
-    protected QueryResponseParser queryResponseParser;
+    protected StreamingQueryResponseParser queryResponseParser;
 
     @Mock
     protected ConfigService<IdolSearchCapable> configService;
@@ -71,33 +80,51 @@ public class IdolDocumentServiceTest {
     @Mock
     protected AciResponseJaxbProcessorFactory aciResponseProcessorFactory;
 
+    @Mock
+    protected Processor<IdolQueryResponse> queryResponseProcessor;
+
+    @Mock
+    protected Processor<Documents<IdolSearchResult>> documentsProcessor;
+
     protected IdolDocumentService idolDocumentService;
 
     @Before
     public void setUp() {
         when(havenSearchConfig.getQueryManipulation()).thenReturn(new QueryManipulation.Builder().build());
         when(configService.getConfig()).thenReturn(havenSearchConfig);
+        when(queryResponseParser.getQueryResponseProcessor()).thenReturn(queryResponseProcessor);
+        when(queryResponseParser.getDocumentsProcessor()).thenReturn(documentsProcessor);
 
         idolDocumentService = new IdolDocumentService(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory);
     }
 
     @Test
     public void queryContent() {
+        final IdolQueryResponse response = mockQueryResponse();
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(queryResponseProcessor))).thenReturn(response);
+
+        idolDocumentService.queryTextIndex(mockQueryParams());
+        verify(queryResponseParser).parseQueryResponse(Matchers.<AciSearchRequest<String>>any(), any(AciParameters.class), eq(response), any(IdolDocumentService.QueryResponseExecutor.class));
+    }
+
+    @Test
+    public void queryContentWithNonStreamingParser() {
+        final QueryResponseParser nonStreamingParser = mock(QueryResponseParser.class);
         final QueryResponseData responseData = new QueryResponseData();
         when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(responseData);
 
-        idolDocumentService.queryTextIndex(mockQueryParams());
-        verify(queryResponseParser).parseQueryResults(Matchers.<AciSearchRequest<String>>any(), any(AciParameters.class), eq(responseData), any(IdolDocumentService.QueryExecutor.class));
+        new IdolDocumentService(configService, parameterHandler, nonStreamingParser, contentAciService, qmsAciService, aciResponseProcessorFactory).queryTextIndex(mockQueryParams());
+        verify(nonStreamingParser).parseQueryResults(Matchers.<AciSearchRequest<String>>any(), any(AciParameters.class), eq(responseData), any(IdolDocumentService.QueryExecutor.class));
     }
 
     @Test
     public void queryQms() {
         when(havenSearchConfig.getQueryManipulation()).thenReturn(new QueryManipulation.Builder().setEnabled(true).build());
-        final QueryResponseData responseData = new QueryResponseData();
-        when(qmsAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(responseData);
+        final IdolQueryResponse response = mockQueryResponse();
+        when(qmsAciService.executeAction(anySetOf(AciParameter.class), eq(queryResponseProcessor))).thenReturn(response);
 
         idolDocumentService.queryTextIndex(mockQueryParams());
-        verify(queryResponseParser).parseQueryResults(Matchers.<AciSearchRequest<String>>any(), any(AciParameters.class), eq(responseData), any(IdolDocumentService.QueryExecutor.class));
+        verify(queryResponseParser).parseQueryResponse(Matchers.<AciSearchRequest<String>>any(), any(AciParameters.class), eq(response), any(IdolDocumentService.QueryResponseExecutor.class));
     }
 
     @Test
@@ -109,21 +136,17 @@ public class IdolDocumentServiceTest {
     @Test
     public void queryQmsForPromotions() {
         when(havenSearchConfig.getQueryManipulation()).thenReturn(new QueryManipulation.Builder().setEnabled(true).build());
-        final QueryResponseData responseData = new QueryResponseData();
-        when(qmsAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(responseData);
+        final IdolQueryResponse response = mockQueryResponse();
+        when(qmsAciService.executeAction(anySetOf(AciParameter.class), eq(queryResponseProcessor))).thenReturn(response);
 
         idolDocumentService.queryTextIndexForPromotions(mockQueryParams());
-        verify(queryResponseParser).parseQueryResults(Matchers.<AciSearchRequest<String>>any(), any(AciParameters.class), eq(responseData), any(IdolDocumentService.QueryExecutor.class));
+        verify(queryResponseParser).parseQueryResponse(Matchers.<AciSearchRequest<String>>any(), any(AciParameters.class), eq(response), any(IdolDocumentService.QueryResponseExecutor.class));
     }
 
     @Test
     public void findSimilar() {
-        final SuggestResponseData responseData = new SuggestResponseData();
-        responseData.setTotalhits(1);
-        final Hit hit = new Hit();
-        responseData.getHits().add(hit);
-
-        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(responseData);
+        final Documents<IdolSearchResult> documents = mockDocuments("Some reference");
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(documentsProcessor))).thenReturn(documents);
 
         final IdolQueryRestrictions queryRestrictions = new IdolQueryRestrictions.Builder().build();
         final SuggestRequest<String> suggestRequest = new SuggestRequest.Builder<String>()
@@ -137,27 +160,53 @@ public class IdolDocumentServiceTest {
                 .setHighlight(true)
                 .setPrint(PrintParam.Fields.name())
                 .build();
-        idolDocumentService.findSimilar(suggestRequest);
-        verify(queryResponseParser).parseQueryHits(responseData.getHits());
+        assertThat(idolDocumentService.findSimilar(suggestRequest), is(documents));
     }
 
     @Test
     public void getContent() {
-        final QueryResponseData responseData = new QueryResponseData();
-        responseData.setTotalhits(1);
-        final Hit hit = new Hit();
-        responseData.getHits().add(hit);
-
-        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(responseData);
+        final Documents<IdolSearchResult> documents = mockDocuments("Some reference");
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(documentsProcessor))).thenReturn(documents);
 
         final GetContentRequest<String> getContentRequest = new GetContentRequest<>(Collections.singleton(new GetContentRequestIndex<>("Database1", Collections.singleton("Some reference"))), PrintParam.Fields.name());
-        idolDocumentService.getDocumentContent(getContentRequest);
-        verify(queryResponseParser).parseQueryHits(responseData.getHits());
+        assertThat(idolDocumentService.getDocumentContent(getContentRequest), is(documents.getDocuments()));
+    }
+
+    @Test
+    public void getContentFromMultipleIndexes() {
+        mockGetContentByDatabase(null);
+
+        final List<IdolSearchResult> results = new IdolDocumentService(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory, SearchExecutors.boundedExecutor(2, "test-%d"))
+                .getDocumentContent(mockMultipleIndexGetContentRequest());
+
+        assertThat(results, hasSize(3));
+        assertThat(results.get(0).getIndex(), is("Database1"));
+        assertThat(results.get(1).getIndex(), is("Database2"));
+        assertThat(results.get(2).getIndex(), is("Database3"));
+    }
+
+    @Test
+    public void getContentWhenOneIndexFails() {
+        mockGetContentByDatabase("Database2");
+
+        final List<IdolSearchResult> results = new IdolDocumentService(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory, SearchExecutors.boundedExecutor(2, "test-%d"))
+                .getDocumentContent(mockMultipleIndexGetContentRequest());
+
+        assertThat(results, hasSize(2));
+        assertThat(results.get(0).getIndex(), is("Database1"));
+        assertThat(results.get(1).getIndex(), is("Database3"));
+    }
+
+    @Test(expected = AciErrorException.class)
+    public void getContentWhenAllIndexesFail() {
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(documentsProcessor))).thenThrow(new AciErrorException("Content is down"));
+
+        idolDocumentService.getDocumentContent(mockMultipleIndexGetContentRequest());
     }
 
     @Test
     public void getStateToken() {
-        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(mockStateTokenResponse());
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(queryResponseProcessor))).thenReturn(mockStateTokenResponse());
 
         final String stateToken = idolDocumentService.getStateToken(mockQueryParams().getQueryRestrictions(), 3, false);
         assertThat(stateToken, is(MOCK_STATE_TOKEN));
@@ -165,13 +214,26 @@ public class IdolDocumentServiceTest {
 
     @Test
     public void getStateTokenAndResultCount() {
-        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(mockStateTokenResponse());
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(queryResponseProcessor))).thenReturn(mockStateTokenResponse());
 
         final StateTokenAndResultCount stateTokenAndResultCount = idolDocumentService.getStateTokenAndResultCount(mockQueryParams().getQueryRestrictions(), 3, false);
         assertThat(stateTokenAndResultCount.getTypedStateToken().getStateToken(), is(MOCK_STATE_TOKEN));
         assertThat(stateTokenAndResultCount.getResultCount(), is((long) MOCK_TOTAL_HITS));
     }
 
+    @Test
+    public void getStateTokenAndResultCountConcurrently() {
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(queryResponseProcessor))).thenReturn(mockStateTokenResponse());
+
+        final StateTokenAndResultCount stateTokenAndResultCount = new IdolDocumentService(configService, parameterHandler, queryResponseParser, contentAciService, qmsAciService, aciResponseProcessorFactory, SearchExecutors.boundedExecutor(2, "test-%d"))
+                .getStateTokenAndResultCount(mockQueryParams().getQueryRestrictions(), 3, false);
+        assertThat(stateTokenAndResultCount.getTypedStateToken().getStateToken(), is(MOCK_STATE_TOKEN));
+        assertThat(stateTokenAndResultCount.getResultCount(), is((long) MOCK_TOTAL_HITS));
+
+        verify(parameterHandler).addSearchRestrictions(any(AciParameters.class), Matchers.<QueryRestrictions<String>>any());
+        verify(contentAciService, times(2)).executeAction(anySetOf(AciParameter.class), any(Processor.class));
+    }
+
     // Used in Find's DocumentService test
     protected SearchRequest<String> mockQueryParams() {
         final QueryRestrictions<String> queryRestrictions = new IdolQueryRestrictions.Builder().setQueryText("*").setDatabases(Arrays.asList("Database1", "Database2")).setMaxDate(DateTime.now()).build();
@@ -189,10 +251,52 @@ public class IdolDocumentServiceTest {
                 .build();
     }
 
-    protected QueryResponseData mockStateTokenResponse() {
-        final QueryResponseData responseData = new QueryResponseData();
-        responseData.setState(MOCK_STATE_TOKEN);
-        responseData.setTotalhits(MOCK_TOTAL_HITS);
-        return responseData;
+    private GetContentRequest<String> mockMultipleIndexGetContentRequest() {
+        return new GetContentRequest<>(new LinkedHashSet<>(Arrays.asList(
+                new GetContentRequestIndex<>("Database1", Collections.singleton("Reference1")),
+                new GetContentRequestIndex<>("Database2", Collections.singleton("Reference2")),
+                new GetContentRequestIndex<>("Database3", Collections.singleton("Reference3"))
+        )), PrintParam.Fields.name());
+    }
+
+    // Content returns one hit from the database in the DatabaseMatch parameter, or an error for the given failing database
+    @SuppressWarnings("unchecked")
+    private void mockGetContentByDatabase(final String failingDatabase) {
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                final AciParameters aciParameters = (AciParameters) invocation.getArguments()[0];
+                final GetContentRequestIndex<String> index = (GetContentRequestIndex<String>) invocation.getArguments()[1];
+                aciParameters.add(QueryParams.DatabaseMatch.name(), index.getIndex());
+                return null;
+            }
+        }).when(parameterHandler).addGetDocumentOutputParameters(any(AciParameters.class), any(GetContentRequestIndex.class), any(PrintParam.class));
+
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), eq(documentsProcessor))).thenAnswer(new Answer<Documents<IdolSearchResult>>() {
+            @Override
+            public Documents<IdolSearchResult> answer(final InvocationOnMock invocation) {
+                final String database = ((AciParameters) invocation.getArguments()[0]).get(QueryParams.DatabaseMatch.name());
+
+                if (database.equals(failingDatabase)) {
+                    throw new AciErrorException("Database not found");
+                }
+
+                final IdolSearchResult result = new IdolSearchResult.Builder().setIndex(database).build();
+                return new Documents<>(Collections.singletonList(result), 1, null, null, null, null);
+            }
+        });
+    }
+
+    private Documents<IdolSearchResult> mockDocuments(final String reference) {
+        final IdolSearchResult result = new IdolSearchResult.Builder().setReference(reference).build();
+        return new Documents<>(Collections.singletonList(result), 1, null, null, null, null);
+    }
+
+    protected IdolQueryResponse mockQueryResponse() {
+        return new IdolQueryResponse(Collections.<IdolSearchResult>emptyList(), 0, Collections.<String>emptyList(), null, null, null, null);
+    }
+
+    protected IdolQueryResponse mockStateTokenResponse() {
+        return new IdolQueryResponse(Collections.<IdolSearchResult>emptyList(), MOCK_TOTAL_HITS, Collections.<String>emptyList(), null, null, null, MOCK_STATE_TOKEN);
     }
 }
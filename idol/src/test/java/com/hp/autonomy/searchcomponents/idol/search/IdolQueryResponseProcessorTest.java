@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.hp.autonomy.searchcomponents.idol.search.fields.DocumentFieldsCollectorFactory;
+import com.hp.autonomy.test.xml.XmlTestUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.xml.stream.XMLStreamException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.core.Is.is;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdolQueryResponseProcessorTest {
+    @Mock
+    private DocumentFieldsCollectorFactory documentFieldsCollectorFactory;
+
+    @Test
+    public void processesResponseElements() throws XMLStreamException {
+        final IdolQueryResponse response = new IdolQueryResponseProcessor(documentFieldsCollectorFactory).process(XmlTestUtils.getResourceAsXMLStreamReader("/query-response-spelling.xml"));
+
+        assertThat(response.getHits(), is(empty()));
+        assertThat(response.getTotalHits(), is(0));
+        assertThat(response.getWarnings(), contains(QueryResponseParserImpl.MISSING_DATABASE_WARNING));
+        assertThat(response.getSpelling(), is("cat, dog"));
+        assertThat(response.getSpellingQuery(), is("cat dog"));
+        assertThat(response.getState(), is("ABC-123"));
+    }
+}
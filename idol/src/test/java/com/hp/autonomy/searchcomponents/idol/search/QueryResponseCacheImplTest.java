@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.util.AciParameters;
+import com.hp.autonomy.types.requests.idol.actions.query.QueryActions;
+import com.hp.autonomy.types.requests.idol.actions.query.params.QueryParams;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueryResponseCacheImplTest {
+    @Mock
+    private IdolDocumentService.QueryResponseExecutor queryExecutor;
+
+    private QueryResponseCacheImpl queryResponseCache;
+
+    @Before
+    public void setUp() {
+        queryResponseCache = new QueryResponseCacheImpl(1, TimeUnit.MINUTES, 10);
+    }
+
+    @Test
+    public void repeatedQueryIsCached() {
+        final IdolQueryResponse responseData = queryResponse();
+        when(queryExecutor.execute(any(AciParameters.class))).thenReturn(responseData);
+
+        assertThat(queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor), is(sameInstance(responseData)));
+        assertThat(queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor), is(sameInstance(responseData)));
+
+        verify(queryExecutor).execute(any(AciParameters.class));
+        assertThat(queryResponseCache.getStats().hitCount(), is(1L));
+        assertThat(queryResponseCache.getStats().missCount(), is(1L));
+    }
+
+    @Test
+    public void responsesAreNotSharedBetweenUsers() {
+        when(queryExecutor.execute(any(AciParameters.class))).thenReturn(queryResponse(), queryResponse());
+
+        final IdolQueryResponse user1Response = queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor);
+        final IdolQueryResponse user2Response = queryResponseCache.getQueryResponse("content", queryParameters("cat", "user2"), queryExecutor);
+
+        assertThat(user1Response, is(not(sameInstance(user2Response))));
+        verify(queryExecutor, times(2)).execute(any(AciParameters.class));
+    }
+
+    @Test
+    public void responsesAreNotSharedBetweenNamespaces() {
+        when(queryExecutor.execute(any(AciParameters.class))).thenReturn(queryResponse(), queryResponse());
+
+        queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor);
+        queryResponseCache.getQueryResponse("qms", queryParameters("cat", "user1"), queryExecutor);
+
+        verify(queryExecutor, times(2)).execute(any(AciParameters.class));
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        final AciErrorException exception = new AciErrorException("Content is down");
+        final IdolQueryResponse responseData = queryResponse();
+        when(queryExecutor.execute(any(AciParameters.class))).thenThrow(exception).thenReturn(responseData);
+
+        try {
+            queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor);
+            fail("Exception should have been thrown");
+        } catch (final AciErrorException e) {
+            assertThat(e, is(sameInstance(exception)));
+        }
+
+        assertThat(queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor), is(sameInstance(responseData)));
+    }
+
+    @Test
+    public void boundedByNumberOfHits() {
+        // each response weighs 7 against a limit of 10, so only one can be held
+        when(queryExecutor.execute(any(AciParameters.class))).thenReturn(queryResponse(6), queryResponse(6), queryResponse(6));
+
+        queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor);
+        queryResponseCache.getQueryResponse("content", queryParameters("dog", "user1"), queryExecutor);
+        queryResponseCache.getQueryResponse("content", queryParameters("cat", "user1"), queryExecutor);
+
+        verify(queryExecutor, times(3)).execute(any(AciParameters.class));
+        assertThat(queryResponseCache.getStats().evictionCount(), is(2L));
+    }
+
+    private IdolQueryResponse queryResponse() {
+        return queryResponse(0);
+    }
+
+    private IdolQueryResponse queryResponse(final int hits) {
+        return new IdolQueryResponse(Collections.<IdolSearchResult>nCopies(hits, null), hits, Collections.<String>emptyList(), null, null, null, null);
+    }
+
+    private AciParameters queryParameters(final String text, final String securityInfo) {
+        final AciParameters aciParameters = new AciParameters(QueryActions.Query.name());
+        aciParameters.add(QueryParams.Text.name(), text);
+        aciParameters.add(QueryParams.SecurityInfo.name(), securityInfo);
+        return aciParameters;
+    }
+}
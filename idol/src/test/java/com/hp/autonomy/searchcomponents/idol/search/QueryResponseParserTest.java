@@ -12,13 +12,16 @@ import com.hp.autonomy.searchcomponents.core.search.AciSearchRequest;
 import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
 import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
 import com.hp.autonomy.searchcomponents.idol.databases.IdolDatabasesRequest;
+import com.hp.autonomy.searchcomponents.idol.metadata.IdolMetadataRegistry;
 import com.hp.autonomy.searchcomponents.idol.search.fields.FieldsParser;
 import com.hp.autonomy.types.idol.Database;
 import com.hp.autonomy.types.idol.Hit;
 import com.hp.autonomy.types.idol.QueryResponseData;
 import com.hp.autonomy.types.requests.Documents;
 import com.hp.autonomy.types.requests.idol.actions.query.params.PrintParam;
+import com.hp.autonomy.types.requests.idol.actions.query.params.QueryParams;
 import com.hp.autonomy.types.requests.idol.actions.query.params.SummaryParam;
+import org.hamcrest.Matchers;
 import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +33,7 @@ import java.util.Arrays;
 import java.util.Collections;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.core.Is.is;
@@ -37,6 +41,8 @@ import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SuppressWarnings("WeakerAccess")
@@ -48,14 +54,20 @@ public class QueryResponseParserTest {
     @Mock
     private DatabasesService<Database, IdolDatabasesRequest, AciErrorException> databasesService;
 
+    @Mock
+    private IdolMetadataRegistry metadataRegistry;
+
     @Mock
     private IdolDocumentService.QueryExecutor queryExecutor;
 
-    private QueryResponseParser queryResponseParser;
+    @Mock
+    private IdolDocumentService.QueryResponseExecutor queryResponseExecutor;
+
+    private StreamingQueryResponseParser queryResponseParser;
 
     @Before
     public void setUp() {
-        queryResponseParser = new QueryResponseParserImpl(documentFieldsService, databasesService);
+        queryResponseParser = new QueryResponseParserImpl(documentFieldsService, databasesService, metadataRegistry);
     }
 
     @Test
@@ -131,6 +143,32 @@ public class QueryResponseParserTest {
         assertNotNull(results.getWarnings());
         assertThat(results.getWarnings().getInvalidDatabases(), hasSize(1));
         assertEquals("Database1", results.getWarnings().getInvalidDatabases().iterator().next());
+
+        // The snapshot is used for this query and the registry refreshes in the background
+        verify(databasesService).getDatabases(argThat(Matchers.<IdolDatabasesRequest>hasProperty("fresh", is(false))));
+        verify(metadataRegistry).requestDatabasesRefresh();
+    }
+
+    @Test
+    public void autoCorrectStreamedResponse() {
+        final IdolQueryResponse response = new IdolQueryResponse(Collections.<IdolSearchResult>emptyList(), 0, Collections.<String>emptyList(), null, "mm, mmh", "spelling", null);
+        final IdolSearchResult correctedResult = new IdolSearchResult.Builder().setTitle("Some Title").build();
+        when(queryResponseExecutor.execute(any(AciParameters.class))).thenReturn(new IdolQueryResponse(Collections.singletonList(correctedResult), 1, Collections.<String>emptyList(), null, null, null, null));
+
+        final QueryRestrictions<String> queryRestrictions = new IdolQueryRestrictions.Builder().setQueryText("spleling").setDatabases(Arrays.asList("Database1", "Database2")).build();
+        final AciSearchRequest<String> searchRequest = new SearchRequest.Builder<String>()
+                .setQueryRestrictions(queryRestrictions)
+                .setAutoCorrect(true)
+                .build();
+        final AciParameters aciParameters = new AciParameters();
+        aciParameters.add(QueryParams.Text.name(), "spleling");
+
+        final Documents<IdolSearchResult> results = queryResponseParser.parseQueryResponse(searchRequest, aciParameters, response, queryResponseExecutor);
+        assertThat(results.getDocuments(), contains(correctedResult));
+        assertThat(results.getAutoCorrection().getOriginalQuery(), is("spleling"));
+        assertThat(results.getAutoCorrection().getCorrectedQuery(), is("spelling"));
+        assertThat(results.getAutoCorrection().getCorrections(), contains("mm", "mmh"));
+        assertThat(aciParameters.get(QueryParams.Text.name()), is("spelling"));
     }
 
     protected QueryResponseData mockQueryResponse() {
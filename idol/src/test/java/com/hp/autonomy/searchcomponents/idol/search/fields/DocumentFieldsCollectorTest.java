@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.search.fields;
+
+import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldType;
+import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
+import com.hp.autonomy.searchcomponents.core.search.PromotionCategory;
+import com.hp.autonomy.searchcomponents.idol.search.IdolSearchResult;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+
+public class DocumentFieldsCollectorTest {
+    private DocumentFieldsCollector documentFieldsCollector;
+
+    @Before
+    public void setUp() {
+        final FieldsInfo fieldsInfo = new FieldsInfo.Builder()
+                .populateResponseMap("author", new FieldInfo<String>("author", Arrays.asList("FIRST_AUTHOR", "SECOND_AUTHOR", "OTHER_AUTHOR"), FieldType.STRING))
+                .populateResponseMap("Custom Date", new FieldInfo<DateTime>("Custom Date", Collections.singletonList("CUSTOM_DATE"), FieldType.DATE))
+                .build();
+
+        documentFieldsCollector = new DocumentFieldsCollector(new FieldMappings(fieldsInfo));
+        documentFieldsCollector.setDocumentHasContent();
+    }
+
+    @Test
+    public void valuesAreOrderedByConfiguredName() {
+        documentFieldsCollector.addFieldValue("OTHER_AUTHOR", "c");
+        documentFieldsCollector.addFieldValue("OTHER_AUTHOR", "d");
+        documentFieldsCollector.addFieldValue("SECOND_AUTHOR", "b");
+        documentFieldsCollector.addFieldValue("FIRST_AUTHOR", "a");
+
+        final FieldInfo<?> author = populate().get("author");
+        assertThat(author.getValues(), contains((Object) "a", "b", "c", "d"));
+        assertThat(author.getNames(), contains("FIRST_AUTHOR", "SECOND_AUTHOR", "OTHER_AUTHOR", "OTHER_AUTHOR"));
+    }
+
+    @Test
+    public void unconfiguredFieldsKeepDocumentOrder() {
+        documentFieldsCollector.addFieldValue("UNKNOWN", "x");
+        documentFieldsCollector.addFieldValue("UNKNOWN", "y");
+        documentFieldsCollector.addFieldValue("UNKNOWN", " ");
+
+        final FieldInfo<?> unknown = populate().get("UNKNOWN");
+        assertThat(unknown.getType(), is(FieldType.STRING));
+        assertThat(unknown.getValues(), contains((Object) "x", "y"));
+    }
+
+    @Test
+    public void unparseableValuesAreDropped() {
+        documentFieldsCollector.addFieldValue("CUSTOM_DATE", "not a date");
+
+        final FieldInfo<?> date = populate().get("Custom Date");
+        assertThat(date.getValues(), is(empty()));
+        assertThat(date.getNames(), is(empty()));
+    }
+
+    @Test
+    public void promotionFields() {
+        documentFieldsCollector.addFieldValue("QMSID", "123");
+        documentFieldsCollector.addFieldValue("INJECTEDPROMOTION", "true");
+
+        final IdolSearchResult.Builder builder = new IdolSearchResult.Builder();
+        documentFieldsCollector.populate(builder, null, null);
+        final IdolSearchResult result = builder.build();
+
+        assertThat(result.getQmsId(), is("123"));
+        assertThat(result.getPromotionCategory(), is(PromotionCategory.CARDINAL_PLACEMENT));
+    }
+
+    private Map<String, FieldInfo<?>> populate() {
+        final IdolSearchResult.Builder builder = new IdolSearchResult.Builder();
+        documentFieldsCollector.populate(builder, null, null);
+        return builder.build().getFieldMap();
+    }
+}
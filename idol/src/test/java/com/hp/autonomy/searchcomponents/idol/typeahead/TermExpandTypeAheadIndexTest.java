@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.idol.typeahead;
+
+import com.autonomy.aci.client.services.AciErrorException;
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.transport.AciParameter;
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.types.idol.TermExpandResponseData;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TermExpandTypeAheadIndexTest {
+    @Mock
+    private AciService contentAciService;
+
+    @Mock
+    private AciResponseJaxbProcessorFactory processorFactory;
+
+    @Mock
+    private ConfigService<IdolSearchCapable> configService;
+
+    private TermExpandTypeAheadIndex index;
+
+    @Before
+    public void setUp() {
+        index = new TermExpandTypeAheadIndex(contentAciService, processorFactory, configService, false, 3600);
+    }
+
+    @Test
+    public void doesNotSweepUnlessEnabled() {
+        index.afterPropertiesSet();
+        index.destroy();
+
+        verifyZeroInteractions(contentAciService);
+    }
+
+    @Test
+    public void sweep() {
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenReturn(mockResponse());
+        index.sweep();
+
+        assertThat(index.getSweptTermCount(), is(2));
+        assertThat(index.getSuggestions("yod"), contains("yoda", "yodel"));
+    }
+
+    @Test
+    public void failedSweep() {
+        when(contentAciService.executeAction(anySetOf(AciParameter.class), any(Processor.class))).thenThrow(new AciErrorException());
+        index.sweep();
+
+        assertThat(index.getSweptTermCount(), is(0));
+        assertThat(index.getSuggestions("yod"), is(nullValue()));
+    }
+
+    private TermExpandResponseData mockResponse() {
+        final TermExpandResponseData response = new TermExpandResponseData();
+        response.getTerm().add(term("YODA", 50L));
+        response.getTerm().add(term("yodel", 20L));
+        return response;
+    }
+
+    private TermExpandResponseData.Term term(final String value, final long documentOccurrences) {
+        final TermExpandResponseData.Term term = new TermExpandResponseData.Term();
+        term.setValue(value);
+        term.setDocumentOccurrences(documentOccurrences);
+        return term;
+    }
+}
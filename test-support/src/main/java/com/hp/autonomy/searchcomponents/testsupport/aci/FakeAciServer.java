@@ -0,0 +1,337 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.aci;
+
+import com.autonomy.aci.client.transport.AciServerDetails;
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Resources;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in ACI server which replays recorded responses over HTTP on the loopback interface. Responses are chosen by
+ * the action parameter of the request; other parameters are ignored. Latency and failures can be injected so that the
+ * behaviour of the search components can be load tested without a real IDOL server.
+ * <p>
+ * Failures are either ACI errors, returned with status 200 as IDOL does, or HTTP 500 responses with no body.
+ */
+public class FakeAciServer implements Closeable {
+    private static final String RECORDED_RESPONSES_PATH = "/com/hp/autonomy/searchcomponents/testsupport/aci/";
+    private static final String XML_CONTENT_TYPE = "application/xml; charset=UTF-8";
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
+    private static final String ACTION_PARAMETER = "action";
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final String UNKNOWN_ACTION_ERROR_ID = "AXEGENERAL1";
+    private static final String INJECTED_ERROR_ID = "AXEGENERAL2";
+
+    private static final String ERROR_RESPONSE_FORMAT = "<?xml version='1.0' encoding='UTF-8' ?>\n" +
+            "<autnresponse xmlns:autn=\"http://schemas.autonomy.com/aci/\">\n" +
+            "    <action>%1$s</action>\n" +
+            "    <response>ERROR</response>\n" +
+            "    <responsedata>\n" +
+            "        <error>\n" +
+            "            <errorid>%2$s</errorid>\n" +
+            "            <rawerrorid>0x0</rawerrorid>\n" +
+            "            <errorstring>%3$s</errorstring>\n" +
+            "            <errordescription>%3$s</errordescription>\n" +
+            "            <errorcode>ERRORFAKEACISERVER</errorcode>\n" +
+            "            <errortime>%4$tH:%4$tM:%4$tS %4$td/%4$tm/%4$tY</errortime>\n" +
+            "        </error>\n" +
+            "    </responsedata>\n" +
+            "</autnresponse>\n";
+
+    private final Map<String, RecordedResponse> responses;
+    private final long minLatencyMillis;
+    private final long maxLatencyMillis;
+    private final double errorRate;
+    private final double failureRate;
+    private final int threads;
+
+    private final ConcurrentMap<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+    private HttpServer httpServer;
+    private ExecutorService executorService;
+
+    private FakeAciServer(final Builder builder) {
+        responses = Collections.unmodifiableMap(new HashMap<>(builder.responses));
+        minLatencyMillis = builder.minLatencyMillis;
+        maxLatencyMillis = Math.max(builder.minLatencyMillis, builder.maxLatencyMillis);
+        errorRate = builder.errorRate;
+        failureRate = builder.failureRate;
+        threads = builder.threads;
+    }
+
+    /**
+     * Starts listening on an ephemeral port of the loopback interface.
+     *
+     * @throws IOException if the server could not be bound
+     */
+    public synchronized void start() throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("The server has already been started");
+        }
+
+        executorService = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("fake-aci-server-%d").setDaemon(true).build());
+
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/", new AciHandler());
+        httpServer.setExecutor(executorService);
+        httpServer.start();
+    }
+
+    /**
+     * Stops the server, abandoning any requests which are still in progress.
+     */
+    @Override
+    public synchronized void close() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executorService.shutdownNow();
+            httpServer = null;
+        }
+    }
+
+    /**
+     * @return the details to use to send actions to the server
+     */
+    public synchronized AciServerDetails getServerDetails() {
+        if (httpServer == null) {
+            throw new IllegalStateException("The server has not been started");
+        }
+
+        final InetSocketAddress address = httpServer.getAddress();
+        return new AciServerDetails(address.getAddress().getHostAddress(), address.getPort());
+    }
+
+    /**
+     * @param action the ACI action, in any case
+     * @return the number of requests received for the action, including those which failed
+     */
+    public long getRequestCount(final String action) {
+        final AtomicLong count = requestCounts.get(action.toUpperCase(Locale.ENGLISH));
+        return count == null ? 0 : count.get();
+    }
+
+    private void recordRequest(final String action) {
+        AtomicLong count = requestCounts.get(action);
+
+        if (count == null) {
+            final AtomicLong newCount = new AtomicLong();
+            count = requestCounts.putIfAbsent(action, newCount);
+
+            if (count == null) {
+                count = newCount;
+            }
+        }
+
+        count.incrementAndGet();
+    }
+
+    private void simulateLatency() {
+        final long latency = minLatencyMillis == maxLatencyMillis
+                ? minLatencyMillis
+                : minLatencyMillis + ThreadLocalRandom.current().nextLong(maxLatencyMillis - minLatencyMillis + 1);
+
+        if (latency > 0) {
+            Uninterruptibles.sleepUninterruptibly(latency, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static boolean shouldInject(final double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static Map<String, String> parseParameters(final HttpExchange exchange) throws IOException {
+        final Map<String, String> parameters = new HashMap<>();
+        addParameters(parameters, exchange.getRequestURI().getRawQuery());
+
+        final String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+
+        if ("POST".equalsIgnoreCase(exchange.getRequestMethod()) && contentType != null && contentType.startsWith(FORM_CONTENT_TYPE)) {
+            addParameters(parameters, new String(ByteStreams.toByteArray(exchange.getRequestBody()), Charsets.UTF_8));
+        }
+
+        return parameters;
+    }
+
+    private static void addParameters(final Map<String, String> parameters, final String encoded) throws UnsupportedEncodingException {
+        if (StringUtils.isNotEmpty(encoded)) {
+            for (final String pair : StringUtils.split(encoded, '&')) {
+                final int separatorIndex = pair.indexOf('=');
+                final String name = separatorIndex < 0 ? pair : pair.substring(0, separatorIndex);
+                final String value = separatorIndex < 0 ? "" : pair.substring(separatorIndex + 1);
+
+                // ACI parameter names are case insensitive; the first occurrence wins
+                final String key = URLDecoder.decode(name, "UTF-8").toLowerCase(Locale.ENGLISH);
+
+                if (!parameters.containsKey(key)) {
+                    parameters.put(key, URLDecoder.decode(value, "UTF-8"));
+                }
+            }
+        }
+    }
+
+    private static void sendResponse(final HttpExchange exchange, final int status, final String contentType, final byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+
+        if (body.length > 0) {
+            try (final OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        }
+    }
+
+    private static byte[] createErrorResponse(final String action, final String errorId, final String message) {
+        return String.format(ERROR_RESPONSE_FORMAT, StringEscapeUtils.escapeXml10(action), errorId, StringEscapeUtils.escapeXml10(message), new Date()).getBytes(Charsets.UTF_8);
+    }
+
+    private class AciHandler implements HttpHandler {
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            try {
+                final Map<String, String> parameters = parseParameters(exchange);
+                final String action = StringUtils.defaultString(parameters.get(ACTION_PARAMETER)).toUpperCase(Locale.ENGLISH);
+                recordRequest(action);
+
+                simulateLatency();
+
+                final RecordedResponse response = responses.get(action);
+
+                if (shouldInject(failureRate)) {
+                    sendResponse(exchange, 500, null, new byte[0]);
+                } else if (response == null) {
+                    sendResponse(exchange, 200, XML_CONTENT_TYPE, createErrorResponse(action, UNKNOWN_ACTION_ERROR_ID, "No recorded response for action " + action));
+                } else if (shouldInject(errorRate)) {
+                    sendResponse(exchange, 200, XML_CONTENT_TYPE, createErrorResponse(action, INJECTED_ERROR_ID, "Injected error"));
+                } else {
+                    sendResponse(exchange, 200, response.getContentType(), response.getBody());
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * A response body and its content type.
+     */
+    @Data
+    public static class RecordedResponse {
+        private final byte[] body;
+        private final String contentType;
+
+        /**
+         * Loads a response from the class path.
+         *
+         * @param resourcePath the absolute class path resource
+         * @param contentType  the content type to send with the response
+         * @return the response
+         */
+        public static RecordedResponse fromResource(final String resourcePath, final String contentType) {
+            try {
+                return new RecordedResponse(Resources.toByteArray(Resources.getResource(FakeAciServer.class, resourcePath)), contentType);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not read recorded response " + resourcePath, e);
+            }
+        }
+
+        /**
+         * @param xml an ACI response
+         * @return the response
+         */
+        public static RecordedResponse xml(final String xml) {
+            return new RecordedResponse(xml.getBytes(Charsets.UTF_8), XML_CONTENT_TYPE);
+        }
+    }
+
+    @NoArgsConstructor
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private static final int DEFAULT_THREADS = 50;
+
+        private final Map<String, RecordedResponse> responses = new HashMap<>();
+
+        private long minLatencyMillis;
+        private long maxLatencyMillis;
+        private double errorRate;
+        private double failureRate;
+        private int threads = DEFAULT_THREADS;
+
+        /**
+         * Adds the bundled recorded responses for the Query, Suggest, GetContent, GetQueryTagValues, GetStatus,
+         * TermExpand and View actions. Responses set separately for the same actions take precedence if they are set
+         * afterwards.
+         */
+        public Builder withRecordedResponses() {
+            final RecordedResponse queryResponse = RecordedResponse.fromResource(RECORDED_RESPONSES_PATH + "query.xml", XML_CONTENT_TYPE);
+            setResponse("Query", queryResponse);
+            setResponse("Suggest", queryResponse);
+            setResponse("GetContent", RecordedResponse.fromResource(RECORDED_RESPONSES_PATH + "getcontent.xml", XML_CONTENT_TYPE));
+            setResponse("GetQueryTagValues", RecordedResponse.fromResource(RECORDED_RESPONSES_PATH + "getquerytagvalues.xml", XML_CONTENT_TYPE));
+            setResponse("GetStatus", RecordedResponse.fromResource(RECORDED_RESPONSES_PATH + "getstatus.xml", XML_CONTENT_TYPE));
+            setResponse("TermExpand", RecordedResponse.fromResource(RECORDED_RESPONSES_PATH + "termexpand.xml", XML_CONTENT_TYPE));
+            setResponse("View", RecordedResponse.fromResource(RECORDED_RESPONSES_PATH + "view.html", HTML_CONTENT_TYPE));
+            return this;
+        }
+
+        /**
+         * @param action   the ACI action, in any case
+         * @param response the response to replay for the action
+         */
+        public Builder setResponse(final String action, final RecordedResponse response) {
+            responses.put(action.toUpperCase(Locale.ENGLISH), response);
+            return this;
+        }
+
+        /**
+         * Sets the latency added to every request, chosen uniformly between the bounds.
+         */
+        public Builder setLatencyMillis(final long minLatencyMillis, final long maxLatencyMillis) {
+            this.minLatencyMillis = minLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+            return this;
+        }
+
+        public FakeAciServer build() {
+            return new FakeAciServer(this);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.load;
+
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.impl.AciServiceImpl;
+import com.autonomy.aci.client.transport.impl.AciHttpClientImpl;
+import com.google.common.io.ByteStreams;
+import com.hp.autonomy.frontend.configuration.ConfigService;
+import com.hp.autonomy.frontend.configuration.authentication.CommunityPrincipal;
+import com.hp.autonomy.idolutils.processors.AciResponseJaxbProcessorFactory;
+import com.hp.autonomy.searchcomponents.core.authentication.AuthenticationInformationRetriever;
+import com.hp.autonomy.searchcomponents.core.parametricvalues.AdaptiveBucketSizeEvaluatorFactoryImpl;
+import com.hp.autonomy.searchcomponents.core.search.QueryRestrictions;
+import com.hp.autonomy.searchcomponents.core.search.SearchRequest;
+import com.hp.autonomy.searchcomponents.core.search.SuggestRequest;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.databases.IdolDatabasesRequest;
+import com.hp.autonomy.searchcomponents.idol.databases.IdolDatabasesService;
+import com.hp.autonomy.searchcomponents.idol.parametricvalues.IdolParametricRequest;
+import com.hp.autonomy.searchcomponents.idol.parametricvalues.IdolParametricValuesService;
+import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandler;
+import com.hp.autonomy.searchcomponents.idol.search.HavenSearchAciParameterHandlerImpl;
+import com.hp.autonomy.searchcomponents.idol.search.IdolDocumentService;
+import com.hp.autonomy.searchcomponents.idol.search.IdolQueryRestrictions;
+import com.hp.autonomy.searchcomponents.idol.search.QueryResponseParserImpl;
+import com.hp.autonomy.searchcomponents.idol.search.fields.FieldsParserImpl;
+import com.hp.autonomy.searchcomponents.idol.search.fields.IdolDocumentFieldsService;
+import com.hp.autonomy.searchcomponents.idol.typeahead.TermExpandTypeAheadService;
+import com.hp.autonomy.searchcomponents.idol.view.IdolViewServerService;
+import com.hp.autonomy.searchcomponents.testsupport.aci.FakeAciServer;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load tests the IDOL services against a {@link FakeAciServer} and prints a report for each service method. The run is
+ * configured with system properties:
+ * <ul>
+ * <li>load.threads: concurrent callers (default 16)</li>
+ * <li>load.warmUpSeconds and load.durationSeconds: length of each phase per scenario (default 5 and 30)</li>
+ * <li>load.minLatencyMillis and load.maxLatencyMillis: latency added by the server (default 5 and 20)</li>
+ * <li>load.errorRate and load.failureRate: fraction of ACI errors and HTTP 500 responses (default 0)</li>
+ * </ul>
+ */
+public class IdolServicesLoadTest {
+    private static final String DATABASE = "Wookiepedia";
+    private static final String REFERENCE = "http://example.com/wiki/article/1000";
+
+    private IdolServicesLoadTest() {}
+
+    public static void main(final String[] args) throws IOException {
+        final int threads = Integer.getInteger("load.threads", 16);
+
+        final LoadDriver loadDriver = new LoadDriver.Builder()
+                .setThreads(threads)
+                .setWarmUpMillis(Long.getLong("load.warmUpSeconds", 5L) * 1000)
+                .setDurationMillis(Long.getLong("load.durationSeconds", 30L) * 1000)
+                .build();
+
+        try (final FakeAciServer server = new FakeAciServer.Builder()
+                .withRecordedResponses()
+                .setLatencyMillis(Long.getLong("load.minLatencyMillis", 5L), Long.getLong("load.maxLatencyMillis", 20L))
+                .setErrorRate(Double.parseDouble(System.getProperty("load.errorRate", "0")))
+                .setFailureRate(Double.parseDouble(System.getProperty("load.failureRate", "0")))
+                .setThreads(threads)
+                .build()) {
+            server.start();
+
+            final List<LoadScenario> scenarios = createScenarios(server, threads);
+
+            for (final LoadReport report : loadDriver.run(scenarios)) {
+                System.out.println(report.toSummary());
+            }
+        }
+    }
+
+    private static List<LoadScenario> createScenarios(final FakeAciServer server, final int threads) {
+        final HttpClient httpClient = HttpClientBuilder.create()
+                .setMaxConnPerRoute(threads)
+                .setMaxConnTotal(threads)
+                .build();
+
+        final AciService aciService = new AciServiceImpl(new AciHttpClientImpl(httpClient), server.getServerDetails());
+        final AciResponseJaxbProcessorFactory processorFactory = new AciResponseJaxbProcessorFactory();
+
+        final IdolSearchCapable config = new LoadTestIdolConfig(server.getServerDetails());
+        final ConfigService<IdolSearchCapable> configService = new ConfigService<IdolSearchCapable>() {
+            @Override
+            public IdolSearchCapable getConfig() {
+                return config;
+            }
+        };
+
+        final AuthenticationInformationRetriever<Authentication, CommunityPrincipal> authenticationInformationRetriever = new AuthenticationInformationRetriever<Authentication, CommunityPrincipal>() {
+            @Override
+            public Authentication getAuthentication() {
+                return null;
+            }
+
+            @Override
+            public CommunityPrincipal getPrincipal() {
+                return null;
+            }
+        };
+
+        final HavenSearchAciParameterHandler parameterHandler = new HavenSearchAciParameterHandlerImpl(configService, new IdolDocumentFieldsService(configService), authenticationInformationRetriever);
+        final IdolDatabasesService databasesService = new IdolDatabasesService(aciService, processorFactory);
+        final IdolDocumentService documentService = new IdolDocumentService(configService, parameterHandler, new QueryResponseParserImpl(new FieldsParserImpl(configService), databasesService), aciService, aciService, processorFactory);
+        // The fields service is only used when no field names are requested
+        final IdolParametricValuesService parametricValuesService = new IdolParametricValuesService(parameterHandler, null, aciService, processorFactory, new AdaptiveBucketSizeEvaluatorFactoryImpl());
+        final TermExpandTypeAheadService typeAheadService = new TermExpandTypeAheadService(aciService, processorFactory);
+        final IdolViewServerService viewServerService = new IdolViewServerService(aciService, aciService, processorFactory, parameterHandler, configService);
+
+        final QueryRestrictions<String> queryRestrictions = new IdolQueryRestrictions.Builder()
+                .setQueryText("cats")
+                .setDatabases(Arrays.asList(DATABASE))
+                .setAnyLanguage(true)
+                .build();
+
+        final SearchRequest<String> searchRequest = new SearchRequest.Builder<String>()
+                .setQueryRestrictions(queryRestrictions)
+                .setMaxResults(30)
+                .build();
+
+        final SuggestRequest<String> suggestRequest = new SuggestRequest.Builder<String>()
+                .setReference(REFERENCE)
+                .setQueryRestrictions(queryRestrictions)
+                .setMaxResults(30)
+                .build();
+
+        final IdolParametricRequest parametricRequest = new IdolParametricRequest.Builder()
+                .setFieldNames(Arrays.asList("CATEGORY", "AUTHOR"))
+                .setQueryRestrictions(queryRestrictions)
+                .build();
+
+        return Arrays.<LoadScenario>asList(
+                new NamedScenario("IdolDocumentService.queryTextIndex") {
+                    @Override
+                    public void execute() {
+                        documentService.queryTextIndex(searchRequest);
+                    }
+                },
+                new NamedScenario("IdolDocumentService.findSimilar") {
+                    @Override
+                    public void execute() {
+                        documentService.findSimilar(suggestRequest);
+                    }
+                },
+                new NamedScenario("IdolParametricValuesService.getAllParametricValues") {
+                    @Override
+                    public void execute() {
+                        parametricValuesService.getAllParametricValues(parametricRequest);
+                    }
+                },
+                new NamedScenario("IdolDatabasesService.getDatabases") {
+                    @Override
+                    public void execute() {
+                        databasesService.getDatabases(new IdolDatabasesRequest());
+                    }
+                },
+                new NamedScenario("TermExpandTypeAheadService.getSuggestions") {
+                    @Override
+                    public void execute() {
+                        typeAheadService.getSuggestions("cat");
+                    }
+                },
+                new NamedScenario("IdolViewServerService.viewDocument") {
+                    @Override
+                    public void execute() throws Exception {
+                        viewServerService.viewDocument(REFERENCE, DATABASE, null, ByteStreams.nullOutputStream());
+                    }
+                }
+        );
+    }
+
+    private abstract static class NamedScenario implements LoadScenario {
+        private final String name;
+
+        private NamedScenario(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.load;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@link LoadScenario}s from a fixed number of threads for a fixed time and reports throughput and latency
+ * percentiles. Each scenario has a warm up period whose operations are not recorded.
+ */
+public class LoadDriver {
+    private final int threads;
+    private final long warmUpMillis;
+    private final long durationMillis;
+
+    private LoadDriver(final Builder builder) {
+        threads = builder.threads;
+        warmUpMillis = builder.warmUpMillis;
+        durationMillis = builder.durationMillis;
+    }
+
+    /**
+     * Runs the scenarios one after the other.
+     *
+     * @param scenarios the scenarios to run
+     * @return a report for each scenario, in the same order
+     */
+    public List<LoadReport> run(final Collection<? extends LoadScenario> scenarios) {
+        final List<LoadReport> reports = new ArrayList<>(scenarios.size());
+
+        for (final LoadScenario scenario : scenarios) {
+            reports.add(run(scenario));
+        }
+
+        return reports;
+    }
+
+    /**
+     * @param scenario the scenario to run
+     * @return the report for the measured period
+     */
+    public LoadReport run(final LoadScenario scenario) {
+        if (warmUpMillis > 0) {
+            runPhase(scenario, warmUpMillis, false);
+        }
+
+        return runPhase(scenario, durationMillis, true);
+    }
+
+    private LoadReport runPhase(final LoadScenario scenario, final long phaseMillis, final boolean record) {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final AtomicLong errors = new AtomicLong();
+        final List<Worker> workers = new ArrayList<>(threads);
+
+        for (int i = 0; i < threads; i++) {
+            final Worker worker = new Worker(scenario, startLatch, errors, record);
+            worker.setName("load-driver-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(phaseMillis);
+
+        for (final Worker worker : workers) {
+            worker.deadline = deadline;
+        }
+
+        startLatch.countDown();
+
+        for (final Worker worker : workers) {
+            Uninterruptibles.joinUninterruptibly(worker);
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        return record ? createReport(scenario.getName(), workers, errors.get(), elapsed) : null;
+    }
+
+    private static LoadReport createReport(final String scenarioName, final Collection<Worker> workers, final long errors, final long elapsedNanos) {
+        int operations = 0;
+
+        for (final Worker worker : workers) {
+            operations += worker.latencyCount;
+        }
+
+        final long[] latencies = new long[operations];
+        int offset = 0;
+
+        for (final Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.latencyCount);
+            offset += worker.latencyCount;
+        }
+
+        Arrays.sort(latencies);
+
+        return new LoadReport(
+                scenarioName,
+                operations,
+                errors,
+                elapsedNanos,
+                percentile(latencies, 50),
+                percentile(latencies, 99),
+                operations == 0 ? 0 : latencies[operations - 1]
+        );
+    }
+
+    /**
+     * Nearest rank percentile of sorted values.
+     */
+    static long percentile(final long[] sortedValues, final int percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+
+        final int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.max(rank, 1) - 1];
+    }
+
+    private static class Worker extends Thread {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final LoadScenario scenario;
+        private final CountDownLatch startLatch;
+        private final AtomicLong errors;
+        private final boolean record;
+
+        private volatile long deadline;
+
+        // Only read once the thread has been joined
+        private long[] latencies = new long[INITIAL_CAPACITY];
+        private int latencyCount;
+
+        private Worker(final LoadScenario scenario, final CountDownLatch startLatch, final AtomicLong errors, final boolean record) {
+            this.scenario = scenario;
+            this.startLatch = startLatch;
+            this.errors = errors;
+            this.record = record;
+        }
+
+        @Override
+        public void run() {
+            Uninterruptibles.awaitUninterruptibly(startLatch);
+
+            long now = System.nanoTime();
+
+            while (now < deadline) {
+                final long start = now;
+
+                try {
+                    scenario.execute();
+                } catch (final Exception ignored) {
+                    if (record) {
+                        errors.incrementAndGet();
+                    }
+                }
+
+                now = System.nanoTime();
+
+                if (record) {
+                    recordLatency(now - start);
+                }
+            }
+        }
+
+        private void recordLatency(final long latency) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+
+            latencies[latencyCount++] = latency;
+        }
+    }
+
+    @NoArgsConstructor
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+        private static final int DEFAULT_THREADS = 16;
+        private static final long DEFAULT_WARM_UP_MILLIS = 5000;
+        private static final long DEFAULT_DURATION_MILLIS = 30000;
+
+        private int threads = DEFAULT_THREADS;
+        private long warmUpMillis = DEFAULT_WARM_UP_MILLIS;
+        private long durationMillis = DEFAULT_DURATION_MILLIS;
+
+        public LoadDriver build() {
+            return new LoadDriver(this);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.load;
+
+import lombok.Data;
+
+/**
+ * The result of running a {@link LoadScenario}. Latencies cover successful and failed operations alike.
+ */
+@Data
+public class LoadReport {
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final String scenarioName;
+    private final long operations;
+    private final long errors;
+    private final long elapsedNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    /**
+     * @return operations completed per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : operations * 1000.0 * NANOS_PER_MILLI / elapsedNanos;
+    }
+
+    /**
+     * @return a single line summary suitable for logging
+     */
+    public String toSummary() {
+        return String.format("%-60s %8d ops %6d errors %10.1f ops/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms",
+                scenarioName, operations, errors, getThroughput(), p50Nanos / NANOS_PER_MILLI, p99Nanos / NANOS_PER_MILLI, maxNanos / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.load;
+
+/**
+ * A single operation which the {@link LoadDriver} executes repeatedly from many threads.
+ */
+public interface LoadScenario {
+    /**
+     * @return the name used in the load report, typically the service and method under test
+     */
+    String getName();
+
+    /**
+     * Performs the operation once. Any exception counts as an error.
+     */
+    void execute() throws Exception;
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.load;
+
+import com.autonomy.aci.client.transport.AciServerDetails;
+import com.hp.autonomy.searchcomponents.core.config.FieldInfo;
+import com.hp.autonomy.searchcomponents.core.config.FieldType;
+import com.hp.autonomy.searchcomponents.core.config.FieldsInfo;
+import com.hp.autonomy.searchcomponents.idol.configuration.IdolSearchCapable;
+import com.hp.autonomy.searchcomponents.idol.configuration.QueryManipulation;
+import com.hp.autonomy.searchcomponents.idol.view.configuration.ViewConfig;
+import org.joda.time.DateTime;
+
+import java.util.Collections;
+
+/**
+ * IDOL configuration pointing Content and View at a single server, with field mappings matching the recorded
+ * responses of the fake ACI server.
+ */
+class LoadTestIdolConfig implements IdolSearchCapable {
+    private static final String REFERENCE_FIELD_NAME = "DREREFERENCE";
+
+    private final AciServerDetails serverDetails;
+
+    private final FieldsInfo fieldsInfo = new FieldsInfo.Builder()
+            .populateResponseMap("author", new FieldInfo<String>("author", Collections.singletonList("AUTHOR"), FieldType.STRING))
+            .populateResponseMap("category", new FieldInfo<String>("category", Collections.singletonList("CATEGORY"), FieldType.STRING))
+            .populateResponseMap("modifiedDate", new FieldInfo<DateTime>("modifiedDate", Collections.singletonList("MODIFIED_DATE"), FieldType.DATE))
+            .populateResponseMap("wordCount", new FieldInfo<Number>("wordCount", Collections.singletonList("WORD_COUNT"), FieldType.NUMBER))
+            .build();
+
+    private final QueryManipulation queryManipulation = new QueryManipulation.Builder()
+            .setEnabled(false)
+            .build();
+
+    private final ViewConfig viewConfig;
+
+    LoadTestIdolConfig(final AciServerDetails serverDetails) {
+        this.serverDetails = serverDetails;
+
+        viewConfig = new ViewConfig.Builder()
+                .setReferenceField(REFERENCE_FIELD_NAME)
+                .setHost(serverDetails.getHost())
+                .setPort(serverDetails.getPort())
+                .build();
+    }
+
+    @Override
+    public FieldsInfo getFieldsInfo() {
+        return fieldsInfo;
+    }
+
+    @Override
+    public AciServerDetails getContentAciServerDetails() {
+        return serverDetails;
+    }
+
+    @Override
+    public QueryManipulation getQueryManipulation() {
+        return queryManipulation;
+    }
+
+    @Override
+    public ViewConfig getViewConfig() {
+        return viewConfig;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.aci;
+
+import com.autonomy.aci.client.services.AciService;
+import com.autonomy.aci.client.services.AciServiceException;
+import com.autonomy.aci.client.services.Processor;
+import com.autonomy.aci.client.services.ProcessorException;
+import com.autonomy.aci.client.services.impl.AciServiceImpl;
+import com.autonomy.aci.client.transport.AciResponseInputStream;
+import com.autonomy.aci.client.transport.impl.AciHttpClientImpl;
+import com.autonomy.aci.client.util.AciParameters;
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class FakeAciServerTest {
+    private static final String RESPONSE = "<?xml version='1.0' encoding='UTF-8' ?><autnresponse><action>GETSTATUS</action><response>SUCCESS</response><responsedata/></autnresponse>";
+
+    private FakeAciServer server;
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void replaysRecordedResponse() throws IOException {
+        final AciService aciService = startServer(new FakeAciServer.Builder().setResponse("GetStatus", FakeAciServer.RecordedResponse.xml(RESPONSE)));
+
+        assertThat(aciService.executeAction(new AciParameters("getstatus"), new StringProcessor()), is(RESPONSE));
+        assertThat(server.getRequestCount("GetStatus"), is(1L));
+    }
+
+    @Test
+    public void replaysBundledResponses() throws IOException {
+        final AciService aciService = startServer(new FakeAciServer.Builder().withRecordedResponses());
+
+        assertThat(aciService.executeAction(new AciParameters("TermExpand"), new StringProcessor()), containsString("<action>TERMEXPAND</action>"));
+        assertThat(aciService.executeAction(new AciParameters("View"), new StringProcessor()), containsString("<html>"));
+    }
+
+    @Test
+    public void unknownActionReturnsAciError() throws IOException {
+        final AciService aciService = startServer(new FakeAciServer.Builder());
+
+        final String response = aciService.executeAction(new AciParameters("Query"), new StringProcessor());
+        assertThat(response, containsString("<response>ERROR</response>"));
+        assertThat(response, containsString("<action>QUERY</action>"));
+    }
+
+    @Test
+    public void injectsAciErrors() throws IOException {
+        final AciService aciService = startServer(new FakeAciServer.Builder()
+                .setResponse("GetStatus", FakeAciServer.RecordedResponse.xml(RESPONSE))
+                .setErrorRate(1));
+
+        assertThat(aciService.executeAction(new AciParameters("GetStatus"), new StringProcessor()), containsString("<errorstring>Injected error</errorstring>"));
+    }
+
+    @Test(expected = AciServiceException.class)
+    public void injectsHttpFailures() throws IOException {
+        final AciService aciService = startServer(new FakeAciServer.Builder()
+                .setResponse("GetStatus", FakeAciServer.RecordedResponse.xml(RESPONSE))
+                .setFailureRate(1));
+
+        aciService.executeAction(new AciParameters("GetStatus"), new StringProcessor());
+    }
+
+    private AciService startServer(final FakeAciServer.Builder builder) throws IOException {
+        server = builder.build();
+        server.start();
+        return new AciServiceImpl(new AciHttpClientImpl(HttpClientBuilder.create().build()), server.getServerDetails());
+    }
+
+    private static class StringProcessor implements Processor<String> {
+        private static final long serialVersionUID = 7925611237044937447L;
+
+        @Override
+        public String process(final AciResponseInputStream aciResponse) {
+            try {
+                return new String(ByteStreams.toByteArray(aciResponse), Charsets.UTF_8);
+            } catch (final IOException e) {
+                throw new ProcessorException(e);
+            }
+        }
+    }
+}
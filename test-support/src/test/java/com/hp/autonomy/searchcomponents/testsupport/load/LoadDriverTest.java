@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * Licensed under the MIT License (the "License"); you may not use this file except in compliance with the License.
+ */
+
+package com.hp.autonomy.searchcomponents.testsupport.load;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class LoadDriverTest {
+    @Test
+    public void percentileUsesNearestRank() {
+        final long[] values = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        assertThat(LoadDriver.percentile(values, 50), is(5L));
+        assertThat(LoadDriver.percentile(values, 99), is(10L));
+        assertThat(LoadDriver.percentile(new long[]{42}, 50), is(42L));
+        assertThat(LoadDriver.percentile(new long[0], 99), is(0L));
+    }
+
+    @Test
+    public void reportsOperationsAndErrors() {
+        final AtomicLong executions = new AtomicLong();
+
+        final LoadReport report = new LoadDriver.Builder()
+                .setThreads(4)
+                .setWarmUpMillis(0)
+                .setDurationMillis(200)
+                .build()
+                .run(new LoadScenario() {
+                    @Override
+                    public String getName() {
+                        return "failing";
+                    }
+
+                    @Override
+                    public void execute() {
+                        if (executions.incrementAndGet() % 2 == 0) {
+                            throw new IllegalStateException("Even executions fail");
+                        }
+                    }
+                });
+
+        assertThat(report.getScenarioName(), is("failing"));
+        assertThat(report.getOperations(), is(executions.get()));
+        assertThat(report.getOperations(), is(greaterThan(0L)));
+        assertThat(report.getErrors(), is(report.getOperations() / 2));
+        assertThat(report.getP50Nanos(), is(lessThanOrEqualTo(report.getP99Nanos())));
+        assertThat(report.getP99Nanos(), is(lessThanOrEqualTo(report.getMaxNanos())));
+    }
+}